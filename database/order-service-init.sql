@@ -6,9 +6,21 @@
 -- SCHEMA CREATION
 -- ============================================================================
 
+-- Orders, order items and payments are range-partitioned by month on the
+-- order's creation time. Children carry order_created_at so an order and
+-- everything that belongs to it live in partitions of the same month, which
+-- can be archived and dropped together. Primary keys and unique constraints
+-- must include the partition key, so the orders primary key only makes
+-- (id, created_at) unique; order_ids below keeps order IDs unique on their
+-- own. Order and payment IDs are assigned by the service before insert
+-- (time-ordered Snowflake-style IDs, see id_node_leases); order item IDs
+-- come from a sequence.
+-- Databases with the earlier unpartitioned tables are converted by
+-- order-service-partition-migration.sql, which runs this script.
+
 -- Orders Table
 CREATE TABLE IF NOT EXISTS orders (
-    id SERIAL PRIMARY KEY,
+    id BIGINT NOT NULL,
     user_uid VARCHAR(255) NOT NULL,
     total_amount DECIMAL(10,2) NOT NULL,
     status VARCHAR(50) DEFAULT 'PENDING',
@@ -18,42 +30,109 @@ CREATE TABLE IF NOT EXISTS orders (
     discount_amount DECIMAL(10,2) DEFAULT 0,
     payment_status VARCHAR(20) DEFAULT 'pending',
     payment_method VARCHAR(50),
+    shipping_address VARCHAR(255),
     shipping_method VARCHAR(50),
     tracking_number VARCHAR(100),
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    -- Transaction that last wrote the row; orders the change feed
+    change_xid XID8 NOT NULL DEFAULT pg_current_xact_id(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
 
 -- Orders Indexes
-CREATE INDEX IF NOT EXISTS idx_orders_user_uid ON orders(user_uid);
-CREATE INDEX IF NOT EXISTS idx_orders_status ON orders(status);
+CREATE INDEX IF NOT EXISTS idx_orders_id ON orders(id);
 CREATE INDEX IF NOT EXISTS idx_orders_payment_status ON orders(payment_status);
-CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders(created_at);
+-- Admin search is ordered by (created_at, id) DESC; each filter column leads
+-- an index ending in that order so filter and keyset use one index scan
+CREATE INDEX IF NOT EXISTS idx_orders_user_uid_created ON orders(user_uid, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_orders_total_amount ON orders(total_amount);
+-- Change feed keyset: ORDER BY change_xid, id
+CREATE INDEX IF NOT EXISTS idx_orders_change_xid_id ON orders(change_xid, id);
+-- Keyset scan of unpaid orders by the expiry job
+CREATE INDEX IF NOT EXISTS idx_orders_pending ON orders(id) WHERE status = 'PENDING';
+
+-- Stamps every update with the writing transaction, so the change feed can
+-- hold back rows until all older transactions have finished
+CREATE OR REPLACE FUNCTION stamp_order_change_xid() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_orders_change_xid
+    BEFORE UPDATE ON orders
+    FOR EACH ROW EXECUTE FUNCTION stamp_order_change_xid();
+
+-- Wakes change feed long-polls on every instance. Notifications are sent on
+-- commit and collapsed per transaction.
+CREATE OR REPLACE FUNCTION notify_order_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('order_changes', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_orders_notify_change
+    AFTER INSERT OR UPDATE ON orders
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_order_change();
+
+-- Every order ID ever inserted, unique across all partitions, with the
+-- created_at that locates its partition. Filled by trigger, so no write path
+-- can skip it; kept when a month is archived, so an order ID is never reused
+CREATE TABLE IF NOT EXISTS order_ids (
+    id BIGINT PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_order_id() RETURNS TRIGGER AS $$
+BEGIN
+    -- A duplicate order ID fails the insert with a unique violation
+    INSERT INTO order_ids (id, created_at) VALUES (NEW.id, NEW.created_at);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_orders_record_id
+    AFTER INSERT ON orders
+    FOR EACH ROW EXECUTE FUNCTION record_order_id();
 
 -- Order Items Table
 CREATE TABLE IF NOT EXISTS order_items (
-    id SERIAL PRIMARY KEY,
-    order_id INTEGER REFERENCES orders(id) ON DELETE CASCADE,
+    id SERIAL,
+    order_id BIGINT NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
     product_id INTEGER NOT NULL,
     product_name VARCHAR(255),
     quantity INTEGER NOT NULL,
+    price DECIMAL(10,2),
     unit_price DECIMAL(10,2),
     subtotal DECIMAL(10,2),
     tax_amount DECIMAL(10,2),
     discount_amount DECIMAL(10,2),
     final_price DECIMAL(10,2),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, order_created_at),
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
 
 -- Order Items Indexes
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
-CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items(product_id);
+-- Admin search by product: yields the order keys newest first
+CREATE INDEX IF NOT EXISTS idx_order_items_product_order
+    ON order_items(product_id, order_created_at, order_id);
 
 -- Payments Table
 CREATE TABLE IF NOT EXISTS payments (
-    id SERIAL PRIMARY KEY,
-    order_id INTEGER REFERENCES orders(id) ON DELETE CASCADE,
+    id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
+    stripe_payment_intent_id VARCHAR(255),
+    client_secret VARCHAR(255),
     amount DECIMAL(10,2),
     status VARCHAR(50) DEFAULT 'PENDING',
     payment_method VARCHAR(50),
@@ -62,13 +141,193 @@ CREATE TABLE IF NOT EXISTS payments (
     gateway VARCHAR(50),
     gateway_response JSONB,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, order_created_at),
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders(id, created_at) ON DELETE CASCADE
+) PARTITION BY RANGE (order_created_at);
 
 -- Payments Indexes
-CREATE INDEX IF NOT EXISTS idx_payments_order_id ON payments(order_id);
+-- One payment per order (an order's created_at never changes); its open
+-- intent is reused on every pay-page load
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payments_order_id ON payments(order_id, order_created_at);
+-- Serves webhook lookups by intent ID. Must include the partition key, so
+-- it cannot keep intent IDs unique; payment_intents below does that
+CREATE UNIQUE INDEX IF NOT EXISTS idx_payments_stripe_intent
+    ON payments(stripe_payment_intent_id, order_created_at);
+CREATE INDEX IF NOT EXISTS idx_payments_id ON payments(id);
 CREATE INDEX IF NOT EXISTS idx_payments_status ON payments(status);
 CREATE INDEX IF NOT EXISTS idx_payments_transaction_id ON payments(transaction_id);
+-- Keyset scan of stale PROCESSING payments by the reconciliation job
+CREATE INDEX IF NOT EXISTS idx_payments_processing ON payments(id) WHERE status = 'PROCESSING';
+
+-- Every Stripe intent ID ever given to a payment, unique across all
+-- partitions. Filled by trigger, so no write path can skip it; kept when a
+-- month is archived, so an intent ID is never reused
+CREATE TABLE IF NOT EXISTS payment_intents (
+    stripe_payment_intent_id VARCHAR(255) PRIMARY KEY,
+    payment_id BIGINT NOT NULL,
+    order_id BIGINT NOT NULL,
+    order_created_at TIMESTAMP NOT NULL
+);
+
+CREATE OR REPLACE FUNCTION record_payment_intent() RETURNS TRIGGER AS $$
+BEGIN
+    IF NEW.stripe_payment_intent_id IS NOT NULL
+            AND (TG_OP = 'INSERT' OR OLD.stripe_payment_intent_id IS DISTINCT FROM NEW.stripe_payment_intent_id) THEN
+        -- A duplicate intent ID fails the write with a unique violation
+        INSERT INTO payment_intents (stripe_payment_intent_id, payment_id, order_id, order_created_at)
+        VALUES (NEW.stripe_payment_intent_id, NEW.id, NEW.order_id, NEW.order_created_at);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_payments_record_intent
+    AFTER INSERT OR UPDATE OF stripe_payment_intent_id ON payments
+    FOR EACH ROW EXECUTE FUNCTION record_payment_intent();
+
+-- Order domain events, written in the transaction that changes the order
+-- and delivered by the outbox relay (transactional outbox)
+CREATE TABLE IF NOT EXISTS order_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    processed_at TIMESTAMP
+);
+
+-- Pending events in delivery order, and the per-order head-of-line check
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending ON order_outbox(id) WHERE processed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_order_outbox_pending_order
+    ON order_outbox(aggregate_id, id) WHERE processed_at IS NULL;
+-- Pruning of delivered events
+CREATE INDEX IF NOT EXISTS idx_order_outbox_processed ON order_outbox(processed_at) WHERE processed_at IS NOT NULL;
+
+-- Order read model: each order with its items and payment as one document
+-- in the shape of the order endpoints' response. Rewritten in the same
+-- transaction as every change to the order, so reads are a single index
+-- lookup. Not partitioned; the archive job deletes a month's rows when it
+-- drops the month's partitions.
+CREATE TABLE IF NOT EXISTS order_view (
+    id BIGINT PRIMARY KEY,
+    user_uid VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    document JSONB NOT NULL,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Archive cleanup by month
+CREATE INDEX IF NOT EXISTS idx_order_view_created_at ON order_view(created_at);
+
+-- Append-only log of order status changes, written in the transaction of
+-- every change. from_status is NULL for the status an order is created in.
+CREATE TABLE IF NOT EXISTS order_status_history (
+    id BIGSERIAL PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    from_status VARCHAR(50),
+    to_status VARCHAR(50) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- An order's previous change, looked up by the rollup
+CREATE INDEX IF NOT EXISTS idx_order_status_history_order ON order_status_history(order_id, id);
+
+-- Time spent in from_status before moving to to_status, per hour of the
+-- move, as counts per duration bin (bin b ends at 1.1^b seconds). Written
+-- by the stage rollup job and merged across hours and shards by adding.
+CREATE TABLE IF NOT EXISTS order_stage_rollups (
+    bucket_start TIMESTAMP NOT NULL,
+    from_status VARCHAR(50) NOT NULL,
+    to_status VARCHAR(50) NOT NULL,
+    bin SMALLINT NOT NULL,
+    count BIGINT NOT NULL,
+    PRIMARY KEY (bucket_start, from_status, to_status, bin)
+);
+
+-- How far the stage rollup job has read order_status_history
+CREATE TABLE IF NOT EXISTS order_stage_rollup_cursor (
+    id BOOLEAN PRIMARY KEY DEFAULT true CHECK (id),
+    last_history_id BIGINT NOT NULL DEFAULT 0,
+    rolled_up_at TIMESTAMP
+);
+
+INSERT INTO order_stage_rollup_cursor (id) VALUES (true) ON CONFLICT DO NOTHING;
+
+-- Archived months, written by the order archive job
+CREATE TABLE IF NOT EXISTS order_archives (
+    partition_month DATE PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    file_name VARCHAR(255),
+    min_order_id BIGINT,
+    max_order_id BIGINT,
+    order_count INTEGER,
+    claimed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    archived_at TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_archives_id_range ON order_archives(min_order_id, max_order_id);
+
+-- Shipment manifest imports: progress checkpoint per manifest file, written
+-- in the same transaction as the rows it covers
+CREATE TABLE IF NOT EXISTS manifest_imports (
+    file_name VARCHAR(255) PRIMARY KEY,
+    status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+    rows_done BIGINT NOT NULL DEFAULT 0,
+    rows_updated BIGINT NOT NULL DEFAULT 0,
+    rows_failed BIGINT NOT NULL DEFAULT 0,
+    error_bytes BIGINT NOT NULL DEFAULT 0,
+    last_error TEXT,
+    claimed_at TIMESTAMP,
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+-- Node IDs of the order and payment ID generator; each running instance
+-- leases one. issued_until (epoch ms) is how far its holder may have issued
+-- IDs, so the next holder starts after it.
+CREATE TABLE IF NOT EXISTS id_node_leases (
+    node_id SMALLINT PRIMARY KEY,
+    instance VARCHAR(255) NOT NULL,
+    renewed_at TIMESTAMP NOT NULL,
+    issued_until BIGINT NOT NULL DEFAULT 0
+);
+
+-- ============================================================================
+-- PARTITION MANAGEMENT
+-- ============================================================================
+
+-- Creates the month's partitions of orders, order_items and payments if they
+-- do not exist yet. Called here for the first months and by the service's
+-- partition maintenance job afterwards.
+CREATE OR REPLACE FUNCTION create_order_partitions(p_month DATE) RETURNS VOID AS $$
+DECLARE
+    start_date DATE := date_trunc('month', p_month)::date;
+    end_date DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    suffix TEXT := to_char(date_trunc('month', p_month), '"y"YYYY"m"MM');
+    parent TEXT;
+BEGIN
+    -- Serializes concurrent callers; IF NOT EXISTS alone is not race-free
+    PERFORM pg_advisory_xact_lock(hashtext('create_order_partitions'));
+    FOREACH parent IN ARRAY ARRAY['orders', 'order_items', 'payments'] LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       parent || '_' || suffix, parent, start_date, end_date);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Catch-all partitions, so a missed month never rejects an order. They
+-- should stay empty: a month cannot get its own partition while the
+-- default holds rows for it.
+CREATE TABLE IF NOT EXISTS orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE IF NOT EXISTS order_items_default PARTITION OF order_items DEFAULT;
+CREATE TABLE IF NOT EXISTS payments_default PARTITION OF payments DEFAULT;
+
+SELECT create_order_partitions((CURRENT_DATE + make_interval(months => m))::date)
+FROM generate_series(0, 3) AS m;
 
 -- ============================================================================
 -- COMPLETION MESSAGE
@@ -77,6 +336,6 @@ CREATE INDEX IF NOT EXISTS idx_payments_transaction_id ON payments(transaction_i
 DO $$
 BEGIN
     RAISE NOTICE 'Order Service database initialization completed successfully';
-    RAISE NOTICE 'Created tables: orders, order_items, payments';
+    RAISE NOTICE 'Created tables: orders, order_items, payments (partitioned by month), order_outbox, order_archives';
     RAISE NOTICE 'No sample data inserted - maintaining clean state';
 END $$;
@@ -0,0 +1,174 @@
+-- Order Service: convert unpartitioned tables to the partitioned schema
+-- Database: order_database
+-- User: order_user
+--
+-- order-service-init.sql creates orders, order_items and payments with
+-- CREATE TABLE IF NOT EXISTS, so on a database that still has the earlier
+-- unpartitioned tables it keeps them and fails at the first PARTITION OF.
+-- This script converts such a database in one transaction:
+--
+--   1. renames the old tables, their indexes and sequences to *_heap
+--   2. runs order-service-init.sql, which creates the partitioned tables
+--   3. creates a partition for every month that has orders
+--   4. copies the rows, giving items and payments their order's created_at
+--   5. checks the row counts and advances the order item ID sequence
+--
+-- Stop every order-service instance first, then run from any directory:
+--
+--   psql -v ON_ERROR_STOP=1 -d order_database -f database/order-service-partition-migration.sql
+--
+-- Any error rolls the whole conversion back. The *_heap tables are kept;
+-- drop them once the service runs on the new tables. Afterwards rebuild the
+-- read model with POST /api/v1/admin/orders/view/rebuild.
+
+\set ON_ERROR_STOP on
+
+BEGIN;
+
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'public.orders'::regclass) = 'p' THEN
+        RAISE EXCEPTION 'orders is already partitioned; nothing to migrate';
+    END IF;
+END $$;
+
+-- ============================================================================
+-- 1. MOVE THE OLD TABLES ASIDE
+-- ============================================================================
+
+-- Index, constraint and sequence names are schema-wide, so the old ones are
+-- renamed too; otherwise the init script's CREATE ... IF NOT EXISTS would
+-- skip or collide with them
+DO $$
+DECLARE
+    old_table TEXT;
+    rel RECORD;
+BEGIN
+    FOREACH old_table IN ARRAY ARRAY['orders', 'order_items', 'payments'] LOOP
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', old_table, old_table || '_heap');
+
+        FOR rel IN
+            SELECT c.relname
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            WHERE i.indrelid = format('public.%I', old_table || '_heap')::regclass
+        LOOP
+            EXECUTE format('ALTER INDEX %I RENAME TO %I', rel.relname, rel.relname || '_heap');
+        END LOOP;
+
+        FOR rel IN
+            SELECT s.relname
+            FROM pg_depend d
+            JOIN pg_class s ON s.oid = d.objid AND s.relkind = 'S'
+            WHERE d.refobjid = format('public.%I', old_table || '_heap')::regclass
+              AND d.deptype IN ('a', 'i')
+        LOOP
+            EXECUTE format('ALTER SEQUENCE %I RENAME TO %I', rel.relname, rel.relname || '_heap');
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- ============================================================================
+-- 2. CREATE THE PARTITIONED SCHEMA
+-- ============================================================================
+
+\ir order-service-init.sql
+
+-- ============================================================================
+-- 3. PARTITIONS FOR THE EXISTING MONTHS
+-- ============================================================================
+
+-- Must exist before the copy: a month cannot get its own partition once
+-- the default partition holds rows for it
+SELECT create_order_partitions(month)
+FROM (
+    SELECT DISTINCT date_trunc('month', COALESCE(created_at, updated_at, CURRENT_TIMESTAMP))::date AS month
+    FROM orders_heap
+) AS months;
+
+-- ============================================================================
+-- 4. COPY THE ROWS
+-- ============================================================================
+
+-- Columns the old and the new table have in common. Older databases were
+-- also changed by Hibernate's ddl-auto, so the old columns vary; columns the
+-- new table computes itself are left out.
+CREATE FUNCTION pg_temp.shared_columns(old_table TEXT, new_table TEXT, skipped TEXT[]) RETURNS TEXT[] AS $$
+    SELECT array_agg(n.column_name::TEXT ORDER BY n.ordinal_position)
+    FROM information_schema.columns n
+    JOIN information_schema.columns o
+        ON o.table_schema = n.table_schema AND o.table_name::TEXT = old_table AND o.column_name = n.column_name
+    WHERE n.table_schema = 'public' AND n.table_name::TEXT = new_table
+      AND NOT n.column_name::TEXT = ANY (skipped);
+$$ LANGUAGE sql;
+
+DO $$
+DECLARE
+    cols TEXT[];
+BEGIN
+    -- Orders: created_at is the partition key and may not be null
+    cols := pg_temp.shared_columns('orders_heap', 'orders', ARRAY['created_at', 'change_xid']);
+    EXECUTE format(
+        'INSERT INTO orders (%s, created_at) '
+        'SELECT %s, COALESCE(o.created_at, o.updated_at, CURRENT_TIMESTAMP) FROM orders_heap o',
+        (SELECT string_agg(quote_ident(c), ', ') FROM unnest(cols) AS c),
+        (SELECT string_agg('o.' || quote_ident(c), ', ') FROM unnest(cols) AS c));
+
+    -- Items and payments take order_created_at from the copied order, so
+    -- they land in their order's month. Rows without an order are skipped.
+    cols := pg_temp.shared_columns('order_items_heap', 'order_items', ARRAY['order_created_at']);
+    EXECUTE format(
+        'INSERT INTO order_items (%s, order_created_at) '
+        'SELECT %s, o.created_at FROM order_items_heap i JOIN orders o ON o.id = i.order_id',
+        (SELECT string_agg(quote_ident(c), ', ') FROM unnest(cols) AS c),
+        (SELECT string_agg('i.' || quote_ident(c), ', ') FROM unnest(cols) AS c));
+
+    -- Intent IDs recorded by an earlier, failed run of the init script are
+    -- recorded again by the payments trigger
+    DELETE FROM payment_intents pi
+    USING payments_heap p
+    WHERE pi.stripe_payment_intent_id = p.stripe_payment_intent_id;
+
+    cols := pg_temp.shared_columns('payments_heap', 'payments', ARRAY['order_created_at']);
+    EXECUTE format(
+        'INSERT INTO payments (%s, order_created_at) '
+        'SELECT %s, o.created_at FROM payments_heap p JOIN orders o ON o.id = p.order_id',
+        (SELECT string_agg(quote_ident(c), ', ') FROM unnest(cols) AS c),
+        (SELECT string_agg('p.' || quote_ident(c), ', ') FROM unnest(cols) AS c));
+END $$;
+
+-- ============================================================================
+-- 5. CHECK AND FINISH
+-- ============================================================================
+
+DO $$
+DECLARE
+    old_orders BIGINT := (SELECT count(*) FROM orders_heap);
+    new_orders BIGINT := (SELECT count(*) FROM orders);
+    orphan_items BIGINT := (SELECT count(*) FROM order_items_heap i
+                            WHERE NOT EXISTS (SELECT 1 FROM orders_heap o WHERE o.id = i.order_id));
+    orphan_payments BIGINT := (SELECT count(*) FROM payments_heap p
+                               WHERE NOT EXISTS (SELECT 1 FROM orders_heap o WHERE o.id = p.order_id));
+BEGIN
+    IF new_orders <> old_orders THEN
+        RAISE EXCEPTION 'copied % of % orders', new_orders, old_orders;
+    END IF;
+    IF (SELECT count(*) FROM order_items) <> (SELECT count(*) FROM order_items_heap) - orphan_items THEN
+        RAISE EXCEPTION 'order item count differs after the copy';
+    END IF;
+    IF (SELECT count(*) FROM payments) <> (SELECT count(*) FROM payments_heap) - orphan_payments THEN
+        RAISE EXCEPTION 'payment count differs after the copy';
+    END IF;
+    IF EXISTS (SELECT 1 FROM orders_default) THEN
+        RAISE EXCEPTION 'orders landed in orders_default';
+    END IF;
+
+    RAISE NOTICE 'Copied % orders; skipped % items and % payments without an order',
+        new_orders, orphan_items, orphan_payments;
+END $$;
+
+-- New items must not reuse the copied item IDs
+SELECT setval(pg_get_serial_sequence('order_items', 'id'), COALESCE(max(id), 0) + 1, false)
+FROM order_items;
+
+COMMIT;
@@ -0,0 +1,94 @@
+#!/bin/bash
+
+# Order Service Connection Hold Test: open-session-in-view on vs. off
+# Reads one order under load and reports how long each request held a
+# pooled JDBC connection and how long requests waited for one. With
+# open-session-in-view the connection is held through mapping and JSON
+# serialization; without it only for the read use case's read-only transaction.
+#
+# Usage: ORDER_ID=1042 USER_UID=user-1 ./connection-hold-test.sh
+# ORDER_ID must be an order of USER_UID. Needs python3, hey
+# (https://github.com/rakyll/hey) and curl. The database settings are taken
+# from the environment, as for the service.
+
+CONCURRENCY=${LOAD_CONCURRENCY:-100}
+DURATION=${LOAD_DURATION:-30s}
+PORT=${LOAD_TEST_PORT:-18080}
+POOL_SIZE=${LOAD_POOL_SIZE:-10}
+JAR="target/order-service-1.0.0.jar"
+BASE_URL="http://localhost:$PORT"
+ORDER_URL="$BASE_URL/api/v1/orders/$ORDER_ID"
+
+# Colors for output
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+if [ -z "$ORDER_ID" ] || [ -z "$USER_UID" ]; then
+    echo -e "${RED}✗ set ORDER_ID and USER_UID to an existing order and its owner${NC}"
+    exit 1
+fi
+for tool in java python3 hey curl; do
+    if ! command -v "$tool" > /dev/null; then
+        echo -e "${RED}✗ $tool not found${NC}"
+        exit 1
+    fi
+done
+if [ ! -f "$JAR" ]; then
+    echo -e "${RED}✗ $JAR not found, run mvn package${NC}"
+    exit 1
+fi
+
+# Prints "<mean ms> <max ms>" of a Hikari timer from the metrics endpoint
+timer() {
+    curl -s "$BASE_URL/actuator/metrics/$1" | python3 -c '
+import json, sys
+m = {s["statistic"]: s["value"] for s in json.load(sys.stdin)["measurements"]}
+count = m.get("COUNT", 0)
+mean = m.get("TOTAL_TIME", 0) / count * 1000 if count else 0
+print("%.2f %.2f" % (mean, m.get("MAX", 0) * 1000))'
+}
+
+# Starts the service, checks that the order can be read, runs the load and
+# prints throughput and the connection usage and acquire times
+run() {
+    local name=$1 osiv=$2 pid status
+    echo -e "\n${BLUE}>>> open-in-view=$osiv ($name)${NC}"
+    java -jar "$JAR" --server.port="$PORT" \
+        --spring.jpa.open-in-view="$osiv" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --order.concurrency-limit.enabled=false \
+        > /dev/null 2>&1 &
+    pid=$!
+    for i in $(seq 1 240); do
+        if curl -s "$BASE_URL/actuator/health" | grep -q '"status":"UP"'; then
+            break
+        fi
+        sleep 0.5
+    done
+    status=$(curl -s -o /dev/null -w "%{http_code}" -H "X-User-UID: $USER_UID" "$ORDER_URL")
+    if [ "$status" != "200" ]; then
+        echo -e "${RED}✗ reading order $ORDER_ID answered $status${NC}"
+        kill "$pid" 2> /dev/null
+        wait "$pid" 2> /dev/null
+        return 1
+    fi
+    hey -z "$DURATION" -c "$CONCURRENCY" -H "X-User-UID: $USER_UID" "$ORDER_URL" \
+        | grep -E "Requests/sec|99% in|\[[0-9]+\]"
+    read -r usage_mean usage_max <<< "$(timer hikaricp.connections.usage)"
+    read -r acquire_mean acquire_max <<< "$(timer hikaricp.connections.acquire)"
+    echo "  connection held:   mean ${usage_mean} ms, max ${usage_max} ms"
+    echo "  connection wait:   mean ${acquire_mean} ms, max ${acquire_max} ms"
+    kill "$pid" 2> /dev/null
+    wait "$pid" 2> /dev/null
+}
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}  Order Service Connection Hold Test${NC}"
+echo -e "${BLUE}  ${CONCURRENCY} clients, ${DURATION}, pool of ${POOL_SIZE}${NC}"
+echo -e "${BLUE}========================================${NC}"
+
+run "before" true || exit 1
+run "now" false || exit 1
+echo -e "\n${GREEN}✓ done${NC}"
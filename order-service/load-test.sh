@@ -0,0 +1,154 @@
+#!/bin/bash
+
+# Order Service Load Test: platform vs. virtual threads
+# Creates orders under load while the user and product services answer
+# after a fixed delay. Each order makes a user lookup and a product
+# validation call, both blocking HTTP, and writes the order, so with
+# platform threads throughput is capped by Tomcat's 200 request threads;
+# with virtual threads it is not. Only 201 responses count: the run fails
+# if any request got another status or no response.
+#
+# Usage: ./load-test.sh
+# Needs Java 21 (virtual threads), python3 (downstream stub) and hey
+# (https://github.com/rakyll/hey). The database settings are taken from the
+# environment, as for the service. The orders are written to that
+# database, so point it at a disposable one.
+
+DELAY_MS=${DOWNSTREAM_DELAY_MS:-200}
+CONCURRENCY=${LOAD_CONCURRENCY:-1000}
+DURATION=${LOAD_DURATION:-30s}
+PORT=${LOAD_TEST_PORT:-18080}
+STUB_PORT=${LOAD_TEST_STUB_PORT:-18090}
+USER_UID=${LOAD_USER_UID:-load-test-user}
+JAR="target/order-service-1.0.0.jar"
+HEALTH_URL="http://localhost:$PORT/api/v1/orders/health"
+ORDERS_URL="http://localhost:$PORT/api/v1/orders"
+ORDER_BODY='{"userUid":"'"$USER_UID"'","shippingAddress":"1 Load Test Street","items":[{"productId":1,"productName":"Load test product","quantity":1,"unitPrice":9.99}]}'
+
+# Colors for output
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+for tool in java python3 hey curl; do
+    if ! command -v "$tool" > /dev/null; then
+        echo -e "${RED}✗ $tool not found${NC}"
+        exit 1
+    fi
+done
+if [ ! -f "$JAR" ]; then
+    echo -e "${RED}✗ $JAR not found, run mvn -Pjava21 package${NC}"
+    exit 1
+fi
+
+# Downstream stub for the user and product services: answers after the
+# delay that every user exists and every cart is valid
+python3 - "$STUB_PORT" "$DELAY_MS" <<'EOF' &
+import re, sys, time
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+delay = int(sys.argv[2]) / 1000.0
+
+class Handler(BaseHTTPRequestHandler):
+    protocol_version = "HTTP/1.1"
+
+    def do_GET(self):
+        if re.fullmatch(r"/api/users/[^/]+/exists", self.path):
+            self.answer(b'{"exists":true}')
+        elif re.fullmatch(r"/api/products/\d+/exists", self.path):
+            self.answer(b'true')
+        elif re.fullmatch(r"/api/products/\d+/stock", self.path):
+            self.answer(b'1000000')
+        else:
+            self.answer(b'{"status":"ok"}')
+
+    def do_POST(self):
+        self.rfile.read(int(self.headers.get("Content-Length", 0)))
+        if self.path == "/api/products/validate":
+            self.answer(b'{"valid":true,"errors":[]}')
+        else:
+            self.send_error(404)
+
+    def answer(self, body):
+        time.sleep(delay)
+        self.send_response(200)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(body)))
+        self.end_headers()
+        self.wfile.write(body)
+
+    def log_message(self, *args):
+        pass
+
+ThreadingHTTPServer.request_queue_size = 4096
+ThreadingHTTPServer(("127.0.0.1", int(sys.argv[1])), Handler).serve_forever()
+EOF
+STUB_PID=$!
+trap 'kill $STUB_PID 2> /dev/null' EXIT
+
+# Starts the service, waits until it reports every dependency healthy,
+# checks that an order can be created, runs the load and prints hey's
+# throughput and latency lines. Fails on any status other than 201.
+run() {
+    local name=$1 virtual=$2 pid status output
+    echo -e "\n${BLUE}>>> $name threads${NC}"
+    java -jar "$JAR" --server.port="$PORT" \
+        --spring.threads.virtual.enabled="$virtual" \
+        --services.user-service.url="http://localhost:$STUB_PORT" \
+        --services.product-service.url="http://localhost:$STUB_PORT" \
+        --user.service.url="http://localhost:$STUB_PORT" \
+        --product.service.url="http://localhost:$STUB_PORT" \
+        --order.concurrency-limit.enabled=false \
+        --http.client.max-connections=$(( CONCURRENCY * 2 )) \
+        --http.client.max-connections-per-route=$(( CONCURRENCY * 2 )) \
+        > /dev/null 2>&1 &
+    pid=$!
+    # A degraded service also answers 200, so check the reported status
+    for i in $(seq 1 240); do
+        if curl -s "$HEALTH_URL" | grep -q '"status":"OK"'; then
+            break
+        fi
+        sleep 0.5
+    done
+    if ! curl -s "$HEALTH_URL" | grep -q '"status":"OK"'; then
+        echo -e "${RED}✗ service did not become healthy: $(curl -s "$HEALTH_URL")${NC}"
+        stop "$pid"
+        return 1
+    fi
+    status=$(curl -s -o /dev/null -w "%{http_code}" -X POST -H "Content-Type: application/json" \
+        -H "X-User-UID: $USER_UID" -d "$ORDER_BODY" "$ORDERS_URL")
+    if [ "$status" != "201" ]; then
+        echo -e "${RED}✗ creating an order answered $status${NC}"
+        stop "$pid"
+        return 1
+    fi
+    output=$(hey -z "$DURATION" -c "$CONCURRENCY" -m POST -T "application/json" \
+        -H "X-User-UID: $USER_UID" -d "$ORDER_BODY" "$ORDERS_URL")
+    echo "$output" | grep -E "Requests/sec|Average|50% in|99% in|\[[0-9]+\]"
+    stop "$pid"
+    if echo "$output" | grep -E "\[[0-9]+\]" | grep -qv "\[201\]" \
+            || echo "$output" | grep -q "Error distribution"; then
+        echo -e "${RED}✗ not every order was created${NC}"
+        return 1
+    fi
+}
+
+stop() {
+    kill "$1" 2> /dev/null
+    wait "$1" 2> /dev/null
+}
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}  Order Service Load Test${NC}"
+echo -e "${BLUE}  ${CONCURRENCY} clients, ${DURATION}, downstream delay ${DELAY_MS} ms${NC}"
+echo -e "${BLUE}========================================${NC}"
+
+failed=0
+run "platform" false || failed=1
+run "virtual" true || failed=1
+if [ "$failed" -ne 0 ]; then
+    echo -e "\n${RED}✗ failed${NC}"
+    exit 1
+fi
+echo -e "\n${GREEN}✓ done${NC}"
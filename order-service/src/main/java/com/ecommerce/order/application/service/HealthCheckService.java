@@ -1,5 +1,6 @@
 package com.ecommerce.order.application.service;
 
+import com.ecommerce.order.infrastructure.concurrency.VirtualThreads;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class HealthCheckService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private VirtualThreads virtualThreads;
+
     @Value("${services.user-service.url}")
     private String userServiceUrl;
 
@@ -41,7 +45,7 @@ public class HealthCheckService {
      * @return Map containing overall status and individual service health
      */
     public Map<String, Object> performHealthCheck() {
-        ExecutorService executor = Executors.newFixedThreadPool(3);
+        ExecutorService executor = virtualThreads.executor("health-check-", () -> Executors.newFixedThreadPool(3));
         Map<String, Boolean> serviceHealth = new HashMap<>();
 
         try {
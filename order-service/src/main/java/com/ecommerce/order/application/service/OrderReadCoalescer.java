@@ -0,0 +1,122 @@
+package com.ecommerce.order.application.service;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces concurrent reads of the same order into one repository load,
+ * with an optional very-short-TTL result cache.
+ * The loaded entity is shared between callers and must be treated as
+ * read-only. Writers call {@link #invalidate(Long)} after changing an order
+ * or its payment.
+ */
+public class OrderReadCoalescer {
+
+    private final OrderDomainRepository orderRepository;
+    private final long cacheTtlNanos;
+    private final int cacheMaxEntries;
+
+    private final SingleFlight<Long, Optional<OrderEntity>> singleFlight = new SingleFlight<>();
+    private final ConcurrentHashMap<Long, CachedOrder> cache = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * @param orderRepository the order repository
+     * @param cacheTtlMillis  result cache TTL; 0 disables the cache
+     * @param cacheMaxEntries maximum number of cached orders
+     */
+    public OrderReadCoalescer(OrderDomainRepository orderRepository, long cacheTtlMillis, int cacheMaxEntries) {
+        this.orderRepository = orderRepository;
+        this.cacheTtlNanos = cacheTtlMillis * 1_000_000L;
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    /**
+     * Loads an order by ID, sharing the load with concurrent callers.
+     *
+     * @param orderId the order ID
+     * @return Optional containing the order if found
+     */
+    public Optional<OrderEntity> findById(Long orderId) {
+        if (cacheTtlNanos > 0) {
+            CachedOrder cached = cache.get(orderId);
+            if (cached != null && !cached.isExpired()) {
+                return Optional.of(cached.order);
+            }
+        }
+
+        return singleFlight.execute(orderId, () -> {
+            long epoch = invalidations.get();
+            Optional<OrderEntity> order = orderRepository.findById(orderId);
+            // Skip caching if a write happened while we were loading
+            if (cacheTtlNanos > 0 && order.isPresent()) {
+                putIfCurrent(orderId, order.get(), epoch);
+            }
+            return order;
+        });
+    }
+
+    /**
+     * Drops any cached or in-flight read of the order. Must be called after
+     * the order or its payment is modified. Inside a transaction the order
+     * is dropped again after commit, since a read between the change and
+     * the commit still sees the old state and may have cached it.
+     *
+     * @param orderId the modified order ID
+     */
+    public void invalidate(Long orderId) {
+        forget(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    forget(orderId);
+                }
+            });
+        }
+    }
+
+    private void forget(Long orderId) {
+        invalidations.incrementAndGet();
+        singleFlight.forget(orderId);
+        cache.remove(orderId);
+    }
+
+    /**
+     * Caches a loaded order unless an invalidation happened since the load
+     * started. The check and the put run under the entry's lock, and
+     * {@link #forget} bumps the epoch before it removes the entry under the
+     * same lock, so a stale order is either not put or removed right after.
+     */
+    private void putIfCurrent(Long orderId, OrderEntity order, long epoch) {
+        if (cache.size() >= cacheMaxEntries) {
+            cache.values().removeIf(CachedOrder::isExpired);
+            if (cache.size() >= cacheMaxEntries) {
+                cache.clear();
+            }
+        }
+        cache.compute(orderId, (id, existing) -> epoch == invalidations.get()
+                ? new CachedOrder(order, System.nanoTime() + cacheTtlNanos)
+                : existing);
+    }
+
+    private static class CachedOrder {
+        private final OrderEntity order;
+        private final long expiresAtNanos;
+
+        CachedOrder(OrderEntity order, long expiresAtNanos) {
+            this.order = order;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
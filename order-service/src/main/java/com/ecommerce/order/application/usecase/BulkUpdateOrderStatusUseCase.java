@@ -0,0 +1,139 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Use case for moving many orders to one status at once.
+ * Transitions are checked set-wise against
+ * {@link OrderEntity#allowedSourceStatuses} and applied by one conditional
+ * UPDATE per chunk, each chunk in its own transaction. Orders already in
+ * the new status are reported as unchanged and not written. A failed chunk
+ * does not undo earlier ones; the per-order results say what happened.
+ */
+public class BulkUpdateOrderStatusUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkUpdateOrderStatusUseCase.class);
+
+    private final OrderDomainRepository orderRepository;
+    private final OrderReadCoalescer orderReader;
+    private final int maxOrders;
+    private final int chunkSize;
+
+    public BulkUpdateOrderStatusUseCase(OrderDomainRepository orderRepository, OrderReadCoalescer orderReader,
+            int maxOrders, int chunkSize) {
+        this.orderRepository = orderRepository;
+        this.orderReader = orderReader;
+        this.maxOrders = maxOrders;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Executes the bulk status update use case.
+     *
+     * @param orderIds  the order IDs; duplicates are ignored
+     * @param newStatus the new status
+     * @return one result per distinct order ID, in request order
+     * @throws InvalidBulkRequestException if no IDs or too many IDs are given
+     */
+    public List<StatusUpdateResult> execute(List<Long> orderIds, OrderEntity.OrderStatus newStatus) {
+        Set<Long> ids = new LinkedHashSet<>(orderIds);
+        ids.remove(null);
+        if (ids.isEmpty() || ids.size() > maxOrders) {
+            throw new InvalidBulkRequestException("Between 1 and " + maxOrders + " order IDs are required");
+        }
+        Set<OrderEntity.OrderStatus> allowedFrom = OrderEntity.allowedSourceStatuses(newStatus);
+        log.info("Moving {} orders to status {}", ids.size(), newStatus);
+
+        List<Long> ordered = new ArrayList<>(ids);
+        List<StatusUpdateResult> results = new ArrayList<>(ordered.size());
+        int updated = 0;
+        for (int from = 0; from < ordered.size(); from += chunkSize) {
+            List<Long> chunk = ordered.subList(from, Math.min(from + chunkSize, ordered.size()));
+            Map<Long, OrderEntity.OrderStatus> previous =
+                    orderRepository.transitionStatus(chunk, allowedFrom, newStatus);
+
+            for (Long id : chunk) {
+                OrderEntity.OrderStatus status = previous.get(id);
+                if (status == null) {
+                    results.add(new StatusUpdateResult(id, Outcome.NOT_FOUND, null, "Order not found"));
+                } else if (status == newStatus) {
+                    results.add(new StatusUpdateResult(id, Outcome.UNCHANGED, status,
+                            "Order is already " + newStatus));
+                } else if (allowedFrom.contains(status)) {
+                    orderReader.invalidate(id);
+                    updated++;
+                    results.add(new StatusUpdateResult(id, Outcome.UPDATED, status, null));
+                } else {
+                    results.add(new StatusUpdateResult(id, Outcome.INVALID_TRANSITION, status,
+                            "Cannot move from " + status + " to " + newStatus));
+                }
+            }
+        }
+        log.info("Moved {} of {} orders to status {}", updated, ids.size(), newStatus);
+        return results;
+    }
+
+    /**
+     * What happened to one order.
+     */
+    public enum Outcome {
+        UPDATED,
+        UNCHANGED,
+        INVALID_TRANSITION,
+        NOT_FOUND
+    }
+
+    /**
+     * Result for one order of a bulk update.
+     */
+    public static class StatusUpdateResult {
+        private final Long orderId;
+        private final Outcome outcome;
+        private final OrderEntity.OrderStatus previousStatus;
+        private final String message;
+
+        public StatusUpdateResult(Long orderId, Outcome outcome, OrderEntity.OrderStatus previousStatus,
+                String message) {
+            this.orderId = orderId;
+            this.outcome = outcome;
+            this.previousStatus = previousStatus;
+            this.message = message;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /** Status before the update; for invalid transitions, the unchanged current status. */
+        public OrderEntity.OrderStatus getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Exception thrown when the bulk request itself is invalid.
+     */
+    public static class InvalidBulkRequestException extends RuntimeException {
+        public InvalidBulkRequestException(String message) {
+            super(message);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.ecommerce.order.application.usecase;
 import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.entity.OrderItemEntity;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.service.IdGenerator;
 import com.ecommerce.order.domain.service.ProductValidationDomainService;
 import com.ecommerce.order.domain.service.UserValidationDomainService;
 import org.slf4j.Logger;
@@ -22,14 +23,17 @@ public class CreateOrderUseCase {
     private final OrderDomainRepository orderRepository;
     private final UserValidationDomainService userValidationService;
     private final ProductValidationDomainService productValidationService;
+    private final IdGenerator idGenerator;
 
     public CreateOrderUseCase(
             OrderDomainRepository orderRepository,
             UserValidationDomainService userValidationService,
-            ProductValidationDomainService productValidationService) {
+            ProductValidationDomainService productValidationService,
+            IdGenerator idGenerator) {
         this.orderRepository = orderRepository;
         this.userValidationService = userValidationService;
         this.productValidationService = productValidationService;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -73,6 +77,7 @@ public class CreateOrderUseCase {
 
         // 4. Create order entity
         OrderEntity order = new OrderEntity(command.getUserUid(), command.getShippingAddress());
+        order.setId(idGenerator.nextOrderId(order.getUserUid()));
 
         // 5. Add items to order
         for (CreateOrderCommand.OrderItemData itemData : command.getItems()) {
@@ -85,7 +90,7 @@ public class CreateOrderUseCase {
         }
 
         // 6. Persist order
-        OrderEntity savedOrder = orderRepository.save(order);
+        OrderEntity savedOrder = orderRepository.create(order);
 
         log.info("Order created successfully: {} for user: {}", savedOrder.getId(), command.getUserUid());
         return savedOrder;
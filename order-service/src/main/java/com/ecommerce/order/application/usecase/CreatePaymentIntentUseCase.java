@@ -1,15 +1,25 @@
 package com.ecommerce.order.application.usecase;
 
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.application.service.SingleFlight;
 import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.entity.PaymentEntity;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
 import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.domain.service.IdGenerator;
 import com.ecommerce.order.domain.service.PaymentGatewayService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Optional;
+
 /**
  * Use case for creating a payment intent.
+ * An order has at most one payment. While that payment is open its intent
+ * is reused, so reloading the pay page costs a payment lookup rather than
+ * a new Stripe intent. The order is always loaded from the repository,
+ * never from the shared read cache, since its status and total decide
+ * what is charged.
  */
 public class CreatePaymentIntentUseCase {
 
@@ -18,14 +28,21 @@ public class CreatePaymentIntentUseCase {
     private final OrderDomainRepository orderRepository;
     private final PaymentDomainRepository paymentRepository;
     private final PaymentGatewayService paymentGatewayService;
+    private final OrderReadCoalescer orderReader;
+    private final IdGenerator idGenerator;
+    private final SingleFlight<Long, PaymentIntentResult> inFlight = new SingleFlight<>();
 
     public CreatePaymentIntentUseCase(
             OrderDomainRepository orderRepository,
             PaymentDomainRepository paymentRepository,
-            PaymentGatewayService paymentGatewayService) {
+            PaymentGatewayService paymentGatewayService,
+            OrderReadCoalescer orderReader,
+            IdGenerator idGenerator) {
         this.orderRepository = orderRepository;
         this.paymentRepository = paymentRepository;
         this.paymentGatewayService = paymentGatewayService;
+        this.orderReader = orderReader;
+        this.idGenerator = idGenerator;
     }
 
     /**
@@ -34,12 +51,14 @@ public class CreatePaymentIntentUseCase {
      * @param orderId              the order ID
      * @param authenticatedUserUid the authenticated user's UID
      * @return payment intent result
-     * @throws OrderNotFoundException     if order doesn't exist
-     * @throws OrderAccessDeniedException if user doesn't own the order
-     * @throws PaymentCreationException   if payment creation fails
+     * @throws OrderNotFoundException          if order doesn't exist
+     * @throws OrderAccessDeniedException      if user doesn't own the order
+     * @throws PaymentAlreadyCompletedException if the order is already paid
+     * @throws OrderNotPayableException        if the order is no longer pending
+     * @throws PaymentCreationException        if payment creation fails
      */
     public PaymentIntentResult execute(Long orderId, String authenticatedUserUid) {
-        log.info("Creating payment intent for order {}", orderId);
+        log.debug("Obtaining payment intent for order {}", orderId);
 
         // 1. Retrieve and authorize order
         OrderEntity order = orderRepository.findById(orderId)
@@ -51,28 +70,56 @@ public class CreatePaymentIntentUseCase {
             throw new OrderAccessDeniedException("Access denied");
         }
 
-        // 2. Create payment intent via gateway
+        // 2. Concurrent calls for the same order (refreshes, double clicks) share one run
+        return inFlight.execute(orderId, () -> obtainPaymentIntent(order));
+    }
+
+    private PaymentIntentResult obtainPaymentIntent(OrderEntity order) {
+        Long orderId = order.getId();
+        Optional<PaymentEntity> existing = paymentRepository.findByOrderId(orderId);
+
+        if (existing.isPresent() && !existing.get().isFailed() && !existing.get().isOpen()) {
+            throw new PaymentAlreadyCompletedException("Order is already paid");
+        }
+        // A cancelled or shipped order must not get a live intent the customer could pay
+        if (!order.isPending()) {
+            throw new OrderNotPayableException("Order is " + order.getStatus() + " and cannot be paid");
+        }
+        if (existing.isPresent() && existing.get().isOpen() && existing.get().getClientSecret() != null) {
+            return reuse(order, existing.get());
+        }
+
+        // No usable intent yet: create one, replacing a closed intent if there was one
+        PaymentEntity payment = existing.orElseGet(() -> new PaymentEntity(order.getTotalAmount()));
+        String replacedIntentId = existing.map(PaymentEntity::getStripePaymentIntentId).orElse(null);
+
         PaymentGatewayService.PaymentIntentResult gatewayResult = paymentGatewayService.createPaymentIntent(
+                orderId,
                 order.getTotalAmount(),
-                "usd",
-                "Order #" + orderId);
+                payment.getCurrency(),
+                "Order #" + orderId,
+                replacedIntentId);
 
         if (!gatewayResult.isSuccess()) {
             log.error("Payment intent creation failed for order {}: {}", orderId, gatewayResult.getErrorMessage());
             throw new PaymentCreationException(gatewayResult.getErrorMessage());
         }
 
-        // 3. Create payment entity
-        PaymentEntity payment = new PaymentEntity(order.getTotalAmount());
+        payment.setOrderId(orderId);
+        payment.setAmount(order.getTotalAmount());
         payment.setStripePaymentIntentId(gatewayResult.getPaymentIntentId());
+        payment.setClientSecret(gatewayResult.getClientSecret());
         payment.markAsProcessing();
 
-        // 4. Save payment
-        PaymentEntity savedPayment = paymentRepository.save(payment);
-
-        // 5. Associate payment with order
-        order.setPayment(savedPayment);
-        orderRepository.save(order);
+        // Only the payment row is written; it references the order by ID
+        PaymentEntity savedPayment;
+        if (existing.isPresent()) {
+            savedPayment = paymentRepository.save(payment);
+        } else {
+            payment.setId(idGenerator.nextPaymentId(orderId));
+            savedPayment = paymentRepository.create(payment);
+        }
+        orderReader.invalidate(orderId);
 
         log.info("Payment intent created successfully for order {}: {}", orderId, gatewayResult.getPaymentIntentId());
 
@@ -82,6 +129,26 @@ public class CreatePaymentIntentUseCase {
                 savedPayment.getId());
     }
 
+    private PaymentIntentResult reuse(OrderEntity order, PaymentEntity payment) {
+        if (payment.getAmount().compareTo(order.getTotalAmount()) != 0) {
+            log.info("Order {} total changed, updating payment intent {}", order.getId(),
+                    payment.getStripePaymentIntentId());
+            if (!paymentGatewayService.updatePaymentAmount(order.getId(), payment.getStripePaymentIntentId(),
+                    order.getTotalAmount())) {
+                throw new PaymentCreationException("Failed to update payment amount");
+            }
+            payment.setAmount(order.getTotalAmount());
+            payment = paymentRepository.save(payment);
+            orderReader.invalidate(order.getId());
+        }
+
+        log.debug("Reusing payment intent {} for order {}", payment.getStripePaymentIntentId(), order.getId());
+        return new PaymentIntentResult(
+                payment.getStripePaymentIntentId(),
+                payment.getClientSecret(),
+                payment.getId());
+    }
+
     /**
      * Result of payment intent creation.
      */
@@ -121,6 +188,18 @@ public class CreatePaymentIntentUseCase {
         }
     }
 
+    public static class PaymentAlreadyCompletedException extends RuntimeException {
+        public PaymentAlreadyCompletedException(String message) {
+            super(message);
+        }
+    }
+
+    public static class OrderNotPayableException extends RuntimeException {
+        public OrderNotPayableException(String message) {
+            super(message);
+        }
+    }
+
     public static class PaymentCreationException extends RuntimeException {
         public PaymentCreationException(String message) {
             super(message);
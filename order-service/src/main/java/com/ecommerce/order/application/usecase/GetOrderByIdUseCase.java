@@ -1,21 +1,28 @@
 package com.ecommerce.order.application.usecase;
 
+import com.ecommerce.order.application.service.OrderReadCoalescer;
 import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Use case for retrieving an order by ID.
- * Includes authorization check.
+ * Includes authorization check. Concurrent reads of the same order share a
+ * single load; authorization is still checked for every caller. Orders no
+ * longer in the database are looked up in the archive. The read runs in a
+ * read-only transaction, which takes a connection only once it queries.
  */
 public class GetOrderByIdUseCase {
 
     private static final Logger log = LoggerFactory.getLogger(GetOrderByIdUseCase.class);
 
+    private final OrderReadCoalescer orderReader;
     private final OrderDomainRepository orderRepository;
 
-    public GetOrderByIdUseCase(OrderDomainRepository orderRepository) {
+    public GetOrderByIdUseCase(OrderReadCoalescer orderReader, OrderDomainRepository orderRepository) {
+        this.orderReader = orderReader;
         this.orderRepository = orderRepository;
     }
 
@@ -28,10 +35,12 @@ public class GetOrderByIdUseCase {
      * @throws OrderNotFoundException     if order doesn't exist
      * @throws OrderAccessDeniedException if user doesn't own the order
      */
+    @Transactional(readOnly = true)
     public OrderEntity execute(Long orderId, String authenticatedUserUid) {
         log.debug("Retrieving order {} for user {}", orderId, authenticatedUserUid);
 
-        OrderEntity order = orderRepository.findById(orderId)
+        OrderEntity order = orderReader.findById(orderId)
+                .or(() -> orderRepository.findArchivedById(orderId))
                 .orElseThrow(() -> {
                     log.warn("Order not found: {}", orderId);
                     return new OrderNotFoundException("Order not found");
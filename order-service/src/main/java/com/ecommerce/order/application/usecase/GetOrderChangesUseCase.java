@@ -0,0 +1,200 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderChangeBatch;
+import com.ecommerce.order.domain.repository.OrderChangePosition;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.service.OrderChangeSignal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Use case for the incremental order change feed.
+ * Returns orders changed after an opaque cursor, in the order of the
+ * transactions that wrote them. A change is only returned once every older
+ * transaction has finished, so nothing can commit behind the cursor. With
+ * a wait time, an empty page waits for the next committed change (or
+ * rechecks held-back changes shortly) before answering.
+ */
+public class GetOrderChangesUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GetOrderChangesUseCase.class);
+
+    private static final String CURSOR_VERSION = "v2";
+
+    private final OrderDomainRepository orderRepository;
+    private final OrderChangeSignal changeSignal;
+    private final Executor executor;
+    private final long recheckMillis;
+    private final int maxPageSize;
+    private final long maxWaitMillis;
+
+    /**
+     * @param orderRepository the order repository
+     * @param changeSignal    notification of committed changes
+     * @param executor        runs the reload after a wait
+     * @param recheckMillis   delay before reloading after a wake-up, so that
+     *                        held-back changes can settle
+     * @param maxPageSize     largest accepted page size
+     * @param maxWaitMillis   longest accepted wait
+     */
+    public GetOrderChangesUseCase(OrderDomainRepository orderRepository, OrderChangeSignal changeSignal,
+            Executor executor, long recheckMillis, int maxPageSize, long maxWaitMillis) {
+        this.orderRepository = orderRepository;
+        this.changeSignal = changeSignal;
+        this.executor = executor;
+        this.recheckMillis = recheckMillis;
+        this.maxPageSize = maxPageSize;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /**
+     * Executes the change feed use case.
+     *
+     * @param cursor     cursor from a previous page, or null to start from
+     *                   the beginning
+     * @param limit      page size
+     * @param waitMillis how long to wait for changes if there are none yet;
+     *                   0 answers immediately
+     * @return the page, completed when changes arrive or the wait ends
+     * @throws InvalidChangeFeedRequestException if the cursor or limits are
+     *                                           invalid
+     */
+    public CompletableFuture<ChangesPage> execute(String cursor, int limit, long waitMillis) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidChangeFeedRequestException("limit must be between 1 and " + maxPageSize);
+        }
+        if (waitMillis < 0 || waitMillis > maxWaitMillis) {
+            throw new InvalidChangeFeedRequestException(
+                    "wait must be between 0 and " + maxWaitMillis / 1000 + " seconds");
+        }
+        OrderChangePosition position = cursor == null || cursor.isBlank()
+                ? OrderChangePosition.beginning() : decode(cursor);
+
+        if (waitMillis == 0) {
+            return CompletableFuture.completedFuture(load(position, limit));
+        }
+
+        // Subscribe before loading so a change committed in between is not missed
+        CompletableFuture<Void> changed = new CompletableFuture<>();
+        Runnable unsubscribe = changeSignal.onNextChange(() -> changed.complete(null));
+
+        ChangesPage page = load(position, limit);
+        if (!page.getOrders().isEmpty()) {
+            unsubscribe.run();
+            return CompletableFuture.completedFuture(page);
+        }
+        if (page.isHeldBack()) {
+            // Changes wait for an older transaction; their notification has already fired
+            changed.complete(null);
+        }
+
+        log.debug("No order changes after {}, waiting up to {} ms", cursor, waitMillis);
+        return changed
+                .completeOnTimeout(null, waitMillis, TimeUnit.MILLISECONDS)
+                .thenApplyAsync(ignored -> {
+                    unsubscribe.run();
+                    return load(position, limit);
+                }, CompletableFuture.delayedExecutor(recheckMillis, TimeUnit.MILLISECONDS, executor));
+    }
+
+    private ChangesPage load(OrderChangePosition position, int limit) {
+        OrderChangeBatch batch = orderRepository.findChangedAfter(position, limit);
+        return new ChangesPage(batch.getOrders(), encode(batch.getNext()), batch.isHasMore(), batch.isHeldBack());
+    }
+
+    /** Encodes the position as "v2|shard:transactionId:orderId,..." in base64. */
+    static String encode(OrderChangePosition position) {
+        StringJoiner marks = new StringJoiner(",");
+        position.getMarks().forEach((source, mark) ->
+                marks.add(source + ":" + mark.getTransactionId() + ":" + mark.getOrderId()));
+        String raw = CURSOR_VERSION + "|" + marks;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderChangePosition decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidChangeFeedRequestException("Invalid cursor");
+        }
+        String[] parts = raw.split("\\|", -1);
+        if (parts.length == 3 && "v1".equals(parts[0])) {
+            throw new InvalidChangeFeedRequestException(
+                    "Cursor is from a previous version of the feed; start again without since");
+        }
+        if (parts.length != 2 || !CURSOR_VERSION.equals(parts[0])) {
+            throw new InvalidChangeFeedRequestException("Invalid cursor");
+        }
+        Map<Integer, OrderChangePosition.Mark> marks = new HashMap<>();
+        try {
+            for (String mark : parts[1].isEmpty() ? new String[0] : parts[1].split(",")) {
+                String[] fields = mark.split(":");
+                if (fields.length != 3) {
+                    throw new InvalidChangeFeedRequestException("Invalid cursor");
+                }
+                marks.put(Integer.parseInt(fields[0]),
+                        new OrderChangePosition.Mark(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidChangeFeedRequestException("Invalid cursor");
+        }
+        return OrderChangePosition.of(marks);
+    }
+
+    /**
+     * One page of the change feed.
+     */
+    public static class ChangesPage {
+        private final List<OrderEntity> orders;
+        private final String nextCursor;
+        private final boolean hasMore;
+        private final boolean heldBack;
+
+        public ChangesPage(List<OrderEntity> orders, String nextCursor, boolean hasMore, boolean heldBack) {
+            this.orders = orders;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+            this.heldBack = heldBack;
+        }
+
+        public List<OrderEntity> getOrders() {
+            return orders;
+        }
+
+        /** Cursor to pass as {@code since} for the next page. */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        /** Whether the next page is already available. */
+        public boolean isHasMore() {
+            return hasMore;
+        }
+
+        /** Whether newer changes exist that wait for an older transaction to finish. */
+        public boolean isHeldBack() {
+            return heldBack;
+        }
+    }
+
+    /**
+     * Exception thrown when the cursor, page size or wait time is invalid.
+     */
+    public static class InvalidChangeFeedRequestException extends RuntimeException {
+        public InvalidChangeFeedRequestException(String message) {
+            super(message);
+        }
+    }
+}
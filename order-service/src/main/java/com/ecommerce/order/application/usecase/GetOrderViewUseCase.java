@@ -0,0 +1,95 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Use case for reading orders from the order read model, one indexed lookup
+ * per request with no mapping. Includes the same authorization checks as
+ * {@link GetOrderByIdUseCase} and {@link GetUserOrdersUseCase}. Off unless
+ * enabled, which should only be done once the views have been rebuilt.
+ */
+public class GetOrderViewUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GetOrderViewUseCase.class);
+
+    private final OrderViewRepository orderViewRepository;
+    private final boolean enabled;
+
+    public GetOrderViewUseCase(OrderViewRepository orderViewRepository, boolean enabled) {
+        this.orderViewRepository = orderViewRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Finds the view of an order.
+     * 
+     * @param orderId              the order ID
+     * @param authenticatedUserUid the authenticated user's UID
+     * @return the view; empty if reads from views are off or the order has
+     *         no view (e.g. it is archived), in which case the order is read
+     *         as usual
+     * @throws OrderAccessDeniedException if user doesn't own the order
+     */
+    public Optional<OrderView> findById(Long orderId, String authenticatedUserUid) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Optional<OrderView> view = orderViewRepository.findById(orderId);
+        if (view.isPresent() && !view.get().belongsToUser(authenticatedUserUid)) {
+            log.warn("Access denied: user {} attempted to access order {} belonging to user {}",
+                    authenticatedUserUid, orderId, view.get().getUserUid());
+            throw new OrderAccessDeniedException("Access denied");
+        }
+        return view;
+    }
+
+    /**
+     * Finds the views of a user's orders, newest first.
+     * 
+     * @param requestedUserUid     the requested user UID
+     * @param authenticatedUserUid the authenticated user's UID
+     * @return the views; empty if reads from views are off or any of the
+     *         orders has no view yet, in which case the orders are read as
+     *         usual
+     * @throws OrderAccessDeniedException if authenticated user doesn't match
+     *                                    requested user
+     */
+    public Optional<List<OrderView>> findByUserUid(String requestedUserUid, String authenticatedUserUid) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        if (!requestedUserUid.equals(authenticatedUserUid)) {
+            log.warn("Access denied: user {} attempted to access orders for user {}",
+                    authenticatedUserUid, requestedUserUid);
+            throw new OrderAccessDeniedException("Access denied");
+        }
+        List<OrderView> views = orderViewRepository.findByUserUid(requestedUserUid);
+        long missing = views.stream().filter(view -> !view.isBuilt()).count();
+        if (missing > 0) {
+            log.debug("{} of {} orders of user {} have no view, reading the orders",
+                    missing, views.size(), requestedUserUid);
+            return Optional.empty();
+        }
+        log.debug("Retrieved {} order views for user {}", views.size(), requestedUserUid);
+        return Optional.of(views);
+    }
+
+    /**
+     * Exception thrown when user doesn't have access to an order.
+     */
+    public static class OrderAccessDeniedException extends RuntimeException {
+        public OrderAccessDeniedException(String message) {
+            super(message);
+        }
+    }
+}
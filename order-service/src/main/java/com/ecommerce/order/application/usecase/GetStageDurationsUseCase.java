@@ -0,0 +1,113 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.StageDurationHistogram;
+import com.ecommerce.order.domain.repository.OrderStageStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Use case for fulfillment latency analytics: how long orders stayed in
+ * each status before each transition made in a time window, as
+ * percentiles. Reads the hourly rollups only, so the cost depends on the
+ * window's length, not on the number of orders.
+ */
+public class GetStageDurationsUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(GetStageDurationsUseCase.class);
+
+    private final OrderStageStatsRepository stageStatsRepository;
+    private final Duration maxWindow;
+
+    public GetStageDurationsUseCase(OrderStageStatsRepository stageStatsRepository, Duration maxWindow) {
+        this.stageStatsRepository = stageStatsRepository;
+        this.maxWindow = maxWindow;
+    }
+
+    /**
+     * Executes the stage durations use case.
+     *
+     * @param from start of the window, inclusive
+     * @param to   end of the window, exclusive
+     * @return one entry per transition, in status order
+     * @throws InvalidWindowException if the window is empty or too long
+     */
+    public List<StageDurations> execute(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidWindowException("from must be before to");
+        }
+        if (Duration.between(from, to).compareTo(maxWindow) > 0) {
+            throw new InvalidWindowException("The window may be at most " + maxWindow.toDays() + " days");
+        }
+
+        List<StageDurations> stages = stageStatsRepository.findHistograms(from, to).stream()
+                .map(h -> new StageDurations(h.getFromStatus(), h.getToStatus(), h.getCount(),
+                        h.percentileSeconds(0.50), h.percentileSeconds(0.90), h.percentileSeconds(0.99)))
+                .sorted(Comparator.comparing(StageDurations::getFromStatus)
+                        .thenComparing(StageDurations::getToStatus))
+                .collect(Collectors.toList());
+        log.debug("Stage durations for [{}, {}): {} transitions", from, to, stages.size());
+        return stages;
+    }
+
+    /**
+     * Duration percentiles of one transition, in seconds.
+     */
+    public static class StageDurations {
+        private final OrderEntity.OrderStatus fromStatus;
+        private final OrderEntity.OrderStatus toStatus;
+        private final long count;
+        private final Double p50Seconds;
+        private final Double p90Seconds;
+        private final Double p99Seconds;
+
+        public StageDurations(OrderEntity.OrderStatus fromStatus, OrderEntity.OrderStatus toStatus, long count,
+                Double p50Seconds, Double p90Seconds, Double p99Seconds) {
+            this.fromStatus = fromStatus;
+            this.toStatus = toStatus;
+            this.count = count;
+            this.p50Seconds = p50Seconds;
+            this.p90Seconds = p90Seconds;
+            this.p99Seconds = p99Seconds;
+        }
+
+        public OrderEntity.OrderStatus getFromStatus() {
+            return fromStatus;
+        }
+
+        public OrderEntity.OrderStatus getToStatus() {
+            return toStatus;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public Double getP50Seconds() {
+            return p50Seconds;
+        }
+
+        public Double getP90Seconds() {
+            return p90Seconds;
+        }
+
+        public Double getP99Seconds() {
+            return p99Seconds;
+        }
+    }
+
+    /**
+     * Exception thrown when the time window is invalid.
+     */
+    public static class InvalidWindowException extends RuntimeException {
+        public InvalidWindowException(String message) {
+            super(message);
+        }
+    }
+}
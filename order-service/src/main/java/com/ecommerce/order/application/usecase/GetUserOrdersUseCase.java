@@ -4,12 +4,13 @@ import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 /**
  * Use case for retrieving all orders for a user.
- * Includes authorization check.
+ * Includes authorization check. The read runs in a read-only transaction.
  */
 public class GetUserOrdersUseCase {
 
@@ -30,6 +31,7 @@ public class GetUserOrdersUseCase {
      * @throws OrderAccessDeniedException if authenticated user doesn't match
      *                                    requested user
      */
+    @Transactional(readOnly = true)
     public List<OrderEntity> execute(String requestedUserUid, String authenticatedUserUid) {
         log.debug("Retrieving orders for user {} (authenticated as {})", requestedUserUid, authenticatedUserUid);
 
@@ -0,0 +1,50 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.repository.OrderViewCheckResult;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Use case for rebuilding and checking the order read model, e.g. after it
+ * is introduced, after a schema change to the document, or to verify that
+ * every write path keeps it current.
+ */
+public class OrderViewMaintenanceUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderViewMaintenanceUseCase.class);
+
+    private final OrderViewRepository orderViewRepository;
+    private final int batchSize;
+
+    public OrderViewMaintenanceUseCase(OrderViewRepository orderViewRepository, int batchSize) {
+        this.orderViewRepository = orderViewRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Rebuilds the view of every order.
+     * 
+     * @return number of orders processed
+     */
+    public long rebuild() {
+        log.info("Rebuilding order views in batches of {}", batchSize);
+        long processed = orderViewRepository.rebuild(batchSize);
+        log.info("Order view rebuild done: {} orders", processed);
+        return processed;
+    }
+
+    /**
+     * Compares every view with its order.
+     * 
+     * @param repair whether to fix what is found
+     * @return what was found
+     */
+    public OrderViewCheckResult check(boolean repair) {
+        OrderViewCheckResult result = orderViewRepository.check(batchSize, repair);
+        log.info("Order view check: {} checked, {} missing, {} stale, {} orphaned, {} repaired",
+                result.getChecked(), result.getMissing(), result.getStale(), result.getOrphaned(),
+                result.getRepaired());
+        return result;
+    }
+}
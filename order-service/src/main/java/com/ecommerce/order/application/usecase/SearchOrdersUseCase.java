@@ -0,0 +1,142 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Use case for the admin order search.
+ * Pages newest first with an opaque keyset cursor and reports an estimated
+ * total instead of an exact count, so deep pages and broad filters stay
+ * cheap. The page and the estimate are read in one read-only transaction.
+ */
+public class SearchOrdersUseCase {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchOrdersUseCase.class);
+
+    private static final String CURSOR_VERSION = "s1";
+
+    private final OrderDomainRepository orderRepository;
+    private final int maxPageSize;
+
+    public SearchOrdersUseCase(OrderDomainRepository orderRepository, int maxPageSize) {
+        this.orderRepository = orderRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Executes the search use case.
+     *
+     * @param criteria the filters
+     * @param cursor   cursor from a previous page, or null for the first page
+     * @param limit    page size
+     * @return the page
+     * @throws InvalidSearchException if the filters, cursor or limit are
+     *                                invalid
+     */
+    @Transactional(readOnly = true)
+    public SearchPage execute(OrderSearchCriteria criteria, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidSearchException("limit must be between 1 and " + maxPageSize);
+        }
+        if (criteria.getCreatedFrom() != null && criteria.getCreatedTo() != null
+                && !criteria.getCreatedFrom().isBefore(criteria.getCreatedTo())) {
+            throw new InvalidSearchException("createdFrom must be before createdTo");
+        }
+        if (criteria.getMinTotal() != null && criteria.getMaxTotal() != null
+                && criteria.getMinTotal().compareTo(criteria.getMaxTotal()) >= 0) {
+            throw new InvalidSearchException("minTotal must be less than maxTotal");
+        }
+
+        Position before = cursor == null || cursor.isBlank() ? null : decode(cursor);
+
+        List<OrderEntity> orders = before == null
+                ? orderRepository.search(criteria, null, null, limit)
+                : orderRepository.search(criteria, before.createdAt, before.id, limit);
+        String nextCursor = null;
+        if (orders.size() == limit) {
+            OrderEntity last = orders.get(orders.size() - 1);
+            nextCursor = encode(last.getCreatedAt(), last.getId());
+        }
+        // The estimate describes the whole result, so only the first page pays for it
+        Long estimatedTotal = before == null ? orderRepository.estimateSearchCount(criteria) : null;
+
+        log.debug("Order search returned {} orders (estimated total {})", orders.size(), estimatedTotal);
+        return new SearchPage(orders, nextCursor, estimatedTotal);
+    }
+
+    private static String encode(LocalDateTime createdAt, Long id) {
+        String raw = CURSOR_VERSION + "|" + createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3 || !CURSOR_VERSION.equals(parts[0])) {
+                throw new InvalidSearchException("Invalid cursor");
+            }
+            return new Position(LocalDateTime.parse(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidSearchException("Invalid cursor");
+        }
+    }
+
+    private static class Position {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        private Position(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+
+    /**
+     * One page of search results.
+     */
+    public static class SearchPage {
+        private final List<OrderEntity> orders;
+        private final String nextCursor;
+        private final Long estimatedTotal;
+
+        public SearchPage(List<OrderEntity> orders, String nextCursor, Long estimatedTotal) {
+            this.orders = orders;
+            this.nextCursor = nextCursor;
+            this.estimatedTotal = estimatedTotal;
+        }
+
+        public List<OrderEntity> getOrders() {
+            return orders;
+        }
+
+        /** Cursor for the next page, or null on the last page. */
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        /** Planner estimate of all matches; only set on the first page. */
+        public Long getEstimatedTotal() {
+            return estimatedTotal;
+        }
+    }
+
+    /**
+     * Exception thrown when the search request is invalid.
+     */
+    public static class InvalidSearchException extends RuntimeException {
+        public InvalidSearchException(String message) {
+            super(message);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.order.application.usecase;
 
+import com.ecommerce.order.application.service.OrderReadCoalescer;
 import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
 import org.slf4j.Logger;
@@ -13,9 +14,11 @@ public class UpdateOrderStatusUseCase {
     private static final Logger log = LoggerFactory.getLogger(UpdateOrderStatusUseCase.class);
 
     private final OrderDomainRepository orderRepository;
+    private final OrderReadCoalescer orderReader;
 
-    public UpdateOrderStatusUseCase(OrderDomainRepository orderRepository) {
+    public UpdateOrderStatusUseCase(OrderDomainRepository orderRepository, OrderReadCoalescer orderReader) {
         this.orderRepository = orderRepository;
+        this.orderReader = orderReader;
     }
 
     /**
@@ -50,6 +53,7 @@ public class UpdateOrderStatusUseCase {
             }
 
             OrderEntity updatedOrder = orderRepository.save(order);
+            orderReader.invalidate(orderId);
             log.info("Order {} status updated from {} to {}", orderId, oldStatus, newStatus);
             return updatedOrder;
 
@@ -0,0 +1,68 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.ecommerce.order.presentation.filter.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration for adaptive concurrency limiting (load shedding) on the
+ * order API.
+ */
+@Configuration
+@ConditionalOnProperty(name = "order.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Value("${order.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${order.concurrency-limit.min-limit:4}")
+    private int minLimit;
+
+    @Value("${order.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${order.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${order.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Bean
+    public AdaptiveConcurrencyLimiter orderApiConcurrencyLimiter(MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                initialLimit, minLimit, maxLimit, rttTolerance, smoothing);
+
+        Gauge.builder("orders.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("orders.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency slot")
+                .register(meterRegistry);
+
+        return limiter;
+    }
+
+    /**
+     * Registers the load-shedding filter ahead of authentication so rejected
+     * requests cost as little as possible.
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            AdaptiveConcurrencyLimiter orderApiConcurrencyLimiter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(orderApiConcurrencyLimiter, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
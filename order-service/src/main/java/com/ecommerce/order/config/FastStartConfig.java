@@ -0,0 +1,22 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.jpa.OrderJpaRepository;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Fast-start profile: limits JPA to the infrastructure entities and
+ * repositories. The legacy model and repository packages map the same
+ * tables with a different shape, so they would fail schema validation and
+ * only cost startup time; the legacy controllers and services are left out
+ * with them.
+ */
+@Configuration
+@Profile("faststart")
+@EntityScan(basePackageClasses = OrderJpaEntity.class)
+@EnableJpaRepositories(basePackageClasses = OrderJpaRepository.class)
+public class FastStartConfig {
+}
@@ -6,8 +6,10 @@ import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.io.ClassPathResource;
 
 import javax.annotation.PostConstruct;
@@ -17,7 +19,8 @@ import java.io.InputStream;
 /**
  * Firebase configuration for server-side authentication.
  * Initializes Firebase Admin SDK for token verification using service account
- * JSON file.
+ * JSON file. With firebase.lazy-init the credentials are loaded on the
+ * first token verification instead of at startup.
  */
 @Configuration
 public class FirebaseConfig {
@@ -25,8 +28,19 @@ public class FirebaseConfig {
     private static final Logger log = LoggerFactory.getLogger(FirebaseConfig.class);
     private static final String SERVICE_ACCOUNT_FILE = "e-commerce-platform-c1d3c-firebase-adminsdk-fbsvc-5f5ea11557.json";
 
+    @Value("${firebase.lazy-init:false}")
+    private boolean lazyInit;
+
     @PostConstruct
     public void initialize() {
+        if (lazyInit) {
+            log.info("Firebase Admin SDK will be initialized on first use");
+            return;
+        }
+        initializeApp();
+    }
+
+    private void initializeApp() {
         try {
             // Check if FirebaseApp is already initialized
             if (!FirebaseApp.getApps().isEmpty()) {
@@ -81,10 +95,15 @@ public class FirebaseConfig {
 
     /**
      * Provides FirebaseAuth bean for token verification.
-     * Returns null if Firebase is not configured.
+     * Returns null if Firebase is not configured. Created on first use, so
+     * a lazy initialization happens here.
      */
     @Bean
+    @Lazy
     public FirebaseAuth firebaseAuth() {
+        if (FirebaseApp.getApps().isEmpty()) {
+            initializeApp();
+        }
         if (FirebaseApp.getApps().isEmpty()) {
             log.warn("FirebaseAuth bean is null - Firebase not initialized");
             return null;
@@ -1,8 +1,15 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.order.infrastructure.external.http.RetryExecutor;
 import org.apache.hc.client5.http.classic.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
 import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -10,6 +17,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.OptionalLong;
+
 @Configuration
 public class HttpClientConfig {
 
@@ -19,19 +28,64 @@ public class HttpClientConfig {
     @Value("${http.client.read-timeout}")
     private int readTimeout;
 
+    @Value("${http.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${http.client.max-connections-per-route:50}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${http.client.validate-after-inactivity-ms:2000}")
+    private long validateAfterInactivity;
+
+    @Value("${http.client.idle-eviction-ms:30000}")
+    private long idleEviction;
+
     @Bean
     public RestTemplate restTemplate() {
+        // Pooled connections idle for a while are validated before reuse,
+        // so a keep-alive connection closed by the server is not handed out
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                        .setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity))
+                        .build())
+                .build();
+
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
                 .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
                 .build();
 
+        // Retries are handled by RetryExecutor, which knows which calls are safe to repeat
         HttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
                 .setDefaultRequestConfig(requestConfig)
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEviction))
                 .build();
 
         HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
-        
+        // Calls made through RetryExecutor get timeouts no longer than their deadline allows
+        factory.setHttpContextFactory((method, uri) -> attemptContext());
+
         return new RestTemplate(factory);
     }
+
+    private HttpContext attemptContext() {
+        OptionalLong remaining = RetryExecutor.remainingMillis();
+        if (remaining.isEmpty()) {
+            return null;
+        }
+        long remainingMillis = remaining.getAsLong();
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(Math.min(connectTimeout, remainingMillis)))
+                .setResponseTimeout(Timeout.ofMilliseconds(Math.min(readTimeout, remainingMillis)))
+                .build());
+        return context;
+    }
 }
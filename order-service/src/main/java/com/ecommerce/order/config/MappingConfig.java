@@ -0,0 +1,23 @@
+package com.ecommerce.order.config;
+
+import org.mapstruct.InjectionStrategy;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.NullValueCheckStrategy;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * Settings shared by the MapStruct mappers. Implementations are generated
+ * at compile time as plain Spring beans: straight-line getter/setter calls,
+ * loops for collections and switches for enums, no reflection or streams.
+ * A target property nobody maps fails the build, so a field added to an
+ * entity or DTO can't be dropped silently. Null source values are skipped,
+ * which keeps the domain constructors' defaults and stays clear of their
+ * validating setters.
+ */
+@MapperConfig(
+        componentModel = "spring",
+        injectionStrategy = InjectionStrategy.CONSTRUCTOR,
+        unmappedTargetPolicy = ReportingPolicy.ERROR,
+        nullValueCheckStrategy = NullValueCheckStrategy.ALWAYS)
+public interface MappingConfig {
+}
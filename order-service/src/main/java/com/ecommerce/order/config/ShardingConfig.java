@@ -0,0 +1,68 @@
+package com.ecommerce.order.config;
+
+import com.ecommerce.order.infrastructure.sharding.ShardDataSources;
+import com.ecommerce.order.infrastructure.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order database shards. {@code orders.sharding.urls} lists one JDBC URL
+ * per shard, shard 0 first; when empty, {@code spring.datasource.url} is
+ * the only shard. Every shard gets a Hikari pool configured from
+ * {@code spring.datasource.hikari.*}, and the application's DataSource
+ * routes to the shard selected by {@code ShardRouter}.
+ */
+@Configuration
+public class ShardingConfig {
+
+    @Value("${orders.sharding.urls:}")
+    private List<String> shardUrls;
+
+    @Bean(destroyMethod = "close")
+    public ShardDataSources shardDataSources(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry) {
+        List<String> urls = shardUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            urls = List.of(properties.determineUrl());
+        }
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (int shard = 0; shard < urls.size(); shard++) {
+            HikariDataSource pool = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(shard))
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+            pool.setPoolName("order-shard-" + shard);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+        }
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shards) {
+        // Connections are fetched at the first statement, after the caller
+        // has picked a shard; the defaults spare a probe connection at startup
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.setTargetDataSource(new ShardRoutingDataSource(shards));
+        return dataSource;
+    }
+}
@@ -1,20 +1,130 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.order.infrastructure.external.stripe.PooledStripeHttpClient;
 import com.stripe.Stripe;
+import com.stripe.StripeClient;
+import com.stripe.net.LiveStripeResponseGetter;
+import com.stripe.net.StripeResponseGetterOptions;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import jakarta.annotation.PostConstruct;
 
+import java.net.PasswordAuthentication;
+import java.net.Proxy;
+
 @Configuration
 public class StripeConfig {
 
     @Value("${stripe.api.key}")
     private String stripeApiKey;
 
+    @Value("${stripe.client.connect-timeout-ms:5000}")
+    private int connectTimeout;
+
+    @Value("${stripe.client.read-timeout-ms:20000}")
+    private int readTimeout;
+
+    @Value("${stripe.client.max-connections:20}")
+    private int maxConnections;
+
+    @Value("${stripe.client.idle-eviction-ms:30000}")
+    private long idleEviction;
+
+    @Value("${stripe.api.base-url:}")
+    private String apiBaseUrl;
+
     @PostConstruct
     public void init() {
+        // Global settings still used by the static Stripe API (legacy PaymentService)
         Stripe.apiKey = stripeApiKey;
+        Stripe.setConnectTimeout(connectTimeout);
+        Stripe.setReadTimeout(readTimeout);
+        if (!apiBaseUrl.isBlank()) {
+            Stripe.overrideApiBase(apiBaseUrl);
+        }
     }
-}
 
+    /**
+     * Connection pool for the Stripe client, so the client keeps up to
+     * {@code stripe.client.max-connections} connections open without the
+     * JVM-wide HttpURLConnection settings.
+     */
+    @Bean
+    @Lazy
+    public PooledStripeHttpClient stripeHttpClient() {
+        return new PooledStripeHttpClient(maxConnections, connectTimeout, readTimeout, idleEviction);
+    }
+
+    /**
+     * Creates the Stripe client used by the payment gateway adapter.
+     * The SDK's own retries are off: the adapter retries through the request
+     * scheduler so that every attempt is rate limited. Built on the first
+     * Stripe call, so startup doesn't load the SDK's client classes.
+     */
+    @Bean
+    @Lazy
+    public StripeClient stripeClient(@Lazy PooledStripeHttpClient stripeHttpClient) {
+        return new StripeClient(new LiveStripeResponseGetter(new ClientOptions(), stripeHttpClient));
+    }
+
+    /**
+     * What {@code StripeClient.builder()} would set; the builder cannot take
+     * an HTTP client of its own.
+     */
+    private final class ClientOptions extends StripeResponseGetterOptions {
+
+        @Override
+        public String getApiKey() {
+            return stripeApiKey;
+        }
+
+        @Override
+        public String getClientId() {
+            return null;
+        }
+
+        @Override
+        public int getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        @Override
+        public int getReadTimeout() {
+            return readTimeout;
+        }
+
+        @Override
+        public int getMaxNetworkRetries() {
+            return 0;
+        }
+
+        @Override
+        public Proxy getConnectionProxy() {
+            return null;
+        }
+
+        @Override
+        public PasswordAuthentication getProxyCredential() {
+            return null;
+        }
+
+        // Points the client at a local stand-in such as stripe-mock
+        @Override
+        public String getApiBase() {
+            return apiBaseUrl.isBlank() ? Stripe.LIVE_API_BASE : apiBaseUrl;
+        }
+
+        @Override
+        public String getFilesBase() {
+            return Stripe.UPLOAD_API_BASE;
+        }
+
+        @Override
+        public String getConnectBase() {
+            return Stripe.CONNECT_API_BASE;
+        }
+    }
+}
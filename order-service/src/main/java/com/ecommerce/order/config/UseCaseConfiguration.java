@@ -1,14 +1,26 @@
 package com.ecommerce.order.config;
 
+import com.ecommerce.order.application.service.OrderReadCoalescer;
 import com.ecommerce.order.application.usecase.*;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.OrderStageStatsRepository;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
 import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.domain.service.IdGenerator;
+import com.ecommerce.order.domain.service.OrderChangeSignal;
 import com.ecommerce.order.domain.service.PaymentGatewayService;
 import com.ecommerce.order.domain.service.ProductValidationDomainService;
 import com.ecommerce.order.domain.service.UserValidationDomainService;
+import com.ecommerce.order.infrastructure.concurrency.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Configuration for Use Cases (Application Layer).
  * Wires up dependencies following Clean Architecture principles.
@@ -23,16 +35,30 @@ public class UseCaseConfiguration {
     public CreateOrderUseCase createOrderUseCase(
             OrderDomainRepository orderRepository,
             UserValidationDomainService userValidationService,
-            ProductValidationDomainService productValidationService) {
-        return new CreateOrderUseCase(orderRepository, userValidationService, productValidationService);
+            ProductValidationDomainService productValidationService,
+            IdGenerator idGenerator) {
+        return new CreateOrderUseCase(orderRepository, userValidationService, productValidationService,
+                idGenerator);
+    }
+
+    /**
+     * Creates OrderReadCoalescer bean shared by order readers and writers.
+     */
+    @Bean
+    public OrderReadCoalescer orderReadCoalescer(
+            OrderDomainRepository orderRepository,
+            @Value("${order.read.cache-ttl-ms:0}") long cacheTtlMillis,
+            @Value("${order.read.cache-max-entries:10000}") int cacheMaxEntries) {
+        return new OrderReadCoalescer(orderRepository, cacheTtlMillis, cacheMaxEntries);
     }
 
     /**
      * Creates GetOrderByIdUseCase bean.
      */
     @Bean
-    public GetOrderByIdUseCase getOrderByIdUseCase(OrderDomainRepository orderRepository) {
-        return new GetOrderByIdUseCase(orderRepository);
+    public GetOrderByIdUseCase getOrderByIdUseCase(OrderReadCoalescer orderReadCoalescer,
+            OrderDomainRepository orderRepository) {
+        return new GetOrderByIdUseCase(orderReadCoalescer, orderRepository);
     }
 
     /**
@@ -47,8 +73,10 @@ public class UseCaseConfiguration {
      * Creates UpdateOrderStatusUseCase bean.
      */
     @Bean
-    public UpdateOrderStatusUseCase updateOrderStatusUseCase(OrderDomainRepository orderRepository) {
-        return new UpdateOrderStatusUseCase(orderRepository);
+    public UpdateOrderStatusUseCase updateOrderStatusUseCase(
+            OrderDomainRepository orderRepository,
+            OrderReadCoalescer orderReadCoalescer) {
+        return new UpdateOrderStatusUseCase(orderRepository, orderReadCoalescer);
     }
 
     /**
@@ -58,7 +86,91 @@ public class UseCaseConfiguration {
     public CreatePaymentIntentUseCase createPaymentIntentUseCase(
             OrderDomainRepository orderRepository,
             PaymentDomainRepository paymentRepository,
-            PaymentGatewayService paymentGatewayService) {
-        return new CreatePaymentIntentUseCase(orderRepository, paymentRepository, paymentGatewayService);
+            PaymentGatewayService paymentGatewayService,
+            OrderReadCoalescer orderReadCoalescer,
+            IdGenerator idGenerator) {
+        return new CreatePaymentIntentUseCase(orderRepository, paymentRepository, paymentGatewayService,
+                orderReadCoalescer, idGenerator);
+    }
+
+    /**
+     * Creates the executor that reloads change feed pages after a wait.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService orderChangesExecutor(VirtualThreads virtualThreads,
+            @Value("${orders.changes.executor-threads:4}") int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return virtualThreads.executor("order-changes-", () -> Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "order-changes-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates GetOrderChangesUseCase bean.
+     */
+    @Bean
+    public GetOrderChangesUseCase getOrderChangesUseCase(
+            OrderDomainRepository orderRepository,
+            OrderChangeSignal orderChangeSignal,
+            ExecutorService orderChangesExecutor,
+            @Value("${orders.changes.recheck-ms:200}") long recheckMillis,
+            @Value("${orders.changes.max-page-size:500}") int maxPageSize,
+            @Value("${orders.changes.max-wait-seconds:30}") long maxWaitSeconds) {
+        return new GetOrderChangesUseCase(orderRepository, orderChangeSignal, orderChangesExecutor,
+                recheckMillis, maxPageSize, maxWaitSeconds * 1000);
+    }
+
+    /**
+     * Creates SearchOrdersUseCase bean.
+     */
+    @Bean
+    public SearchOrdersUseCase searchOrdersUseCase(
+            OrderDomainRepository orderRepository,
+            @Value("${orders.search.max-page-size:200}") int maxPageSize) {
+        return new SearchOrdersUseCase(orderRepository, maxPageSize);
+    }
+
+    /**
+     * Creates BulkUpdateOrderStatusUseCase bean.
+     */
+    @Bean
+    public BulkUpdateOrderStatusUseCase bulkUpdateOrderStatusUseCase(
+            OrderDomainRepository orderRepository,
+            OrderReadCoalescer orderReadCoalescer,
+            @Value("${orders.bulk-status.max-orders:5000}") int maxOrders,
+            @Value("${orders.bulk-status.chunk-size:500}") int chunkSize) {
+        return new BulkUpdateOrderStatusUseCase(orderRepository, orderReadCoalescer, maxOrders, chunkSize);
+    }
+
+    /**
+     * Creates GetOrderViewUseCase bean.
+     */
+    @Bean
+    public GetOrderViewUseCase getOrderViewUseCase(
+            OrderViewRepository orderViewRepository,
+            @Value("${orders.view.read-enabled:false}") boolean enabled) {
+        return new GetOrderViewUseCase(orderViewRepository, enabled);
+    }
+
+    /**
+     * Creates OrderViewMaintenanceUseCase bean.
+     */
+    @Bean
+    public OrderViewMaintenanceUseCase orderViewMaintenanceUseCase(
+            OrderViewRepository orderViewRepository,
+            @Value("${orders.view.batch-size:500}") int batchSize) {
+        return new OrderViewMaintenanceUseCase(orderViewRepository, batchSize);
+    }
+
+    /**
+     * Creates GetStageDurationsUseCase bean.
+     */
+    @Bean
+    public GetStageDurationsUseCase getStageDurationsUseCase(
+            OrderStageStatsRepository stageStatsRepository,
+            @Value("${orders.stage-analytics.max-window-days:366}") long maxWindowDays) {
+        return new GetStageDurationsUseCase(stageStatsRepository, Duration.ofDays(maxWindowDays));
     }
 }
@@ -3,6 +3,7 @@ package com.ecommerce.order.controller;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -10,6 +11,8 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.Map;
 
+// Left out of the fast-start profile, see FastStartConfig
+@Profile("!faststart")
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
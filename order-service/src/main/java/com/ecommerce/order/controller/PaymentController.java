@@ -2,11 +2,14 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 
+// Left out of the fast-start profile, see FastStartConfig
+@Profile("!faststart")
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
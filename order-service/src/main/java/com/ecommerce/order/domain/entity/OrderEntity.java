@@ -4,7 +4,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Core domain entity representing an Order.
@@ -17,6 +19,8 @@ public class OrderEntity {
     private BigDecimal totalAmount;
     private OrderStatus status;
     private String shippingAddress;
+    private String shippingMethod;
+    private String trackingNumber;
     private List<OrderItemEntity> items;
     private PaymentEntity payment;
     private LocalDateTime createdAt;
@@ -66,7 +70,7 @@ public class OrderEntity {
     }
 
     public void markAsProcessing() {
-        if (this.status != OrderStatus.PENDING) {
+        if (!allowedSourceStatuses(OrderStatus.PROCESSING).contains(this.status)) {
             throw new IllegalStateException("Can only move to PROCESSING from PENDING status");
         }
         this.status = OrderStatus.PROCESSING;
@@ -74,7 +78,7 @@ public class OrderEntity {
     }
 
     public void markAsShipped() {
-        if (this.status != OrderStatus.PROCESSING) {
+        if (!allowedSourceStatuses(OrderStatus.SHIPPED).contains(this.status)) {
             throw new IllegalStateException("Can only move to SHIPPED from PROCESSING status");
         }
         this.status = OrderStatus.SHIPPED;
@@ -82,7 +86,7 @@ public class OrderEntity {
     }
 
     public void markAsDelivered() {
-        if (this.status != OrderStatus.SHIPPED) {
+        if (!allowedSourceStatuses(OrderStatus.DELIVERED).contains(this.status)) {
             throw new IllegalStateException("Can only move to DELIVERED from SHIPPED status");
         }
         this.status = OrderStatus.DELIVERED;
@@ -90,13 +94,33 @@ public class OrderEntity {
     }
 
     public void cancel() {
-        if (this.status == OrderStatus.DELIVERED) {
-            throw new IllegalStateException("Cannot cancel a delivered order");
+        if (!allowedSourceStatuses(OrderStatus.CANCELLED).contains(this.status)) {
+            throw new IllegalStateException(this.status == OrderStatus.CANCELLED
+                    ? "Order is already cancelled" : "Cannot cancel a delivered order");
         }
         this.status = OrderStatus.CANCELLED;
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Status transition rules, for checking many orders at once without
+     * loading them. The markAs and cancel methods enforce the same rules.
+     * The target itself is never included: an order already in it has
+     * nothing to change.
+     *
+     * @param target the status to move to
+     * @return the statuses an order may currently have to move to target
+     */
+    public static Set<OrderStatus> allowedSourceStatuses(OrderStatus target) {
+        return switch (target) {
+            case PENDING -> EnumSet.complementOf(EnumSet.of(OrderStatus.PENDING));
+            case PROCESSING -> EnumSet.of(OrderStatus.PENDING);
+            case SHIPPED -> EnumSet.of(OrderStatus.PROCESSING);
+            case DELIVERED -> EnumSet.of(OrderStatus.SHIPPED);
+            case CANCELLED -> EnumSet.complementOf(EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+        };
+    }
+
     public boolean canBeCancelled() {
         return this.status != OrderStatus.DELIVERED && this.status != OrderStatus.CANCELLED;
     }
@@ -175,6 +199,23 @@ public class OrderEntity {
         this.shippingAddress = shippingAddress;
     }
 
+    public String getShippingMethod() {
+        return shippingMethod;
+    }
+
+    public void setShippingMethod(String shippingMethod) {
+        this.shippingMethod = shippingMethod;
+    }
+
+    /** Carrier tracking number, set once the order has been handed to the carrier. */
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
     public List<OrderItemEntity> getItems() {
         return Collections.unmodifiableList(items);
     }
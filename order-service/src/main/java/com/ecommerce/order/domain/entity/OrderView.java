@@ -0,0 +1,51 @@
+package com.ecommerce.order.domain.entity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an order: the order with its items and payment as one JSON
+ * document, in the shape the order endpoints return. Kept up to date in the
+ * transaction of every change to the order, so it can be served without
+ * loading or mapping the order.
+ */
+public class OrderView {
+
+    private final Long id;
+    private final String userUid;
+    private final LocalDateTime createdAt;
+    private final String document;
+
+    public OrderView(Long id, String userUid, LocalDateTime createdAt, String document) {
+        this.id = id;
+        this.userUid = userUid;
+        this.createdAt = createdAt;
+        this.document = document;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUserUid() {
+        return userUid;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return the order as JSON; null if the order has no view yet
+     */
+    public String getDocument() {
+        return document;
+    }
+
+    public boolean isBuilt() {
+        return document != null;
+    }
+
+    public boolean belongsToUser(String userUid) {
+        return this.userUid != null && this.userUid.equals(userUid);
+    }
+}
@@ -12,12 +12,15 @@ public class PaymentEntity {
     private Long orderId;
     private BigDecimal amount;
     private String stripePaymentIntentId;
+    private String clientSecret;
+    private String currency;
     private PaymentStatus status;
     private String paymentMethod;
     private LocalDateTime createdAt;
 
     public PaymentEntity() {
         this.status = PaymentStatus.PENDING;
+        this.currency = "usd";
         this.createdAt = LocalDateTime.now();
     }
 
@@ -67,6 +70,13 @@ public class PaymentEntity {
         return this.status == PaymentStatus.FAILED;
     }
 
+    /**
+     * An open payment still awaits the customer and its intent can be reused.
+     */
+    public boolean isOpen() {
+        return this.status == PaymentStatus.PENDING || this.status == PaymentStatus.PROCESSING;
+    }
+
     public boolean canBeRefunded() {
         return this.status == PaymentStatus.COMPLETED;
     }
@@ -114,6 +124,22 @@ public class PaymentEntity {
         this.stripePaymentIntentId = stripePaymentIntentId;
     }
 
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    public void setClientSecret(String clientSecret) {
+        this.clientSecret = clientSecret;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
     public PaymentStatus getStatus() {
         return status;
     }
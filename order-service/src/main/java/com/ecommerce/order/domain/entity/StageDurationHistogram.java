@@ -0,0 +1,78 @@
+package com.ecommerce.order.domain.entity;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * How long orders stayed in one status before moving to the next, as
+ * counts per duration bin. Bins grow by {@link #GROWTH}: bin 0 is under a
+ * second and bin b holds durations from GROWTH^(b-1) up to GROWTH^b
+ * seconds. Percentiles are therefore exact to within 10% whatever the
+ * duration, and histograms of different hours or shards merge by adding
+ * counts.
+ */
+public class StageDurationHistogram {
+
+    public static final double GROWTH = 1.1;
+
+    private final OrderEntity.OrderStatus fromStatus;
+    private final OrderEntity.OrderStatus toStatus;
+    private final TreeMap<Integer, Long> counts = new TreeMap<>();
+    private long total;
+
+    public StageDurationHistogram(OrderEntity.OrderStatus fromStatus, OrderEntity.OrderStatus toStatus) {
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    /**
+     * @return the longest duration in a bin, in seconds
+     */
+    public static double upperBoundSeconds(int bin) {
+        return Math.pow(GROWTH, bin);
+    }
+
+    public void add(int bin, long count) {
+        counts.merge(bin, count, Long::sum);
+        total += count;
+    }
+
+    public void add(StageDurationHistogram other) {
+        other.counts.forEach(this::add);
+    }
+
+    /**
+     * @param quantile between 0 and 1, e.g. 0.99
+     * @return the duration in seconds that this share of orders stayed
+     *         within, or null if there are none
+     */
+    public Double percentileSeconds(double quantile) {
+        if (total == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (Map.Entry<Integer, Long> bin : counts.entrySet()) {
+            seen += bin.getValue();
+            if (seen >= rank) {
+                return upperBoundSeconds(bin.getKey());
+            }
+        }
+        return upperBoundSeconds(counts.lastKey());
+    }
+
+    public OrderEntity.OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public OrderEntity.OrderStatus getToStatus() {
+        return toStatus;
+    }
+
+    /**
+     * @return number of orders that made the transition
+     */
+    public long getCount() {
+        return total;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+
+import java.util.List;
+
+/**
+ * Orders read from the change feed after a position, in feed order.
+ */
+public class OrderChangeBatch {
+
+    private final List<OrderEntity> orders;
+    private final List<OrderChangePosition.Mark> marks;
+    private final OrderChangePosition next;
+    private final boolean hasMore;
+    private final boolean heldBack;
+
+    public OrderChangeBatch(List<OrderEntity> orders, List<OrderChangePosition.Mark> marks,
+            OrderChangePosition next, boolean hasMore, boolean heldBack) {
+        this.orders = orders;
+        this.marks = marks;
+        this.next = next;
+        this.hasMore = hasMore;
+        this.heldBack = heldBack;
+    }
+
+    /**
+     * @return the changed orders, with items and payment loaded
+     */
+    public List<OrderEntity> getOrders() {
+        return orders;
+    }
+
+    /**
+     * @return the mark of each order in its source, in the same order
+     */
+    public List<OrderChangePosition.Mark> getMarks() {
+        return marks;
+    }
+
+    /**
+     * @return the position after the last returned order
+     */
+    public OrderChangePosition getNext() {
+        return next;
+    }
+
+    /**
+     * @return whether more changes can be read right away
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    /**
+     * @return whether committed changes were held back because an older
+     *         transaction is still running
+     */
+    public boolean isHeldBack() {
+        return heldBack;
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.order.domain.repository;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Position in the order change feed. Changes are ordered by the ID of the
+ * transaction that wrote them, which is only meaningful within one
+ * database, so the position keeps one mark per source database (shard).
+ */
+public final class OrderChangePosition {
+
+    private static final Mark START = new Mark(0L, 0L);
+    private static final OrderChangePosition BEGINNING = new OrderChangePosition(Map.of());
+
+    private final Map<Integer, Mark> marks;
+
+    private OrderChangePosition(Map<Integer, Mark> marks) {
+        this.marks = Collections.unmodifiableMap(new TreeMap<>(marks));
+    }
+
+    /**
+     * @return the position before every change
+     */
+    public static OrderChangePosition beginning() {
+        return BEGINNING;
+    }
+
+    /**
+     * @param marks the last change read from each source
+     * @return the position after those changes
+     */
+    public static OrderChangePosition of(Map<Integer, Mark> marks) {
+        return new OrderChangePosition(marks);
+    }
+
+    /**
+     * @return the last change read from the source, or the start if none was
+     */
+    public Mark markOf(int source) {
+        return marks.getOrDefault(source, START);
+    }
+
+    /**
+     * @return the position with the source moved to the mark
+     */
+    public OrderChangePosition with(int source, Mark mark) {
+        Map<Integer, Mark> moved = new TreeMap<>(marks);
+        moved.put(source, mark);
+        return new OrderChangePosition(moved);
+    }
+
+    /**
+     * @return the mark of every source read so far, by source
+     */
+    public Map<Integer, Mark> getMarks() {
+        return marks;
+    }
+
+    /**
+     * A change in one source: the writing transaction's ID and the order ID.
+     */
+    public static final class Mark {
+        private final long transactionId;
+        private final long orderId;
+
+        public Mark(long transactionId, long orderId) {
+            this.transactionId = transactionId;
+            this.orderId = orderId;
+        }
+
+        public long getTransactionId() {
+            return transactionId;
+        }
+
+        public long getOrderId() {
+            return orderId;
+        }
+    }
+}
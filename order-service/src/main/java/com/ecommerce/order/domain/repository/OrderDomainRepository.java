@@ -2,8 +2,12 @@ package com.ecommerce.order.domain.repository;
 
 import com.ecommerce.order.domain.entity.OrderEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Repository interface for Order domain entity.
@@ -12,10 +16,20 @@ import java.util.Optional;
 public interface OrderDomainRepository {
 
     /**
-     * Saves an order entity.
+     * Inserts a new order with its items. The order ID must already be
+     * assigned (see {@link com.ecommerce.order.domain.service.IdGenerator});
+     * nothing is read first.
+     * 
+     * @param order the new order
+     * @return the inserted order
+     */
+    OrderEntity create(OrderEntity order);
+
+    /**
+     * Saves changes to an existing order.
      * 
      * @param order the order to save
-     * @return the saved order with generated ID
+     * @return the saved order
      */
     OrderEntity save(OrderEntity order);
 
@@ -27,6 +41,16 @@ public interface OrderDomainRepository {
      */
     Optional<OrderEntity> findById(Long id);
 
+    /**
+     * Finds an order that has been moved to the archive tier. Much slower
+     * than {@link #findById(Long)}; only closed (delivered or cancelled)
+     * orders are archived, and they are read-only.
+     * 
+     * @param id the order ID
+     * @return Optional containing the archived order if found
+     */
+    Optional<OrderEntity> findArchivedById(Long id);
+
     /**
      * Finds all orders for a specific user.
      * 
@@ -50,6 +74,91 @@ public interface OrderDomainRepository {
      */
     List<OrderEntity> findAll();
 
+    /**
+     * Finds orders changed after a position, for incremental sync. Changes
+     * are read in the order of the transactions that wrote them, and only
+     * once every older transaction has finished, so no change can commit
+     * behind a position that was already handed out. Pass the position of
+     * the previous batch to continue after it.
+     * 
+     * @param after the position to continue after
+     * @param limit maximum number of orders
+     * @return the changed orders with items and payment loaded, and the
+     *         position after them
+     */
+    OrderChangeBatch findChangedAfter(OrderChangePosition after, int limit);
+
+    /**
+     * Searches orders, newest first by (createdAt, id). Pass the last order
+     * of the previous page as the position to continue after it.
+     * 
+     * @param criteria        the filters
+     * @param beforeCreatedAt createdAt of the position, or null for the
+     *                        first page
+     * @param beforeId        ID of the position
+     * @param limit           maximum number of orders
+     * @return matching orders with items and payment loaded
+     */
+    List<OrderEntity> search(OrderSearchCriteria criteria, LocalDateTime beforeCreatedAt, Long beforeId,
+            int limit);
+
+    /**
+     * Estimates how many orders match a search, from query planner
+     * statistics rather than by counting.
+     * 
+     * @param criteria the filters
+     * @return approximate number of matching orders
+     */
+    long estimateSearchCount(OrderSearchCriteria criteria);
+
+    /**
+     * Moves orders from one status to another in a single statement.
+     * Orders no longer in the expected status are left unchanged.
+     * 
+     * @param orderIds  the order IDs
+     * @param expected  the status the orders must currently have
+     * @param newStatus the status to set
+     * @return number of orders updated
+     */
+    int updateStatus(Collection<Long> orderIds, OrderEntity.OrderStatus expected, OrderEntity.OrderStatus newStatus);
+
+    /**
+     * Moves orders to a new status in a single statement, if their current
+     * status is one of {@code allowedFrom} and isn't newStatus already. The
+     * orders are locked first, so the returned statuses are the ones the
+     * transition was checked against.
+     * 
+     * @param orderIds    the order IDs
+     * @param allowedFrom statuses that may move to newStatus
+     * @param newStatus   the status to set
+     * @return status each found order had before the statement, by ID;
+     *         orders whose status was in allowedFrom now have newStatus, and
+     *         IDs that don't exist are absent
+     */
+    Map<Long, OrderEntity.OrderStatus> transitionStatus(Collection<Long> orderIds,
+            Set<OrderEntity.OrderStatus> allowedFrom, OrderEntity.OrderStatus newStatus);
+
+    /**
+     * Finds PENDING orders created before a cutoff, at most {@code limit} at
+     * a time, starting after a keyset cursor.
+     * 
+     * @param createdBefore only orders created before this time
+     * @param afterId       only orders with an ID greater than this
+     * @param limit         maximum number of orders to return
+     * @return IDs of the orders in ascending order
+     */
+    List<Long> findPendingCreatedBefore(LocalDateTime createdBefore, Long afterId, int limit);
+
+    /**
+     * Cancels those of the given orders that are still PENDING, in one
+     * statement. Orders locked by a concurrent caller are skipped, so several
+     * instances can run this at once without overlapping.
+     * 
+     * @param orderIds the orders to cancel
+     * @return IDs of the cancelled orders in ascending order
+     */
+    List<Long> cancelPending(Collection<Long> orderIds);
+
     /**
      * Deletes an order by its ID.
      * 
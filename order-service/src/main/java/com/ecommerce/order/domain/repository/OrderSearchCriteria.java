@@ -0,0 +1,67 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters for the admin order search. Every filter is optional; null means
+ * not filtered. Ranges are inclusive at the start and exclusive at the end.
+ */
+public class OrderSearchCriteria {
+
+    private final OrderEntity.OrderStatus status;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+    private final BigDecimal minTotal;
+    private final BigDecimal maxTotal;
+    private final String userUid;
+    private final Integer productId;
+
+    public OrderSearchCriteria(
+            OrderEntity.OrderStatus status,
+            LocalDateTime createdFrom,
+            LocalDateTime createdTo,
+            BigDecimal minTotal,
+            BigDecimal maxTotal,
+            String userUid,
+            Integer productId) {
+        this.status = status;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.minTotal = minTotal;
+        this.maxTotal = maxTotal;
+        this.userUid = userUid;
+        this.productId = productId;
+    }
+
+    public OrderEntity.OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public BigDecimal getMinTotal() {
+        return minTotal;
+    }
+
+    public BigDecimal getMaxTotal() {
+        return maxTotal;
+    }
+
+    public String getUserUid() {
+        return userUid;
+    }
+
+    /** Matches orders with at least one item of this product. */
+    public Integer getProductId() {
+        return productId;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.StageDurationHistogram;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for the rolled-up time orders spend in each status,
+ * built from the order status history.
+ */
+public interface OrderStageStatsRepository {
+
+    /**
+     * Finds the durations of transitions made in a time window. Rollups
+     * are hourly, so the window is widened to whole hours, and the latest
+     * transitions may not be rolled up yet.
+     * 
+     * @param from start of the window, inclusive
+     * @param to   end of the window, exclusive
+     * @return one histogram per transition that was made in the window
+     */
+    List<StageDurationHistogram> findHistograms(LocalDateTime from, LocalDateTime to);
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.order.domain.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of comparing the order read model with the orders it was built
+ * from.
+ */
+public class OrderViewCheckResult {
+
+    private static final int MAX_SAMPLE_IDS = 20;
+
+    private long checked;
+    private long missing;
+    private long stale;
+    private long orphaned;
+    private long repaired;
+    private final List<Long> sampleIds = new ArrayList<>();
+
+    public void addChecked(long count) {
+        checked += count;
+    }
+
+    public void addMissing(long orderId) {
+        missing++;
+        sample(orderId);
+    }
+
+    public void addStale(long orderId) {
+        stale++;
+        sample(orderId);
+    }
+
+    public void addOrphaned(long orderId) {
+        orphaned++;
+        sample(orderId);
+    }
+
+    public void addRepaired(long count) {
+        repaired += count;
+    }
+
+    public void add(OrderViewCheckResult other) {
+        checked += other.checked;
+        missing += other.missing;
+        stale += other.stale;
+        orphaned += other.orphaned;
+        repaired += other.repaired;
+        other.sampleIds.forEach(this::sample);
+    }
+
+    private void sample(long orderId) {
+        if (sampleIds.size() < MAX_SAMPLE_IDS) {
+            sampleIds.add(orderId);
+        }
+    }
+
+    /**
+     * @return number of orders compared
+     */
+    public long getChecked() {
+        return checked;
+    }
+
+    /**
+     * @return orders without a view
+     */
+    public long getMissing() {
+        return missing;
+    }
+
+    /**
+     * @return views that differ from their order
+     */
+    public long getStale() {
+        return stale;
+    }
+
+    /**
+     * @return views whose order no longer exists
+     */
+    public long getOrphaned() {
+        return orphaned;
+    }
+
+    /**
+     * @return views rebuilt or deleted by the check
+     */
+    public long getRepaired() {
+        return repaired;
+    }
+
+    /**
+     * @return up to 20 IDs of inconsistent orders
+     */
+    public List<Long> getSampleIds() {
+        return sampleIds;
+    }
+
+    public boolean isConsistent() {
+        return missing == 0 && stale == 0 && orphaned == 0;
+    }
+}
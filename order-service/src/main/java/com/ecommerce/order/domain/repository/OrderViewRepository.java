@@ -0,0 +1,51 @@
+package com.ecommerce.order.domain.repository;
+
+import com.ecommerce.order.domain.entity.OrderView;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for the order read model. Views are written by the
+ * order and payment repositories in the same transaction as the change;
+ * this port reads them and maintains the whole table.
+ */
+public interface OrderViewRepository {
+
+    /**
+     * Finds the view of an order.
+     *
+     * @param id the order ID
+     * @return Optional containing the view; empty if the order doesn't
+     *         exist, is archived, or its view hasn't been built yet
+     */
+    Optional<OrderView> findById(Long id);
+
+    /**
+     * Finds the views of a user's orders, newest first.
+     *
+     * @param userUid the user unique identifier
+     * @return one view per order; orders without a view are included with
+     *         no document (see {@link OrderView#isBuilt()})
+     */
+    List<OrderView> findByUserUid(String userUid);
+
+    /**
+     * Rebuilds the view of every order, in batches of one transaction each,
+     * and deletes views whose order is gone.
+     *
+     * @param batchSize orders per batch
+     * @return number of orders processed
+     */
+    long rebuild(int batchSize);
+
+    /**
+     * Compares every view with the order it was built from.
+     *
+     * @param batchSize orders per batch
+     * @param repair    rebuild missing and stale views and delete orphaned
+     *                  ones
+     * @return what was found
+     */
+    OrderViewCheckResult check(int batchSize, boolean repair);
+}
@@ -2,6 +2,9 @@ package com.ecommerce.order.domain.repository;
 
 import com.ecommerce.order.domain.entity.PaymentEntity;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -11,10 +14,18 @@ import java.util.Optional;
 public interface PaymentDomainRepository {
 
     /**
-     * Saves a payment entity.
+     * Inserts a new payment whose ID is already assigned.
+     * 
+     * @param payment the new payment
+     * @return the inserted payment
+     */
+    PaymentEntity create(PaymentEntity payment);
+
+    /**
+     * Saves changes to an existing payment.
      * 
      * @param payment the payment to save
-     * @return the saved payment with generated ID
+     * @return the saved payment
      */
     PaymentEntity save(PaymentEntity payment);
 
@@ -34,6 +45,17 @@ public interface PaymentDomainRepository {
      */
     Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId);
 
+    /**
+     * Finds a payment by Stripe payment intent ID, looking where the order
+     * the intent was created for is stored.
+     * 
+     * @param paymentIntentId the Stripe payment intent ID
+     * @param orderId         the order from the intent's metadata, or null
+     *                        if unknown, which searches everywhere
+     * @return Optional containing the payment if found
+     */
+    Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId, Long orderId);
+
     /**
      * Finds a payment by order ID.
      * 
@@ -42,6 +64,53 @@ public interface PaymentDomainRepository {
      */
     Optional<PaymentEntity> findByOrderId(Long orderId);
 
+    /**
+     * Finds payments in a status that were created before a cutoff, in ID
+     * order, starting after a keyset cursor.
+     * 
+     * @param status        the payment status
+     * @param createdBefore only payments created before this time
+     * @param afterId       return payments with an ID greater than this
+     * @param limit         maximum number of payments to return
+     * @return the next page of payments
+     */
+    List<PaymentEntity> findByStatusCreatedBefore(PaymentEntity.PaymentStatus status, LocalDateTime createdBefore,
+            Long afterId, int limit);
+
+    /**
+     * Finds payments in a status that were created in a time window, in ID
+     * order, starting after a keyset cursor.
+     * 
+     * @param status        the payment status
+     * @param createdAfter  only payments created at or after this time
+     * @param createdBefore only payments created before this time
+     * @param afterId       return payments with an ID greater than this
+     * @param limit         maximum number of payments to return
+     * @return the next page of payments
+     */
+    List<PaymentEntity> findByStatusCreatedBetween(PaymentEntity.PaymentStatus status, LocalDateTime createdAfter,
+            LocalDateTime createdBefore, Long afterId, int limit);
+
+    /**
+     * Finds the open (PENDING or PROCESSING) payments of several orders.
+     * 
+     * @param orderIds the order IDs
+     * @return open payments of those orders
+     */
+    List<PaymentEntity> findOpenByOrderIds(Collection<Long> orderIds);
+
+    /**
+     * Moves payments from one status to another in a single statement.
+     * Payments no longer in the expected status are left unchanged.
+     * 
+     * @param paymentIds the payment IDs
+     * @param expected   the status the payments must currently have
+     * @param newStatus  the status to set
+     * @return number of payments updated
+     */
+    int updateStatus(Collection<Long> paymentIds, PaymentEntity.PaymentStatus expected,
+            PaymentEntity.PaymentStatus newStatus);
+
     /**
      * Deletes a payment by its ID.
      * 
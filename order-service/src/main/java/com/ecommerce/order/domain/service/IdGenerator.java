@@ -0,0 +1,21 @@
+package com.ecommerce.order.domain.service;
+
+/**
+ * Port that hands out IDs for new orders and payments, so an aggregate has
+ * its ID before it is persisted. IDs are unique across all instances of
+ * the service and increase with creation time. An ID also names the shard
+ * the aggregate is stored on: an order's is its user's shard, a payment's
+ * is its order's.
+ */
+public interface IdGenerator {
+
+    /**
+     * @return a new ID for an order placed by the user
+     */
+    long nextOrderId(String userUid);
+
+    /**
+     * @return a new ID for a payment of the order
+     */
+    long nextPaymentId(long orderId);
+}
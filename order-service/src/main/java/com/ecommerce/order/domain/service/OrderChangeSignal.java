@@ -0,0 +1,18 @@
+package com.ecommerce.order.domain.service;
+
+/**
+ * Port that tells waiters when order changes have been committed, on any
+ * instance of the service.
+ */
+public interface OrderChangeSignal {
+
+    /**
+     * Registers a one-shot callback run after the next committed order
+     * change. The callback must be quick; it may run on a notification
+     * thread.
+     *
+     * @param callback the callback
+     * @return action that unregisters the callback if it has not run yet
+     */
+    Runnable onNextChange(Runnable callback);
+}
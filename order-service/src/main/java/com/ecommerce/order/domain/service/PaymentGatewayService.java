@@ -1,6 +1,9 @@
 package com.ecommerce.order.domain.service;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * Domain service interface for payment processing.
@@ -11,38 +14,58 @@ public interface PaymentGatewayService {
 
     /**
      * Creates a payment intent in the payment gateway.
+     * Repeated calls for the same order and amount return the same intent.
      * 
-     * @param amount      the payment amount
-     * @param currency    the currency code (e.g., "usd")
-     * @param description payment description
+     * @param orderId                 the order being paid
+     * @param amount                  the payment amount
+     * @param currency                the currency code (e.g., "usd")
+     * @param description             payment description
+     * @param replacedPaymentIntentId the closed intent this one replaces, or
+     *                                null for the order's first intent
      * @return payment intent result with client secret
      */
-    PaymentIntentResult createPaymentIntent(BigDecimal amount, String currency, String description);
+    PaymentIntentResult createPaymentIntent(Long orderId, BigDecimal amount, String currency, String description,
+            String replacedPaymentIntentId);
+
+    /**
+     * Changes the amount of an open payment intent. The client secret stays
+     * the same.
+     * 
+     * @param orderId         the order being paid
+     * @param paymentIntentId the payment intent ID
+     * @param amount          the new amount
+     * @return true if updated successfully
+     */
+    boolean updatePaymentAmount(Long orderId, String paymentIntentId, BigDecimal amount);
 
     /**
      * Confirms a payment intent.
      * 
+     * @param orderId         the order being paid
      * @param paymentIntentId the payment intent ID
      * @return true if confirmed successfully
      */
-    boolean confirmPayment(String paymentIntentId);
+    boolean confirmPayment(Long orderId, String paymentIntentId);
 
     /**
      * Cancels a payment intent.
      * 
+     * @param orderId         the order being paid
      * @param paymentIntentId the payment intent ID
      * @return true if cancelled successfully
      */
-    boolean cancelPayment(String paymentIntentId);
+    boolean cancelPayment(Long orderId, String paymentIntentId);
 
     /**
-     * Refunds a payment.
+     * Refunds a payment. Repeated calls for the same order and amount
+     * return the same refund.
      * 
+     * @param orderId         the order being refunded
      * @param paymentIntentId the payment intent ID
      * @param amount          the amount to refund (null for full refund)
      * @return refund result
      */
-    RefundResult refundPayment(String paymentIntentId, BigDecimal amount);
+    RefundResult refundPayment(Long orderId, String paymentIntentId, BigDecimal amount);
 
     /**
      * Gets the status of a payment.
@@ -52,6 +75,19 @@ public interface PaymentGatewayService {
      */
     String getPaymentStatus(String paymentIntentId);
 
+    /**
+     * Looks up the status of several payment intents using as few gateway
+     * requests as possible.
+     * 
+     * @param paymentIntentIds the payment intent IDs
+     * @param createdFrom      earliest expected creation time of the intents
+     * @param createdTo        latest expected creation time of the intents
+     * @return status per payment intent ID; intents that could not be looked
+     *         up are absent
+     */
+    Map<String, String> getPaymentStatuses(Collection<String> paymentIntentIds, Instant createdFrom,
+            Instant createdTo);
+
     /**
      * Payment intent creation result.
      */
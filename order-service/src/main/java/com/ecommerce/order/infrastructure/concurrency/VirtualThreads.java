@@ -0,0 +1,60 @@
+package com.ecommerce.order.infrastructure.concurrency;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Whether blocking work runs on virtual threads. With
+ * spring.threads.virtual.enabled on Java 21, Spring Boot runs Tomcat
+ * requests, the application task executor and scheduled jobs on virtual
+ * threads; the executors created here follow the same switch. Pools whose
+ * size is a deliberate limit, such as shard queries or Stripe calls, stay
+ * platform pools.
+ */
+@Component
+public class VirtualThreads {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private final boolean enabled;
+
+    public VirtualThreads(Environment environment) {
+        this.enabled = Threading.VIRTUAL.isActive(environment);
+        if (!enabled && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("Virtual threads need Java 21, running on platform threads (Java {})",
+                    Runtime.version().feature());
+        }
+        log.info("Blocking work runs on {} threads", enabled ? "virtual" : "platform");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param threadNamePrefix name prefix of the virtual threads
+     * @param platformExecutor the executor to use on platform threads
+     * @return an executor that starts a virtual thread per task when
+     *         virtual threads are enabled, otherwise the platform executor
+     */
+    public ExecutorService executor(String threadNamePrefix, Supplier<ExecutorService> platformExecutor) {
+        if (!enabled) {
+            return platformExecutor.get();
+        }
+        ThreadFactory factory = new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        // No core threads, no queue and no keep-alive: each task gets a new
+        // thread that ends with it
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, TimeUnit.SECONDS, new SynchronousQueue<>(), factory);
+    }
+}
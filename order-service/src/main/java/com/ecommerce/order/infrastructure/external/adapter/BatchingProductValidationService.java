@@ -0,0 +1,238 @@
+package com.ecommerce.order.infrastructure.external.adapter;
+
+import com.ecommerce.order.domain.service.ProductValidationDomainService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in micro-batching layer for product validation.
+ * Collects carts from concurrent checkouts for a short window (or until a
+ * batch reaches the item cap), validates them with one call to the product
+ * service batch endpoint and hands each caller its own cart's result.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "product.validation.batching.enabled", havingValue = "true")
+public class BatchingProductValidationService implements ProductValidationDomainService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingProductValidationService.class);
+    private static final String SERVICE_UNAVAILABLE = "Product validation service unavailable";
+
+    private final ProductValidationServiceAdapter delegate;
+    private final long windowMillis;
+    private final int maxBatchItems;
+    private final long callerTimeoutMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<PendingCart> pending = new ArrayList<>();
+    private int pendingItems;
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final ScheduledExecutorService flushTimer;
+    private final ExecutorService sender;
+
+    private final Timer queueWaitTimer;
+    private final Timer batchRequestTimer;
+    private final DistributionSummary batchCarts;
+    private final DistributionSummary batchItems;
+
+    public BatchingProductValidationService(
+            ProductValidationServiceAdapter delegate,
+            MeterRegistry meterRegistry,
+            @Value("${product.validation.batching.window-ms:2}") long windowMillis,
+            @Value("${product.validation.batching.max-items:100}") int maxBatchItems,
+            @Value("${product.validation.batching.max-concurrent-requests:4}") int maxConcurrentRequests,
+            @Value("${http.client.connect-timeout}") int connectTimeout,
+            @Value("${http.client.read-timeout}") int readTimeout) {
+        this.delegate = delegate;
+        this.windowMillis = windowMillis;
+        this.maxBatchItems = maxBatchItems;
+        this.callerTimeoutMillis = windowMillis + connectTimeout + readTimeout;
+
+        this.flushTimer = Executors.newSingleThreadScheduledExecutor(daemon("product-validation-batch-timer"));
+        this.sender = Executors.newFixedThreadPool(maxConcurrentRequests, daemon("product-validation-batch-sender"));
+
+        this.queueWaitTimer = Timer.builder("product.validation.batch.queue_wait")
+                .description("Time a cart waits before its batch is sent")
+                .register(meterRegistry);
+        this.batchRequestTimer = Timer.builder("product.validation.batch.request")
+                .description("Latency of batched validation requests")
+                .register(meterRegistry);
+        this.batchCarts = DistributionSummary.builder("product.validation.batch.carts")
+                .description("Carts per validation batch")
+                .register(meterRegistry);
+        this.batchItems = DistributionSummary.builder("product.validation.batch.items")
+                .description("Items per validation batch")
+                .register(meterRegistry);
+
+        log.info("Product validation batching enabled: window={}ms, maxItems={}", windowMillis, maxBatchItems);
+    }
+
+    @Override
+    public ProductValidationResult validateProductsAndStock(List<ProductValidationRequest> requests) {
+        PendingCart cart = new PendingCart(requests);
+        List<PendingCart> fullBatch = null;
+
+        lock.lock();
+        try {
+            pending.add(cart);
+            pendingItems += requests.size();
+            if (pendingItems >= maxBatchItems) {
+                fullBatch = drainLocked();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = flushTimer.schedule(this::flushOnTimer, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (fullBatch != null) {
+            submit(fullBatch);
+        }
+
+        try {
+            return cart.result.get(callerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.error("Timed out waiting for batched product validation");
+            return new ProductValidationResult(false, List.of(SERVICE_UNAVAILABLE));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ProductValidationResult(false, List.of(SERVICE_UNAVAILABLE));
+        } catch (ExecutionException e) {
+            log.error("Batched product validation failed", e.getCause());
+            return new ProductValidationResult(false, List.of(SERVICE_UNAVAILABLE));
+        }
+    }
+
+    @Override
+    public boolean productExists(Integer productId) {
+        return delegate.productExists(productId);
+    }
+
+    @Override
+    public int getAvailableStock(Integer productId) {
+        return delegate.getAvailableStock(productId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushTimer.shutdownNow();
+        sender.shutdown();
+    }
+
+    private void flushOnTimer() {
+        List<PendingCart> batch = null;
+        lock.lock();
+        try {
+            if (!pending.isEmpty()) {
+                batch = drainLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (batch != null) {
+            submit(batch);
+        }
+    }
+
+    private List<PendingCart> drainLocked() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        List<PendingCart> batch = pending;
+        pending = new ArrayList<>();
+        pendingItems = 0;
+        return batch;
+    }
+
+    private void submit(List<PendingCart> batch) {
+        try {
+            sender.execute(() -> send(batch));
+        } catch (RuntimeException e) {
+            log.error("Could not dispatch product validation batch", e);
+            batch.forEach(cart -> cart.result.complete(
+                    new ProductValidationResult(false, List.of(SERVICE_UNAVAILABLE))));
+        }
+    }
+
+    private void send(List<PendingCart> batch) {
+        long sendStart = System.nanoTime();
+        Map<String, List<ProductValidationRequest>> carts = new LinkedHashMap<>();
+        int items = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingCart cart = batch.get(i);
+            carts.put(String.valueOf(i), cart.requests);
+            items += cart.requests.size();
+            queueWaitTimer.record(sendStart - cart.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+        }
+        batchCarts.record(batch.size());
+        batchItems.record(items);
+
+        try {
+            Map<String, ProductValidationResult> results = delegate.validateCarts(carts);
+            batchRequestTimer.record(System.nanoTime() - sendStart, TimeUnit.NANOSECONDS);
+
+            for (int i = 0; i < batch.size(); i++) {
+                ProductValidationResult result = results.get(String.valueOf(i));
+                batch.get(i).result.complete(result != null
+                        ? result
+                        : new ProductValidationResult(false, List.of("Product service returned unexpected response")));
+            }
+        } catch (HttpClientErrorException.NotFound e) {
+            // Product service without the batch endpoint: validate carts one by one
+            log.warn("Batch validation endpoint not available, validating {} carts individually", batch.size());
+            for (PendingCart cart : batch) {
+                cart.result.complete(delegate.validateProductsAndStock(cart.requests));
+            }
+        } catch (Exception e) {
+            log.error("Error validating batch of {} carts", batch.size(), e);
+            for (PendingCart cart : batch) {
+                cart.result.complete(new ProductValidationResult(false, List.of(SERVICE_UNAVAILABLE)));
+            }
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class PendingCart {
+        private final List<ProductValidationRequest> requests;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final CompletableFuture<ProductValidationResult> result = new CompletableFuture<>();
+
+        PendingCart(List<ProductValidationRequest> requests) {
+            this.requests = requests;
+        }
+    }
+}
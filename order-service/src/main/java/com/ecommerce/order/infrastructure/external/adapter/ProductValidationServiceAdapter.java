@@ -1,7 +1,12 @@
 package com.ecommerce.order.infrastructure.external.adapter;
 
 import com.ecommerce.order.domain.service.ProductValidationDomainService;
+import com.ecommerce.order.infrastructure.external.dto.ExternalBatchValidationResponseDTO;
+import com.ecommerce.order.infrastructure.external.dto.ExternalCartValidationRequestDTO;
+import com.ecommerce.order.infrastructure.external.dto.ExternalCartValidationResultDTO;
 import com.ecommerce.order.infrastructure.external.dto.ExternalOrderItemRequestDTO;
+import com.ecommerce.order.infrastructure.external.http.HedgingExecutor;
+import com.ecommerce.order.infrastructure.external.http.RetryExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -12,7 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -24,13 +32,21 @@ public class ProductValidationServiceAdapter implements ProductValidationDomainS
 
     private static final Logger log = LoggerFactory.getLogger(ProductValidationServiceAdapter.class);
 
+    private static final String DOWNSTREAM = "product-service";
+
     private final RestTemplate restTemplate;
+    private final HedgingExecutor hedgingExecutor;
+    private final RetryExecutor retryExecutor;
     private final String productServiceUrl;
 
     public ProductValidationServiceAdapter(
             RestTemplate restTemplate,
+            HedgingExecutor hedgingExecutor,
+            RetryExecutor retryExecutor,
             @Value("${product.service.url:http://localhost:8082}") String productServiceUrl) {
         this.restTemplate = restTemplate;
+        this.hedgingExecutor = hedgingExecutor;
+        this.retryExecutor = retryExecutor;
         this.productServiceUrl = productServiceUrl;
     }
 
@@ -41,22 +57,17 @@ public class ProductValidationServiceAdapter implements ProductValidationDomainS
             log.debug("Validating {} products", requests.size());
 
             // Convert to DTOs expected by product service
-            List<ExternalOrderItemRequestDTO> itemRequests = requests.stream()
-                    .map(req -> {
-                        ExternalOrderItemRequestDTO item = new ExternalOrderItemRequestDTO();
-                        item.setProductId(req.getProductId());
-                        item.setQuantity(req.getQuantity());
-                        return item;
-                    })
-                    .collect(Collectors.toList());
+            List<ExternalOrderItemRequestDTO> itemRequests = toItemRequests(requests);
 
             HttpEntity<List<ExternalOrderItemRequestDTO>> requestEntity = new HttpEntity<>(itemRequests);
 
-            ResponseEntity<ProductValidationResult> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    requestEntity,
-                    ProductValidationResult.class);
+            // Validation only reads products and stock, so the POST is safe to retry
+            ResponseEntity<ProductValidationResult> response = retryExecutor.execute(DOWNSTREAM, true,
+                    () -> restTemplate.exchange(
+                            url,
+                            HttpMethod.POST,
+                            requestEntity,
+                            ProductValidationResult.class));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 ProductValidationResult result = response.getBody();
@@ -76,13 +87,52 @@ public class ProductValidationServiceAdapter implements ProductValidationDomainS
         }
     }
 
+    /**
+     * Validates several independent carts with one request to the product
+     * service batch endpoint.
+     *
+     * @param carts carts to validate, keyed by caller-chosen cart ID
+     * @return validation result per cart ID
+     * @throws org.springframework.web.client.RestClientException if the
+     *                                                            request fails
+     */
+    public Map<String, ProductValidationResult> validateCarts(Map<String, List<ProductValidationRequest>> carts) {
+        String url = productServiceUrl + "/api/products/validate/batch";
+        log.debug("Validating {} carts in one batch", carts.size());
+
+        List<ExternalCartValidationRequestDTO> cartRequests = new ArrayList<>(carts.size());
+        for (Map.Entry<String, List<ProductValidationRequest>> cart : carts.entrySet()) {
+            ExternalCartValidationRequestDTO cartRequest = new ExternalCartValidationRequestDTO();
+            cartRequest.setCartId(cart.getKey());
+            cartRequest.setItems(toItemRequests(cart.getValue()));
+            cartRequests.add(cartRequest);
+        }
+
+        ResponseEntity<ExternalBatchValidationResponseDTO> response = retryExecutor.execute(DOWNSTREAM, true,
+                () -> restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        new HttpEntity<>(cartRequests),
+                        ExternalBatchValidationResponseDTO.class));
+
+        Map<String, ProductValidationResult> results = new HashMap<>();
+        if (response.getBody() != null && response.getBody().getResults() != null) {
+            for (ExternalCartValidationResultDTO result : response.getBody().getResults()) {
+                results.put(result.getCartId(), new ProductValidationResult(result.isValid(), result.getErrors()));
+            }
+        }
+        return results;
+    }
+
     @Override
     public boolean productExists(Integer productId) {
         try {
             String url = productServiceUrl + "/api/products/" + productId + "/exists";
             log.debug("Checking if product exists: {}", productId);
 
-            ResponseEntity<Boolean> response = restTemplate.getForEntity(url, Boolean.class);
+            ResponseEntity<Boolean> response = retryExecutor.execute(DOWNSTREAM, true,
+                    () -> hedgingExecutor.execute(DOWNSTREAM,
+                            () -> restTemplate.getForEntity(url, Boolean.class)));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -102,7 +152,9 @@ public class ProductValidationServiceAdapter implements ProductValidationDomainS
             String url = productServiceUrl + "/api/products/" + productId + "/stock";
             log.debug("Getting stock for product: {}", productId);
 
-            ResponseEntity<Integer> response = restTemplate.getForEntity(url, Integer.class);
+            ResponseEntity<Integer> response = retryExecutor.execute(DOWNSTREAM, true,
+                    () -> hedgingExecutor.execute(DOWNSTREAM,
+                            () -> restTemplate.getForEntity(url, Integer.class)));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 return response.getBody();
@@ -115,4 +167,15 @@ public class ProductValidationServiceAdapter implements ProductValidationDomainS
             return -1;
         }
     }
+
+    private List<ExternalOrderItemRequestDTO> toItemRequests(List<ProductValidationRequest> requests) {
+        return requests.stream()
+                .map(req -> {
+                    ExternalOrderItemRequestDTO item = new ExternalOrderItemRequestDTO();
+                    item.setProductId(req.getProductId());
+                    item.setQuantity(req.getQuantity());
+                    return item;
+                })
+                .collect(Collectors.toList());
+    }
 }
@@ -1,103 +1,186 @@
 package com.ecommerce.order.infrastructure.external.adapter;
 
 import com.ecommerce.order.domain.service.PaymentGatewayService;
-import com.stripe.Stripe;
+import com.ecommerce.order.infrastructure.external.stripe.StripeCallContext;
+import com.ecommerce.order.infrastructure.external.stripe.StripeCallRejectedException;
+import com.ecommerce.order.infrastructure.external.stripe.StripeRequestScheduler;
+import com.stripe.StripeClient;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.Refund;
+import com.stripe.model.StripeCollection;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCancelParams;
+import com.stripe.param.PaymentIntentConfirmParams;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.PaymentIntentListParams;
+import com.stripe.param.PaymentIntentUpdateParams;
 import com.stripe.param.RefundCreateParams;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
-import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Adapter for Stripe payment gateway.
  * Implements the domain service interface for payment processing.
+ * Each operation is a single Stripe request addressed by ID, carries an
+ * idempotency key derived from the order, the operation and its target,
+ * and is timed per operation.
+ * Requests are admitted by {@link StripeRequestScheduler} at the priority of
+ * the calling thread's {@link StripeCallContext}. Network errors, 409s, 429s
+ * and 5xx responses are retried here rather than by the SDK, so every
+ * attempt takes a scheduler token.
  */
 @Component
 public class StripePaymentGatewayAdapter implements PaymentGatewayService {
 
     private static final Logger log = LoggerFactory.getLogger(StripePaymentGatewayAdapter.class);
+    private static final long LIST_PAGE_SIZE = 100;
 
-    @Value("${stripe.api.key}")
-    private String stripeApiKey;
+    private final StripeClient stripeClient;
+    private final StripeRequestScheduler scheduler;
+    private final MeterRegistry meterRegistry;
+    private final int maxListPages;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
 
-    @PostConstruct
-    public void init() {
-        Stripe.apiKey = stripeApiKey;
-        log.info("Stripe API initialized");
+    public StripePaymentGatewayAdapter(
+            @Lazy StripeClient stripeClient,
+            StripeRequestScheduler scheduler,
+            MeterRegistry meterRegistry,
+            @Value("${stripe.client.max-list-pages:10}") int maxListPages,
+            @Value("${stripe.client.max-retries:2}") int maxRetries,
+            @Value("${stripe.client.retry.base-backoff-ms:500}") long baseBackoffMillis,
+            @Value("${stripe.client.retry.max-backoff-ms:5000}") long maxBackoffMillis) {
+        this.stripeClient = stripeClient;
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+        this.maxListPages = maxListPages;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
     }
 
     @Override
-    public PaymentIntentResult createPaymentIntent(BigDecimal amount, String currency, String description) {
+    public PaymentIntentResult createPaymentIntent(Long orderId, BigDecimal amount, String currency,
+            String description, String replacedPaymentIntentId) {
         try {
-            log.info("Creating payment intent for amount: {} {}", amount, currency);
+            log.info("Creating payment intent for order {}, amount: {} {}", orderId, amount, currency);
 
             // Stripe expects amount in cents
-            long amountInCents = amount.multiply(BigDecimal.valueOf(100)).longValue();
+            long amountInCents = toCents(amount);
 
             PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
                     .setAmount(amountInCents)
                     .setCurrency(currency)
                     .setDescription(description)
+                    .putMetadata("order_id", String.valueOf(orderId))
                     .setAutomaticPaymentMethods(
                             PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
                                     .setEnabled(true)
                                     .build())
                     .build();
 
-            PaymentIntent intent = PaymentIntent.create(params);
+            // Same order and amount -> same key, so a retried request returns the
+            // intent created by the first one instead of a duplicate. A replacement
+            // for a closed intent needs a key of its own.
+            String key = "order-" + orderId + "-create-" + amountInCents + "-" + currency;
+            if (replacedPaymentIntentId != null) {
+                key += "-after-" + replacedPaymentIntentId;
+            }
+            RequestOptions options = idempotent(key);
+
+            PaymentIntent intent = timed("create_payment_intent",
+                    () -> stripeClient.paymentIntents().create(params, options));
 
             log.info("Payment intent created successfully: {}", intent.getId());
             return PaymentIntentResult.success(intent.getId(), intent.getClientSecret());
 
-        } catch (StripeException e) {
-            log.error("Error creating payment intent", e);
+        } catch (StripeException | StripeCallRejectedException e) {
+            log.error("Error creating payment intent for order {}", orderId, e);
             return PaymentIntentResult.failure("Failed to create payment intent: " + e.getMessage());
         }
     }
 
     @Override
-    public boolean confirmPayment(String paymentIntentId) {
+    public boolean updatePaymentAmount(Long orderId, String paymentIntentId, BigDecimal amount) {
+        try {
+            log.info("Updating payment intent {} amount to {}", paymentIntentId, amount);
+
+            long amountInCents = toCents(amount);
+            RequestOptions options = idempotent(orderKey(orderId, "amount-" + amountInCents, paymentIntentId));
+            timed("update_payment_intent", () -> stripeClient.paymentIntents().update(
+                    paymentIntentId,
+                    PaymentIntentUpdateParams.builder().setAmount(amountInCents).build(),
+                    options));
+
+            return true;
+
+        } catch (StripeException | StripeCallRejectedException e) {
+            log.error("Error updating payment intent amount: {}", paymentIntentId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean confirmPayment(Long orderId, String paymentIntentId) {
         try {
             log.info("Confirming payment intent: {}", paymentIntentId);
 
-            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
-            intent.confirm();
+            RequestOptions options = idempotent(orderKey(orderId, "confirm", paymentIntentId));
+            timed("confirm_payment_intent", () -> stripeClient.paymentIntents().confirm(
+                    paymentIntentId,
+                    PaymentIntentConfirmParams.builder().build(),
+                    options));
 
             log.info("Payment intent confirmed: {}", paymentIntentId);
             return true;
 
-        } catch (StripeException e) {
+        } catch (StripeException | StripeCallRejectedException e) {
             log.error("Error confirming payment intent: {}", paymentIntentId, e);
             return false;
         }
     }
 
     @Override
-    public boolean cancelPayment(String paymentIntentId) {
+    public boolean cancelPayment(Long orderId, String paymentIntentId) {
         try {
             log.info("Cancelling payment intent: {}", paymentIntentId);
 
-            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
-            intent.cancel();
+            RequestOptions options = idempotent(orderKey(orderId, "cancel", paymentIntentId));
+            timed("cancel_payment_intent", () -> stripeClient.paymentIntents().cancel(
+                    paymentIntentId,
+                    PaymentIntentCancelParams.builder().build(),
+                    options));
 
             log.info("Payment intent cancelled: {}", paymentIntentId);
             return true;
 
-        } catch (StripeException e) {
+        } catch (StripeException | StripeCallRejectedException e) {
             log.error("Error cancelling payment intent: {}", paymentIntentId, e);
             return false;
         }
     }
 
     @Override
-    public RefundResult refundPayment(String paymentIntentId, BigDecimal amount) {
+    public RefundResult refundPayment(Long orderId, String paymentIntentId, BigDecimal amount) {
         try {
             log.info("Creating refund for payment intent: {}, amount: {}", paymentIntentId, amount);
 
@@ -106,16 +189,19 @@ public class StripePaymentGatewayAdapter implements PaymentGatewayService {
 
             // If amount is specified, it's a partial refund
             if (amount != null) {
-                long amountInCents = amount.multiply(BigDecimal.valueOf(100)).longValue();
-                paramsBuilder.setAmount(amountInCents);
+                paramsBuilder.setAmount(toCents(amount));
             }
 
-            Refund refund = Refund.create(paramsBuilder.build());
+            RequestOptions options = idempotent(orderKey(orderId,
+                    amount == null ? "refund-full" : "refund-" + toCents(amount), paymentIntentId));
+
+            RefundCreateParams params = paramsBuilder.build();
+            Refund refund = timed("create_refund", () -> stripeClient.refunds().create(params, options));
 
             log.info("Refund created successfully: {}", refund.getId());
             return RefundResult.success(refund.getId());
 
-        } catch (StripeException e) {
+        } catch (StripeException | StripeCallRejectedException e) {
             log.error("Error creating refund for payment intent: {}", paymentIntentId, e);
             return RefundResult.failure("Failed to create refund: " + e.getMessage());
         }
@@ -124,11 +210,163 @@ public class StripePaymentGatewayAdapter implements PaymentGatewayService {
     @Override
     public String getPaymentStatus(String paymentIntentId) {
         try {
-            PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
+            PaymentIntent intent = timed("retrieve_payment_intent",
+                    () -> stripeClient.paymentIntents().retrieve(paymentIntentId));
             return intent.getStatus();
-        } catch (StripeException e) {
+        } catch (StripeException | StripeCallRejectedException e) {
             log.error("Error retrieving payment status for: {}", paymentIntentId, e);
             return "unknown";
         }
     }
+
+    /**
+     * Lists intents created in the window, 100 per request, and picks out the
+     * wanted ones. Intents the listing did not reach (e.g. created outside
+     * the window) are retrieved one by one.
+     */
+    @Override
+    public Map<String, String> getPaymentStatuses(Collection<String> paymentIntentIds, Instant createdFrom,
+            Instant createdTo) {
+        Set<String> wanted = new HashSet<>(paymentIntentIds);
+        Map<String, String> statuses = new HashMap<>();
+
+        try {
+            PaymentIntentListParams.Created created = PaymentIntentListParams.Created.builder()
+                    .setGte(createdFrom.getEpochSecond())
+                    .setLte(createdTo.getEpochSecond())
+                    .build();
+            String startingAfter = null;
+            for (int page = 0; page < maxListPages && statuses.size() < wanted.size(); page++) {
+                PaymentIntentListParams.Builder params = PaymentIntentListParams.builder()
+                        .setCreated(created)
+                        .setLimit(LIST_PAGE_SIZE);
+                if (startingAfter != null) {
+                    params.setStartingAfter(startingAfter);
+                }
+                PaymentIntentListParams listParams = params.build();
+                StripeCollection<PaymentIntent> intents = timed("list_payment_intents",
+                        () -> stripeClient.paymentIntents().list(listParams));
+
+                for (PaymentIntent intent : intents.getData()) {
+                    if (wanted.contains(intent.getId())) {
+                        statuses.put(intent.getId(), intent.getStatus());
+                    }
+                }
+                if (!Boolean.TRUE.equals(intents.getHasMore()) || intents.getData().isEmpty()) {
+                    break;
+                }
+                startingAfter = intents.getData().get(intents.getData().size() - 1).getId();
+            }
+        } catch (StripeException | StripeCallRejectedException e) {
+            log.error("Error listing payment intents", e);
+        }
+
+        for (String paymentIntentId : wanted) {
+            if (!statuses.containsKey(paymentIntentId)) {
+                String status = getPaymentStatus(paymentIntentId);
+                if (!"unknown".equals(status)) {
+                    statuses.put(paymentIntentId, status);
+                }
+            }
+        }
+        return statuses;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.multiply(BigDecimal.valueOf(100)).longValue();
+    }
+
+    /**
+     * Key for an operation on an order's intent, including the state or
+     * amount it moves the intent to. The same request made again, whether
+     * by a retry, a second click or a job rerun after a crash, gets the same
+     * key, so Stripe replays the first response instead of acting twice.
+     */
+    private static String orderKey(Long orderId, String operation, String paymentIntentId) {
+        return "order-" + orderId + "-" + operation + "-" + paymentIntentId;
+    }
+
+    private static RequestOptions idempotent(String key) {
+        return RequestOptions.builder()
+                .setIdempotencyKey(key)
+                .build();
+    }
+
+    /**
+     * Runs a call, retrying it when Stripe says the request may be repeated.
+     * Every attempt is admitted by the scheduler, and retries of POSTs reuse
+     * the request's idempotency key.
+     */
+    private <T> T timed(String operation, StripeCall<T> call) throws StripeException {
+        StripeRequestScheduler.Priority priority = StripeCallContext.current();
+        int attempt = 0;
+        while (true) {
+            scheduler.acquire(priority);
+            try {
+                return timedAttempt(operation, call);
+            } catch (StripeException e) {
+                if (attempt >= maxRetries || !isRetryable(e)) {
+                    throw e;
+                }
+                long backoffMillis = backoff(attempt);
+                attempt++;
+                log.debug("Retrying Stripe {} (attempt {}) after {}ms: {}", operation, attempt + 1,
+                        backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private <T> T timedAttempt(String operation, StripeCall<T> call) throws StripeException {
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return call.execute();
+        } catch (RateLimitException e) {
+            scheduler.onRateLimited();
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } catch (StripeException e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            Timer.builder("stripe.client.requests")
+                    .description("Latency of Stripe API operations")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Same cases the SDK retries: the request may not have arrived, it
+     * collided with a concurrent request on the same key, it was throttled
+     * or Stripe failed.
+     */
+    private static boolean isRetryable(StripeException e) {
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+        Integer status = e.getStatusCode();
+        return status != null && (status == 409 || status >= 500);
+    }
+
+    @FunctionalInterface
+    private interface StripeCall<T> {
+        T execute() throws StripeException;
+    }
 }
@@ -1,6 +1,8 @@
 package com.ecommerce.order.infrastructure.external.adapter;
 
 import com.ecommerce.order.domain.service.UserValidationDomainService;
+import com.ecommerce.order.infrastructure.external.http.HedgingExecutor;
+import com.ecommerce.order.infrastructure.external.http.RetryExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,13 +24,21 @@ public class UserValidationServiceAdapter implements UserValidationDomainService
 
     private static final Logger log = LoggerFactory.getLogger(UserValidationServiceAdapter.class);
 
+    private static final String DOWNSTREAM = "user-service";
+
     private final RestTemplate restTemplate;
+    private final HedgingExecutor hedgingExecutor;
+    private final RetryExecutor retryExecutor;
     private final String userServiceUrl;
 
     public UserValidationServiceAdapter(
             RestTemplate restTemplate,
+            HedgingExecutor hedgingExecutor,
+            RetryExecutor retryExecutor,
             @Value("${user.service.url:http://localhost:8081}") String userServiceUrl) {
         this.restTemplate = restTemplate;
+        this.hedgingExecutor = hedgingExecutor;
+        this.retryExecutor = retryExecutor;
         this.userServiceUrl = userServiceUrl;
     }
 
@@ -44,13 +54,16 @@ public class UserValidationServiceAdapter implements UserValidationDomainService
             log.debug("Checking if user exists: {}", userUid);
 
             // The User Service returns a JSON object: { "exists": true, ... }
-            // We use exchange with ParameterizedTypeReference to safely map the response
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<Map<String, Object>>() {
-                    });
+            // We use exchange with ParameterizedTypeReference to safely map the response.
+            // The lookup is an idempotent GET, so slow calls are hedged and failed calls retried.
+            ResponseEntity<Map<String, Object>> response = retryExecutor.execute(DOWNSTREAM, true,
+                    () -> hedgingExecutor.execute(DOWNSTREAM,
+                            () -> restTemplate.exchange(
+                                    url,
+                                    HttpMethod.GET,
+                                    null,
+                                    new ParameterizedTypeReference<Map<String, Object>>() {
+                                    })));
 
             if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
                 Map<String, Object> body = response.getBody();
@@ -0,0 +1,15 @@
+package com.ecommerce.order.infrastructure.external.dto;
+
+import java.util.List;
+
+public class ExternalBatchValidationResponseDTO {
+    private List<ExternalCartValidationResultDTO> results;
+
+    public List<ExternalCartValidationResultDTO> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ExternalCartValidationResultDTO> results) {
+        this.results = results;
+    }
+}
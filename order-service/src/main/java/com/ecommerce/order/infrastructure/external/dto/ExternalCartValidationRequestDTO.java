@@ -0,0 +1,24 @@
+package com.ecommerce.order.infrastructure.external.dto;
+
+import java.util.List;
+
+public class ExternalCartValidationRequestDTO {
+    private String cartId;
+    private List<ExternalOrderItemRequestDTO> items;
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    public void setCartId(String cartId) {
+        this.cartId = cartId;
+    }
+
+    public List<ExternalOrderItemRequestDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ExternalOrderItemRequestDTO> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.order.infrastructure.external.dto;
+
+import java.util.List;
+
+public class ExternalCartValidationResultDTO {
+    private String cartId;
+    private boolean valid;
+    private List<String> errors;
+
+    public String getCartId() {
+        return cartId;
+    }
+
+    public void setCartId(String cartId) {
+        this.cartId = cartId;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
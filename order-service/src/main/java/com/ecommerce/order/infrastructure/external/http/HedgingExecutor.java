@@ -0,0 +1,274 @@
+package com.ecommerce.order.infrastructure.external.http;
+
+import com.ecommerce.order.infrastructure.concurrency.VirtualThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends hedged requests for idempotent downstream reads.
+ * The call is started once; if it has not answered after the downstream's
+ * observed latency percentile, a second identical call is started and
+ * whichever succeeds first wins. Hedges are paid for from a per-downstream
+ * token budget so they never add more than a few percent of extra load.
+ * At most max-threads calls run on the executor at once, also on virtual
+ * threads; beyond that a call runs plainly on the caller's thread.
+ * <p>
+ * Only use this for calls that are safe to send twice.
+ */
+@Component
+public class HedgingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(HedgingExecutor.class);
+
+    private final boolean enabled;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final int minSamples;
+    private final int sampleWindow;
+    private final double budgetRatio;
+    private final int maxBurst;
+    private final MeterRegistry meterRegistry;
+
+    private final int maxThreads;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final ConcurrentHashMap<String, Downstream> downstreams = new ConcurrentHashMap<>();
+
+    public HedgingExecutor(
+            MeterRegistry meterRegistry,
+            VirtualThreads virtualThreads,
+            @Value("${http.client.hedging.enabled:true}") boolean enabled,
+            @Value("${http.client.hedging.percentile:0.95}") double percentile,
+            @Value("${http.client.hedging.min-delay-ms:5}") long minDelayMillis,
+            @Value("${http.client.hedging.min-samples:100}") int minSamples,
+            @Value("${http.client.hedging.sample-window:1000}") int sampleWindow,
+            @Value("${http.client.hedging.budget-percent:5}") double budgetPercent,
+            @Value("${http.client.hedging.max-burst:10}") int maxBurst,
+            @Value("${http.client.hedging.max-threads:64}") int maxThreads) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMillis);
+        this.minSamples = minSamples;
+        this.sampleWindow = sampleWindow;
+        this.budgetRatio = budgetPercent / 100.0;
+        this.maxBurst = maxBurst;
+        this.maxThreads = maxThreads;
+        // The virtual thread executor has no size of its own
+        this.permits = new Semaphore(maxThreads);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = virtualThreads.executor("http-hedge-", () -> new ThreadPoolExecutor(0, maxThreads,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "http-hedge-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+
+        log.info("HTTP hedging {}: p{} delay, budget={}%", enabled ? "enabled" : "disabled",
+                Math.round(percentile * 100), budgetPercent);
+    }
+
+    /**
+     * Runs an idempotent call, hedging it if it is slow.
+     *
+     * @param downstream name of the downstream service, used for latency
+     *                   tracking, budgeting and metric tags
+     * @param call       the call to run; may be executed twice
+     * @return the first successful result
+     */
+    public <T> T execute(String downstream, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        // Pooled threads do not see the caller's retry deadline
+        Supplier<T> bounded = RetryExecutor.propagateDeadline(call);
+
+        Downstream target = downstreams.computeIfAbsent(downstream, this::register);
+        target.requests.increment();
+        target.budget.deposit();
+
+        CompletableFuture<T> primary;
+        try {
+            primary = submit(target.timed(bounded));
+        } catch (RejectedExecutionException e) {
+            // Hedge pool saturated: run the call plainly on the caller's thread
+            return target.timed(call).get();
+        }
+
+        long delayNanos = target.hedgeDelayNanos();
+        if (delayNanos < 0) {
+            return await(primary);
+        }
+
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Primary is slow: fall through and consider a hedge
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for " + downstream, e);
+        }
+
+        if (!target.budget.tryWithdraw()) {
+            target.budgetExhausted.increment();
+            return await(primary);
+        }
+
+        CompletableFuture<T> hedge;
+        try {
+            hedge = submit(target.timed(bounded));
+        } catch (RejectedExecutionException e) {
+            return await(primary);
+        }
+        target.hedges.increment();
+
+        return await(firstSuccessful(primary, hedge, target));
+    }
+
+    /**
+     * Starts a call on the executor, holding a permit until it ends.
+     *
+     * @throws RejectedExecutionException if max-threads calls are running
+     */
+    private <T> CompletableFuture<T> submit(Supplier<T> call) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("All " + maxThreads + " hedging threads are busy");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return call.get();
+                } finally {
+                    permits.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Downstream register(String name) {
+        Downstream downstream = new Downstream(name);
+        Gauge.builder("http.client.hedge.delay", downstream,
+                        d -> Math.max(0, d.hedgeDelayNanos()) / 1_000_000.0)
+                .description("Current hedge delay in milliseconds (0 while warming up)")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        return downstream;
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(
+            CompletableFuture<T> primary, CompletableFuture<T> hedge, Downstream target) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(value);
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedge.whenComplete((value, error) -> {
+            if (error == null) {
+                if (winner.complete(value)) {
+                    target.hedgeWins.increment();
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        });
+        return winner;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IllegalStateException(error);
+    }
+
+    private class Downstream {
+        private final LatencyTracker latencies = new LatencyTracker(sampleWindow);
+        private final TokenBudget budget = new TokenBudget(budgetRatio, maxBurst);
+        private final Counter requests;
+        private final Counter hedges;
+        private final Counter hedgeWins;
+        private final Counter budgetExhausted;
+
+        Downstream(String name) {
+            this.requests = counter("http.client.hedge.requests", "Calls eligible for hedging", name);
+            this.hedges = counter("http.client.hedge.sent", "Hedge requests sent", name);
+            this.hedgeWins = counter("http.client.hedge.wins", "Hedge requests that answered first", name);
+            this.budgetExhausted = counter("http.client.hedge.budget_exhausted",
+                    "Hedges skipped because the hedge budget was spent", name);
+        }
+
+        long hedgeDelayNanos() {
+            if (latencies.size() < minSamples) {
+                return -1;
+            }
+            return Math.max(minDelayNanos, latencies.percentile(percentile));
+        }
+
+        <T> Supplier<T> timed(Supplier<T> call) {
+            return () -> {
+                long start = System.nanoTime();
+                T result = call.get();
+                latencies.record(System.nanoTime() - start);
+                return result;
+            };
+        }
+
+        private Counter counter(String name, String description, String downstream) {
+            return Counter.builder(name)
+                    .description(description)
+                    .tag("downstream", downstream)
+                    .register(meterRegistry);
+        }
+    }
+}
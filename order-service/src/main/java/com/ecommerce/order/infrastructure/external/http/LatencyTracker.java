@@ -0,0 +1,73 @@
+package com.ecommerce.order.infrastructure.external.http;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Tracks recent call latencies for one downstream in a fixed-size ring and
+ * answers percentile queries. Percentiles are recomputed at most once per
+ * refresh interval so lookups on the request path stay cheap.
+ */
+public class LatencyTracker {
+
+    private static final long REFRESH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final AtomicLongArray samples;
+    private final AtomicInteger count = new AtomicInteger();
+
+    private volatile long[] sortedSnapshot = new long[0];
+    private volatile long snapshotTakenAtNanos;
+
+    public LatencyTracker(int capacity) {
+        this.samples = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Records one observed latency.
+     *
+     * @param latencyNanos call latency in nanoseconds
+     */
+    public void record(long latencyNanos) {
+        int index = count.getAndIncrement() % samples.length();
+        samples.set(Math.abs(index), latencyNanos);
+    }
+
+    /**
+     * @return number of samples currently held
+     */
+    public int size() {
+        return Math.min(count.get() & Integer.MAX_VALUE, samples.length());
+    }
+
+    /**
+     * Returns the latency at the given percentile of recent samples.
+     *
+     * @param percentile percentile between 0 and 1
+     * @return latency in nanoseconds, or -1 if no samples are available
+     */
+    public long percentile(double percentile) {
+        long now = System.nanoTime();
+        long[] sorted = sortedSnapshot;
+        if (sorted.length == 0 || now - snapshotTakenAtNanos > REFRESH_INTERVAL_NANOS) {
+            sorted = snapshot();
+            sortedSnapshot = sorted;
+            snapshotTakenAtNanos = now;
+        }
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private long[] snapshot() {
+        int size = size();
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        return copy;
+    }
+}
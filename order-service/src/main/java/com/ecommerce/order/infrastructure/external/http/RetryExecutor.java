@@ -0,0 +1,256 @@
+package com.ecommerce.order.infrastructure.external.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed outbound HTTP calls with exponential backoff and full
+ * jitter.
+ * <ul>
+ *   <li>Idempotent calls are retried on I/O errors and on 429/502/503/504.</li>
+ *   <li>Non-idempotent calls are retried only when the connection could not
+ *       be established, i.e. the request never reached the server.</li>
+ *   <li>Retries are paid for from a per-downstream token budget so they
+ *       cannot multiply load during an outage.</li>
+ *   <li>A per-call deadline caps the total time spent including backoff.
+ *       No attempt starts once it has passed, and each attempt's HTTP
+ *       timeouts are shortened to the time left (see
+ *       {@link #remainingMillis()}).</li>
+ * </ul>
+ */
+@Component
+public class RetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(RetryExecutor.class);
+
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long deadlineMillis;
+    private final double budgetRatio;
+    private final int maxBurst;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, Downstream> downstreams = new ConcurrentHashMap<>();
+
+    /** Deadline, in {@link System#nanoTime()}, of the call running on this thread */
+    private static final ThreadLocal<Long> CALL_DEADLINE = new ThreadLocal<>();
+
+    public RetryExecutor(
+            MeterRegistry meterRegistry,
+            @Value("${http.client.max-retry-attempts:2}") int maxRetries,
+            @Value("${http.client.retry.base-backoff-ms:50}") long baseBackoffMillis,
+            @Value("${http.client.retry.max-backoff-ms:1000}") long maxBackoffMillis,
+            @Value("${http.client.retry.deadline-ms:8000}") long deadlineMillis,
+            @Value("${http.client.retry.budget-percent:10}") double budgetPercent,
+            @Value("${http.client.retry.max-burst:10}") int maxBurst) {
+        this.meterRegistry = meterRegistry;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.budgetRatio = budgetPercent / 100.0;
+        this.maxBurst = maxBurst;
+
+        log.info("HTTP retries: maxRetries={}, deadline={}ms, budget={}%", maxRetries, deadlineMillis, budgetPercent);
+    }
+
+    /**
+     * Runs a call, retrying it when that is safe.
+     *
+     * @param downstream name of the downstream service, used for budgeting
+     *                   and metric tags
+     * @param idempotent whether the call may be repeated after the server
+     *                   has possibly received it
+     * @param call       the call to run
+     * @return the call's result
+     */
+    public <T> T execute(String downstream, boolean idempotent, Supplier<T> call) {
+        Downstream target = downstreams.computeIfAbsent(downstream, this::register);
+        target.budget.deposit();
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        Long outerDeadline = CALL_DEADLINE.get();
+        // A nested call never outlives the call it belongs to
+        CALL_DEADLINE.set(outerDeadline != null ? Math.min(outerDeadline, deadline) : deadline);
+        try {
+            return attempt(downstream, idempotent, call, target, CALL_DEADLINE.get());
+        } finally {
+            if (outerDeadline != null) {
+                CALL_DEADLINE.set(outerDeadline);
+            } else {
+                CALL_DEADLINE.remove();
+            }
+        }
+    }
+
+    private <T> T attempt(String downstream, boolean idempotent, Supplier<T> call, Downstream target,
+            long deadline) {
+        int attempt = 0;
+        while (true) {
+            try {
+                T result = call.get();
+                if (attempt > 0) {
+                    target.recovered.increment();
+                }
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e, idempotent)) {
+                    throw e;
+                }
+                if (attempt >= maxRetries) {
+                    target.exhausted.increment();
+                    throw e;
+                }
+
+                long backoffMillis = backoff(attempt);
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (backoffMillis >= remainingMillis) {
+                    target.deadlineExceeded.increment();
+                    throw e;
+                }
+                if (!target.budget.tryWithdraw()) {
+                    target.budgetExhausted.increment();
+                    throw e;
+                }
+
+                attempt++;
+                target.retries.increment();
+                log.debug("Retrying call to {} (attempt {}) after {}ms: {}", downstream, attempt + 1,
+                        backoffMillis, e.getMessage());
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                // The sleep may have overrun; never start an attempt past the deadline
+                if (deadline - System.nanoTime() <= 0) {
+                    target.deadlineExceeded.increment();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Time left before the deadline of the call running on this thread. The
+     * HTTP client uses it to shorten each attempt's timeouts, so an attempt
+     * started close to the deadline cannot run past it.
+     *
+     * @return the remaining milliseconds, at least 1, or empty outside
+     *         {@link #execute}
+     */
+    public static OptionalLong remainingMillis() {
+        Long deadline = CALL_DEADLINE.get();
+        if (deadline == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+    }
+
+    /**
+     * Binds the deadline of the call running on this thread to a call that
+     * will run on another thread, such as a hedged request.
+     *
+     * @param call the call to run elsewhere
+     * @return the call, running under the current deadline
+     */
+    public static <T> Supplier<T> propagateDeadline(Supplier<T> call) {
+        Long deadline = CALL_DEADLINE.get();
+        if (deadline == null) {
+            return call;
+        }
+        return () -> {
+            CALL_DEADLINE.set(deadline);
+            try {
+                return call.get();
+            } finally {
+                CALL_DEADLINE.remove();
+            }
+        };
+    }
+
+    private long backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static boolean isRetryable(RuntimeException e, boolean idempotent) {
+        if (e instanceof ResourceAccessException) {
+            return idempotent || isConnectFailure(e);
+        }
+        if (e instanceof RestClientResponseException responseException && idempotent) {
+            HttpStatusCode status = responseException.getStatusCode();
+            return status.value() == HttpStatus.TOO_MANY_REQUESTS.value()
+                    || status.value() == HttpStatus.BAD_GATEWAY.value()
+                    || status.value() == HttpStatus.SERVICE_UNAVAILABLE.value()
+                    || status.value() == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return false;
+    }
+
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConnectException
+                    || cause instanceof ConnectTimeoutException
+                    || cause instanceof UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Downstream register(String name) {
+        Downstream downstream = new Downstream(name);
+        Gauge.builder("http.client.retry.budget", downstream.budget, TokenBudget::getAvailable)
+                .description("Retries currently available in the retry budget")
+                .tag("downstream", name)
+                .register(meterRegistry);
+        return downstream;
+    }
+
+    private class Downstream {
+        private final TokenBudget budget = new TokenBudget(budgetRatio, maxBurst);
+        private final Counter retries;
+        private final Counter recovered;
+        private final Counter exhausted;
+        private final Counter budgetExhausted;
+        private final Counter deadlineExceeded;
+
+        Downstream(String name) {
+            this.retries = counter("http.client.retry.retries", "Retry attempts sent", name);
+            this.recovered = counter("http.client.retry.recovered", "Calls that succeeded after retrying", name);
+            this.exhausted = counter("http.client.retry.exhausted", "Calls that failed after all retries", name);
+            this.budgetExhausted = counter("http.client.retry.budget_exhausted",
+                    "Retries skipped because the retry budget was spent", name);
+            this.deadlineExceeded = counter("http.client.retry.deadline_exceeded",
+                    "Retries skipped because the call deadline would be exceeded", name);
+        }
+
+        private Counter counter(String name, String description, String downstream) {
+            return Counter.builder(name)
+                    .description(description)
+                    .tag("downstream", downstream)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.order.infrastructure.external.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that earns a fraction of a token per call and spends a whole
+ * token per extra attempt (hedge or retry). Extra load therefore stays
+ * below the configured ratio of normal traffic, with a small burst
+ * allowance.
+ */
+public class TokenBudget {
+
+    /** Tokens are tracked in thousandths. */
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+
+    /**
+     * @param ratio     extra attempts allowed per call, e.g. 0.05 for 5%
+     * @param maxTokens burst allowance in whole tokens
+     */
+    public TokenBudget(double ratio, int maxTokens) {
+        this.depositPerCall = Math.round(ratio * SCALE);
+        this.maxTokens = maxTokens * SCALE;
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    /**
+     * Credits the budget for one call.
+     */
+    public void deposit() {
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + depositPerCall));
+    }
+
+    /**
+     * Spends one token if available.
+     *
+     * @return true if the extra attempt may be made
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return whole tokens currently available
+     */
+    public double getAvailable() {
+        return tokens.get() / (double) SCALE;
+    }
+}
@@ -1,9 +1,13 @@
 package com.ecommerce.order.infrastructure.external.service;
 
+import com.ecommerce.order.application.service.OrderReadCoalescer;
 import com.ecommerce.order.application.usecase.UpdateOrderStatusUseCase;
 import com.ecommerce.order.domain.entity.OrderEntity;
 import com.ecommerce.order.domain.entity.PaymentEntity;
 import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.infrastructure.external.stripe.StripeCallContext;
+import com.ecommerce.order.infrastructure.external.stripe.StripeRequestScheduler;
+import com.stripe.model.Charge;
 import com.stripe.model.Event;
 import com.stripe.model.PaymentIntent;
 import org.slf4j.Logger;
@@ -11,6 +15,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -21,14 +26,22 @@ public class StripeWebhookService {
 
     private final PaymentDomainRepository paymentRepository;
     private final UpdateOrderStatusUseCase updateOrderStatusUseCase;
+    private final OrderReadCoalescer orderReader;
 
     public StripeWebhookService(PaymentDomainRepository paymentRepository,
-            UpdateOrderStatusUseCase updateOrderStatusUseCase) {
+            UpdateOrderStatusUseCase updateOrderStatusUseCase,
+            OrderReadCoalescer orderReader) {
         this.paymentRepository = paymentRepository;
         this.updateOrderStatusUseCase = updateOrderStatusUseCase;
+        this.orderReader = orderReader;
     }
 
     public void handleWebhookEvent(Event event) {
+        // Stripe calls made while handling the event queue behind checkout traffic
+        StripeCallContext.run(StripeRequestScheduler.Priority.WEBHOOK, () -> dispatch(event));
+    }
+
+    private void dispatch(Event event) {
         logger.info("Received Stripe webhook event: type={}, id={}", event.getType(), event.getId());
 
         try {
@@ -78,13 +91,15 @@ public class StripeWebhookService {
             String paymentIntentId = paymentIntent.getId();
             logger.info("Processing payment success for PaymentIntent: {}", paymentIntentId);
 
-            Optional<PaymentEntity> paymentOpt = paymentRepository.findByStripePaymentIntentId(paymentIntentId);
+            Optional<PaymentEntity> paymentOpt = paymentRepository.findByStripePaymentIntentId(paymentIntentId,
+                    orderIdOf(paymentIntent.getMetadata()));
 
             if (paymentOpt.isPresent()) {
                 PaymentEntity payment = paymentOpt.get();
 
                 payment.setStatus(PaymentEntity.PaymentStatus.COMPLETED);
                 paymentRepository.save(payment);
+                invalidateOrder(payment);
                 logger.info("Payment status updated: paymentId={}, newStatus=COMPLETED", payment.getId());
 
                 if (payment.getOrderId() != null) {
@@ -103,22 +118,91 @@ public class StripeWebhookService {
         }
     }
 
-    // ... (implement other methods similarly)
-
     private void handlePaymentFailed(Event event) {
-        // Implementation similar to above
+        // A failed attempt returns the intent to requires_payment_method; the
+        // customer can retry with the same intent, so the payment stays open
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+                .getObject().orElse(null);
+        if (paymentIntent != null) {
+            logger.info("Payment attempt failed for PaymentIntent: {}", paymentIntent.getId());
+        }
     }
 
     private void handlePaymentProcessing(Event event) {
-        // Implementation similar to above
+        logger.info("Payment processing event received");
     }
 
     private void handlePaymentCanceled(Event event) {
-        // Implementation similar to above
+        PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer()
+                .getObject().orElse(null);
+
+        if (paymentIntent == null) {
+            logger.error("Failed to extract PaymentIntent from payment_intent.canceled event");
+            return;
+        }
+
+        Optional<PaymentEntity> paymentOpt = paymentRepository.findByStripePaymentIntentId(paymentIntent.getId(),
+                orderIdOf(paymentIntent.getMetadata()));
+        if (paymentOpt.isPresent() && paymentOpt.get().isOpen()) {
+            PaymentEntity payment = paymentOpt.get();
+            payment.markAsFailed();
+            paymentRepository.save(payment);
+            invalidateOrder(payment);
+            logger.info("Payment status updated: paymentId={}, newStatus=FAILED", payment.getId());
+        } else if (paymentOpt.isEmpty()) {
+            logger.warn("Payment not found for PaymentIntent: {}", paymentIntent.getId());
+        }
     }
 
     private void handleChargeRefunded(Event event) {
-        logger.info("Charge refunded event received");
+        Charge charge = (Charge) event.getDataObjectDeserializer().getObject().orElse(null);
+
+        if (charge == null || charge.getPaymentIntent() == null) {
+            logger.error("Failed to extract Charge from charge.refunded event");
+            return;
+        }
+
+        // Partial refunds leave the payment completed
+        if (!Boolean.TRUE.equals(charge.getRefunded())) {
+            logger.info("Partial refund for PaymentIntent: {}", charge.getPaymentIntent());
+            return;
+        }
+
+        Optional<PaymentEntity> paymentOpt = paymentRepository.findByStripePaymentIntentId(charge.getPaymentIntent(),
+                orderIdOf(charge.getMetadata()));
+        if (paymentOpt.isPresent() && paymentOpt.get().canBeRefunded()) {
+            PaymentEntity payment = paymentOpt.get();
+            payment.markAsRefunded();
+            paymentRepository.save(payment);
+            invalidateOrder(payment);
+            logger.info("Payment status updated: paymentId={}, newStatus=REFUNDED", payment.getId());
+        }
+    }
+
+    /**
+     * Cached orders embed their payment, so a payment change drops the
+     * order from the read cache once this transaction commits.
+     */
+    private void invalidateOrder(PaymentEntity payment) {
+        if (payment.getOrderId() != null) {
+            orderReader.invalidate(payment.getOrderId());
+        }
+    }
+
+    /**
+     * @return the order_id the adapter puts into intent metadata, or null
+     *         if it is missing or not a number
+     */
+    private static Long orderIdOf(Map<String, String> metadata) {
+        String orderId = metadata == null ? null : metadata.get("order_id");
+        if (orderId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(orderId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 
     private void handleChargeSucceeded(Event event) {
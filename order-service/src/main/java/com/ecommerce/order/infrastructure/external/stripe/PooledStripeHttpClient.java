@@ -0,0 +1,115 @@
+package com.ecommerce.order.infrastructure.external.stripe;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.net.HttpClient;
+import com.stripe.net.HttpContent;
+import com.stripe.net.HttpHeaders;
+import com.stripe.net.StripeRequest;
+import com.stripe.net.StripeResponse;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.support.ClassicRequestBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stripe SDK transport on a pooled Apache HttpClient. The SDK's default
+ * transport is HttpURLConnection, whose keep-alive cache is sized by the
+ * JVM-wide {@code http.maxConnections} property; this one keeps up to
+ * {@code maxConnections} connections to Stripe without touching other
+ * clients in the process. Retries are left to the gateway adapter.
+ */
+public class PooledStripeHttpClient extends HttpClient implements Closeable {
+
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig requestConfig;
+
+    public PooledStripeHttpClient(int maxConnections, int connectTimeout, int readTimeout, long idleEvictionMillis) {
+        this.requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeout))
+                .setResponseTimeout(Timeout.ofMilliseconds(readTimeout))
+                .build();
+        this.httpClient = HttpClientBuilder.create()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        // Every request goes to the one Stripe host
+                        .setMaxConnTotal(maxConnections)
+                        .setMaxConnPerRoute(maxConnections)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(connectTimeout))
+                                .setSocketTimeout(Timeout.ofMilliseconds(readTimeout))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(requestConfig)
+                .disableAutomaticRetries()
+                .disableRedirectHandling()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictionMillis))
+                .build();
+    }
+
+    @Override
+    public StripeResponse request(StripeRequest request) throws ApiConnectionException {
+        ClassicRequestBuilder builder = ClassicRequestBuilder.create(request.method().name())
+                .setUri(request.url().toString())
+                .setHeader("User-Agent", buildUserAgentString())
+                .setHeader("X-Stripe-Client-User-Agent", buildXStripeClientUserAgentString());
+        request.headers().map().forEach((name, values) -> values.forEach(value -> builder.addHeader(name, value)));
+        HttpContent content = request.content();
+        if (content != null) {
+            builder.setEntity(new ByteArrayEntity(content.byteArrayContent(),
+                    ContentType.parse(content.contentType())));
+        }
+        ClassicHttpRequest httpRequest = builder.build();
+
+        // A read timeout set in the call's RequestOptions overrides the client's
+        HttpClientContext context = HttpClientContext.create();
+        Integer requestReadTimeout = request.options() != null ? request.options().getReadTimeout() : null;
+        if (requestReadTimeout != null) {
+            context.setRequestConfig(RequestConfig.copy(requestConfig)
+                    .setResponseTimeout(Timeout.ofMilliseconds(requestReadTimeout))
+                    .build());
+        }
+
+        try {
+            return httpClient.execute(httpRequest, context, response -> new StripeResponse(
+                    response.getCode(),
+                    HttpHeaders.of(headers(response.getHeaders())),
+                    response.getEntity() != null
+                            ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8)
+                            : ""));
+        } catch (IOException e) {
+            throw new ApiConnectionException(String.format(
+                    "IOException during API request to Stripe (%s): %s", request.url(), e.getMessage()), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private static Map<String, List<String>> headers(Header[] headers) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        for (Header header : headers) {
+            map.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecommerce.order.infrastructure.external.stripe;
+
+import java.util.function.Supplier;
+
+/**
+ * Carries the Stripe call priority for the current thread.
+ * Calls made outside any context are treated as checkout traffic, so
+ * background work must opt in to a lower priority.
+ */
+public final class StripeCallContext {
+
+    private static final ThreadLocal<StripeRequestScheduler.Priority> CURRENT = new ThreadLocal<>();
+
+    private StripeCallContext() {
+    }
+
+    /**
+     * @return the priority of Stripe calls made on this thread
+     */
+    public static StripeRequestScheduler.Priority current() {
+        StripeRequestScheduler.Priority priority = CURRENT.get();
+        return priority != null ? priority : StripeRequestScheduler.Priority.CHECKOUT;
+    }
+
+    /**
+     * Runs work whose Stripe calls use the given priority.
+     */
+    public static void run(StripeRequestScheduler.Priority priority, Runnable work) {
+        call(priority, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs work whose Stripe calls use the given priority and returns its
+     * result.
+     */
+    public static <T> T call(StripeRequestScheduler.Priority priority, Supplier<T> work) {
+        StripeRequestScheduler.Priority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.order.infrastructure.external.stripe;
+
+/**
+ * Thrown when a Stripe call is not sent because the scheduler's queue for
+ * its priority is full or its deadline passed while waiting.
+ */
+public class StripeCallRejectedException extends RuntimeException {
+
+    public StripeCallRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,314 @@
+package com.ecommerce.order.infrastructure.external.stripe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Central admission control for outbound Stripe requests.
+ * Every Stripe call takes a token from a shared bucket before it is sent.
+ * When tokens run out, callers queue by priority: checkout before webhook
+ * follow-ups before batch jobs. Each priority has a bounded queue and a
+ * deadline, and batch work cannot use the last few tokens. On a 429 the rate
+ * is halved and then recovers linearly.
+ * <p>
+ * The call itself still runs on the caller's thread; only the permission to
+ * send is scheduled.
+ */
+@Component
+public class StripeRequestScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StripeRequestScheduler.class);
+
+    private final double maxRate;
+    private final double minRate;
+    private final double burst;
+    private final double recoveryPerSecond;
+    private final long throttleCooldownNanos;
+    private final double batchReserve;
+    private final Map<Priority, Integer> queueCapacity = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> queueDeadlineNanos = new EnumMap<>(Priority.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+
+    // Guarded by lock
+    private double tokens;
+    private long lastRefillNanos;
+    private long lastThrottledNanos;
+
+    private volatile double rate;
+    private volatile boolean running = true;
+    private Thread dispatcher;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+    private final Counter throttled;
+
+    public StripeRequestScheduler(
+            MeterRegistry meterRegistry,
+            @Value("${stripe.scheduler.max-rate:25}") double maxRate,
+            @Value("${stripe.scheduler.min-rate:1}") double minRate,
+            @Value("${stripe.scheduler.burst:10}") double burst,
+            @Value("${stripe.scheduler.recovery-per-second:1}") double recoveryPerSecond,
+            @Value("${stripe.scheduler.throttle-cooldown-ms:1000}") long throttleCooldownMillis,
+            @Value("${stripe.scheduler.batch-reserve:5}") double batchReserve,
+            @Value("${stripe.scheduler.checkout.queue-capacity:200}") int checkoutCapacity,
+            @Value("${stripe.scheduler.checkout.deadline-ms:3000}") long checkoutDeadlineMillis,
+            @Value("${stripe.scheduler.webhook.queue-capacity:500}") int webhookCapacity,
+            @Value("${stripe.scheduler.webhook.deadline-ms:10000}") long webhookDeadlineMillis,
+            @Value("${stripe.scheduler.batch.queue-capacity:1000}") int batchCapacity,
+            @Value("${stripe.scheduler.batch.deadline-ms:60000}") long batchDeadlineMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxRate = maxRate;
+        this.minRate = minRate;
+        this.burst = burst;
+        this.recoveryPerSecond = recoveryPerSecond;
+        this.throttleCooldownNanos = TimeUnit.MILLISECONDS.toNanos(throttleCooldownMillis);
+        this.batchReserve = Math.min(batchReserve, burst - 1);
+        this.rate = maxRate;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastThrottledNanos = lastRefillNanos - throttleCooldownNanos;
+
+        queueCapacity.put(Priority.CHECKOUT, checkoutCapacity);
+        queueCapacity.put(Priority.WEBHOOK, webhookCapacity);
+        queueCapacity.put(Priority.BATCH, batchCapacity);
+        queueDeadlineNanos.put(Priority.CHECKOUT, TimeUnit.MILLISECONDS.toNanos(checkoutDeadlineMillis));
+        queueDeadlineNanos.put(Priority.WEBHOOK, TimeUnit.MILLISECONDS.toNanos(webhookDeadlineMillis));
+        queueDeadlineNanos.put(Priority.BATCH, TimeUnit.MILLISECONDS.toNanos(batchDeadlineMillis));
+
+        for (Priority priority : Priority.values()) {
+            ArrayDeque<Waiter> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("stripe.scheduler.queue.depth", this, s -> s.queueDepth(priority))
+                    .description("Stripe calls waiting for a rate-limit token")
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("stripe.scheduler.wait")
+                    .description("Time Stripe calls wait for a rate-limit token")
+                    .tag("priority", tag)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("stripe.scheduler.rate", this, s -> s.rate)
+                .description("Current Stripe request rate limit (requests/second)")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("stripe.scheduler.throttled")
+                .description("Stripe responses with HTTP 429")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = new Thread(this::dispatchLoop, "stripe-request-scheduler");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        log.info("Stripe request scheduler started: maxRate={}/s, burst={}", maxRate, burst);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Blocks until the caller may send one Stripe request.
+     *
+     * @param priority the caller's priority class
+     * @throws StripeCallRejectedException if the queue is full or the
+     *                                     priority's deadline passes first
+     */
+    public void acquire(Priority priority) {
+        long start = System.nanoTime();
+        Waiter waiter;
+
+        lock.lock();
+        try {
+            refill(start);
+            if (nothingQueuedAtOrAbove(priority) && tokens >= 1 + reserveFor(priority)) {
+                tokens -= 1;
+                waitTimers.get(priority).record(0, TimeUnit.NANOSECONDS);
+                return;
+            }
+
+            ArrayDeque<Waiter> queue = queues.get(priority);
+            if (queue.size() >= queueCapacity.get(priority)) {
+                reject(priority, "queue_full");
+                throw new StripeCallRejectedException("Stripe " + priority + " queue is full");
+            }
+            waiter = new Waiter();
+            queue.addLast(waiter);
+            workAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            waiter.granted.get(queueDeadlineNanos.get(priority), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(priority, waiter, "deadline");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(priority, waiter, "interrupted");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        waitTimers.get(priority).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reports a 429 from Stripe. Halves the rate (at most once per cooldown)
+     * and drains the bucket.
+     */
+    public void onRateLimited() {
+        throttled.increment();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            refill(now);
+            tokens = Math.min(tokens, 0);
+            if (now - lastThrottledNanos >= throttleCooldownNanos) {
+                rate = Math.max(minRate, rate / 2);
+                log.warn("Stripe rate limit hit, slowing down to {}/s", String.format("%.1f", rate));
+            }
+            lastThrottledNanos = now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        lock.lock();
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                refill(now);
+
+                Priority next = highestQueued();
+                if (next == null) {
+                    workAvailable.await();
+                    continue;
+                }
+
+                double needed = 1 + reserveFor(next);
+                if (tokens >= needed) {
+                    tokens -= 1;
+                    queues.get(next).pollFirst().granted.complete(null);
+                    continue;
+                }
+
+                long waitNanos = (long) ((needed - tokens) / rate * 1_000_000_000L);
+                workAvailable.awaitNanos(Math.max(waitNanos, 100_000L));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void abandon(Priority priority, Waiter waiter, String reason) {
+        lock.lock();
+        try {
+            if (waiter.granted.isDone()) {
+                // Granted just as we gave up; use the token
+                return;
+            }
+            queues.get(priority).remove(waiter);
+        } finally {
+            lock.unlock();
+        }
+        reject(priority, reason);
+        throw new StripeCallRejectedException("Timed out waiting to call Stripe (" + priority + ")");
+    }
+
+    private void refill(long now) {
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        if (now - lastThrottledNanos >= throttleCooldownNanos && rate < maxRate) {
+            rate = Math.min(maxRate, rate + recoveryPerSecond * elapsedSeconds);
+        }
+        tokens = Math.min(burst, tokens + rate * elapsedSeconds);
+    }
+
+    private boolean nothingQueuedAtOrAbove(Priority priority) {
+        for (Priority p : Priority.values()) {
+            if (p.ordinal() > priority.ordinal()) {
+                break;
+            }
+            if (!queues.get(p).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Priority highestQueued() {
+        for (Priority p : Priority.values()) {
+            if (!queues.get(p).isEmpty()) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private double reserveFor(Priority priority) {
+        return priority == Priority.BATCH ? batchReserve : 0;
+    }
+
+    private int queueDepth(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reject(Priority priority, String reason) {
+        Counter.builder("stripe.scheduler.rejected")
+                .description("Stripe calls rejected before being sent")
+                .tag("priority", priority.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static class Waiter {
+        private final CompletableFuture<Void> granted = new CompletableFuture<>();
+    }
+
+    /**
+     * Priority classes for Stripe calls, highest first.
+     */
+    public enum Priority {
+        /** Customer-facing checkout and payment calls. */
+        CHECKOUT,
+        /** Follow-up calls made while handling Stripe webhooks. */
+        WEBHOOK,
+        /** Background jobs such as reconciliation, expiry and refund batches. */
+        BATCH
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.order.infrastructure.id;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link SnowflakeIdGenerator} whose node ID is leased in the database,
+ * so two running instances never share one. The node is
+ * {@code firstNodeId + configuredIndex}, or the lowest free one of
+ * {@code nodeCount} nodes from {@code firstNodeId} when no index is
+ * configured. The lease must be renewed with {@link #renew()}; if it can't
+ * be renewed for half the lease timeout, or another instance took it over,
+ * no more IDs are issued.
+ * <p>
+ * A crashed holder's node ID can be claimed once its lease expires. The
+ * new holder starts after the time the old one last recorded, which is safe
+ * as long as clocks differ by less than the lease timeout minus the renew
+ * interval.
+ */
+public class LeasedSnowflakeIdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedSnowflakeIdGenerator.class);
+
+    private final NodeIdLeases leases;
+    private final String instance;
+    private final int nodeId;
+    private final long heldForNanos;
+    private final SnowflakeIdGenerator generator;
+
+    private volatile long renewedAtNanos;
+    private volatile boolean lost;
+
+    public LeasedSnowflakeIdGenerator(NodeIdLeases leases, int firstNodeId, int nodeCount, int configuredIndex,
+            long leaseTimeoutSeconds, long maxDriftMillis) {
+        this.leases = leases;
+        this.instance = ManagementFactory.getRuntimeMXBean().getName() + "/"
+                + UUID.randomUUID().toString().substring(0, 8);
+        this.heldForNanos = TimeUnit.SECONDS.toNanos(leaseTimeoutSeconds) / 2;
+
+        int claimedNode = -1;
+        Long issuedUntil = null;
+        if (configuredIndex >= 0) {
+            if (configuredIndex >= nodeCount) {
+                throw new IllegalArgumentException("Node index must be below " + nodeCount);
+            }
+            claimedNode = firstNodeId + configuredIndex;
+            issuedUntil = leases.claim(claimedNode, instance, leaseTimeoutSeconds);
+            if (issuedUntil == null) {
+                throw new IllegalStateException("Node ID " + claimedNode + " is leased by another instance");
+            }
+        } else {
+            for (int candidate = firstNodeId; candidate < firstNodeId + nodeCount && issuedUntil == null;
+                    candidate++) {
+                issuedUntil = leases.claim(candidate, instance, leaseTimeoutSeconds);
+                claimedNode = candidate;
+            }
+            if (issuedUntil == null) {
+                throw new IllegalStateException("All node IDs " + firstNodeId + "-"
+                        + (firstNodeId + nodeCount - 1) + " are leased");
+            }
+        }
+        this.nodeId = claimedNode;
+        this.renewedAtNanos = System.nanoTime();
+        this.generator = new SnowflakeIdGenerator(claimedNode, issuedUntil, maxDriftMillis);
+        log.info("Leased ID node {} as {}", nodeId, instance);
+    }
+
+    public long nextId() {
+        if (lost || System.nanoTime() - renewedAtNanos > heldForNanos) {
+            throw new IllegalStateException("ID node " + nodeId + " lease is not held; not issuing IDs");
+        }
+        return generator.nextId();
+    }
+
+    public void renew() {
+        if (lost) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            if (leases.renew(nodeId, instance, generator.lastIssuedMillis())) {
+                renewedAtNanos = started;
+            } else {
+                lost = true;
+                log.error("ID node {} lease was taken over by another instance", nodeId);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Renewing ID node {} lease failed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public void release() {
+        if (lost) {
+            return;
+        }
+        lost = true;
+        try {
+            leases.release(nodeId, instance, generator.lastIssuedMillis());
+        } catch (RuntimeException e) {
+            log.warn("Releasing ID node {} lease failed; it expires on its own: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+}
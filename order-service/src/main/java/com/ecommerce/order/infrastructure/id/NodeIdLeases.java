@@ -0,0 +1,64 @@
+package com.ecommerce.order.infrastructure.id;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * JDBC access to the id_node_leases table. A node ID is held by one
+ * instance at a time; a lease that is not renewed within the timeout can be
+ * taken over. Each lease records how far its holder may have issued IDs,
+ * so the next holder starts after that.
+ */
+@Component
+public class NodeIdLeases {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NodeIdLeases(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Claims a node ID if it is free or its lease has expired.
+     *
+     * @return epoch milliseconds up to which the previous holder may have
+     *         issued IDs (0 for a new node ID), or null if the node ID is held
+     */
+    public Long claim(int nodeId, String instance, long timeoutSeconds) {
+        List<Long> claimed = jdbcTemplate.queryForList("""
+                        INSERT INTO id_node_leases (node_id, instance, renewed_at)
+                        VALUES (?, ?, now())
+                        ON CONFLICT (node_id) DO UPDATE SET instance = EXCLUDED.instance, renewed_at = now()
+                        WHERE id_node_leases.renewed_at < now() - make_interval(secs => ?)
+                        RETURNING issued_until
+                        """, Long.class, nodeId, instance, timeoutSeconds);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    /**
+     * Extends the lease and records how far IDs may have been issued.
+     *
+     * @return false if the lease was lost to another instance
+     */
+    public boolean renew(int nodeId, String instance, long issuedUntilMillis) {
+        return jdbcTemplate.update("""
+                        UPDATE id_node_leases
+                        SET renewed_at = now(), issued_until = GREATEST(issued_until, ?)
+                        WHERE node_id = ? AND instance = ?
+                        """, issuedUntilMillis, nodeId, instance) > 0;
+    }
+
+    /**
+     * Gives the node ID up on shutdown, so another instance can claim it
+     * right away.
+     */
+    public void release(int nodeId, String instance, long issuedUntilMillis) {
+        jdbcTemplate.update("""
+                        UPDATE id_node_leases
+                        SET renewed_at = '-infinity', issued_until = GREATEST(issued_until, ?)
+                        WHERE node_id = ? AND instance = ?
+                        """, issuedUntilMillis, nodeId, instance);
+    }
+}
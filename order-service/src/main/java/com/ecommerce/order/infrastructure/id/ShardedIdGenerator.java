@@ -0,0 +1,66 @@
+package com.ecommerce.order.infrastructure.id;
+
+import com.ecommerce.order.domain.service.IdGenerator;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link IdGenerator} for this instance. Holds one
+ * {@link LeasedSnowflakeIdGenerator} per shard, each leasing a node ID
+ * from that shard's range in that shard's database, so the node bits of an
+ * ID name the shard the row is stored on.
+ */
+@Component
+public class ShardedIdGenerator implements IdGenerator {
+
+    private final ShardRouter router;
+    private final List<LeasedSnowflakeIdGenerator> generators;
+
+    public ShardedIdGenerator(NodeIdLeases leases, ShardRouter router,
+            @Value("${orders.id.node-id:-1}") int configuredIndex,
+            @Value("${orders.id.lease-timeout-seconds:60}") long leaseTimeoutSeconds,
+            @Value("${orders.id.max-drift-ms:1000}") long maxDriftMillis) {
+        this.router = router;
+        int nodesPerShard = router.nodesPerShard();
+        this.generators = new ArrayList<>(router.shardCount());
+        for (int shard = 0; shard < router.shardCount(); shard++) {
+            int firstNodeId = shard * nodesPerShard;
+            generators.add(router.on(shard, () -> new LeasedSnowflakeIdGenerator(
+                    leases, firstNodeId, nodesPerShard, configuredIndex, leaseTimeoutSeconds, maxDriftMillis)));
+        }
+    }
+
+    @Override
+    public long nextOrderId(String userUid) {
+        return generators.get(router.homeShard(userUid)).nextId();
+    }
+
+    @Override
+    public long nextPaymentId(long orderId) {
+        Integer shard = router.shardOf(orderId);
+        if (shard == null) {
+            throw new IllegalArgumentException("Order ID " + orderId + " belongs to no shard");
+        }
+        return generators.get(shard).nextId();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.id.lease-renew-ms:10000}")
+    public void renew() {
+        for (int shard = 0; shard < generators.size(); shard++) {
+            router.run(shard, generators.get(shard)::renew);
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        for (int shard = 0; shard < generators.size(); shard++) {
+            router.run(shard, generators.get(shard)::release);
+        }
+    }
+}
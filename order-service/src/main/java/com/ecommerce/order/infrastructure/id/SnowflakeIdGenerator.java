@@ -0,0 +1,123 @@
+package com.ecommerce.order.infrastructure.id;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Snowflake-style ID generator. An ID is, from the high bits down:
+ * <pre>
+ *   37 bits  time in 10 ms ticks since 2024-01-01 UTC (until 2067)
+ *    6 bits  node ID (0-63)
+ *   10 bits  sequence within the tick
+ * </pre>
+ * IDs use 53 bits, so they stay exact as JSON numbers in JavaScript
+ * clients. Each node issues up to 1024 IDs per tick (102,400 per second),
+ * and IDs from all nodes sort by creation time to within one tick.
+ * <p>
+ * The last issued tick and sequence live in one {@link AtomicLong}, so
+ * {@link #nextId()} is a compare-and-set loop without locks. When a tick's
+ * sequence runs out, or the clock steps back, IDs continue from the last
+ * one and run ahead of the clock, by at most {@code maxDriftMillis}; after
+ * that callers wait for the clock to catch up. A clock that steps back by
+ * more than that fails ID generation until it catches up again.
+ */
+public class SnowflakeIdGenerator {
+
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    public static final int MAX_NODE_ID = 63;
+
+    private static final long TICK_MILLIS = 10;
+    private static final int TIME_BITS = 37;
+    private static final int NODE_BITS = 6;
+    private static final int SEQUENCE_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final long MAX_TICK = (1L << TIME_BITS) - 1;
+
+    private final long nodeBits;
+    private final long maxDriftTicks;
+    /** tick << SEQUENCE_BITS | sequence of the last issued ID */
+    private final AtomicLong last;
+
+    /**
+     * @param nodeId           this node's ID, unique among running nodes
+     * @param startAfterMillis IDs start in a tick after this time, e.g.
+     *                         where a previous holder of the node ID stopped
+     * @param maxDriftMillis   how far IDs may run ahead of the clock
+     */
+    public SnowflakeIdGenerator(int nodeId, long startAfterMillis, long maxDriftMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.maxDriftTicks = Math.max(1, maxDriftMillis / TICK_MILLIS);
+        long startTick = Math.max(0, (startAfterMillis - EPOCH_MILLIS) / TICK_MILLIS);
+        this.last = new AtomicLong(startTick << SEQUENCE_BITS | SEQUENCE_MASK);
+    }
+
+    /**
+     * @return a new ID, greater than every ID this generator returned before
+     */
+    public long nextId() {
+        while (true) {
+            // Clock read after the last ID: a thread preempted between the two
+            // reads would otherwise see IDs issued meanwhile as too far ahead
+            long previous = last.get();
+            long now = currentTick();
+            long next = Math.max(now << SEQUENCE_BITS, previous + 1);
+            long ahead = (next >>> SEQUENCE_BITS) - now;
+            if (ahead > maxDriftTicks + 1) {
+                throw new ClockMovedBackwardsException("Clock is " + (ahead - 1) * TICK_MILLIS
+                        + " ms behind the last issued ID");
+            }
+            if (ahead > maxDriftTicks) {
+                // Sequence used up as far ahead as allowed; wait for the next tick
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                continue;
+            }
+            if (next >>> SEQUENCE_BITS > MAX_TICK) {
+                throw new IllegalStateException("ID time bits exhausted");
+            }
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS) | nodeBits | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    /**
+     * @return the time of the last issued ID, in epoch milliseconds; may be
+     *         ahead of the clock
+     */
+    public long lastIssuedMillis() {
+        return EPOCH_MILLIS + ((last.get() >>> SEQUENCE_BITS) + 1) * TICK_MILLIS;
+    }
+
+    /**
+     * @return the time an ID was issued, in epoch milliseconds
+     */
+    public static long timestampMillis(long id) {
+        return EPOCH_MILLIS + (id >>> (NODE_BITS + SEQUENCE_BITS)) * TICK_MILLIS;
+    }
+
+    /**
+     * @return the node that issued an ID
+     */
+    public static int nodeId(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+
+    private static long currentTick() {
+        return (System.currentTimeMillis() - EPOCH_MILLIS) / TICK_MILLIS;
+    }
+
+    /**
+     * Exception thrown when the clock stepped back by more than the allowed
+     * drift.
+     */
+    public static class ClockMovedBackwardsException extends RuntimeException {
+        public ClockMovedBackwardsException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.infrastructure.persistence.archive.OrderArchiveStore;
+import com.ecommerce.order.infrastructure.persistence.archive.OrderPartitions;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+/**
+ * Moves closed months of orders out of PostgreSQL.
+ * A month is closed once it is older than {@code orders.archive.after-months}
+ * and all of its orders are DELIVERED or CANCELLED. Its orders, items and
+ * payments are exported to a compressed file; then, in one transaction, the
+ * month is checked for changes since the export, recorded in order_archives
+ * and its partitions are dropped. A month is claimed in order_archives first,
+ * so only one instance archives it. Each shard archives its own months.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveJob.class);
+
+    private final OrderPartitions partitions;
+    private final OrderArchiveStore archiveStore;
+    private final ShardRouter router;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int afterMonths;
+    private final int batchSize;
+    private final Duration claimTimeout;
+
+    private final Counter monthsArchived;
+    private final Counter ordersArchived;
+    private final Counter monthsSkipped;
+
+    public OrderArchiveJob(
+            OrderPartitions partitions,
+            OrderArchiveStore archiveStore,
+            ShardRouter router,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.archive.after-months:12}") int afterMonths,
+            @Value("${orders.archive.batch-size:500}") int batchSize,
+            @Value("${orders.archive.claim-timeout-minutes:60}") long claimTimeoutMinutes) {
+        this.partitions = partitions;
+        this.archiveStore = archiveStore;
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.afterMonths = afterMonths;
+        this.batchSize = batchSize;
+        this.claimTimeout = Duration.ofMinutes(claimTimeoutMinutes);
+
+        this.monthsArchived = Counter.builder("orders.archive.months")
+                .description("Monthly order partitions archived and dropped")
+                .register(meterRegistry);
+        this.ordersArchived = Counter.builder("orders.archive.orders")
+                .description("Orders moved to archive files")
+                .register(meterRegistry);
+        this.monthsSkipped = Counter.builder("orders.archive.skipped")
+                .description("Old months not archived because they still have open orders or changed")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${orders.archive.cron:0 30 3 * * *}")
+    public void run() {
+        YearMonth newestClosed = YearMonth.now().minusMonths(afterMonths + 1L);
+        router.forEachShard(shard -> {
+            for (YearMonth month : partitions.listMonths()) {
+                if (month.isAfter(newestClosed)) {
+                    break;
+                }
+                try {
+                    archive(month, shard);
+                } catch (RuntimeException e) {
+                    log.error("Archiving orders of {} on shard {} failed", month, shard, e);
+                }
+            }
+        });
+    }
+
+    private void archive(YearMonth month, int shard) {
+        long open = partitions.countOpenOrders(month);
+        if (open > 0) {
+            monthsSkipped.increment();
+            log.warn("Not archiving orders of {}: {} orders are not DELIVERED or CANCELLED", month, open);
+            return;
+        }
+        if (!partitions.claimArchive(month, claimTimeout.getSeconds())) {
+            log.info("Orders of {} are being archived by another instance", month);
+            return;
+        }
+        try {
+            exportAndDrop(month, shard);
+        } catch (RuntimeException e) {
+            partitions.releaseArchive(month);
+            throw e;
+        }
+    }
+
+    private void exportAndDrop(YearMonth month, int shard) {
+        LocalDateTime exportStartedAt = LocalDateTime.now();
+        ExportStats stats = new ExportStats();
+        String fileName;
+        try (OrderArchiveStore.Writer writer = archiveStore.open(month, shard)) {
+            int page;
+            do {
+                long before = stats.count;
+                partitions.exportOrders(month, stats.maxId, batchSize, rs -> {
+                    long id = rs.getLong("id");
+                    writer.append(id, rs.getString("body"));
+                    stats.add(id);
+                });
+                page = (int) (stats.count - before);
+            } while (page == batchSize);
+            fileName = writer.commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        boolean dropped = Boolean.TRUE.equals(transactionTemplate.execute(tx -> {
+            if (!partitions.isUnchangedSince(month, stats.count, exportStartedAt)) {
+                return false;
+            }
+            partitions.completeArchive(month, fileName, stats.minId, stats.maxId, stats.count);
+            partitions.dropMonth(month);
+            return true;
+        }));
+
+        if (!dropped) {
+            partitions.releaseArchive(month);
+            monthsSkipped.increment();
+            log.warn("Orders of {} changed while being archived; will retry on the next run", month);
+            return;
+        }
+        monthsArchived.increment();
+        ordersArchived.increment(stats.count);
+        log.info("Archived {} orders of {} to {} and dropped the partitions", stats.count, month, fileName);
+    }
+
+    /** Keyset cursor and ID range of an export; IDs arrive in ascending order. */
+    private static class ExportStats {
+        private long count;
+        private long minId;
+        private long maxId;
+
+        private void add(long id) {
+            if (count == 0) {
+                minId = id;
+            }
+            maxId = id;
+            count++;
+        }
+    }
+}
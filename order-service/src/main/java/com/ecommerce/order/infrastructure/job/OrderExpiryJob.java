@@ -0,0 +1,244 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.domain.entity.PaymentEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.domain.service.PaymentGatewayService;
+import com.ecommerce.order.infrastructure.external.stripe.StripeCallContext;
+import com.ecommerce.order.infrastructure.external.stripe.StripeRequestScheduler;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Cancels orders that stay PENDING (unpaid) longer than a TTL.
+ * The open Stripe intent of each expired order is cancelled first, on a
+ * small fixed pool at batch priority; only orders whose intent is gone or
+ * that never had one are then cancelled, by a single UPDATE that skips rows
+ * locked by another instance. An order whose intent was paid is left for the
+ * webhook or reconciliation, and one whose intent could not be cancelled is
+ * retried on the next run. Each shard is expired in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderExpiryJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderExpiryJob.class);
+
+    private final OrderDomainRepository orderRepository;
+    private final PaymentDomainRepository paymentRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final OrderReadCoalescer orderReader;
+    private final ShardRouter router;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService stripeExecutor;
+
+    private final Duration ttl;
+    private final int batchSize;
+    private final long pauseBetweenBatchesMillis;
+
+    private final Counter ordersCancelled;
+    private final Counter intentsCancelled;
+    private final Counter intentCancelFailed;
+    private final Counter leftPaid;
+    private final Timer runTimer;
+
+    public OrderExpiryJob(
+            OrderDomainRepository orderRepository,
+            PaymentDomainRepository paymentRepository,
+            PaymentGatewayService paymentGatewayService,
+            OrderReadCoalescer orderReader,
+            ShardRouter router,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.expiry.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${orders.expiry.batch-size:200}") int batchSize,
+            @Value("${orders.expiry.pause-between-batches-ms:200}") long pauseBetweenBatchesMillis,
+            @Value("${orders.expiry.stripe-concurrency:4}") int stripeConcurrency) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.orderReader = orderReader;
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.batchSize = batchSize;
+        this.pauseBetweenBatchesMillis = pauseBetweenBatchesMillis;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.stripeExecutor = Executors.newFixedThreadPool(stripeConcurrency, r -> {
+            Thread thread = new Thread(r, "order-expiry-stripe-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.ordersCancelled = Counter.builder("orders.expiry.cancelled")
+                .description("Unpaid orders cancelled after the TTL")
+                .register(meterRegistry);
+        this.intentsCancelled = Counter.builder("orders.expiry.intents_cancelled")
+                .description("Stripe payment intents cancelled for expired orders")
+                .register(meterRegistry);
+        this.intentCancelFailed = Counter.builder("orders.expiry.intent_cancel_failed")
+                .description("Expired orders left PENDING because their intent could not be cancelled")
+                .register(meterRegistry);
+        this.leftPaid = Counter.builder("orders.expiry.left_paid")
+                .description("Expired orders left PENDING because their intent was already paid")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("orders.expiry.run")
+                .description("Duration of an order expiry run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.expiry.interval-ms:600000}",
+            initialDelayString = "${orders.expiry.initial-delay-ms:120000}")
+    public void run() {
+        runTimer.record(() -> router.forEachShard(this::expire));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stripeExecutor.shutdownNow();
+    }
+
+    private void expire(int shard) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(ttl);
+        long cursor = 0;
+        int total = 0;
+        int unresolved = 0;
+
+        while (true) {
+            List<Long> expired = orderRepository.findPendingCreatedBefore(cutoff, cursor, batchSize);
+            if (expired.isEmpty()) {
+                break;
+            }
+            cursor = expired.get(expired.size() - 1);
+
+            List<Long> cancelled;
+            try {
+                cancelled = cancel(expired);
+            } catch (RuntimeException e) {
+                // Nothing was cancelled in the database; the next run tries again
+                log.error("Expiring orders up to {} failed", cursor, e);
+                cancelled = List.of();
+            }
+            total += cancelled.size();
+            unresolved += expired.size() - cancelled.size();
+            log.info("Order expiry progress on shard {}: {} orders cancelled, cursor at {}", shard, total, cursor);
+
+            if (expired.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+
+        if (total > 0 || unresolved > 0) {
+            log.info("Order expiry finished on shard {}: {} unpaid orders older than {} cancelled, {} left PENDING",
+                    shard, total, ttl, unresolved);
+        }
+    }
+
+    /**
+     * Cancels the orders' open intents, then the orders that no longer have
+     * one, and fails the closed payments in the same transaction.
+     *
+     * @return IDs of the cancelled orders
+     */
+    private List<Long> cancel(List<Long> orderIds) {
+        List<PaymentEntity> payments = paymentRepository.findOpenByOrderIds(orderIds);
+
+        Set<Long> blocked = new HashSet<>();
+        List<CompletableFuture<Long>> futures = new ArrayList<>();
+        for (PaymentEntity payment : payments) {
+            if (payment.getStripePaymentIntentId() == null) {
+                futures.add(CompletableFuture.completedFuture(payment.getId()));
+                continue;
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> StripeCallContext.call(
+                    StripeRequestScheduler.Priority.BATCH, () -> cancelIntent(payment)), stripeExecutor));
+        }
+
+        List<Long> closed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Long paymentId = futures.get(i).join();
+            if (paymentId != null) {
+                closed.add(paymentId);
+            } else {
+                blocked.add(payments.get(i).getOrderId());
+            }
+        }
+
+        List<Long> cancellable = orderIds.stream()
+                .filter(id -> !blocked.contains(id))
+                .collect(Collectors.toList());
+        List<Long> cancelled = transactionTemplate.execute(tx -> {
+            paymentRepository.updateStatus(closed,
+                    PaymentEntity.PaymentStatus.PENDING, PaymentEntity.PaymentStatus.FAILED);
+            paymentRepository.updateStatus(closed,
+                    PaymentEntity.PaymentStatus.PROCESSING, PaymentEntity.PaymentStatus.FAILED);
+            return orderRepository.cancelPending(cancellable);
+        });
+        ordersCancelled.increment(cancelled.size());
+        cancelled.forEach(orderReader::invalidate);
+        payments.forEach(payment -> orderReader.invalidate(payment.getOrderId()));
+        return cancelled;
+    }
+
+    /**
+     * @return the payment ID if its intent is cancelled, or null if the
+     *         order must stay PENDING
+     */
+    private Long cancelIntent(PaymentEntity payment) {
+        String intentId = payment.getStripePaymentIntentId();
+        if (paymentGatewayService.cancelPayment(payment.getOrderId(), intentId)) {
+            intentsCancelled.increment();
+            return payment.getId();
+        }
+        // Stripe refuses to cancel an intent that was paid or is being paid
+        String status = paymentGatewayService.getPaymentStatus(intentId);
+        if ("canceled".equals(status)) {
+            return payment.getId();
+        }
+        if ("succeeded".equals(status) || "processing".equals(status)) {
+            leftPaid.increment();
+            log.info("Expired order {} was paid (intent {} is {}); leaving it for the webhook or reconciliation",
+                    payment.getOrderId(), intentId, status);
+            return null;
+        }
+        intentCancelFailed.increment();
+        log.warn("Could not cancel payment intent {} (status {}) of expired order {}; "
+                + "the order stays PENDING until a later run succeeds", intentId, status, payment.getOrderId());
+        return null;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatchesMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
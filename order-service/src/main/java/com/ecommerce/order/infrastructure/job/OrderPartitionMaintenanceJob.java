@@ -0,0 +1,53 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.infrastructure.persistence.archive.OrderPartitions;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+
+/**
+ * Keeps monthly partitions of orders, order_items and payments created ahead
+ * of time, so inserts never fall into the default partition. Runs at startup
+ * and then daily; concurrent runs on several instances are serialized by the
+ * database function.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.partitioning.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderPartitionMaintenanceJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionMaintenanceJob.class);
+
+    private final OrderPartitions partitions;
+    private final ShardRouter router;
+    private final int monthsAhead;
+
+    public OrderPartitionMaintenanceJob(
+            OrderPartitions partitions,
+            ShardRouter router,
+            @Value("${orders.partitioning.months-ahead:3}") int monthsAhead) {
+        this.partitions = partitions;
+        this.router = router;
+        this.monthsAhead = monthsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.partitioning.interval-ms:86400000}", initialDelay = 0)
+    public void run() {
+        YearMonth current = YearMonth.now();
+        router.forEachShard(shard -> {
+            try {
+                for (int i = 0; i <= monthsAhead; i++) {
+                    partitions.ensureMonth(current.plusMonths(i));
+                }
+                log.debug("Order partitions on shard {} ensured through {}", shard, current.plusMonths(monthsAhead));
+            } catch (RuntimeException e) {
+                log.error("Failed to create order partitions on shard {}", shard, e);
+            }
+        });
+    }
+}
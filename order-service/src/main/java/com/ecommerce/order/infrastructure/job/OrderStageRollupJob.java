@@ -0,0 +1,87 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.infrastructure.persistence.history.OrderStatusHistory;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rolls new order status history rows up into hourly duration histograms
+ * per transition, so the fulfillment analytics read a few rollup rows
+ * instead of the history. Each run continues from a cursor, one batch per
+ * transaction. The cursor row is locked while a batch is rolled up, so
+ * several instances can run the job and each row is counted once. Every
+ * shard rolls up its own history, in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.stage-rollup.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderStageRollupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStageRollupJob.class);
+
+    private final OrderStatusHistory statusHistory;
+    private final ShardRouter router;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long settleSeconds;
+
+    private final Counter rolledUp;
+    private final AtomicLong backlog = new AtomicLong();
+
+    public OrderStageRollupJob(
+            OrderStatusHistory statusHistory,
+            ShardRouter router,
+            MeterRegistry meterRegistry,
+            @Value("${orders.stage-rollup.batch-size:5000}") int batchSize,
+            @Value("${orders.stage-rollup.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${orders.stage-rollup.settle-seconds:60}") long settleSeconds) {
+        this.statusHistory = statusHistory;
+        this.router = router;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.settleSeconds = settleSeconds;
+
+        this.rolledUp = Counter.builder("orders.stage_rollup.rows")
+                .description("Order status history rows rolled up")
+                .register(meterRegistry);
+        Gauge.builder("orders.stage_rollup.backlog", backlog, AtomicLong::get)
+                .description("Order status history rows not rolled up yet")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.stage-rollup.interval-ms:60000}",
+            initialDelayString = "${orders.stage-rollup.initial-delay-ms:60000}")
+    public void run() {
+        long[] total = new long[1];
+        router.forEachShard(shard -> {
+            int rows = 0;
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int batch = statusHistory.rollUp(batchSize, settleSeconds);
+                if (batch < 0) {
+                    log.debug("Status history of shard {} is being rolled up by another instance", shard);
+                    break;
+                }
+                rows += batch;
+                rolledUp.increment(batch);
+                if (batch < batchSize) {
+                    break;
+                }
+            }
+            if (rows > 0) {
+                log.info("Rolled up {} order status changes on shard {}", rows, shard);
+            }
+            total[0] += statusHistory.backlog();
+        });
+        backlog.set(total[0]);
+    }
+}
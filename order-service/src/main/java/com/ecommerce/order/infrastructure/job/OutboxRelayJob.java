@@ -0,0 +1,153 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.infrastructure.outbox.OrderOutbox;
+import com.ecommerce.order.infrastructure.outbox.OutboxEvent;
+import com.ecommerce.order.infrastructure.outbox.OutboxPublisher;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order outbox to the configured {@link OutboxPublisher}.
+ * Each batch is leased with {@code FOR UPDATE SKIP LOCKED} in one short
+ * statement, so several instances can relay at once; events are published
+ * after the lease commits, with no transaction or row lock held, and then
+ * marked. Only the oldest pending event of each order is claimed, which
+ * keeps per-order delivery ordered. A failed event is retried with exponential backoff and holds
+ * back later events of its order until it is delivered. Every shard has
+ * its own outbox, next to its orders; they are relayed in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelayJob.class);
+
+    private final OrderOutbox outbox;
+    private final OutboxPublisher publisher;
+    private final ShardRouter router;
+
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration lease;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration retention;
+    private final int pruneBatchSize;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Counter pruned;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OutboxRelayJob(
+            OrderOutbox outbox,
+            OutboxPublisher publisher,
+            ShardRouter router,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.max-batches-per-run:20}") int maxBatchesPerRun,
+            @Value("${outbox.relay.lease-ms:300000}") long leaseMillis,
+            @Value("${outbox.relay.initial-backoff-ms:1000}") long initialBackoffMillis,
+            @Value("${outbox.relay.max-backoff-ms:300000}") long maxBackoffMillis,
+            @Value("${outbox.retention-hours:72}") long retentionHours,
+            @Value("${outbox.prune.batch-size:5000}") int pruneBatchSize) {
+        this.outbox = outbox;
+        this.publisher = publisher;
+        this.router = router;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.lease = Duration.ofMillis(leaseMillis);
+        this.initialBackoff = Duration.ofMillis(initialBackoffMillis);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMillis);
+        this.retention = Duration.ofHours(retentionHours);
+        this.pruneBatchSize = pruneBatchSize;
+
+        this.published = Counter.builder("outbox.published")
+                .description("Order events delivered")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.failed")
+                .description("Order event deliveries that failed and will be retried")
+                .register(meterRegistry);
+        this.pruned = Counter.builder("outbox.pruned")
+                .description("Delivered order events deleted from the outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.pending", pending, AtomicLong::get)
+                .description("Order events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag_seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered order event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        long[] total = new long[2];
+        router.forEachShard(shard -> {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                int claimed = relayBatch();
+                if (claimed < batchSize) {
+                    break;
+                }
+            }
+            long[] backlog = outbox.backlog();
+            total[0] += backlog[0];
+            total[1] = Math.max(total[1], backlog[1]);
+        });
+        pending.set(total[0]);
+        lagSeconds.set(total[1]);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.prune.interval-ms:3600000}",
+            initialDelayString = "${outbox.prune.initial-delay-ms:300000}")
+    public void prune() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        router.forEachShard(shard -> {
+            int deleted;
+            do {
+                deleted = outbox.pruneProcessedBefore(cutoff, pruneBatchSize);
+                pruned.increment(deleted);
+            } while (deleted == pruneBatchSize);
+        });
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outbox.claim(batchSize, lease);
+        List<Long> delivered = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                publisher.publish(event);
+                delivered.add(event.getId());
+            } catch (RuntimeException e) {
+                failed.increment();
+                Duration retryAfter = backoff(event.getAttempts());
+                log.warn("Delivering {} event {} of order {} failed (attempt {}), retrying in {}s: {}",
+                        event.getEventType(), event.getId(), event.getOrderId(), event.getAttempts() + 1,
+                        retryAfter.getSeconds(), e.getMessage());
+                outbox.markFailed(event.getId(), e.getMessage(), retryAfter);
+            }
+        }
+        outbox.markProcessed(delivered);
+        published.increment(delivered.size());
+        return events.size();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -0,0 +1,296 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.PaymentEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.domain.service.PaymentGatewayService;
+import com.ecommerce.order.infrastructure.external.stripe.StripeCallContext;
+import com.ecommerce.order.infrastructure.external.stripe.StripeRequestScheduler;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reconciles payments stuck in PROCESSING, e.g. because a webhook was lost.
+ * Pages through stale payments by ID, looks their intents up in Stripe in
+ * bulk and applies terminal outcomes with conditional batch updates:
+ * succeeded intents complete the payment and move a PENDING order to
+ * PROCESSING, canceled intents fail the payment. Only payments younger than
+ * {@code abandon-after-minutes} are reconciled this way; older ones are
+ * closed out by cancelling their intent, so abandoned checkouts leave the
+ * scan instead of being looked up on every run. All Stripe calls run at
+ * batch priority so the job yields to live traffic.
+ */
+@Component
+@ConditionalOnProperty(name = "payments.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentReconciliationJob.class);
+
+    /** Slack around payment creation times when listing intents. */
+    private static final Duration CREATED_WINDOW_MARGIN = Duration.ofMinutes(5);
+
+    private final PaymentDomainRepository paymentRepository;
+    private final OrderDomainRepository orderRepository;
+    private final PaymentGatewayService paymentGatewayService;
+    private final OrderReadCoalescer orderReader;
+    private final ShardRouter router;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration staleAfter;
+    private final Duration abandonAfter;
+    private final int batchSize;
+    private final long pauseBetweenBatchesMillis;
+
+    private final Counter scanned;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter abandoned;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicLong lastRunEpochSeconds = new AtomicLong();
+
+    public PaymentReconciliationJob(
+            PaymentDomainRepository paymentRepository,
+            OrderDomainRepository orderRepository,
+            PaymentGatewayService paymentGatewayService,
+            OrderReadCoalescer orderReader,
+            ShardRouter router,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${payments.reconciliation.stale-after-minutes:15}") long staleAfterMinutes,
+            @Value("${payments.reconciliation.abandon-after-minutes:1500}") long abandonAfterMinutes,
+            @Value("${payments.reconciliation.batch-size:100}") int batchSize,
+            @Value("${payments.reconciliation.pause-between-batches-ms:500}") long pauseBetweenBatchesMillis) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.paymentGatewayService = paymentGatewayService;
+        this.orderReader = orderReader;
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+        this.abandonAfter = Duration.ofMinutes(abandonAfterMinutes);
+        this.batchSize = batchSize;
+        this.pauseBetweenBatchesMillis = pauseBetweenBatchesMillis;
+
+        this.scanned = Counter.builder("payments.reconciliation.scanned")
+                .description("Stale PROCESSING payments checked against Stripe")
+                .register(meterRegistry);
+        this.completed = Counter.builder("payments.reconciliation.updated")
+                .description("Payments updated by reconciliation")
+                .tag("status", "completed")
+                .register(meterRegistry);
+        this.failed = Counter.builder("payments.reconciliation.updated")
+                .description("Payments updated by reconciliation")
+                .tag("status", "failed")
+                .register(meterRegistry);
+        this.abandoned = Counter.builder("payments.reconciliation.abandoned")
+                .description("Abandoned payment intents cancelled by reconciliation")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("payments.reconciliation.run")
+                .description("Duration of a reconciliation run")
+                .register(meterRegistry);
+        Gauge.builder("payments.reconciliation.lag_seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest stale PROCESSING payment seen in the last run")
+                .register(meterRegistry);
+        Gauge.builder("payments.reconciliation.last_run", lastRunEpochSeconds, AtomicLong::get)
+                .description("Epoch seconds when the last run finished")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payments.reconciliation.interval-ms:300000}",
+            initialDelayString = "${payments.reconciliation.initial-delay-ms:60000}")
+    public void run() {
+        runTimer.record(() -> StripeCallContext.run(StripeRequestScheduler.Priority.BATCH, () -> {
+            LocalDateTime[] oldest = new LocalDateTime[1];
+            router.forEachShard(shard -> {
+                LocalDateTime shardOldest = reconcile(shard);
+                if (shardOldest != null && (oldest[0] == null || shardOldest.isBefore(oldest[0]))) {
+                    oldest[0] = shardOldest;
+                }
+            });
+            lagSeconds.set(oldest[0] == null ? 0 : Duration.between(oldest[0], LocalDateTime.now()).getSeconds());
+            lastRunEpochSeconds.set(Instant.now().getEpochSecond());
+        }));
+    }
+
+    /**
+     * @return creation time of the oldest stale payment on the shard that is
+     *         not yet abandoned, or null
+     */
+    private LocalDateTime reconcile(int shard) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime abandonedBefore = now.minus(abandonAfter);
+        LocalDateTime oldest = scan(shard, abandonedBefore, now.minus(staleAfter), false);
+        scan(shard, null, abandonedBefore, true);
+        return oldest;
+    }
+
+    /**
+     * Pages through PROCESSING payments created in a window.
+     *
+     * @param createdAfter  start of the window, or null for no lower bound
+     * @param createdBefore end of the window
+     * @param closeOut      whether to cancel intents that are still open
+     * @return creation time of the oldest payment seen, or null
+     */
+    private LocalDateTime scan(int shard, LocalDateTime createdAfter, LocalDateTime createdBefore,
+            boolean closeOut) {
+        LocalDateTime oldest = null;
+        long cursor = 0;
+        int total = 0;
+
+        while (true) {
+            List<PaymentEntity> batch = createdAfter == null
+                    ? paymentRepository.findByStatusCreatedBefore(
+                            PaymentEntity.PaymentStatus.PROCESSING, createdBefore, cursor, batchSize)
+                    : paymentRepository.findByStatusCreatedBetween(
+                            PaymentEntity.PaymentStatus.PROCESSING, createdAfter, createdBefore, cursor, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            cursor = batch.get(batch.size() - 1).getId();
+            total += batch.size();
+            scanned.increment(batch.size());
+            for (PaymentEntity payment : batch) {
+                if (oldest == null || payment.getCreatedAt().isBefore(oldest)) {
+                    oldest = payment.getCreatedAt();
+                }
+            }
+
+            try {
+                reconcileBatch(batch, closeOut);
+            } catch (RuntimeException e) {
+                // Leave this batch for the next run and carry on with the rest
+                log.error("Reconciliation batch ending at payment {} failed", cursor, e);
+            }
+            log.info("Payment {} progress on shard {}: {} payments checked, cursor at {}",
+                    closeOut ? "close-out" : "reconciliation", shard, total, cursor);
+
+            if (batch.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Payment {} finished on shard {}: {} stale payments checked",
+                    closeOut ? "close-out" : "reconciliation", shard, total);
+        }
+        return oldest;
+    }
+
+    private void reconcileBatch(List<PaymentEntity> batch, boolean closeOut) {
+        Map<String, PaymentEntity> byIntentId = new HashMap<>();
+        List<Long> succeededPayments = new ArrayList<>();
+        List<Long> succeededOrders = new ArrayList<>();
+        List<Long> canceledPayments = new ArrayList<>();
+        List<Long> canceledOrders = new ArrayList<>();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (PaymentEntity payment : batch) {
+            if (payment.getStripePaymentIntentId() == null) {
+                // Abandoned before an intent was created: nothing to ask Stripe
+                if (closeOut) {
+                    canceledPayments.add(payment.getId());
+                    addIfPresent(canceledOrders, payment.getOrderId());
+                }
+                continue;
+            }
+            byIntentId.put(payment.getStripePaymentIntentId(), payment);
+            from = from == null || payment.getCreatedAt().isBefore(from) ? payment.getCreatedAt() : from;
+            to = to == null || payment.getCreatedAt().isAfter(to) ? payment.getCreatedAt() : to;
+        }
+
+        Map<String, String> statuses = byIntentId.isEmpty() ? Map.of() : paymentGatewayService.getPaymentStatuses(
+                byIntentId.keySet(),
+                toInstant(from).minus(CREATED_WINDOW_MARGIN),
+                toInstant(to).plus(CREATED_WINDOW_MARGIN));
+
+        int closedOut = 0;
+        for (Map.Entry<String, String> entry : statuses.entrySet()) {
+            String intentId = entry.getKey();
+            String status = entry.getValue();
+            PaymentEntity payment = byIntentId.get(intentId);
+            // Only terminal outcomes; anything else may still complete
+            if ("succeeded".equals(status)) {
+                succeededPayments.add(payment.getId());
+                addIfPresent(succeededOrders, payment.getOrderId());
+            } else if ("canceled".equals(status)) {
+                canceledPayments.add(payment.getId());
+                addIfPresent(canceledOrders, payment.getOrderId());
+            } else if (closeOut) {
+                // Past its lifetime and still open: cancel it so it cannot be paid later
+                if (paymentGatewayService.cancelPayment(payment.getOrderId(), intentId)) {
+                    canceledPayments.add(payment.getId());
+                    addIfPresent(canceledOrders, payment.getOrderId());
+                    closedOut++;
+                } else {
+                    log.warn("Could not cancel abandoned payment intent {} (payment {}, status {}); "
+                            + "retrying next run", intentId, payment.getId(), status);
+                }
+            }
+        }
+        abandoned.increment(closedOut);
+        if (succeededPayments.isEmpty() && canceledPayments.isEmpty()) {
+            return;
+        }
+
+        int[] updated = transactionTemplate.execute(tx -> new int[] {
+                paymentRepository.updateStatus(succeededPayments,
+                        PaymentEntity.PaymentStatus.PROCESSING, PaymentEntity.PaymentStatus.COMPLETED),
+                paymentRepository.updateStatus(canceledPayments,
+                        PaymentEntity.PaymentStatus.PROCESSING, PaymentEntity.PaymentStatus.FAILED),
+                orderRepository.updateStatus(succeededOrders,
+                        OrderEntity.OrderStatus.PENDING, OrderEntity.OrderStatus.PROCESSING)
+        });
+        succeededOrders.forEach(orderReader::invalidate);
+        canceledOrders.forEach(orderReader::invalidate);
+
+        completed.increment(updated[0]);
+        failed.increment(updated[1]);
+        log.info("Reconciled payments: {} completed, {} failed ({} abandoned intents cancelled), "
+                + "{} orders moved to PROCESSING", updated[0], updated[1], closedOut, updated[2]);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pauseBetweenBatchesMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void addIfPresent(List<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,322 @@
+package com.ecommerce.order.infrastructure.job;
+
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.infrastructure.persistence.manifest.ManifestImports;
+import com.ecommerce.order.infrastructure.persistence.manifest.ManifestRow;
+import com.ecommerce.order.infrastructure.persistence.manifest.ShipmentManifestReader;
+import com.ecommerce.order.infrastructure.sharding.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports carrier shipment manifests dropped into the inbox directory.
+ * Each CSV is streamed in chunks; per chunk, PROCESSING orders are moved to
+ * SHIPPED (with their outbox events) and tracking numbers are set in one
+ * JDBC batch, in the same transaction as the checkpoint in
+ * manifest_imports. After a crash the next run resumes after the last
+ * checkpoint. Rows that can't be applied are written to
+ * {@code errors/<manifest>.errors.csv}; the file is truncated to its
+ * checkpointed length on resume, so no row is reported twice. Finished
+ * manifests are moved to {@code processed/}; a manifest whose name was
+ * already imported is moved to {@code duplicates/} without being read.
+ * <p>
+ * Orders on other shards than shard 0, which holds the checkpoints, are
+ * updated in their own transaction first. If the checkpoint then fails,
+ * the chunk is applied again on resume, which changes nothing for orders
+ * that were already shipped with the same tracking number.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.manifest.enabled", havingValue = "true", matchIfMissing = true)
+public class ShipmentManifestImportJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ShipmentManifestImportJob.class);
+
+    private static final String ERROR_HEADER = "line,order_id,error\n";
+
+    private final OrderDomainRepository orderRepository;
+    private final OrderReadCoalescer orderReader;
+    private final ManifestImports imports;
+    private final ShardRouter router;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path inbox;
+    private final Path processed;
+    private final Path duplicates;
+    private final Path errors;
+    private final int batchSize;
+    private final Duration claimTimeout;
+
+    private final Counter rowsUpdated;
+    private final Counter rowsFailed;
+    private final Counter manifestsImported;
+    private final Counter manifestsDuplicate;
+
+    public ShipmentManifestImportJob(
+            OrderDomainRepository orderRepository,
+            OrderReadCoalescer orderReader,
+            ManifestImports imports,
+            ShardRouter router,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.manifest.directory:./data/manifests}") String directory,
+            @Value("${orders.manifest.batch-size:1000}") int batchSize,
+            @Value("${orders.manifest.claim-timeout-minutes:10}") long claimTimeoutMinutes) {
+        this.orderRepository = orderRepository;
+        this.orderReader = orderReader;
+        this.imports = imports;
+        this.router = router;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Path root = Paths.get(directory).toAbsolutePath();
+        this.inbox = root.resolve("inbox");
+        this.processed = root.resolve("processed");
+        this.duplicates = root.resolve("duplicates");
+        this.errors = root.resolve("errors");
+        this.batchSize = batchSize;
+        this.claimTimeout = Duration.ofMinutes(claimTimeoutMinutes);
+        try {
+            Files.createDirectories(inbox);
+            Files.createDirectories(processed);
+            Files.createDirectories(duplicates);
+            Files.createDirectories(errors);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.rowsUpdated = Counter.builder("orders.manifest.rows_updated")
+                .description("Manifest rows applied to orders")
+                .register(meterRegistry);
+        this.rowsFailed = Counter.builder("orders.manifest.rows_failed")
+                .description("Manifest rows written to the error file")
+                .register(meterRegistry);
+        this.manifestsImported = Counter.builder("orders.manifest.imported")
+                .description("Manifests fully imported")
+                .register(meterRegistry);
+        this.manifestsDuplicate = Counter.builder("orders.manifest.duplicates")
+                .description("Manifests set aside because their name was already imported")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.manifest.interval-ms:30000}")
+    public void run() {
+        List<Path> manifests = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(inbox, "*.csv")) {
+            files.forEach(manifests::add);
+        } catch (IOException e) {
+            log.error("Listing manifest inbox {} failed", inbox, e);
+            return;
+        }
+        manifests.sort(null);
+        for (Path manifest : manifests) {
+            String fileName = manifest.getFileName().toString();
+            ManifestImports.Checkpoint checkpoint = imports.claim(fileName, claimTimeout.getSeconds());
+            if (checkpoint == null) {
+                if (imports.finishedBefore(fileName, claimTimeout.getSeconds())) {
+                    moveToDuplicates(manifest);
+                }
+                continue;
+            }
+            try {
+                importManifest(manifest, checkpoint);
+            } catch (ShipmentManifestReader.InvalidManifestException e) {
+                log.error("Rejecting manifest {}: {}", fileName, e.getMessage());
+                imports.fail(fileName, e.getMessage());
+                moveToProcessed(manifest);
+            } catch (IOException | RuntimeException e) {
+                log.error("Importing manifest {} failed; resuming on the next run", fileName, e);
+                imports.release(fileName, String.valueOf(e.getMessage()));
+            }
+        }
+    }
+
+    private void importManifest(Path manifest, ManifestImports.Checkpoint checkpoint) throws IOException {
+        String fileName = manifest.getFileName().toString();
+        Path errorFile = errors.resolve(fileName.replaceFirst("\\.csv$", "") + ".errors.csv");
+        log.info("Importing manifest {} from data row {}", fileName, checkpoint.getRowsDone() + 1);
+
+        try (ShipmentManifestReader reader = new ShipmentManifestReader(manifest);
+             FileChannel errorChannel = FileChannel.open(errorFile,
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drop error lines written after the last checkpoint
+            errorChannel.truncate(checkpoint.getErrorBytes());
+            errorChannel.position(checkpoint.getErrorBytes());
+            if (checkpoint.getErrorBytes() == 0) {
+                write(errorChannel, ERROR_HEADER);
+            }
+            if (!reader.skip(checkpoint.getRowsDone())) {
+                throw new IllegalStateException("Manifest " + fileName + " is shorter than its checkpoint");
+            }
+
+            long rowsBefore;
+            do {
+                rowsBefore = reader.getRowsRead();
+                List<ShipmentManifestReader.RowError> rowErrors = new ArrayList<>();
+                List<ManifestRow> rows = reader.next(batchSize, rowErrors);
+                if (reader.getRowsRead() == rowsBefore) {
+                    break;
+                }
+                applyChunk(fileName, reader.getRowsRead(), rows, rowErrors, errorChannel);
+            } while (reader.getRowsRead() - rowsBefore == batchSize);
+        }
+
+        imports.complete(fileName);
+        if (Files.size(errorFile) == ERROR_HEADER.length()) {
+            Files.delete(errorFile);
+        }
+        moveToProcessed(manifest);
+        manifestsImported.increment();
+        log.info("Imported manifest {}", fileName);
+    }
+
+    private void applyChunk(String fileName, long rowsRead, List<ManifestRow> rows,
+            List<ShipmentManifestReader.RowError> rowErrors, FileChannel errorChannel) {
+        // The last row for an order wins; earlier ones are reported
+        List<ShipmentManifestReader.RowError> failed = new ArrayList<>(rowErrors);
+        Map<Long, ManifestRow> byOrder = new LinkedHashMap<>();
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            ManifestRow row = rows.get(i);
+            ManifestRow later = byOrder.putIfAbsent(row.getOrderId(), row);
+            if (later != null) {
+                failed.add(error(row, "Superseded by line " + later.getLine() + " for the same order"));
+            }
+        }
+        Map<Integer, List<Long>> byShard = router.groupByShard(byOrder.keySet());
+
+        List<ManifestRow> applied = new ArrayList<>();
+        byShard.forEach((shard, orderIds) -> {
+            if (shard != 0) {
+                ChunkResult result = router.on(shard,
+                        () -> transactionTemplate.execute(tx -> ship(orderIds, byOrder)));
+                applied.addAll(result.tracked);
+                failed.addAll(result.failed);
+            }
+        });
+        byOrder.forEach((orderId, row) -> {
+            if (router.shardOf(orderId) == null) {
+                failed.add(error(row, "Order not found"));
+            }
+        });
+
+        router.run(0, () -> transactionTemplate.executeWithoutResult(tx -> {
+            List<ShipmentManifestReader.RowError> chunkFailed = new ArrayList<>(failed);
+            List<Long> localIds = byShard.get(0);
+            if (localIds != null) {
+                ChunkResult result = ship(localIds, byOrder);
+                applied.addAll(result.tracked);
+                chunkFailed.addAll(result.failed);
+            }
+
+            // Errors are durable before the checkpoint that covers them commits
+            StringBuilder lines = new StringBuilder();
+            chunkFailed.forEach(e -> lines.append(e.toCsv()).append('\n'));
+            long errorBytes;
+            try {
+                write(errorChannel, lines.toString());
+                errorChannel.force(false);
+                errorBytes = errorChannel.position();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            imports.checkpoint(fileName, new ManifestImports.Checkpoint(rowsRead, errorBytes),
+                    applied.size(), chunkFailed.size());
+            rowsFailed.increment(chunkFailed.size());
+        }));
+
+        applied.forEach(row -> orderReader.invalidate(row.getOrderId()));
+        rowsUpdated.increment(applied.size());
+    }
+
+    /**
+     * Ships the orders of one shard and sets their tracking numbers, in the
+     * caller's transaction.
+     */
+    private ChunkResult ship(List<Long> orderIds, Map<Long, ManifestRow> byOrder) {
+        Set<OrderEntity.OrderStatus> allowedFrom = OrderEntity.allowedSourceStatuses(OrderEntity.OrderStatus.SHIPPED);
+        Map<Long, OrderEntity.OrderStatus> previous = orderRepository.transitionStatus(orderIds, allowedFrom,
+                OrderEntity.OrderStatus.SHIPPED);
+
+        ChunkResult result = new ChunkResult();
+        for (Long orderId : orderIds) {
+            ManifestRow row = byOrder.get(orderId);
+            OrderEntity.OrderStatus status = previous.get(orderId);
+            if (status == null) {
+                result.failed.add(error(row, "Order not found"));
+            } else if (allowedFrom.contains(status) || status == OrderEntity.OrderStatus.SHIPPED) {
+                // Already SHIPPED orders only get their tracking number updated
+                result.tracked.add(row);
+            } else {
+                result.failed.add(error(row, "Order is " + status + " and can't be shipped"));
+            }
+        }
+        if (!result.tracked.isEmpty()) {
+            imports.applyTracking(result.tracked);
+        }
+        return result;
+    }
+
+    private static ShipmentManifestReader.RowError error(ManifestRow row, String message) {
+        return new ShipmentManifestReader.RowError(row.getLine(), String.valueOf(row.getOrderId()), message);
+    }
+
+    private static void write(FileChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void moveToProcessed(Path manifest) {
+        try {
+            Files.move(manifest, processed.resolve(manifest.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The manifest is already marked finished and won't be claimed again
+            log.warn("Moving manifest {} out of the inbox failed: {}", manifest, e.getMessage());
+        }
+    }
+
+    private void moveToDuplicates(Path manifest) {
+        String fileName = manifest.getFileName().toString();
+        Path target = duplicates.resolve(fileName.replaceFirst("\\.csv$", "")
+                + "-" + System.currentTimeMillis() + ".csv");
+        try {
+            Files.move(manifest, target);
+            manifestsDuplicate.increment();
+            log.warn("Manifest {} was already imported; moved the re-delivered file to {} without reading it",
+                    fileName, target);
+        } catch (IOException e) {
+            log.warn("Moving duplicate manifest {} out of the inbox failed: {}", manifest, e.getMessage());
+        }
+    }
+
+    private static class ChunkResult {
+        private final List<ManifestRow> tracked = new ArrayList<>();
+        private final List<ShipmentManifestReader.RowError> failed = new ArrayList<>();
+    }
+}
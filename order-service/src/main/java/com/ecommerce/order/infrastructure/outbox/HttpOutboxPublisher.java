@@ -0,0 +1,36 @@
+package com.ecommerce.order.infrastructure.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Posts each event as JSON to a configured endpoint. The event ID is sent
+ * as the {@code Idempotency-Key} header so the receiver can drop
+ * redeliveries. Any non-2xx response fails the delivery.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "http")
+public class HttpOutboxPublisher implements OutboxPublisher {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public HttpOutboxPublisher(RestTemplate restTemplate, @Value("${outbox.http.url}") String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("Idempotency-Key", Long.toString(event.getId()));
+        headers.set("X-Event-Type", event.getEventType());
+        restTemplate.postForEntity(url, new HttpEntity<>(event.toJson(), headers), Void.class);
+    }
+}
@@ -0,0 +1,187 @@
+package com.ecommerce.order.infrastructure.outbox;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox for order domain events (table order_outbox).
+ * Events are appended in the transaction that changes the order and are
+ * delivered later by the outbox relay, so publishing never adds latency or
+ * failure modes to the request that caused it.
+ */
+@Component
+public class OrderOutbox {
+
+    public static final String ORDER_CREATED = "order.created";
+    public static final String ORDER_STATUS_CHANGED = "order.status_changed";
+
+    /**
+     * Leases the oldest pending event of each order by pushing its
+     * next_attempt_at past the lease, so no other relay picks it up until the
+     * lease runs out. An event whose predecessor for the same order is still
+     * pending is not eligible, so events of one order are delivered in order
+     * even with several relays.
+     */
+    private static final String CLAIM_SQL = """
+            UPDATE order_outbox SET next_attempt_at = now() + make_interval(secs => ?)
+            WHERE id IN (
+                SELECT id FROM order_outbox o
+                WHERE processed_at IS NULL
+                  AND next_attempt_at <= now()
+                  AND NOT EXISTS (SELECT 1 FROM order_outbox p
+                                  WHERE p.aggregate_id = o.aggregate_id
+                                    AND p.processed_at IS NULL
+                                    AND p.id < o.id)
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, aggregate_id, event_type, payload::text AS payload, created_at, attempts
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderOutbox(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate,
+            ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Records that an order was created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(OrderEntity order) {
+        Map<String, Object> payload = basePayload(order);
+        payload.put("totalAmount", order.getTotalAmount());
+        payload.put("items", order.getItems().stream()
+                .map(item -> {
+                    Map<String, Object> line = new LinkedHashMap<>();
+                    line.put("productId", item.getProductId());
+                    line.put("productName", item.getProductName());
+                    line.put("quantity", item.getQuantity());
+                    line.put("unitPrice", item.getUnitPrice());
+                    return line;
+                })
+                .collect(Collectors.toList()));
+        append(order.getId(), ORDER_CREATED, payload);
+    }
+
+    /**
+     * Records that an order moved to a new status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(OrderEntity order, OrderEntity.OrderStatus previousStatus) {
+        Map<String, Object> payload = basePayload(order);
+        payload.put("previousStatus", previousStatus);
+        append(order.getId(), ORDER_STATUS_CHANGED, payload);
+    }
+
+    /**
+     * Leases up to {@code limit} deliverable events and returns them in ID
+     * order. The lease is committed with the statement, so the events can be
+     * published without holding a transaction or row locks; each must then
+     * be marked processed or failed. Events whose lease runs out are
+     * claimed again.
+     */
+    public List<OutboxEvent> claim(int limit, Duration lease) {
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getLong("aggregate_id"),
+                rs.getString("event_type"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                rs.getInt("attempts")), (double) lease.toMillis() / 1000, limit);
+        events.sort(Comparator.comparingLong(OutboxEvent::getId));
+        return events;
+    }
+
+    public void markProcessed(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.update("UPDATE order_outbox SET processed_at = now() WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+    }
+
+    public void markFailed(long id, String error, Duration retryAfter) {
+        jdbcTemplate.update("""
+                        UPDATE order_outbox
+                        SET attempts = attempts + 1, last_error = ?,
+                            next_attempt_at = now() + make_interval(secs => ?)
+                        WHERE id = ?
+                        """, truncate(error, 1000), (double) retryAfter.toMillis() / 1000, id);
+    }
+
+    /**
+     * Deletes up to {@code limit} events processed before the cutoff.
+     *
+     * @return number of events deleted
+     */
+    public int pruneProcessedBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update("""
+                        DELETE FROM order_outbox WHERE id IN (
+                            SELECT id FROM order_outbox
+                            WHERE processed_at < ?
+                            ORDER BY id
+                            LIMIT ?)
+                        """, Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * @return number of pending events and age in seconds of the oldest
+     */
+    public long[] backlog() {
+        return jdbcTemplate.queryForObject("""
+                        SELECT count(*), COALESCE(EXTRACT(EPOCH FROM now() - min(created_at)), 0)
+                        FROM order_outbox WHERE processed_at IS NULL
+                        """,
+                (rs, rowNum) -> new long[] {rs.getLong(1), rs.getLong(2)});
+    }
+
+    private void append(Long orderId, String eventType, Map<String, Object> payload) {
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO order_outbox (aggregate_id, event_type, payload) VALUES (?, ?, ?::jsonb)",
+                    orderId, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " event", e);
+        }
+    }
+
+    private static Map<String, Object> basePayload(OrderEntity order) {
+        // Keys match the events written in SQL by the bulk status updates
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("orderId", order.getId());
+        payload.put("userUid", order.getUserUid());
+        payload.put("status", order.getStatus());
+        payload.put("occurredAt", order.getUpdatedAt());
+        return payload;
+    }
+
+    private static String truncate(String value, int max) {
+        if (value == null || value.length() <= max) {
+            return value;
+        }
+        return value.substring(0, max);
+    }
+}
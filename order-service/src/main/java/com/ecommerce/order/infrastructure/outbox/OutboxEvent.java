@@ -0,0 +1,65 @@
+package com.ecommerce.order.infrastructure.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order domain event read from the outbox for delivery.
+ */
+public class OutboxEvent {
+
+    private final long id;
+    private final long orderId;
+    private final String eventType;
+    private final String payload;
+    private final LocalDateTime createdAt;
+    private final int attempts;
+
+    public OutboxEvent(long id, long orderId, String eventType, String payload, LocalDateTime createdAt,
+            int attempts) {
+        this.id = id;
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+        this.attempts = attempts;
+    }
+
+    /** Outbox sequence number; unique and increasing, usable for deduplication. */
+    public long getId() {
+        return id;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    /** Event body as a JSON object. */
+    public String getPayload() {
+        return payload;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /** Delivery attempts that already failed. */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return the event as delivered to consumers:
+     *         {@code {"id":..,"type":..,"orderId":..,"payload":{..}}}
+     */
+    public String toJson() {
+        // Event types are constants and the payload is already JSON
+        return "{\"id\":" + id
+                + ",\"type\":\"" + eventType + "\""
+                + ",\"orderId\":" + orderId
+                + ",\"payload\":" + payload + "}";
+    }
+}
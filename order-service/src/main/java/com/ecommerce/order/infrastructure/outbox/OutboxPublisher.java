@@ -0,0 +1,18 @@
+package com.ecommerce.order.infrastructure.outbox;
+
+/**
+ * Delivers outbox events to consumers. Delivery is at-least-once: an event
+ * may be published again if marking it processed fails, so consumers should
+ * deduplicate by {@link OutboxEvent#getId()}.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes one event.
+     *
+     * @param event the event
+     * @throws RuntimeException if the event was not delivered; it is retried
+     *                          later, and later events of the same order wait
+     */
+    void publish(OutboxEvent event);
+}
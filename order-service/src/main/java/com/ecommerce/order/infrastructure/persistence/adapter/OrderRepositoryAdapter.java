@@ -1,48 +1,246 @@
 package com.ecommerce.order.infrastructure.persistence.adapter;
 
 import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderChangeBatch;
+import com.ecommerce.order.domain.repository.OrderChangePosition;
 import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
 import com.ecommerce.order.infrastructure.persistence.jpa.OrderJpaRepository;
 import com.ecommerce.order.infrastructure.persistence.mapper.OrderMapper;
 import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.archive.OrderArchiveStore;
+import com.ecommerce.order.infrastructure.persistence.archive.OrderPartitions;
+import com.ecommerce.order.infrastructure.persistence.history.OrderStatusHistory;
+import com.ecommerce.order.infrastructure.persistence.search.OrderSearchQueries;
+import com.ecommerce.order.infrastructure.persistence.view.OrderViewStore;
+import com.ecommerce.order.infrastructure.outbox.OrderOutbox;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Adapter that implements OrderDomainRepository using JPA.
  * This is the infrastructure layer implementation of the domain repository
  * port.
+ * <p>
+ * Open-session-in-view is off. Finders don't start transactions: the read
+ * use cases run them in a read-only transaction (Hibernate flush mode
+ * MANUAL, entities loaded read-only without dirty-checking snapshots), and
+ * other callers run them in their own transaction or none. They fetch
+ * items and payment in the same query and map to domain entities before
+ * returning, so nothing is loaded lazily after the session ends.
+ * <p>
+ * Every write also refreshes the orders' rows in order_view, in the same
+ * transaction, so the read model never lags a committed change.
  */
 @Component
 public class OrderRepositoryAdapter implements OrderDomainRepository {
 
+    /**
+     * Outbox and status history rows for bulk status changes, written by the
+     * same statement as the update. The payload matches
+     * {@link OrderOutbox#statusChanged}; the history rows match
+     * {@link OrderStatusHistory#recordChange}.
+     */
+    private static final String STATUS_CHANGED_EVENTS = """
+            events AS (
+                INSERT INTO order_outbox (aggregate_id, event_type, payload)
+                SELECT id, '%s',
+                       jsonb_build_object('orderId', id, 'userUid', user_uid, 'status', status,
+                                          'occurredAt', updated_at, 'previousStatus', previous_status)
+                FROM changed
+                ORDER BY id),
+            history AS (
+                INSERT INTO order_status_history (order_id, from_status, to_status, changed_at)
+                SELECT id, previous_status, status, now()
+                FROM changed
+                ORDER BY id)
+            """.formatted(OrderOutbox.ORDER_STATUS_CHANGED);
+
+    private static final String UPDATE_STATUS_SQL = """
+            WITH changed AS (
+                UPDATE orders SET status = :newStatus, updated_at = now()
+                WHERE id IN (:ids) AND status = :expected
+                RETURNING id, user_uid, status, updated_at, CAST(:expected AS text) AS previous_status),
+            """ + STATUS_CHANGED_EVENTS + """
+            SELECT count(*) FROM changed
+            """;
+
+    /**
+     * Keyset page of the change feed, in the order of the writing
+     * transactions (change_xid is stamped by trg_orders_change_xid). A row is
+     * settled once every transaction older than its writer has finished:
+     * nothing can commit behind it any more.
+     */
+    private static final String CHANGED_AFTER_SQL = """
+            SELECT id, CAST(CAST(change_xid AS text) AS bigint) AS change_xid,
+                   change_xid < pg_snapshot_xmin(pg_current_snapshot()) AS settled
+            FROM orders
+            WHERE (change_xid, id) > (CAST(CAST(:transactionId AS text) AS xid8), :orderId)
+            ORDER BY change_xid, id
+            LIMIT :limit
+            """;
+
+    private static final String FIND_PENDING_SQL = """
+            SELECT id FROM orders
+            WHERE status = :expected AND created_at < :createdBefore AND id > :afterId
+            ORDER BY id
+            LIMIT :limit
+            """;
+
+    private static final String CANCEL_PENDING_SQL = """
+            WITH changed AS (
+                UPDATE orders SET status = 'CANCELLED', updated_at = now()
+                WHERE status = :expected AND id IN (
+                    SELECT id FROM orders
+                    WHERE id IN (:ids) AND status = :expected
+                    ORDER BY id
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING id, user_uid, status, updated_at, CAST(:expected AS text) AS previous_status),
+            """ + STATUS_CHANGED_EVENTS + """
+            SELECT id FROM changed ORDER BY id
+            """;
+
+    /**
+     * Locks the orders in ID order (so concurrent calls cannot deadlock),
+     * moves those in an allowed status, and returns every locked order with
+     * the status it had. Orders already in the new status are left alone, so
+     * they get no outbox event or history row.
+     */
+    private static final String TRANSITION_STATUS_SQL = """
+            WITH locked AS (
+                SELECT id, created_at, status FROM orders
+                WHERE id IN (:ids)
+                ORDER BY id
+                FOR UPDATE),
+            changed AS (
+                UPDATE orders o SET status = :newStatus, updated_at = now()
+                FROM locked l
+                WHERE o.id = l.id AND o.created_at = l.created_at AND l.status IN (:allowedFrom)
+                  AND l.status <> :newStatus
+                RETURNING o.id, o.user_uid, o.status, o.updated_at, l.status AS previous_status),
+            """ + STATUS_CHANGED_EVENTS + """
+            SELECT id, status FROM locked
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final OrderJpaRepository jpaRepository;
     private final OrderMapper orderMapper;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderPartitions partitions;
+    private final OrderArchiveStore archiveStore;
+    private final OrderOutbox outbox;
+    private final OrderSearchQueries searchQueries;
+    private final OrderViewStore viewStore;
+    private final OrderStatusHistory statusHistory;
 
-    public OrderRepositoryAdapter(OrderJpaRepository jpaRepository, OrderMapper orderMapper) {
+    public OrderRepositoryAdapter(OrderJpaRepository jpaRepository, OrderMapper orderMapper,
+            NamedParameterJdbcTemplate jdbcTemplate, OrderPartitions partitions, OrderArchiveStore archiveStore,
+            OrderOutbox outbox, OrderSearchQueries searchQueries, OrderViewStore viewStore,
+            OrderStatusHistory statusHistory) {
         this.jpaRepository = jpaRepository;
         this.orderMapper = orderMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.partitions = partitions;
+        this.archiveStore = archiveStore;
+        this.outbox = outbox;
+        this.searchQueries = searchQueries;
+        this.viewStore = viewStore;
+        this.statusHistory = statusHistory;
+    }
+
+    /**
+     * Inserts the order and, in the same transaction, records its created
+     * event and initial status. The ID is assigned already, so this is a plain persist; a
+     * save() would merge and select the row first.
+     */
+    @Override
+    @Transactional
+    public OrderEntity create(OrderEntity orderEntity) {
+        if (orderEntity.getId() == null) {
+            throw new IllegalArgumentException("New orders need an assigned ID");
+        }
+        OrderJpaEntity jpaOrder = orderMapper.toJpaEntity(orderEntity);
+        entityManager.persist(jpaOrder);
+        // Write the rows first: the event carries the written timestamps, and
+        // the view is built in SQL
+        entityManager.flush();
+        OrderEntity saved = orderMapper.toDomainEntity(jpaOrder);
+        outbox.orderCreated(saved);
+        statusHistory.recordCreated(saved.getId(), saved.getStatus());
+        viewStore.refresh(List.of(saved.getId()));
+        return saved;
     }
 
+    /**
+     * Saves the order and, in the same transaction, records an outbox event
+     * and a history row for a status change.
+     */
     @Override
+    @Transactional
     public OrderEntity save(OrderEntity orderEntity) {
+        if (orderEntity.getId() == null) {
+            throw new IllegalArgumentException("Use create() for new orders");
+        }
+        // The merge in save() loads the row anyway; this only loads it first
+        OrderJpaEntity.OrderStatus previousStatus = jpaRepository.findById(orderEntity.getId())
+                .map(OrderJpaEntity::getStatus).orElse(null);
+
         OrderJpaEntity jpaOrder = orderMapper.toJpaEntity(orderEntity);
         OrderJpaEntity savedOrder = jpaRepository.save(jpaOrder);
-        return orderMapper.toDomainEntity(savedOrder);
+        // Flush so updated_at is stamped: the event's occurredAt is the written value
+        entityManager.flush();
+        OrderEntity saved = orderMapper.toDomainEntity(savedOrder);
+
+        if (previousStatus != null && !previousStatus.name().equals(saved.getStatus().name())) {
+            OrderEntity.OrderStatus previous = OrderEntity.OrderStatus.valueOf(previousStatus.name());
+            outbox.statusChanged(saved, previous);
+            statusHistory.recordChange(saved.getId(), previous, saved.getStatus());
+        }
+        viewStore.refresh(List.of(saved.getId()));
+        return saved;
     }
 
     @Override
     public Optional<OrderEntity> findById(Long id) {
-        return jpaRepository.findById(id)
+        return jpaRepository.findWithItemsById(id)
                 .map(orderMapper::toDomainEntity);
     }
 
+    @Override
+    public Optional<OrderEntity> findArchivedById(Long id) {
+        // ID ranges of consecutive months can overlap slightly, so check each candidate
+        for (String fileName : partitions.findArchiveFiles(id)) {
+            Optional<OrderJpaEntity> archived = archiveStore.find(fileName, id);
+            if (archived.isPresent()) {
+                return archived.map(orderMapper::toDomainEntity);
+            }
+        }
+        return Optional.empty();
+    }
+
     @Override
     public List<OrderEntity> findByUserUid(String userUid) {
-        return jpaRepository.findByUserUid(userUid).stream()
+        return jpaRepository.findWithItemsByUserUidOrderByCreatedAtDescIdDesc(userUid).stream()
                 .map(orderMapper::toDomainEntity)
                 .collect(Collectors.toList());
     }
@@ -50,21 +248,148 @@ public class OrderRepositoryAdapter implements OrderDomainRepository {
     @Override
     public List<OrderEntity> findByStatus(OrderEntity.OrderStatus status) {
         OrderJpaEntity.OrderStatus jpaStatus = OrderJpaEntity.OrderStatus.valueOf(status.name());
-        return jpaRepository.findByStatus(jpaStatus).stream()
+        return jpaRepository.findWithItemsByStatus(jpaStatus).stream()
                 .map(orderMapper::toDomainEntity)
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<OrderEntity> findAll() {
-        return jpaRepository.findAll().stream()
+        return jpaRepository.findAllWithItemsBy().stream()
                 .map(orderMapper::toDomainEntity)
                 .collect(Collectors.toList());
     }
 
     @Override
+    public OrderChangeBatch findChangedAfter(OrderChangePosition after, int limit) {
+        return findChangedAfter(0, after, limit);
+    }
+
+    /**
+     * Reads this database's changes after its mark in the position.
+     *
+     * @param source the number this database has in the position
+     */
+    @Transactional(readOnly = true)
+    public OrderChangeBatch findChangedAfter(int source, OrderChangePosition after, int limit) {
+        OrderChangePosition.Mark mark = after.markOf(source);
+        List<OrderChangePosition.Mark> marks = new ArrayList<>();
+        boolean[] heldBack = {false};
+        int[] rows = {0};
+        jdbcTemplate.query(CHANGED_AFTER_SQL, new MapSqlParameterSource()
+                .addValue("transactionId", mark.getTransactionId())
+                .addValue("orderId", mark.getOrderId())
+                .addValue("limit", limit), (RowCallbackHandler) rs -> {
+                    rows[0]++;
+                    // Rows are in transaction order, so the unsettled ones come last
+                    if (heldBack[0] || !rs.getBoolean("settled")) {
+                        heldBack[0] = true;
+                        return;
+                    }
+                    marks.add(new OrderChangePosition.Mark(rs.getLong("change_xid"), rs.getLong("id")));
+                });
+        List<OrderEntity> orders = findAllInOrder(marks.stream()
+                .map(OrderChangePosition.Mark::getOrderId)
+                .collect(Collectors.toList()));
+        OrderChangePosition next = marks.isEmpty() ? after : after.with(source, marks.get(marks.size() - 1));
+        if (orders.size() < marks.size()) {
+            // An order archived between the two reads; keep the marks in step
+            Set<Long> found = orders.stream().map(OrderEntity::getId).collect(Collectors.toSet());
+            marks.removeIf(m -> !found.contains(m.getOrderId()));
+        }
+        return new OrderChangeBatch(orders, marks, next, !heldBack[0] && rows[0] == limit, heldBack[0]);
+    }
+
+    @Override
+    public List<OrderEntity> search(OrderSearchCriteria criteria, LocalDateTime beforeCreatedAt, Long beforeId,
+            int limit) {
+        return findAllInOrder(searchQueries.findIds(criteria, beforeCreatedAt, beforeId, limit));
+    }
+
+    @Override
+    public long estimateSearchCount(OrderSearchCriteria criteria) {
+        return searchQueries.estimateCount(criteria);
+    }
+
+    private List<OrderEntity> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Fetch in one query, then restore the keyset order
+        Map<Long, OrderJpaEntity> byId = jpaRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(OrderJpaEntity::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(orderMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public int updateStatus(Collection<Long> orderIds, OrderEntity.OrderStatus expected,
+            OrderEntity.OrderStatus newStatus) {
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        Long changed = jdbcTemplate.queryForObject(UPDATE_STATUS_SQL, new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("expected", expected.name())
+                .addValue("newStatus", newStatus.name()), Long.class);
+        if (changed == null || changed == 0) {
+            return 0;
+        }
+        // Orders that were not in the expected status keep their document as is
+        viewStore.refresh(orderIds);
+        return changed.intValue();
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, OrderEntity.OrderStatus> transitionStatus(Collection<Long> orderIds,
+            Set<OrderEntity.OrderStatus> allowedFrom, OrderEntity.OrderStatus newStatus) {
+        if (orderIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, OrderEntity.OrderStatus> previous = new HashMap<>();
+        jdbcTemplate.query(TRANSITION_STATUS_SQL, new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("allowedFrom", allowedFrom.stream().map(Enum::name).collect(Collectors.toList()))
+                .addValue("newStatus", newStatus.name()),
+                (RowCallbackHandler) rs -> previous.put(rs.getLong("id"),
+                        OrderEntity.OrderStatus.valueOf(rs.getString("status"))));
+        viewStore.refresh(previous.keySet());
+        return previous;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findPendingCreatedBefore(LocalDateTime createdBefore, Long afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_PENDING_SQL, new MapSqlParameterSource()
+                .addValue("expected", OrderEntity.OrderStatus.PENDING.name())
+                .addValue("createdBefore", Timestamp.valueOf(createdBefore))
+                .addValue("afterId", afterId)
+                .addValue("limit", limit), Long.class);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> cancelPending(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> cancelled = jdbcTemplate.queryForList(CANCEL_PENDING_SQL, new MapSqlParameterSource()
+                .addValue("expected", OrderEntity.OrderStatus.PENDING.name())
+                .addValue("ids", orderIds), Long.class);
+        viewStore.refresh(cancelled);
+        return cancelled;
+    }
+
+    @Override
+    @Transactional
     public void deleteById(Long id) {
         jpaRepository.deleteById(id);
+        viewStore.delete(List.of(id));
     }
 
     @Override
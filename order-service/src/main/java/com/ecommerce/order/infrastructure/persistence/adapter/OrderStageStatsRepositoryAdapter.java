@@ -0,0 +1,28 @@
+package com.ecommerce.order.infrastructure.persistence.adapter;
+
+import com.ecommerce.order.domain.entity.StageDurationHistogram;
+import com.ecommerce.order.domain.repository.OrderStageStatsRepository;
+import com.ecommerce.order.infrastructure.persistence.history.OrderStatusHistory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Adapter that implements OrderStageStatsRepository over the hourly
+ * rollups of the order status history.
+ */
+@Component
+public class OrderStageStatsRepositoryAdapter implements OrderStageStatsRepository {
+
+    private final OrderStatusHistory statusHistory;
+
+    public OrderStageStatsRepositoryAdapter(OrderStatusHistory statusHistory) {
+        this.statusHistory = statusHistory;
+    }
+
+    @Override
+    public List<StageDurationHistogram> findHistograms(LocalDateTime from, LocalDateTime to) {
+        return statusHistory.findHistograms(from, to);
+    }
+}
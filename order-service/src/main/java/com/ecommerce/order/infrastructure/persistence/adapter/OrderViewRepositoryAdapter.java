@@ -0,0 +1,125 @@
+package com.ecommerce.order.infrastructure.persistence.adapter;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.domain.repository.OrderViewCheckResult;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
+import com.ecommerce.order.infrastructure.persistence.view.OrderViewStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Adapter that implements OrderViewRepository over the order_view table.
+ * Rebuild and check walk the orders in ID order, one transaction per
+ * batch, so they can run against a live database.
+ */
+@Component
+public class OrderViewRepositoryAdapter implements OrderViewRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderViewRepositoryAdapter.class);
+
+    private final OrderViewStore store;
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderViewRepositoryAdapter(OrderViewStore store, PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Optional<OrderView> findById(Long id) {
+        return store.find(id);
+    }
+
+    @Override
+    public List<OrderView> findByUserUid(String userUid) {
+        return store.findByUserUid(userUid);
+    }
+
+    @Override
+    public long rebuild(int batchSize) {
+        long processed = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = store.findOrderIds(afterId, batchSize)).isEmpty()) {
+            List<Long> batch = ids;
+            transactionTemplate.executeWithoutResult(status -> store.refresh(batch));
+            processed += batch.size();
+            afterId = batch.get(batch.size() - 1);
+        }
+        long orphans = findOrphans(batchSize, true, null);
+        log.info("Rebuilt {} order views, deleted {} orphaned", processed, orphans);
+        return processed;
+    }
+
+    @Override
+    public OrderViewCheckResult check(int batchSize, boolean repair) {
+        OrderViewCheckResult result = new OrderViewCheckResult();
+        long afterId = 0;
+        while (true) {
+            List<Long> stale = new ArrayList<>();
+            long[] last = {afterId};
+            int[] count = {0};
+            store.check(afterId, batchSize, (orderId, present, current) -> {
+                if (!present) {
+                    result.addMissing(orderId);
+                    stale.add(orderId);
+                } else if (!current) {
+                    result.addStale(orderId);
+                    stale.add(orderId);
+                }
+                last[0] = orderId;
+                count[0]++;
+            });
+            if (count[0] == 0) {
+                break;
+            }
+            result.addChecked(count[0]);
+            if (repair && !stale.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> store.refresh(stale));
+                result.addRepaired(stale.size());
+            }
+            afterId = last[0];
+        }
+        findOrphans(batchSize, repair, result);
+        if (!result.isConsistent()) {
+            log.warn("Order views inconsistent: {} checked, {} missing, {} stale, {} orphaned, sample {}",
+                    result.getChecked(), result.getMissing(), result.getStale(), result.getOrphaned(),
+                    result.getSampleIds());
+        }
+        return result;
+    }
+
+    /**
+     * Finds views whose order is gone, e.g. left by a failed delete, and
+     * deletes them if asked to.
+     *
+     * @param result where to record the orphans, or null
+     * @return number of orphans found
+     */
+    private long findOrphans(int batchSize, boolean delete, OrderViewCheckResult result) {
+        long found = 0;
+        long afterId = 0;
+        List<Long> orphans;
+        while (!(orphans = store.findOrphans(afterId, batchSize)).isEmpty()) {
+            if (result != null) {
+                orphans.forEach(result::addOrphaned);
+            }
+            if (delete) {
+                store.delete(orphans);
+                if (result != null) {
+                    result.addRepaired(orphans.size());
+                }
+            }
+            found += orphans.size();
+            afterId = orphans.get(orphans.size() - 1);
+        }
+        return found;
+    }
+}
@@ -2,54 +2,163 @@ package com.ecommerce.order.infrastructure.persistence.adapter;
 
 import com.ecommerce.order.domain.entity.PaymentEntity;
 import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.infrastructure.persistence.jpa.OrderJpaRepository;
 import com.ecommerce.order.infrastructure.persistence.jpa.PaymentJpaRepository;
 import com.ecommerce.order.infrastructure.persistence.mapper.PaymentMapper;
 import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.view.OrderViewStore;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
- * Adapter that implements PaymentDomainRepository using JPA.
+ * Adapter that implements PaymentDomainRepository using JPA. Writes refresh
+ * the order_view rows of the payments' orders in the same transaction.
  */
 @Component
 public class PaymentRepositoryAdapter implements PaymentDomainRepository {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     private final PaymentJpaRepository jpaRepository;
+    private final OrderJpaRepository orderJpaRepository;
     private final PaymentMapper paymentMapper;
+    private final OrderViewStore viewStore;
 
-    public PaymentRepositoryAdapter(PaymentJpaRepository jpaRepository, PaymentMapper paymentMapper) {
+    public PaymentRepositoryAdapter(
+            PaymentJpaRepository jpaRepository,
+            OrderJpaRepository orderJpaRepository,
+            PaymentMapper paymentMapper,
+            OrderViewStore viewStore) {
         this.jpaRepository = jpaRepository;
+        this.orderJpaRepository = orderJpaRepository;
         this.paymentMapper = paymentMapper;
+        this.viewStore = viewStore;
+    }
+
+    @Override
+    @Transactional
+    public PaymentEntity create(PaymentEntity paymentEntity) {
+        if (paymentEntity.getId() == null) {
+            throw new IllegalArgumentException("New payments need an assigned ID");
+        }
+        PaymentJpaEntity jpaPayment = paymentMapper.toJpaEntity(paymentEntity);
+        jpaPayment.setOrder(orderJpaRepository.getReferenceById(paymentEntity.getOrderId()));
+        entityManager.persist(jpaPayment);
+        entityManager.flush();
+        viewStore.refresh(List.of(paymentEntity.getOrderId()));
+        return paymentMapper.toDomainEntity(jpaPayment);
     }
 
     @Override
+    @Transactional
     public PaymentEntity save(PaymentEntity paymentEntity) {
         PaymentJpaEntity jpaPayment = paymentMapper.toJpaEntity(paymentEntity);
+        if (paymentEntity.getOrderId() != null) {
+            // Reference only; the order row itself is not loaded or rewritten
+            jpaPayment.setOrder(orderJpaRepository.getReferenceById(paymentEntity.getOrderId()));
+        }
         PaymentJpaEntity savedPayment = jpaRepository.save(jpaPayment);
+        entityManager.flush();
+        viewStore.refreshForPayments(List.of(savedPayment.getId()));
         return paymentMapper.toDomainEntity(savedPayment);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<PaymentEntity> findById(Long id) {
         return jpaRepository.findById(id)
                 .map(paymentMapper::toDomainEntity);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId) {
         return jpaRepository.findByStripePaymentIntentId(paymentIntentId)
                 .map(paymentMapper::toDomainEntity);
     }
 
     @Override
+    public Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId, Long orderId) {
+        return findByStripePaymentIntentId(paymentIntentId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<PaymentEntity> findByOrderId(Long orderId) {
         return jpaRepository.findByOrderId(orderId)
                 .map(paymentMapper::toDomainEntity);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<PaymentEntity> findByStatusCreatedBefore(PaymentEntity.PaymentStatus status,
+            LocalDateTime createdBefore, Long afterId, int limit) {
+        PaymentJpaEntity.PaymentStatus jpaStatus = PaymentJpaEntity.PaymentStatus.valueOf(status.name());
+        return jpaRepository.findByStatusCreatedBefore(jpaStatus, createdBefore, afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(paymentMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentEntity> findByStatusCreatedBetween(PaymentEntity.PaymentStatus status,
+            LocalDateTime createdAfter, LocalDateTime createdBefore, Long afterId, int limit) {
+        PaymentJpaEntity.PaymentStatus jpaStatus = PaymentJpaEntity.PaymentStatus.valueOf(status.name());
+        return jpaRepository.findByStatusCreatedBetween(jpaStatus, createdAfter, createdBefore, afterId,
+                        PageRequest.of(0, limit))
+                .stream()
+                .map(paymentMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PaymentEntity> findOpenByOrderIds(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jpaRepository.findByOrderIdsAndStatuses(orderIds,
+                        List.of(PaymentJpaEntity.PaymentStatus.PENDING, PaymentJpaEntity.PaymentStatus.PROCESSING))
+                .stream()
+                .map(paymentMapper::toDomainEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional
+    public int updateStatus(Collection<Long> paymentIds, PaymentEntity.PaymentStatus expected,
+            PaymentEntity.PaymentStatus newStatus) {
+        if (paymentIds.isEmpty()) {
+            return 0;
+        }
+        int changed = jpaRepository.updateStatus(paymentIds,
+                PaymentJpaEntity.PaymentStatus.valueOf(expected.name()),
+                PaymentJpaEntity.PaymentStatus.valueOf(newStatus.name()));
+        if (changed > 0) {
+            viewStore.refreshForPayments(paymentIds);
+        }
+        return changed;
+    }
+
+    @Override
+    @Transactional
     public void deleteById(Long id) {
-        jpaRepository.deleteById(id);
+        jpaRepository.findById(id).ifPresent(payment -> {
+            Long orderId = payment.getOrder().getId();
+            jpaRepository.delete(payment);
+            entityManager.flush();
+            viewStore.refresh(List.of(orderId));
+        });
     }
 }
@@ -0,0 +1,274 @@
+package com.ecommerce.order.infrastructure.persistence.archive;
+
+import com.ecommerce.order.infrastructure.persistence.entity.OrderItemJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compressed archive files of closed order months on local disk.
+ * Each line is {@code <orderId>\t<json>}, where the JSON holds the raw order,
+ * item and payment rows, so a lookup only parses the line it wants. Lines
+ * are in ID order and compressed in independent gzip blocks of
+ * {@value #BLOCK_ORDERS} orders; a sidecar index holds the first order ID
+ * and file offset of each block, so a lookup decompresses one block. The
+ * file is still a plain gzip stream to other tools. The directory must be
+ * shared when several instances run.
+ */
+@Component
+public class OrderArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveStore.class);
+
+    static final int BLOCK_ORDERS = 1000;
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path directory;
+    private final ObjectMapper rowMapper;
+
+    public OrderArchiveStore(ObjectMapper objectMapper,
+            @Value("${orders.archive.directory:./data/order-archive}") String directory) {
+        this.directory = Paths.get(directory);
+        // Rows are archived as to_jsonb() output with snake_case column names
+        this.rowMapper = objectMapper.copy()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * Opens a writer for a month's archive of one shard. Nothing is visible
+     * under the final name until {@link Writer#commit()}.
+     */
+    public Writer open(YearMonth month, int shard) {
+        try {
+            Files.createDirectories(directory);
+            return new Writer(fileName(month, shard));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Looks an order up in an archive file. A missing file is logged and
+     * treated as not containing the order.
+     *
+     * @return the order with its items and payment, detached from any
+     *         persistence context
+     */
+    public Optional<OrderJpaEntity> find(String fileName, long orderId) {
+        Path file = directory.resolve(fileName);
+        if (!Files.exists(file)) {
+            log.error("Archive file {} is missing; archived order {} cannot be read", file, orderId);
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long offset = blockOffset(directory.resolve(fileName + INDEX_SUFFIX), orderId);
+            if (offset < 0) {
+                return Optional.empty();
+            }
+            channel.position(offset);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Channels.newInputStream(channel)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int tab = line.indexOf('\t');
+                    long id = Long.parseLong(line, 0, tab, 10);
+                    if (id == orderId) {
+                        return Optional.of(toEntity(rowMapper.readTree(line.substring(tab + 1))));
+                    }
+                    if (id > orderId) {
+                        // Lines are in ID order, so the order is not in this file
+                        break;
+                    }
+                }
+                return Optional.empty();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return offset of the block that would hold the order, 0 for a file
+     *         without an index, or -1 if the order is before the first block
+     */
+    private static long blockOffset(Path indexFile, long orderId) throws IOException {
+        if (!Files.exists(indexFile)) {
+            return 0;
+        }
+        long offset = -1;
+        for (String entry : Files.readAllLines(indexFile, StandardCharsets.US_ASCII)) {
+            int tab = entry.indexOf('\t');
+            if (Long.parseLong(entry, 0, tab, 10) > orderId) {
+                break;
+            }
+            offset = Long.parseLong(entry, tab + 1, entry.length(), 10);
+        }
+        return offset;
+    }
+
+    private OrderJpaEntity toEntity(JsonNode document) throws IOException {
+        OrderJpaEntity order = rowMapper.treeToValue(document.get("order"), OrderJpaEntity.class);
+
+        List<OrderItemJpaEntity> items = new ArrayList<>();
+        for (JsonNode row : document.path("items")) {
+            OrderItemJpaEntity item = rowMapper.treeToValue(row, OrderItemJpaEntity.class);
+            item.setOrder(order);
+            items.add(item);
+        }
+        order.setItems(items);
+
+        JsonNode paymentRow = document.get("payment");
+        if (paymentRow != null && !paymentRow.isNull()) {
+            PaymentJpaEntity payment = rowMapper.treeToValue(paymentRow, PaymentJpaEntity.class);
+            payment.setOrder(order);
+            order.setPayment(payment);
+        }
+        return order;
+    }
+
+    private static String fileName(YearMonth month, int shard) {
+        return "orders-" + month + (shard > 0 ? "-shard" + shard : "") + ".jsonl.gz";
+    }
+
+    /**
+     * Writes one month's archive and its index to temporary files and moves
+     * them into place on commit. Orders must be appended in ID order.
+     */
+    public class Writer implements Closeable {
+
+        private final String fileName;
+        private final Path tempFile;
+        private final Path tempIndex;
+        private final FileOutputStream fileOut;
+        private final StringBuilder index = new StringBuilder();
+        private BufferedWriter out;
+        private int blockOrders;
+        private boolean committed;
+
+        private Writer(String fileName) throws IOException {
+            this.fileName = fileName;
+            this.tempFile = directory.resolve(fileName + ".tmp");
+            this.tempIndex = directory.resolve(fileName + INDEX_SUFFIX + ".tmp");
+            this.fileOut = new FileOutputStream(tempFile.toFile());
+        }
+
+        public void append(long orderId, String json) {
+            try {
+                if (out == null || blockOrders == BLOCK_ORDERS) {
+                    startBlock(orderId);
+                }
+                out.write(Long.toString(orderId));
+                out.write('\t');
+                out.write(json);
+                out.write('\n');
+                blockOrders++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void startBlock(long firstOrderId) throws IOException {
+            finishBlock();
+            index.append(firstOrderId).append('\t').append(fileOut.getChannel().position()).append('\n');
+            out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(new NonClosingOutputStream(fileOut), 64 * 1024), StandardCharsets.UTF_8));
+            blockOrders = 0;
+        }
+
+        private void finishBlock() throws IOException {
+            if (out != null) {
+                // Ends this gzip member; the file stays open for the next one
+                out.close();
+                out = null;
+            }
+        }
+
+        /**
+         * Flushes the file and its index to disk and moves them to their
+         * final names, index first.
+         *
+         * @return the archive file name
+         */
+        public String commit() {
+            try {
+                if (out == null) {
+                    // An empty month still gets a valid (empty) gzip file
+                    startBlock(0);
+                    index.setLength(0);
+                }
+                finishBlock();
+                fileOut.getFD().sync();
+                fileOut.close();
+                Files.writeString(tempIndex, index, StandardCharsets.US_ASCII);
+                Files.move(tempIndex, directory.resolve(fileName + INDEX_SUFFIX),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tempFile, directory.resolve(fileName),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                committed = true;
+                return fileName;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                fileOut.close();
+                Files.deleteIfExists(tempFile);
+                Files.deleteIfExists(tempIndex);
+            }
+        }
+    }
+
+    /** Lets a gzip block be closed without closing the archive file. */
+    private static class NonClosingOutputStream extends FilterOutputStream {
+
+        NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.order.infrastructure.persistence.archive;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC access to the monthly partitions of orders, order_items and payments
+ * and to the order_archives bookkeeping table. Partition names are always
+ * built from a {@link YearMonth}, never from user input.
+ */
+@Component
+public class OrderPartitions {
+
+    /** Parents in the order their partitions must be dropped. */
+    private static final List<String> DROP_ORDER = List.of("payments", "order_items", "orders");
+
+    private static final Pattern ORDERS_PARTITION = Pattern.compile("orders_y(\\d{4})m(\\d{2})");
+
+    private static final String EXPORT_SQL = """
+            SELECT o.id,
+                   jsonb_build_object(
+                       'order', to_jsonb(o),
+                       'items', COALESCE((SELECT jsonb_agg(to_jsonb(i) ORDER BY i.id) FROM order_items i
+                                          WHERE i.order_id = o.id AND i.order_created_at = o.created_at),
+                                         '[]'::jsonb),
+                       'payment', (SELECT to_jsonb(p) FROM payments p
+                                   WHERE p.order_id = o.id AND p.order_created_at = o.created_at)
+                   )::text AS body
+            FROM %s o
+            WHERE o.id > ?
+            ORDER BY o.id
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderPartitions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the month's partitions of all three tables if missing.
+     */
+    public void ensureMonth(YearMonth month) {
+        jdbcTemplate.queryForObject("SELECT create_order_partitions(?)::text", String.class,
+                Date.valueOf(month.atDay(1)));
+    }
+
+    /**
+     * @return months that currently have an orders partition, oldest first
+     */
+    public List<YearMonth> listMonths() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent = 'orders'::regclass
+                        """, String.class)
+                .stream()
+                .map(ORDERS_PARTITION::matcher)
+                .filter(Matcher::matches)
+                .map(m -> YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return number of orders in the month that are not DELIVERED or CANCELLED
+     */
+    public long countOpenOrders(YearMonth month) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM " + partition("orders", month)
+                        + " WHERE status NOT IN ('DELIVERED', 'CANCELLED')", Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Streams up to {@code limit} orders of the month with an ID above
+     * {@code afterId}, in ID order, each with its items and payment as one
+     * JSON document of the raw rows.
+     */
+    public void exportOrders(YearMonth month, long afterId, int limit, RowCallbackHandler handler) {
+        jdbcTemplate.query(EXPORT_SQL.formatted(partition("orders", month)), handler, afterId, limit);
+    }
+
+    /**
+     * Locks the month's partitions and checks that none of its orders or
+     * payments was inserted or changed since the export began. Must run in a
+     * transaction.
+     */
+    public boolean isUnchangedSince(YearMonth month, long exportedCount, LocalDateTime exportStartedAt) {
+        for (String parent : DROP_ORDER) {
+            jdbcTemplate.execute("LOCK TABLE " + partition(parent, month) + " IN ACCESS EXCLUSIVE MODE");
+        }
+        Timestamp since = Timestamp.valueOf(exportStartedAt);
+        Boolean unchanged = jdbcTemplate.queryForObject("""
+                        SELECT (SELECT count(*) = ? AND COALESCE(max(updated_at) < ?, true) FROM %s)
+                           AND (SELECT COALESCE(max(updated_at) < ?, true) FROM %s)
+                        """.formatted(partition("orders", month), partition("payments", month)),
+                Boolean.class, exportedCount, since, since);
+        return Boolean.TRUE.equals(unchanged);
+    }
+
+    /**
+     * Detaches and drops the month's partitions, children first, and
+     * deletes the month's order views. Must run in a transaction.
+     */
+    public void dropMonth(YearMonth month) {
+        for (String parent : DROP_ORDER) {
+            String partition = partition(parent, month);
+            jdbcTemplate.execute("ALTER TABLE " + parent + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        }
+        jdbcTemplate.update("DELETE FROM order_view WHERE created_at >= ? AND created_at < ?",
+                Date.valueOf(month.atDay(1)), Date.valueOf(month.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * Claims a month for archiving. A claim left behind by a crashed
+     * instance can be taken over once it is older than the timeout.
+     *
+     * @return true if this caller now owns the month
+     */
+    public boolean claimArchive(YearMonth month, long claimTimeoutSeconds) {
+        return jdbcTemplate.update("""
+                        INSERT INTO order_archives (partition_month, status, claimed_at)
+                        VALUES (?, 'EXPORTING', now())
+                        ON CONFLICT (partition_month) DO UPDATE SET claimed_at = now()
+                        WHERE order_archives.status = 'EXPORTING'
+                          AND order_archives.claimed_at < now() - make_interval(secs => ?)
+                        """, Date.valueOf(month.atDay(1)), claimTimeoutSeconds) == 1;
+    }
+
+    /**
+     * Records the archive file of a claimed month. Must run in the same
+     * transaction as {@link #dropMonth(YearMonth)}.
+     */
+    public void completeArchive(YearMonth month, String fileName, long minOrderId, long maxOrderId, long count) {
+        jdbcTemplate.update("""
+                        UPDATE order_archives
+                        SET status = 'ARCHIVED', file_name = ?, min_order_id = ?, max_order_id = ?,
+                            order_count = ?, archived_at = now()
+                        WHERE partition_month = ? AND status = 'EXPORTING'
+                        """, fileName, minOrderId, maxOrderId, count, Date.valueOf(month.atDay(1)));
+    }
+
+    /**
+     * Gives up a claim so another run can retry the month.
+     */
+    public void releaseArchive(YearMonth month) {
+        jdbcTemplate.update("DELETE FROM order_archives WHERE partition_month = ? AND status = 'EXPORTING'",
+                Date.valueOf(month.atDay(1)));
+    }
+
+    /**
+     * @return archive files whose ID range covers the order, oldest first
+     */
+    public List<String> findArchiveFiles(long orderId) {
+        return jdbcTemplate.queryForList("""
+                        SELECT file_name FROM order_archives
+                        WHERE status = 'ARCHIVED' AND min_order_id <= ? AND max_order_id >= ?
+                        ORDER BY partition_month
+                        """, String.class, orderId, orderId);
+    }
+
+    private static String partition(String parent, YearMonth month) {
+        return String.format("%s_y%04dm%02d", parent, month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.order.infrastructure.persistence.changes;
+
+import com.ecommerce.order.domain.service.OrderChangeSignal;
+import com.ecommerce.order.infrastructure.sharding.ShardDataSources;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OrderChangeSignal} backed by PostgreSQL LISTEN/NOTIFY.
+ * A statement trigger on orders sends a notification on the
+ * {@code order_changes} channel; PostgreSQL delivers it only once the
+ * writing transaction commits, on every instance. One daemon thread per
+ * shard holds a dedicated connection and wakes the registered callbacks. If the connection
+ * is lost the callbacks are woken as well, so waiters re-check instead of
+ * missing a change.
+ */
+@Component
+public class PostgresOrderChangeSignal implements OrderChangeSignal {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresOrderChangeSignal.class);
+
+    static final String CHANNEL = "order_changes";
+
+    private final ShardDataSources shards;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    private final Set<Runnable> callbacks = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean running;
+    private final List<Thread> listeners = new ArrayList<>();
+
+    public PostgresOrderChangeSignal(
+            ShardDataSources shards,
+            @Value("${orders.changes.listen.poll-ms:1000}") int pollMillis,
+            @Value("${orders.changes.listen.reconnect-ms:5000}") long reconnectMillis) {
+        this.shards = shards;
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    @Override
+    public Runnable onNextChange(Runnable callback) {
+        callbacks.add(callback);
+        return () -> callbacks.remove(callback);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            DataSource dataSource = shards.get(shard);
+            Thread listener = new Thread(() -> listen(dataSource), "order-changes-listener-" + shard);
+            listener.setDaemon(true);
+            listener.start();
+            listeners.add(listener);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread listener : listeners) {
+            listener.interrupt();
+            listener.join(pollMillis * 2L);
+        }
+        fire();
+    }
+
+    private void listen(DataSource dataSource) {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for order changes on channel {}", CHANNEL);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null && notifications.length > 0) {
+                        fire();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Order change listener lost its connection, reconnecting in {} ms: {}",
+                        reconnectMillis, e.getMessage());
+                // Changes may have been missed while disconnected
+                fire();
+                try {
+                    Thread.sleep(reconnectMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void fire() {
+        for (Runnable callback : callbacks) {
+            if (callbacks.remove(callback)) {
+                try {
+                    callback.run();
+                } catch (RuntimeException e) {
+                    log.warn("Order change callback failed", e);
+                }
+            }
+        }
+    }
+}
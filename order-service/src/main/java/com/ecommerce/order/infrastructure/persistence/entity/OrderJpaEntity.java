@@ -2,24 +2,42 @@ package com.ecommerce.order.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.PartitionKey;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
+/**
+ * The orders table is range-partitioned by month on created_at. The column is
+ * the partition key, so Hibernate includes it in updates and deletes to let
+ * PostgreSQL prune partitions, and it is stamped onto the items and payment
+ * on insert so they land in the same month.
+ * <p>
+ * The build runs Hibernate bytecode enhancement over the entities, so dirty
+ * checking uses tracked field writes instead of a snapshot copy per loaded
+ * entity, and the payment side of the one-to-one can really be lazy.
+ * equals, hashCode and toString therefore never touch associations: they
+ * would load them, and walking items back to their order would recurse.
+ */
 @Entity
 @Table(name = "orders")
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderJpaEntity {
 
+    /** Assigned by the application before insert, see IdGenerator. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(name = "user_uid", nullable = false, length = 255)
@@ -35,13 +53,21 @@ public class OrderJpaEntity {
     @Column(name = "shipping_address")
     private String shippingAddress;
 
+    @Column(name = "shipping_method", length = 50)
+    private String shippingMethod;
+
+    @Column(name = "tracking_number", length = 100)
+    private String trackingNumber;
+
+    @ToString.Exclude
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItemJpaEntity> items;
 
-    @OneToOne(mappedBy = "order", cascade = CascadeType.ALL)
+    @ToString.Exclude
+    @OneToOne(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private PaymentJpaEntity payment;
 
-    @CreationTimestamp
+    @PartitionKey
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -49,6 +75,37 @@ public class OrderJpaEntity {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @PrePersist
+    void beforeInsert() {
+        // Match the column's precision so the in-memory value equals the stored partition key
+        createdAt = (createdAt != null ? createdAt : LocalDateTime.now()).truncatedTo(ChronoUnit.MICROS);
+        // Children are inserted after the order and must use its exact value
+        if (items != null) {
+            items.forEach(item -> item.setOrderCreatedAt(createdAt));
+        }
+        if (payment != null) {
+            payment.setOrderCreatedAt(createdAt);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        // Other may be an uninitialized proxy; getId() does not load it
+        return id != null && id.equals(((OrderJpaEntity) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // Constant per class so an entity stays in hash sets when its id is assigned on insert
+        return getClass().hashCode();
+    }
+
     public enum OrderStatus {
         PENDING,
         PROCESSING,
@@ -0,0 +1,167 @@
+package com.ecommerce.order.infrastructure.persistence.history;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.StageDurationHistogram;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The append-only order_status_history table and its hourly rollup,
+ * order_stage_rollups. A history row is written in the transaction of every
+ * status change; the bulk status statements write theirs from the same
+ * UPDATE (see OrderRepositoryAdapter). The rollup job turns new rows into
+ * duration histograms per hour and transition, so analytics never scan the
+ * history.
+ */
+@Component
+public class OrderStatusHistory {
+
+    /**
+     * Rolls up the next history rows after the cursor. A row's duration is
+     * the time since the order's previous history row, i.e. the time spent
+     * in from_status. Rows too recent to be surely committed in ID order
+     * are left for the next run.
+     */
+    private static final String ROLL_UP_SQL = """
+            WITH page AS (
+                SELECT id, order_id, from_status, to_status, changed_at
+                FROM order_status_history
+                WHERE id > :afterId AND changed_at < now() - make_interval(secs => :settleSeconds)
+                ORDER BY id
+                LIMIT :limit),
+            durations AS (
+                SELECT page.from_status, page.to_status, date_trunc('hour', page.changed_at) AS bucket_start,
+                       EXTRACT(EPOCH FROM page.changed_at - prev.changed_at)::float8 AS seconds
+                FROM page
+                JOIN LATERAL (SELECT p.changed_at FROM order_status_history p
+                              WHERE p.order_id = page.order_id AND p.id < page.id
+                              ORDER BY p.id DESC
+                              LIMIT 1) prev ON true
+                WHERE page.from_status IS NOT NULL),
+            rolled AS (
+                INSERT INTO order_stage_rollups AS r (bucket_start, from_status, to_status, bin, count)
+                SELECT bucket_start, from_status, to_status,
+                       CASE WHEN seconds < 1 THEN 0 ELSE 1 + floor(ln(seconds) / ln(:growth))::int END,
+                       count(*)
+                FROM durations
+                GROUP BY 1, 2, 3, 4
+                ON CONFLICT (bucket_start, from_status, to_status, bin)
+                DO UPDATE SET count = r.count + EXCLUDED.count)
+            SELECT count(*) AS row_count, max(id) AS last_id FROM page
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public OrderStatusHistory(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Records the status a new order starts in.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(long orderId, OrderEntity.OrderStatus status) {
+        jdbcTemplate.update("""
+                        INSERT INTO order_status_history (order_id, from_status, to_status, changed_at)
+                        VALUES (?, NULL, ?, now())
+                        """, orderId, status.name());
+    }
+
+    /**
+     * Records that an order moved to a new status.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(long orderId, OrderEntity.OrderStatus fromStatus, OrderEntity.OrderStatus toStatus) {
+        jdbcTemplate.update("""
+                        INSERT INTO order_status_history (order_id, from_status, to_status, changed_at)
+                        VALUES (?, ?, ?, now())
+                        """, orderId, fromStatus.name(), toStatus.name());
+    }
+
+    /**
+     * Rolls up the next batch of history rows and moves the cursor past
+     * them, in one transaction. Only one instance rolls up a database at a
+     * time; the others find the cursor locked and skip.
+     *
+     * @return history rows consumed, or -1 if another instance holds the
+     *         cursor
+     */
+    @Transactional
+    public int rollUp(int batchSize, long settleSeconds) {
+        jdbcTemplate.update("INSERT INTO order_stage_rollup_cursor (id) VALUES (true) ON CONFLICT DO NOTHING");
+        List<Long> cursor = jdbcTemplate.queryForList(
+                "SELECT last_history_id FROM order_stage_rollup_cursor FOR UPDATE SKIP LOCKED", Long.class);
+        if (cursor.isEmpty()) {
+            return -1;
+        }
+        long[] lastId = {cursor.get(0)};
+        int[] rows = {0};
+        namedJdbcTemplate.query(ROLL_UP_SQL, new MapSqlParameterSource()
+                        .addValue("afterId", lastId[0])
+                        .addValue("settleSeconds", settleSeconds)
+                        .addValue("limit", batchSize)
+                        .addValue("growth", StageDurationHistogram.GROWTH),
+                (RowCallbackHandler) rs -> {
+                    rows[0] = rs.getInt("row_count");
+                    if (rows[0] > 0) {
+                        lastId[0] = rs.getLong("last_id");
+                    }
+                });
+        if (rows[0] > 0) {
+            jdbcTemplate.update("UPDATE order_stage_rollup_cursor SET last_history_id = ?, rolled_up_at = now()",
+                    lastId[0]);
+        }
+        return rows[0];
+    }
+
+    /**
+     * @return roughly how many history rows are not rolled up yet
+     */
+    public long backlog() {
+        Long backlog = jdbcTemplate.queryForObject("""
+                SELECT COALESCE((SELECT max(id) FROM order_status_history), 0)
+                     - COALESCE((SELECT last_history_id FROM order_stage_rollup_cursor), 0)
+                """, Long.class);
+        return backlog != null ? Math.max(0, backlog) : 0;
+    }
+
+    /**
+     * @return a histogram per transition, summed over the hourly buckets
+     *         that start in the window
+     */
+    public List<StageDurationHistogram> findHistograms(LocalDateTime from, LocalDateTime to) {
+        Map<String, StageDurationHistogram> histograms = new LinkedHashMap<>();
+        namedJdbcTemplate.query("""
+                        SELECT from_status, to_status, bin, sum(count) AS count
+                        FROM order_stage_rollups
+                        WHERE bucket_start >= date_trunc('hour', CAST(:from AS timestamp)) AND bucket_start < :to
+                        GROUP BY from_status, to_status, bin
+                        ORDER BY from_status, to_status, bin
+                        """, new MapSqlParameterSource()
+                        .addValue("from", Timestamp.valueOf(from))
+                        .addValue("to", Timestamp.valueOf(to)),
+                (RowCallbackHandler) rs -> {
+                    String fromStatus = rs.getString("from_status");
+                    String toStatus = rs.getString("to_status");
+                    histograms.computeIfAbsent(fromStatus + ">" + toStatus, key -> new StageDurationHistogram(
+                                    OrderEntity.OrderStatus.valueOf(fromStatus),
+                                    OrderEntity.OrderStatus.valueOf(toStatus)))
+                            .add(rs.getInt("bin"), rs.getLong("count"));
+                });
+        return new ArrayList<>(histograms.values());
+    }
+}
@@ -1,10 +1,15 @@
 package com.ecommerce.order.infrastructure.persistence.jpa;
 
 import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JPA repository for Order persistence.
@@ -13,7 +18,20 @@ import java.util.List;
 @Repository
 public interface OrderJpaRepository extends JpaRepository<OrderJpaEntity, Long> {
 
-    List<OrderJpaEntity> findByUserUid(String userUid);
+    /** Loads the order with its items and payment in one query. */
+    @EntityGraph(attributePaths = {"items", "payment"})
+    Optional<OrderJpaEntity> findWithItemsById(Long id);
 
-    List<OrderJpaEntity> findByStatus(OrderJpaEntity.OrderStatus status);
+    @EntityGraph(attributePaths = {"items", "payment"})
+    List<OrderJpaEntity> findWithItemsByUserUidOrderByCreatedAtDescIdDesc(String userUid);
+
+    @EntityGraph(attributePaths = {"items", "payment"})
+    List<OrderJpaEntity> findWithItemsByStatus(OrderJpaEntity.OrderStatus status);
+
+    @EntityGraph(attributePaths = {"items", "payment"})
+    List<OrderJpaEntity> findAllWithItemsBy();
+
+    @Query("SELECT DISTINCT o FROM OrderJpaEntity o LEFT JOIN FETCH o.items LEFT JOIN FETCH o.payment "
+            + "WHERE o.id IN :ids")
+    List<OrderJpaEntity> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
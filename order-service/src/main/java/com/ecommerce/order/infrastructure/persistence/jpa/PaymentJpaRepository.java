@@ -1,9 +1,17 @@
 package com.ecommerce.order.infrastructure.persistence.jpa;
 
 import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -16,4 +24,35 @@ public interface PaymentJpaRepository extends JpaRepository<PaymentJpaEntity, Lo
     Optional<PaymentJpaEntity> findByStripePaymentIntentId(String stripePaymentIntentId);
 
     Optional<PaymentJpaEntity> findByOrderId(Long orderId);
+
+    @Query("SELECT p FROM PaymentJpaEntity p WHERE p.status = :status AND p.createdAt < :createdBefore "
+            + "AND p.id > :afterId ORDER BY p.id")
+    List<PaymentJpaEntity> findByStatusCreatedBefore(
+            @Param("status") PaymentJpaEntity.PaymentStatus status,
+            @Param("createdBefore") LocalDateTime createdBefore,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT p FROM PaymentJpaEntity p WHERE p.status = :status AND p.createdAt >= :createdAfter "
+            + "AND p.createdAt < :createdBefore AND p.id > :afterId ORDER BY p.id")
+    List<PaymentJpaEntity> findByStatusCreatedBetween(
+            @Param("status") PaymentJpaEntity.PaymentStatus status,
+            @Param("createdAfter") LocalDateTime createdAfter,
+            @Param("createdBefore") LocalDateTime createdBefore,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT p FROM PaymentJpaEntity p WHERE p.order.id IN :orderIds AND p.status IN :statuses")
+    List<PaymentJpaEntity> findByOrderIdsAndStatuses(
+            @Param("orderIds") Collection<Long> orderIds,
+            @Param("statuses") Collection<PaymentJpaEntity.PaymentStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentJpaEntity p SET p.status = :newStatus, p.updatedAt = CURRENT_TIMESTAMP "
+            + "WHERE p.id IN :ids AND p.status = :expected")
+    int updateStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("expected") PaymentJpaEntity.PaymentStatus expected,
+            @Param("newStatus") PaymentJpaEntity.PaymentStatus newStatus);
 }
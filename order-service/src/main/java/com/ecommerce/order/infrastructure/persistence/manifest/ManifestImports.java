@@ -0,0 +1,153 @@
+package com.ecommerce.order.infrastructure.persistence.manifest;
+
+import com.ecommerce.order.infrastructure.persistence.view.OrderViewStore;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * JDBC access to the manifest_imports checkpoint table and the batched
+ * tracking number update. An import is claimed by file name, so only one
+ * instance works on a manifest at a time; a claim that is not refreshed by
+ * a checkpoint within the timeout can be taken over.
+ */
+@Component
+public class ManifestImports {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderViewStore viewStore;
+
+    public ManifestImports(JdbcTemplate jdbcTemplate, OrderViewStore viewStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.viewStore = viewStore;
+    }
+
+    /**
+     * Starts or resumes the import of a manifest.
+     *
+     * @return the last checkpoint, or null if the manifest is finished or
+     *         being imported by another instance
+     */
+    public Checkpoint claim(String fileName, long claimTimeoutSeconds) {
+        List<Checkpoint> claimed = jdbcTemplate.query("""
+                        INSERT INTO manifest_imports (file_name, claimed_at)
+                        VALUES (?, now())
+                        ON CONFLICT (file_name) DO UPDATE SET claimed_at = now()
+                        WHERE manifest_imports.status = 'RUNNING'
+                          AND (manifest_imports.claimed_at IS NULL
+                               OR manifest_imports.claimed_at < now() - make_interval(secs => ?))
+                        RETURNING rows_done, error_bytes
+                        """, (rs, rowNum) -> new Checkpoint(rs.getLong("rows_done"), rs.getLong("error_bytes")),
+                fileName, claimTimeoutSeconds);
+        return claimed.isEmpty() ? null : claimed.get(0);
+    }
+
+    /**
+     * Tells a re-delivered manifest from one that is still being wrapped up:
+     * the instance that finished it moves it out of the inbox right away.
+     *
+     * @return whether a manifest of this name was imported or rejected more
+     *         than the given time ago
+     */
+    public boolean finishedBefore(String fileName, long seconds) {
+        Boolean finished = jdbcTemplate.queryForObject("""
+                        SELECT EXISTS (SELECT 1 FROM manifest_imports
+                                       WHERE file_name = ? AND status <> 'RUNNING'
+                                         AND completed_at < now() - make_interval(secs => ?))
+                        """, Boolean.class, fileName, seconds);
+        return Boolean.TRUE.equals(finished);
+    }
+
+    /**
+     * Records progress and refreshes the claim. Must run in the transaction
+     * that applied the rows.
+     */
+    public void checkpoint(String fileName, Checkpoint checkpoint, int updated, int failed) {
+        jdbcTemplate.update("""
+                        UPDATE manifest_imports
+                        SET rows_done = ?, error_bytes = ?, rows_updated = rows_updated + ?,
+                            rows_failed = rows_failed + ?, claimed_at = now()
+                        WHERE file_name = ?
+                        """, checkpoint.getRowsDone(), checkpoint.getErrorBytes(), updated, failed, fileName);
+    }
+
+    public void complete(String fileName) {
+        jdbcTemplate.update("""
+                        UPDATE manifest_imports SET status = 'COMPLETED', completed_at = now(), claimed_at = NULL
+                        WHERE file_name = ?
+                        """, fileName);
+    }
+
+    /**
+     * Gives up on a manifest that can't be imported at all, e.g. one without
+     * the required columns.
+     */
+    public void fail(String fileName, String error) {
+        jdbcTemplate.update("""
+                        UPDATE manifest_imports SET status = 'FAILED', last_error = ?, completed_at = now(),
+                            claimed_at = NULL
+                        WHERE file_name = ?
+                        """, error, fileName);
+    }
+
+    /**
+     * Drops the claim after an unexpected error so the next run resumes
+     * from the last checkpoint.
+     */
+    public void release(String fileName, String error) {
+        jdbcTemplate.update("UPDATE manifest_imports SET claimed_at = NULL, last_error = ? WHERE file_name = ?",
+                error, fileName);
+    }
+
+    /**
+     * Sets tracking number and, where given, shipping method of orders in
+     * one JDBC batch, and refreshes their views. Must run in a transaction.
+     */
+    public void applyTracking(List<ManifestRow> rows) {
+        jdbcTemplate.batchUpdate("""
+                        UPDATE orders
+                        SET tracking_number = ?, shipping_method = COALESCE(?, shipping_method), updated_at = now()
+                        WHERE id = ?
+                        """, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ManifestRow row = rows.get(i);
+                ps.setString(1, row.getTrackingNumber());
+                ps.setString(2, row.getShippingMethod());
+                ps.setLong(3, row.getOrderId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+        viewStore.refresh(rows.stream().map(ManifestRow::getOrderId).distinct().toList());
+    }
+
+    /**
+     * Progress of an import: data rows consumed and committed length of the
+     * error file.
+     */
+    public static class Checkpoint {
+        private final long rowsDone;
+        private final long errorBytes;
+
+        public Checkpoint(long rowsDone, long errorBytes) {
+            this.rowsDone = rowsDone;
+            this.errorBytes = errorBytes;
+        }
+
+        public long getRowsDone() {
+            return rowsDone;
+        }
+
+        public long getErrorBytes() {
+            return errorBytes;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.order.infrastructure.persistence.manifest;
+
+/**
+ * One valid row of a carrier shipment manifest.
+ */
+public class ManifestRow {
+
+    private final long line;
+    private final long orderId;
+    private final String trackingNumber;
+    private final String shippingMethod;
+
+    public ManifestRow(long line, long orderId, String trackingNumber, String shippingMethod) {
+        this.line = line;
+        this.orderId = orderId;
+        this.trackingNumber = trackingNumber;
+        this.shippingMethod = shippingMethod;
+    }
+
+    /** Line number in the manifest file, counting the header as line 1. */
+    public long getLine() {
+        return line;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    /** Shipping method, or null if the manifest has none for this row. */
+    public String getShippingMethod() {
+        return shippingMethod;
+    }
+}
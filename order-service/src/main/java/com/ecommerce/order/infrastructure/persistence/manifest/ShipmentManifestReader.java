@@ -0,0 +1,212 @@
+package com.ecommerce.order.infrastructure.persistence.manifest;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads a carrier shipment manifest line by line, so memory use does not
+ * depend on the file size. The first line is a header naming the columns;
+ * {@code order_id} and {@code tracking_number} are required and
+ * {@code shipping_method} is optional, in any order. Fields may be quoted
+ * with {@code "}, but a field may not span lines.
+ */
+public class ShipmentManifestReader implements Closeable {
+
+    private static final int MAX_TRACKING_NUMBER = 100;
+    private static final int MAX_SHIPPING_METHOD = 50;
+
+    private final BufferedReader reader;
+    private final int orderIdColumn;
+    private final int trackingNumberColumn;
+    private final int shippingMethodColumn;
+    private long line = 1;
+
+    /**
+     * Opens the manifest and reads its header.
+     *
+     * @throws InvalidManifestException if the header lacks a required column
+     */
+    public ShipmentManifestReader(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        try {
+            String header = reader.readLine();
+            if (header == null) {
+                throw new InvalidManifestException("Manifest is empty");
+            }
+            List<String> columns = new ArrayList<>();
+            for (String column : split(stripBom(header))) {
+                columns.add(column.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+            }
+            this.orderIdColumn = columns.indexOf("order_id");
+            this.trackingNumberColumn = columns.indexOf("tracking_number");
+            this.shippingMethodColumn = columns.indexOf("shipping_method");
+            if (orderIdColumn < 0 || trackingNumberColumn < 0) {
+                throw new InvalidManifestException("Manifest header must contain order_id and tracking_number");
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Skips data rows that were already imported.
+     *
+     * @return false if the file ended first
+     */
+    public boolean skip(long rows) throws IOException {
+        for (long i = 0; i < rows; i++) {
+            if (reader.readLine() == null) {
+                return false;
+            }
+            line++;
+        }
+        return true;
+    }
+
+    /**
+     * Reads up to {@code max} data rows. Blank lines count as rows but
+     * produce nothing; invalid rows are added to {@code errors}.
+     *
+     * @return the valid rows; fewer than max rows were read only at the end
+     *         of the file, see {@link #getRowsRead()}
+     */
+    public List<ManifestRow> next(int max, List<RowError> errors) throws IOException {
+        List<ManifestRow> rows = new ArrayList<>(max);
+        for (int i = 0; i < max; i++) {
+            String text = reader.readLine();
+            if (text == null) {
+                break;
+            }
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = split(text);
+            } catch (IllegalArgumentException e) {
+                errors.add(new RowError(line, "", e.getMessage()));
+                continue;
+            }
+            String orderId = field(fields, orderIdColumn);
+            String trackingNumber = field(fields, trackingNumberColumn);
+            String shippingMethod = field(fields, shippingMethodColumn);
+
+            long id;
+            try {
+                id = Long.parseLong(orderId);
+            } catch (NumberFormatException e) {
+                errors.add(new RowError(line, orderId, "Invalid order_id"));
+                continue;
+            }
+            if (trackingNumber.isEmpty() || trackingNumber.length() > MAX_TRACKING_NUMBER) {
+                errors.add(new RowError(line, orderId,
+                        "tracking_number must have 1 to " + MAX_TRACKING_NUMBER + " characters"));
+                continue;
+            }
+            if (shippingMethod.length() > MAX_SHIPPING_METHOD) {
+                errors.add(new RowError(line, orderId,
+                        "shipping_method must have at most " + MAX_SHIPPING_METHOD + " characters"));
+                continue;
+            }
+            rows.add(new ManifestRow(line, id, trackingNumber, shippingMethod.isEmpty() ? null : shippingMethod));
+        }
+        return rows;
+    }
+
+    /**
+     * @return data rows consumed so far, including skipped ones; the resume
+     *         point to checkpoint
+     */
+    public long getRowsRead() {
+        return line - 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column).trim() : "";
+    }
+
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+
+    /**
+     * Splits one CSV line; {@code ""} inside a quoted field is a literal quote.
+     */
+    private static List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * A manifest row that could not be applied.
+     */
+    public static class RowError {
+        private final long line;
+        private final String orderId;
+        private final String message;
+
+        public RowError(long line, String orderId, String message) {
+            this.line = line;
+            this.orderId = orderId;
+            this.message = message;
+        }
+
+        /** @return the error as a CSV line: {@code line,order_id,error} */
+        public String toCsv() {
+            return line + "," + quote(orderId) + "," + quote(message);
+        }
+
+        private static String quote(String value) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+    }
+
+    /**
+     * Exception thrown when a manifest can't be imported at all.
+     */
+    public static class InvalidManifestException extends RuntimeException {
+        public InvalidManifestException(String message) {
+            super(message);
+        }
+    }
+}
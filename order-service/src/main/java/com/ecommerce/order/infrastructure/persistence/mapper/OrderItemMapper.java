@@ -1,50 +1,29 @@
 package com.ecommerce.order.infrastructure.persistence.mapper;
 
+import com.ecommerce.order.config.MappingConfig;
 import com.ecommerce.order.domain.entity.OrderItemEntity;
 import com.ecommerce.order.infrastructure.persistence.entity.OrderItemJpaEntity;
-import org.springframework.stereotype.Component;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
- * Mapper between OrderItem domain entity and JPA entity.
+ * Mapper between OrderItem domain entity and JPA entity. The order
+ * reference is set by {@link OrderMapper}.
  */
-@Component
-public class OrderItemMapper {
+@Mapper(config = MappingConfig.class)
+public interface OrderItemMapper {
 
     /**
      * Converts domain entity to JPA entity.
      */
-    public OrderItemJpaEntity toJpaEntity(OrderItemEntity domainEntity) {
-        if (domainEntity == null) {
-            return null;
-        }
-
-        OrderItemJpaEntity jpaEntity = new OrderItemJpaEntity();
-        jpaEntity.setId(domainEntity.getId());
-        jpaEntity.setProductId(String.valueOf(domainEntity.getProductId()));
-        jpaEntity.setProductName(domainEntity.getProductName());
-        jpaEntity.setQuantity(domainEntity.getQuantity());
-        jpaEntity.setPrice(domainEntity.getUnitPrice());
-        jpaEntity.setSubtotal(domainEntity.getSubtotal());
-
-        return jpaEntity;
-    }
+    @Mapping(target = "price", source = "unitPrice")
+    @Mapping(target = "order", ignore = true)
+    @Mapping(target = "orderCreatedAt", ignore = true)
+    OrderItemJpaEntity toJpaEntity(OrderItemEntity domainEntity);
 
     /**
      * Converts JPA entity to domain entity.
      */
-    public OrderItemEntity toDomainEntity(OrderItemJpaEntity jpaEntity) {
-        if (jpaEntity == null) {
-            return null;
-        }
-
-        OrderItemEntity domainEntity = new OrderItemEntity();
-        domainEntity.setId(jpaEntity.getId());
-        domainEntity.setProductId(Integer.valueOf(jpaEntity.getProductId()));
-        domainEntity.setProductName(jpaEntity.getProductName());
-        domainEntity.setQuantity(jpaEntity.getQuantity());
-        domainEntity.setUnitPrice(jpaEntity.getPrice());
-        domainEntity.setSubtotal(jpaEntity.getSubtotal());
-
-        return domainEntity;
-    }
+    @Mapping(target = "unitPrice", source = "price")
+    OrderItemEntity toDomainEntity(OrderItemJpaEntity jpaEntity);
 }
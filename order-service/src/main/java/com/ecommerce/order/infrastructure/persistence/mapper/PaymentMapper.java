@@ -1,63 +1,30 @@
 package com.ecommerce.order.infrastructure.persistence.mapper;
 
+import com.ecommerce.order.config.MappingConfig;
 import com.ecommerce.order.domain.entity.PaymentEntity;
 import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
-import org.springframework.stereotype.Component;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 /**
- * Mapper between Payment domain entity and JPA entity.
+ * Mapper between Payment domain entity and JPA entity. The payment method
+ * is not persisted; the order reference is set by {@link OrderMapper}.
  */
-@Component
-public class PaymentMapper {
+@Mapper(config = MappingConfig.class)
+public interface PaymentMapper {
 
     /**
      * Converts domain entity to JPA entity.
      */
-    public PaymentJpaEntity toJpaEntity(PaymentEntity domainEntity) {
-        if (domainEntity == null) {
-            return null;
-        }
-
-        PaymentJpaEntity jpaEntity = new PaymentJpaEntity();
-        jpaEntity.setId(domainEntity.getId());
-        jpaEntity.setAmount(domainEntity.getAmount());
-        jpaEntity.setStripePaymentIntentId(domainEntity.getStripePaymentIntentId());
-        // jpaEntity.setPaymentMethod(domainEntity.getPaymentMethod()); // Not in JPA
-        // entity
-        jpaEntity.setCreatedAt(domainEntity.getCreatedAt());
-
-        // Map status
-        if (domainEntity.getStatus() != null) {
-            jpaEntity.setStatus(PaymentJpaEntity.PaymentStatus.valueOf(domainEntity.getStatus().name()));
-        }
-
-        return jpaEntity;
-    }
+    @Mapping(target = "order", ignore = true)
+    @Mapping(target = "orderCreatedAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    PaymentJpaEntity toJpaEntity(PaymentEntity domainEntity);
 
     /**
      * Converts JPA entity to domain entity.
      */
-    public PaymentEntity toDomainEntity(PaymentJpaEntity jpaEntity) {
-        if (jpaEntity == null) {
-            return null;
-        }
-
-        PaymentEntity domainEntity = new PaymentEntity();
-        domainEntity.setId(jpaEntity.getId());
-        if (jpaEntity.getOrder() != null) {
-            domainEntity.setOrderId(jpaEntity.getOrder().getId());
-        }
-        domainEntity.setAmount(jpaEntity.getAmount());
-        domainEntity.setStripePaymentIntentId(jpaEntity.getStripePaymentIntentId());
-        // domainEntity.setPaymentMethod(jpaEntity.getPaymentMethod()); // Not in JPA
-        // entity
-        domainEntity.setCreatedAt(jpaEntity.getCreatedAt());
-
-        // Map status
-        if (jpaEntity.getStatus() != null) {
-            domainEntity.setStatus(PaymentEntity.PaymentStatus.valueOf(jpaEntity.getStatus().name()));
-        }
-
-        return domainEntity;
-    }
+    @Mapping(target = "orderId", source = "order.id")
+    @Mapping(target = "paymentMethod", ignore = true)
+    PaymentEntity toDomainEntity(PaymentJpaEntity jpaEntity);
 }
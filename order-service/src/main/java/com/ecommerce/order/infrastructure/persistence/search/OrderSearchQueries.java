@@ -0,0 +1,124 @@
+package com.ecommerce.order.infrastructure.persistence.search;
+
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL for the admin order search. Results are ordered newest first by
+ * (created_at, id) and paged by keyset, so every page costs the same no
+ * matter how deep. Each filter has an index that serves it together with
+ * that order (see order-service-init.sql); OrderSearchPlanTest checks this
+ * against a database with that schema.
+ */
+@Component
+public class OrderSearchQueries {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderSearchQueries(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param criteria        the filters
+     * @param beforeCreatedAt createdAt of the last order of the previous
+     *                        page, or null for the first page
+     * @param beforeId        ID of the last order of the previous page
+     * @param limit           maximum number of IDs
+     * @return matching order IDs, newest first
+     */
+    public List<Long> findIds(OrderSearchCriteria criteria, LocalDateTime beforeCreatedAt, Long beforeId,
+            int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return jdbcTemplate.queryForList(pageSql(criteria, beforeCreatedAt, beforeId, limit, params), params,
+                Long.class);
+    }
+
+    /**
+     * Estimates the number of matching orders from the planner's row
+     * estimate instead of counting them. Good to an order of magnitude,
+     * and as cheap as planning the query.
+     */
+    public long estimateCount(OrderSearchCriteria criteria) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT 1 FROM orders o WHERE " + where(criteria, params);
+        return (long) explain(sql, params).path("Plan").path("Plan Rows").asDouble();
+    }
+
+    /**
+     * @return the plan of the first search page as a JSON tree, for plan checks
+     */
+    JsonNode explainPage(OrderSearchCriteria criteria, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        return explain(pageSql(criteria, null, null, limit, params), params).path("Plan");
+    }
+
+    private JsonNode explain(String sql, MapSqlParameterSource params) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, params, String.class);
+        try {
+            return objectMapper.readTree(plan).path(0);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable query plan", e);
+        }
+    }
+
+    private static String pageSql(OrderSearchCriteria criteria, LocalDateTime beforeCreatedAt, Long beforeId,
+            int limit, MapSqlParameterSource params) {
+        String where = where(criteria, params);
+        if (beforeCreatedAt != null) {
+            where += " AND (o.created_at, o.id) < (:beforeCreatedAt, :beforeId)";
+            params.addValue("beforeCreatedAt", Timestamp.valueOf(beforeCreatedAt));
+            params.addValue("beforeId", beforeId);
+        }
+        params.addValue("limit", limit);
+        return "SELECT o.id FROM orders o WHERE " + where + " ORDER BY o.created_at DESC, o.id DESC LIMIT :limit";
+    }
+
+    private static String where(OrderSearchCriteria criteria, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+        if (criteria.getStatus() != null) {
+            conditions.add("o.status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getCreatedFrom() != null) {
+            conditions.add("o.created_at >= :createdFrom");
+            params.addValue("createdFrom", Timestamp.valueOf(criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            conditions.add("o.created_at < :createdTo");
+            params.addValue("createdTo", Timestamp.valueOf(criteria.getCreatedTo()));
+        }
+        if (criteria.getMinTotal() != null) {
+            conditions.add("o.total_amount >= :minTotal");
+            params.addValue("minTotal", criteria.getMinTotal());
+        }
+        if (criteria.getMaxTotal() != null) {
+            conditions.add("o.total_amount < :maxTotal");
+            params.addValue("maxTotal", criteria.getMaxTotal());
+        }
+        if (criteria.getUserUid() != null) {
+            conditions.add("o.user_uid = :userUid");
+            params.addValue("userUid", criteria.getUserUid());
+        }
+        if (criteria.getProductId() != null) {
+            conditions.add("""
+                    EXISTS (SELECT 1 FROM order_items i
+                            WHERE i.product_id = :productId
+                              AND i.order_id = o.id AND i.order_created_at = o.created_at)""");
+            params.addValue("productId", criteria.getProductId());
+        }
+        return conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions);
+    }
+}
@@ -0,0 +1,209 @@
+package com.ecommerce.order.infrastructure.persistence.view;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The order_view table: one JSONB document per order, in the shape of the
+ * order endpoints' response. Documents are built in SQL from orders,
+ * order_items and payments, so a refresh is one statement whatever the
+ * number of orders, and the check compares against exactly what a refresh
+ * would write.
+ */
+@Component
+public class OrderViewStore {
+
+    /** Document of the orders row {@code o}; keys match OrderResponseDTO. */
+    private static final String DOCUMENT = """
+            jsonb_build_object(
+                'id', o.id,
+                'userUid', o.user_uid,
+                'totalAmount', o.total_amount,
+                'status', o.status,
+                'shippingAddress', o.shipping_address,
+                'shippingMethod', o.shipping_method,
+                'trackingNumber', o.tracking_number,
+                'items', COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                                              'id', i.id,
+                                              'productId', i.product_id,
+                                              'productName', i.product_name,
+                                              'quantity', i.quantity,
+                                              'unitPrice', i.price,
+                                              'subtotal', i.subtotal) ORDER BY i.id)
+                                   FROM order_items i
+                                   WHERE i.order_id = o.id AND i.order_created_at = o.created_at),
+                                  '[]'::jsonb),
+                'payment', (SELECT jsonb_build_object(
+                                       'id', p.id,
+                                       'amount', p.amount,
+                                       'stripePaymentIntentId', p.stripe_payment_intent_id,
+                                       'status', p.status,
+                                       'paymentMethod', p.payment_method,
+                                       'createdAt', p.created_at)
+                            FROM payments p
+                            WHERE p.order_id = o.id AND p.order_created_at = o.created_at),
+                'createdAt', o.created_at,
+                'updatedAt', o.updated_at)
+            """;
+
+    private static final String REFRESH_SQL = """
+            INSERT INTO order_view (id, user_uid, created_at, document, refreshed_at)
+            SELECT o.id, o.user_uid, o.created_at, %s, now()
+            FROM orders o
+            WHERE o.id IN (%s)
+            ON CONFLICT (id) DO UPDATE
+            SET user_uid = EXCLUDED.user_uid,
+                created_at = EXCLUDED.created_at,
+                document = EXCLUDED.document,
+                refreshed_at = EXCLUDED.refreshed_at
+            WHERE order_view.document IS DISTINCT FROM EXCLUDED.document
+            """;
+
+    private static final String REFRESH_ORDERS_SQL = REFRESH_SQL.formatted(DOCUMENT, ":ids");
+
+    private static final String REFRESH_PAYMENT_ORDERS_SQL = REFRESH_SQL.formatted(DOCUMENT,
+            "SELECT order_id FROM payments WHERE id IN (:ids)");
+
+    /**
+     * Locks the orders before their views are built. Payment writers don't
+     * update the orders row, so without it two transactions changing the
+     * same order could each build the view from a snapshot missing the
+     * other's change, and the later commit would keep a stale document.
+     */
+    private static final String LOCK_SQL = "SELECT id FROM orders WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String LOCK_ORDERS_SQL = LOCK_SQL.formatted(":ids");
+
+    private static final String LOCK_PAYMENT_ORDERS_SQL = LOCK_SQL.formatted(
+            "SELECT order_id FROM payments WHERE id IN (:ids)");
+
+    /** A page of orders in ID order, each with whether its view matches. */
+    private static final String CHECK_SQL = """
+            SELECT page.id, v.id IS NOT NULL AS present, v.document = page.document AS current
+            FROM (SELECT o.id, %s AS document
+                  FROM orders o
+                  WHERE o.id > :afterId
+                  ORDER BY o.id
+                  LIMIT :limit) page
+            LEFT JOIN order_view v ON v.id = page.id
+            ORDER BY page.id
+            """.formatted(DOCUMENT);
+
+    private static final String ORPHANS_SQL = """
+            SELECT v.id FROM order_view v
+            WHERE v.id > :afterId
+              AND NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = v.id AND o.created_at = v.created_at)
+            ORDER BY v.id
+            LIMIT :limit
+            """;
+
+    private static final RowMapper<OrderView> VIEW_MAPPER = (rs, rowNum) -> new OrderView(
+            rs.getLong("id"),
+            rs.getString("user_uid"),
+            rs.getTimestamp("created_at").toLocalDateTime(),
+            rs.getString("document"));
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderViewStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Rebuilds the views of orders, in the caller's transaction. Changes
+     * the caller made through JPA must be flushed first. The orders stay
+     * locked until the caller commits; the document is built by a later
+     * statement, so it sees everything committed before the lock was
+     * granted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", orderIds);
+            jdbcTemplate.queryForList(LOCK_ORDERS_SQL, params, Long.class);
+            jdbcTemplate.update(REFRESH_ORDERS_SQL, params);
+        }
+    }
+
+    /**
+     * Rebuilds the views of the orders of payments, in the caller's
+     * transaction, locking the orders as {@link #refresh} does.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refreshForPayments(Collection<Long> paymentIds) {
+        if (!paymentIds.isEmpty()) {
+            MapSqlParameterSource params = new MapSqlParameterSource("ids", paymentIds);
+            jdbcTemplate.queryForList(LOCK_PAYMENT_ORDERS_SQL, params, Long.class);
+            jdbcTemplate.update(REFRESH_PAYMENT_ORDERS_SQL, params);
+        }
+    }
+
+    public void delete(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM order_view WHERE id IN (:ids)", new MapSqlParameterSource("ids", orderIds));
+        }
+    }
+
+    public Optional<OrderView> find(long id) {
+        return jdbcTemplate.query(
+                "SELECT id, user_uid, created_at, document::text AS document FROM order_view WHERE id = :id",
+                new MapSqlParameterSource("id", id), VIEW_MAPPER).stream().findFirst();
+    }
+
+    /**
+     * @return every order of the user, newest first, with a null document
+     *         where the order has no view
+     */
+    public List<OrderView> findByUserUid(String userUid) {
+        return jdbcTemplate.query("""
+                SELECT o.id, o.user_uid, o.created_at, v.document::text AS document
+                FROM orders o
+                LEFT JOIN order_view v ON v.id = o.id
+                WHERE o.user_uid = :userUid
+                ORDER BY o.created_at DESC, o.id DESC
+                """, new MapSqlParameterSource("userUid", userUid), VIEW_MAPPER);
+    }
+
+    /**
+     * @return IDs of the next orders after a cursor, in ID order
+     */
+    public List<Long> findOrderIds(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT id FROM orders WHERE id > :afterId ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource().addValue("afterId", afterId).addValue("limit", limit), Long.class);
+    }
+
+    /**
+     * Compares the views of the next orders after a cursor.
+     *
+     * @param handler gets each order's ID, whether it has a view and
+     *                whether the view is current
+     */
+    public void check(long afterId, int limit, CheckHandler handler) {
+        jdbcTemplate.query(CHECK_SQL, new MapSqlParameterSource().addValue("afterId", afterId).addValue("limit", limit),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("id"), rs.getBoolean("present"),
+                        rs.getBoolean("current")));
+    }
+
+    /**
+     * @return IDs of views after a cursor whose order doesn't exist
+     */
+    public List<Long> findOrphans(long afterId, int limit) {
+        return jdbcTemplate.queryForList(ORPHANS_SQL,
+                new MapSqlParameterSource().addValue("afterId", afterId).addValue("limit", limit), Long.class);
+    }
+
+    @FunctionalInterface
+    public interface CheckHandler {
+        void accept(long orderId, boolean present, boolean current);
+    }
+}
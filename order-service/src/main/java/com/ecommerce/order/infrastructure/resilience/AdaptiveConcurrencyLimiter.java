@@ -0,0 +1,160 @@
+package com.ecommerce.order.infrastructure.resilience;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limiter using a latency gradient.
+ * Compares a long-term RTT baseline with the recent RTT: while latency stays
+ * near the baseline the limit grows, and once requests start queueing the
+ * limit shrinks so excess load is rejected instead of waiting.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+            double rttTolerance, double smoothing) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency limit bounds: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Tries to acquire a slot for a request of the given priority.
+     * Lower priorities may only use a share of the current limit, so they are
+     * shed first when the limit shrinks.
+     *
+     * @param priority the request priority
+     * @return a permit, or null if the request should be rejected
+     */
+    public Permit tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getLimitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.incrementAndGet();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos = shortRttNanos * 0.9 + rttNanos * 0.1;
+        longRttNanos = longRttNanos * 0.99 + rttNanos * 0.01;
+
+        // Let the baseline follow a sustained latency improvement quickly
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // Don't grow the limit when the service isn't using it
+        double currentLimit = limit;
+        if (inFlightAtStart < currentLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+        newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private synchronized void onDropped() {
+        limit = Math.max(minLimit, limit * 0.9);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Request priority classes. The share is the fraction of the current limit
+     * a class may occupy.
+     */
+    public enum Priority {
+        CRITICAL(1.0),
+        NORMAL(0.8),
+        LOW(0.5);
+
+        private final double limitShare;
+
+        Priority(double limitShare) {
+            this.limitShare = limitShare;
+        }
+
+        public double getLimitShare() {
+            return limitShare;
+        }
+    }
+
+    /**
+     * A held concurrency slot. Exactly one of the completion methods must be
+     * called.
+     */
+    public class Permit {
+        private final int inFlightAtStart;
+        private final long startNanos;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Request completed normally; its latency is fed into the limit.
+         */
+        public void onSuccess() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart);
+        }
+
+        /**
+         * Request failed because the service or a dependency was overloaded.
+         */
+        public void onDropped() {
+            inFlight.decrementAndGet();
+            AdaptiveConcurrencyLimiter.this.onDropped();
+        }
+
+        /**
+         * Request finished but its latency says nothing about load.
+         */
+        public void onIgnore() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
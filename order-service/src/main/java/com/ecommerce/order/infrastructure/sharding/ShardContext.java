@@ -0,0 +1,37 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import java.util.function.Supplier;
+
+/**
+ * The shard the current thread works on. Set by {@link ShardRouter} around
+ * work for one shard and read by {@link ShardRoutingDataSource} when a
+ * connection is fetched; when it is not set, connections go to shard 0.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return the shard the thread is pinned to, or null
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    static <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
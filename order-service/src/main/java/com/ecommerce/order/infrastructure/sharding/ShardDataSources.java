@@ -0,0 +1,35 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.List;
+
+/**
+ * Connection pools of the order database shards, in shard order. Shard 0
+ * is the database of {@code spring.datasource.url}; it also holds the
+ * tables that are not sharded, such as manifest imports.
+ */
+public class ShardDataSources implements AutoCloseable {
+
+    private final List<HikariDataSource> shards;
+
+    public ShardDataSources(List<HikariDataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public int count() {
+        return shards.size();
+    }
+
+    public HikariDataSource get(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring that assigns users to shards. Each shard owns
+ * {@value #POINTS_PER_SHARD} points on a 64-bit ring, and a user belongs
+ * to the shard of the first point at or after the hash of their UID.
+ * Adding a shard only moves the users whose nearest point is now one of
+ * the new shard's, about 1/N of them.
+ * <p>
+ * Shards are only ever appended. The ring remembers every size it had
+ * since {@code initialShards}, so the shards a user was assigned to before
+ * shards were added, and where their older orders still are, can be
+ * listed.
+ */
+public class ShardRing {
+
+    static final int POINTS_PER_SHARD = 160;
+
+    /** Ring with the shards 0..n-1, for each size from initialShards up */
+    private final List<TreeMap<Long, Integer>> rings = new ArrayList<>();
+
+    public ShardRing(int initialShards, int shards) {
+        if (initialShards < 1 || initialShards > shards) {
+            throw new IllegalArgumentException("initialShards must be between 1 and " + shards);
+        }
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < shards; shard++) {
+            for (int point = 0; point < POINTS_PER_SHARD; point++) {
+                ring.putIfAbsent(hash("shard-" + shard + "#" + point), shard);
+            }
+            if (shard + 1 >= initialShards) {
+                rings.add(new TreeMap<>(ring));
+            }
+        }
+    }
+
+    /**
+     * @return the shard that gets the user's new orders
+     */
+    public int owner(String userUid) {
+        return owner(rings.get(rings.size() - 1), hash(userUid));
+    }
+
+    /**
+     * @return every shard the user was assigned to, current one first
+     */
+    public List<Integer> owners(String userUid) {
+        long hash = hash(userUid);
+        Set<Integer> owners = new LinkedHashSet<>();
+        for (int i = rings.size() - 1; i >= 0; i--) {
+            owners.add(owner(rings.get(i), hash));
+        }
+        return new ArrayList<>(owners);
+    }
+
+    private static int owner(TreeMap<Long, Integer> ring, long hash) {
+        Map.Entry<Long, Integer> point = ring.ceilingEntry(hash);
+        return (point != null ? point : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so
+     * similar UIDs land far apart. Stable across JVMs and releases.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb93fe53e7f3bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,269 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.infrastructure.id.SnowflakeIdGenerator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Decides which shard data lives on and runs work there.
+ * <ul>
+ *   <li>A user's new orders go to the user's shard on the {@link ShardRing}.</li>
+ *   <li>An order or payment ID names its shard: the ID's Snowflake node
+ *       ID, divided by the nodes each shard has. IDs issued before the
+ *       data was sharded, below {@code orders.sharding.unsharded-ids-below},
+ *       live on shard 0.</li>
+ *   <li>Work for one shard runs on the calling thread; work for several
+ *       shards runs on them in parallel and is gathered.</li>
+ * </ul>
+ * A thread pinned to one shard by a job's {@link #forEachShard} pass only
+ * sees that shard: reads of all shards read just its own. A transaction
+ * that has used a shard's connection can't reach another shard: work for
+ * another shard, or for all of them, fails with {@link CrossShardException}.
+ */
+@Component
+public class ShardRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+
+    /** Smallest Snowflake ID; IDs below it come from the serial columns */
+    private static final long FIRST_SNOWFLAKE_ID = 1L << 40;
+
+    private final int shardCount;
+    private final long firstShardedId;
+    private final int nodesPerShard;
+    private final ShardRing ring;
+    private final List<Integer> allShards;
+    private final ExecutorService queryExecutor;
+
+    public ShardRouter(ShardDataSources shards,
+            @Value("${orders.sharding.nodes-per-shard:8}") int nodesPerShard,
+            @Value("${orders.sharding.initial-shards:1}") int initialShards,
+            @Value("${orders.sharding.unsharded-ids-below:0}") long unshardedIdsBelow,
+            @Value("${orders.sharding.query-threads:8}") int queryThreads) {
+        this.shardCount = shards.count();
+        this.nodesPerShard = nodesPerShard;
+        if (nodesPerShard < 1 || shardCount * nodesPerShard > SnowflakeIdGenerator.MAX_NODE_ID + 1) {
+            throw new IllegalArgumentException(shardCount + " shards with " + nodesPerShard
+                    + " nodes each exceed the " + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " node IDs");
+        }
+        this.firstShardedId = Math.max(FIRST_SNOWFLAKE_ID, unshardedIdsBelow);
+        // The ring's history starts here; deriving it from the shard count
+        // would forget where users lived each time a shard is added
+        if (initialShards < 1 || initialShards > shardCount) {
+            throw new IllegalArgumentException("orders.sharding.initial-shards must be between 1 and " + shardCount
+                    + ": the number of shards the deployment started with, which never changes");
+        }
+        this.ring = new ShardRing(initialShards, shardCount);
+        this.allShards = IntStream.range(0, shardCount).boxed().toList();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.queryExecutor = Executors.newFixedThreadPool(Math.max(1, queryThreads), task -> {
+            Thread thread = new Thread(task, "shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Order data spread over {} shard(s), {} ID nodes each", shardCount, nodesPerShard);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int nodesPerShard() {
+        return nodesPerShard;
+    }
+
+    public List<Integer> allShards() {
+        return allShards;
+    }
+
+    /**
+     * @return the shard an order or payment with this ID lives on, or null
+     *         if the ID can't exist here
+     */
+    public Integer shardOf(long id) {
+        if (id <= 0) {
+            return null;
+        }
+        if (id < firstShardedId || shardCount == 1) {
+            return 0;
+        }
+        int shard = SnowflakeIdGenerator.nodeId(id) / nodesPerShard;
+        return shard < shardCount ? shard : null;
+    }
+
+    /**
+     * @return the shard that gets the user's new orders
+     */
+    public int homeShard(String userUid) {
+        return ring.owner(userUid);
+    }
+
+    /**
+     * @return the shards that may hold orders of the user, home shard first
+     */
+    public List<Integer> shardsOf(String userUid) {
+        return ring.owners(userUid);
+    }
+
+    /**
+     * @return the IDs grouped by their shard; IDs that can't exist are left out
+     */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<Integer, List<Long>> groups = new TreeMap<>();
+        for (Long id : ids) {
+            Integer shard = shardOf(id);
+            if (shard != null) {
+                groups.computeIfAbsent(shard, s -> new ArrayList<>()).add(id);
+            }
+        }
+        return groups;
+    }
+
+    /**
+     * Runs work on one shard on the calling thread.
+     */
+    public <T> T on(int shard, Supplier<T> work) {
+        Integer pinned = ShardContext.current();
+        if (pinned != null && pinned != shard) {
+            throw new CrossShardException("Shard " + shard + " needed while working on shard " + pinned);
+        }
+        Integer transactionShard = ShardRoutingDataSource.transactionShard();
+        if (transactionShard != null && transactionShard != shard) {
+            throw new CrossShardException("Shard " + shard + " needed in a transaction on shard "
+                    + transactionShard);
+        }
+        return pinned != null ? work.get() : ShardContext.callOn(shard, work);
+    }
+
+    public void run(int shard, Runnable work) {
+        on(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs work on each of the given shards, in parallel when there are
+     * several, and returns the results in shard order.
+     */
+    public <T> List<T> onEach(Collection<Integer> shards, IntFunction<T> work) {
+        Integer pinned = ShardContext.current();
+        if (pinned != null || ShardRoutingDataSource.transactionShard() != null || shards.size() <= 1) {
+            List<T> results = new ArrayList<>(shards.size());
+            for (int shard : shards) {
+                results.add(on(shard, () -> work.apply(shard)));
+            }
+            return results;
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(shards.size());
+        for (int shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> ShardContext.callOn(shard, () -> work.apply(shard)), queryExecutor));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Runs work on every shard, or only on the shard the thread is pinned to.
+     *
+     * @throws CrossShardException if there are several shards and the
+     *         thread's transaction is bound to one, which would see only
+     *         that shard's data
+     */
+    public <T> List<T> onAll(IntFunction<T> work) {
+        Integer pinned = ShardContext.current();
+        if (pinned != null) {
+            return onEach(List.of(pinned), work);
+        }
+        Integer transactionShard = ShardRoutingDataSource.transactionShard();
+        if (transactionShard != null && shardCount > 1) {
+            throw new CrossShardException("Reading all shards in a transaction bound to shard " + transactionShard
+                    + "; read them before the transaction or outside it");
+        }
+        return onEach(allShards, work);
+    }
+
+    /**
+     * Runs work on each shard in turn, pinned to it. A failure on one shard
+     * is logged and the next shard still runs; meant for scheduled jobs.
+     */
+    public void forEachShard(IntConsumer work) {
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            try {
+                run(current, () -> work.accept(current));
+            } catch (RuntimeException e) {
+                if (shardCount == 1) {
+                    throw e;
+                }
+                log.error("Work on shard {} failed", current, e);
+            }
+        }
+    }
+
+    /**
+     * @return the shard the thread is working on; with a single shard, that
+     *         shard
+     * @throws IllegalStateException if there are several shards and the
+     *         thread isn't working on one
+     */
+    public int pinnedOrOnly() {
+        Integer current = currentShard();
+        if (current != null) {
+            return current;
+        }
+        if (shardCount == 1) {
+            return 0;
+        }
+        throw new IllegalStateException("Not working on a shard; run this through ShardRouter.forEachShard");
+    }
+
+    private static Integer currentShard() {
+        Integer pinned = ShardContext.current();
+        return pinned != null ? pinned : ShardRoutingDataSource.transactionShard();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        queryExecutor.shutdownNow();
+    }
+
+    /**
+     * Exception thrown when work for one shard is started while the thread
+     * or its transaction is bound to another.
+     */
+    public static class CrossShardException extends RuntimeException {
+        public CrossShardException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * DataSource that hands out connections of the shard in
+ * {@link ShardContext}. It sits behind a lazy connection proxy, so a
+ * transaction fetches its connection at the first statement, not when it
+ * begins. The shard a transaction's connection came from is recorded, so
+ * {@link ShardRouter} can refuse to send work for another shard into it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String TRANSACTION_SHARD = ShardRoutingDataSource.class.getName() + ".shard";
+
+    public ShardRoutingDataSource(ShardDataSources shards) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer pinned = ShardContext.current();
+        int shard = pinned != null ? pinned : 0;
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.getResource(TRANSACTION_SHARD) == null) {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SHARD);
+                }
+            });
+        }
+        return shard;
+    }
+
+    /**
+     * @return the shard of the current transaction's connection, or null if
+     *         there is no transaction or it has not used a connection yet
+     */
+    static Integer transactionShard() {
+        return (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD);
+    }
+}
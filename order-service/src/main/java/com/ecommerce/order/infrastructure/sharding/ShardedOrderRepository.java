@@ -0,0 +1,238 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderChangeBatch;
+import com.ecommerce.order.domain.repository.OrderChangePosition;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
+import com.ecommerce.order.infrastructure.persistence.adapter.OrderRepositoryAdapter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * {@link OrderDomainRepository} over all shards. Calls for one order go to
+ * the shard its ID names, a user's orders are read from the shards the
+ * user has been assigned to, and everything else is gathered from all
+ * shards in parallel and merged in the order the port promises.
+ */
+@Primary
+@Component
+public class ShardedOrderRepository implements OrderDomainRepository {
+
+    private static final Comparator<OrderEntity> NEWEST_FIRST = Comparator
+            .comparing(OrderEntity::getCreatedAt)
+            .thenComparing(OrderEntity::getId)
+            .reversed();
+    private static final Comparator<OrderEntity> CHANGE_ORDER = Comparator
+            .comparing(OrderEntity::getUpdatedAt)
+            .thenComparing(OrderEntity::getId);
+
+    private final OrderRepositoryAdapter shardRepository;
+    private final ShardRouter router;
+
+    public ShardedOrderRepository(OrderRepositoryAdapter shardRepository, ShardRouter router) {
+        this.shardRepository = shardRepository;
+        this.router = router;
+    }
+
+    @Override
+    public OrderEntity create(OrderEntity order) {
+        return router.on(shardOf(order.getId()), () -> shardRepository.create(order));
+    }
+
+    @Override
+    public OrderEntity save(OrderEntity order) {
+        return router.on(shardOf(order.getId()), () -> shardRepository.save(order));
+    }
+
+    @Override
+    public Optional<OrderEntity> findById(Long id) {
+        Integer shard = router.shardOf(id);
+        return shard == null ? Optional.empty() : router.on(shard, () -> shardRepository.findById(id));
+    }
+
+    @Override
+    public Optional<OrderEntity> findArchivedById(Long id) {
+        Integer shard = router.shardOf(id);
+        return shard == null ? Optional.empty() : router.on(shard, () -> shardRepository.findArchivedById(id));
+    }
+
+    @Override
+    public List<OrderEntity> findByUserUid(String userUid) {
+        return merge(router.onEach(router.shardsOf(userUid), shard -> shardRepository.findByUserUid(userUid)),
+                NEWEST_FIRST, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<OrderEntity> findByStatus(OrderEntity.OrderStatus status) {
+        return concat(router.onAll(shard -> shardRepository.findByStatus(status)));
+    }
+
+    @Override
+    public List<OrderEntity> findAll() {
+        return concat(router.onAll(shard -> shardRepository.findAll()));
+    }
+
+    /**
+     * Each shard's changes are in that shard's transaction order, which
+     * can't be compared across shards. The batches are interleaved by
+     * updatedAt, always taking a shard's next change, so every shard's order
+     * is kept and the position moves each shard past what was returned.
+     */
+    @Override
+    public OrderChangeBatch findChangedAfter(OrderChangePosition after, int limit) {
+        return mergeChanges(after, router.onAll(
+                shard -> Map.entry(shard, shardRepository.findChangedAfter(shard, after, limit))), limit);
+    }
+
+    @Override
+    public List<OrderEntity> search(OrderSearchCriteria criteria, LocalDateTime beforeCreatedAt, Long beforeId,
+            int limit) {
+        return merge(searchShards(criteria, shard -> shardRepository.search(criteria, beforeCreatedAt, beforeId,
+                limit)), NEWEST_FIRST, limit);
+    }
+
+    @Override
+    public long estimateSearchCount(OrderSearchCriteria criteria) {
+        return searchShards(criteria, shard -> shardRepository.estimateSearchCount(criteria)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> orderIds, OrderEntity.OrderStatus expected,
+            OrderEntity.OrderStatus newStatus) {
+        Map<Integer, List<Long>> groups = router.groupByShard(orderIds);
+        return router.onEach(groups.keySet(), shard -> shardRepository.updateStatus(groups.get(shard), expected,
+                newStatus)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    @Override
+    public Map<Long, OrderEntity.OrderStatus> transitionStatus(Collection<Long> orderIds,
+            Set<OrderEntity.OrderStatus> allowedFrom, OrderEntity.OrderStatus newStatus) {
+        Map<Integer, List<Long>> groups = router.groupByShard(orderIds);
+        Map<Long, OrderEntity.OrderStatus> previous = new HashMap<>();
+        router.onEach(groups.keySet(), shard -> shardRepository.transitionStatus(groups.get(shard), allowedFrom,
+                newStatus)).forEach(previous::putAll);
+        return previous;
+    }
+
+    @Override
+    public List<Long> findPendingCreatedBefore(LocalDateTime createdBefore, Long afterId, int limit) {
+        return router.on(router.pinnedOrOnly(),
+                () -> shardRepository.findPendingCreatedBefore(createdBefore, afterId, limit));
+    }
+
+    @Override
+    public List<Long> cancelPending(Collection<Long> orderIds) {
+        Map<Integer, List<Long>> groups = router.groupByShard(orderIds);
+        List<Long> cancelled = new ArrayList<>();
+        router.onEach(groups.keySet(), shard -> shardRepository.cancelPending(groups.get(shard)))
+                .forEach(cancelled::addAll);
+        Collections.sort(cancelled);
+        return cancelled;
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Integer shard = router.shardOf(id);
+        if (shard != null) {
+            router.run(shard, () -> shardRepository.deleteById(id));
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        Integer shard = router.shardOf(id);
+        return shard != null && router.on(shard, () -> shardRepository.existsById(id));
+    }
+
+    private <T> List<T> searchShards(OrderSearchCriteria criteria, IntFunction<T> work) {
+        return criteria.getUserUid() != null
+                ? router.onEach(router.shardsOf(criteria.getUserUid()), work)
+                : router.onAll(work);
+    }
+
+    private int shardOf(Long id) {
+        Integer shard = id != null ? router.shardOf(id) : null;
+        if (shard == null) {
+            throw new IllegalArgumentException("Order ID " + id + " belongs to no shard");
+        }
+        return shard;
+    }
+
+    static OrderChangeBatch mergeChanges(OrderChangePosition after,
+            List<Map.Entry<Integer, OrderChangeBatch>> perShard, int limit) {
+        List<Integer> shards = perShard.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+        List<OrderChangeBatch> batches = perShard.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+        int[] taken = new int[batches.size()];
+        List<OrderEntity> orders = new ArrayList<>();
+        List<OrderChangePosition.Mark> marks = new ArrayList<>();
+        while (orders.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < batches.size(); i++) {
+                List<OrderEntity> candidates = batches.get(i).getOrders();
+                if (taken[i] < candidates.size() && (next < 0 || CHANGE_ORDER.compare(candidates.get(taken[i]),
+                        batches.get(next).getOrders().get(taken[next])) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            orders.add(batches.get(next).getOrders().get(taken[next]));
+            marks.add(batches.get(next).getMarks().get(taken[next]));
+            taken[next]++;
+        }
+
+        OrderChangePosition position = after;
+        boolean hasMore = false;
+        boolean heldBack = false;
+        for (int i = 0; i < batches.size(); i++) {
+            OrderChangeBatch batch = batches.get(i);
+            if (taken[i] == batch.getOrders().size()) {
+                position = position.with(shards.get(i), batch.getNext().markOf(shards.get(i)));
+                hasMore |= batch.isHasMore();
+            } else {
+                position = position.with(shards.get(i), batch.getMarks().get(taken[i] - 1));
+                hasMore = true;
+            }
+            heldBack |= batch.isHeldBack();
+        }
+        return new OrderChangeBatch(orders, marks, position, hasMore, heldBack);
+    }
+
+    private static List<OrderEntity> concat(List<List<OrderEntity>> perShard) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        return perShard.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    private static List<OrderEntity> merge(List<List<OrderEntity>> perShard, Comparator<OrderEntity> order,
+            int limit) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.domain.entity.StageDurationHistogram;
+import com.ecommerce.order.domain.repository.OrderStageStatsRepository;
+import com.ecommerce.order.infrastructure.persistence.adapter.OrderStageStatsRepositoryAdapter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link OrderStageStatsRepository} over all shards. Each shard rolls up
+ * its own history; the histograms of all shards are added together.
+ */
+@Primary
+@Component
+public class ShardedOrderStageStatsRepository implements OrderStageStatsRepository {
+
+    private final OrderStageStatsRepositoryAdapter shardRepository;
+    private final ShardRouter router;
+
+    public ShardedOrderStageStatsRepository(OrderStageStatsRepositoryAdapter shardRepository, ShardRouter router) {
+        this.shardRepository = shardRepository;
+        this.router = router;
+    }
+
+    @Override
+    public List<StageDurationHistogram> findHistograms(LocalDateTime from, LocalDateTime to) {
+        List<List<StageDurationHistogram>> perShard = router.onAll(
+                shard -> shardRepository.findHistograms(from, to));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        Map<String, StageDurationHistogram> merged = new TreeMap<>();
+        for (List<StageDurationHistogram> histograms : perShard) {
+            for (StageDurationHistogram histogram : histograms) {
+                merged.computeIfAbsent(histogram.getFromStatus() + ">" + histogram.getToStatus(),
+                                key -> new StageDurationHistogram(histogram.getFromStatus(), histogram.getToStatus()))
+                        .add(histogram);
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.domain.repository.OrderViewCheckResult;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
+import com.ecommerce.order.infrastructure.persistence.adapter.OrderViewRepositoryAdapter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link OrderViewRepository} over all shards. A view lives on its order's
+ * shard; rebuild and check run on all shards in parallel.
+ */
+@Primary
+@Component
+public class ShardedOrderViewRepository implements OrderViewRepository {
+
+    private static final Comparator<OrderView> NEWEST_FIRST = Comparator
+            .comparing(OrderView::getCreatedAt)
+            .thenComparing(OrderView::getId)
+            .reversed();
+
+    private final OrderViewRepositoryAdapter shardRepository;
+    private final ShardRouter router;
+
+    public ShardedOrderViewRepository(OrderViewRepositoryAdapter shardRepository, ShardRouter router) {
+        this.shardRepository = shardRepository;
+        this.router = router;
+    }
+
+    @Override
+    public Optional<OrderView> findById(Long id) {
+        Integer shard = router.shardOf(id);
+        return shard == null ? Optional.empty() : router.on(shard, () -> shardRepository.findById(id));
+    }
+
+    @Override
+    public List<OrderView> findByUserUid(String userUid) {
+        List<List<OrderView>> perShard = router.onEach(router.shardsOf(userUid),
+                shard -> shardRepository.findByUserUid(userUid));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        return perShard.stream()
+                .flatMap(List::stream)
+                .sorted(NEWEST_FIRST)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long rebuild(int batchSize) {
+        return router.onEach(router.allShards(), shard -> shardRepository.rebuild(batchSize)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    @Override
+    public OrderViewCheckResult check(int batchSize, boolean repair) {
+        OrderViewCheckResult result = new OrderViewCheckResult();
+        router.onEach(router.allShards(), shard -> shardRepository.check(batchSize, repair))
+                .forEach(result::add);
+        return result;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.domain.entity.PaymentEntity;
+import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.infrastructure.persistence.adapter.PaymentRepositoryAdapter;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link PaymentDomainRepository} over all shards. A payment lives on its
+ * order's shard, which both its own ID and its order's ID name. Lookups
+ * by Stripe payment intent ID ask all shards at once.
+ */
+@Primary
+@Component
+public class ShardedPaymentRepository implements PaymentDomainRepository {
+
+    private final PaymentRepositoryAdapter shardRepository;
+    private final ShardRouter router;
+
+    public ShardedPaymentRepository(PaymentRepositoryAdapter shardRepository, ShardRouter router) {
+        this.shardRepository = shardRepository;
+        this.router = router;
+    }
+
+    @Override
+    public PaymentEntity create(PaymentEntity payment) {
+        return router.on(shardOf(payment.getId()), () -> shardRepository.create(payment));
+    }
+
+    @Override
+    public PaymentEntity save(PaymentEntity payment) {
+        return router.on(shardOf(payment.getId()), () -> shardRepository.save(payment));
+    }
+
+    @Override
+    public Optional<PaymentEntity> findById(Long id) {
+        Integer shard = router.shardOf(id);
+        return shard == null ? Optional.empty() : router.on(shard, () -> shardRepository.findById(id));
+    }
+
+    @Override
+    public Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId) {
+        return router.onAll(shard -> shardRepository.findByStripePaymentIntentId(paymentIntentId)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public Optional<PaymentEntity> findByStripePaymentIntentId(String paymentIntentId, Long orderId) {
+        Integer shard = orderId == null ? null : router.shardOf(orderId);
+        if (shard == null) {
+            return findByStripePaymentIntentId(paymentIntentId);
+        }
+        // The payment lives with its order
+        return router.on(shard, () -> shardRepository.findByStripePaymentIntentId(paymentIntentId));
+    }
+
+    @Override
+    public Optional<PaymentEntity> findByOrderId(Long orderId) {
+        Integer shard = router.shardOf(orderId);
+        return shard == null ? Optional.empty() : router.on(shard, () -> shardRepository.findByOrderId(orderId));
+    }
+
+    @Override
+    public List<PaymentEntity> findByStatusCreatedBefore(PaymentEntity.PaymentStatus status,
+            LocalDateTime createdBefore, Long afterId, int limit) {
+        return router.on(router.pinnedOrOnly(),
+                () -> shardRepository.findByStatusCreatedBefore(status, createdBefore, afterId, limit));
+    }
+
+    @Override
+    public List<PaymentEntity> findByStatusCreatedBetween(PaymentEntity.PaymentStatus status,
+            LocalDateTime createdAfter, LocalDateTime createdBefore, Long afterId, int limit) {
+        return router.on(router.pinnedOrOnly(), () -> shardRepository.findByStatusCreatedBetween(
+                status, createdAfter, createdBefore, afterId, limit));
+    }
+
+    @Override
+    public List<PaymentEntity> findOpenByOrderIds(Collection<Long> orderIds) {
+        Map<Integer, List<Long>> groups = router.groupByShard(orderIds);
+        List<List<PaymentEntity>> perShard = router.onEach(groups.keySet(),
+                shard -> shardRepository.findOpenByOrderIds(groups.get(shard)));
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        return perShard.stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @Override
+    public int updateStatus(Collection<Long> paymentIds, PaymentEntity.PaymentStatus expected,
+            PaymentEntity.PaymentStatus newStatus) {
+        Map<Integer, List<Long>> groups = router.groupByShard(paymentIds);
+        return router.onEach(groups.keySet(), shard -> shardRepository.updateStatus(groups.get(shard), expected,
+                newStatus)).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        Integer shard = router.shardOf(id);
+        if (shard != null) {
+            router.run(shard, () -> shardRepository.deleteById(id));
+        }
+    }
+
+    private int shardOf(Long id) {
+        Integer shard = id != null ? router.shardOf(id) : null;
+        if (shard == null) {
+            throw new IllegalArgumentException("Payment ID " + id + " belongs to no shard");
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,215 @@
+package com.ecommerce.order.presentation.controller;
+
+import com.ecommerce.order.application.usecase.BulkUpdateOrderStatusUseCase;
+import com.ecommerce.order.application.usecase.GetStageDurationsUseCase;
+import com.ecommerce.order.application.usecase.OrderViewMaintenanceUseCase;
+import com.ecommerce.order.application.usecase.SearchOrdersUseCase;
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
+import com.ecommerce.order.domain.repository.OrderViewCheckResult;
+import com.ecommerce.order.exception.ValidationException;
+import com.ecommerce.order.presentation.dto.BulkStatusUpdateRequestDTO;
+import com.ecommerce.order.presentation.dto.BulkStatusUpdateResponseDTO;
+import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.ecommerce.order.presentation.dto.OrderSearchResponseDTO;
+import com.ecommerce.order.presentation.dto.OrderViewCheckResponseDTO;
+import com.ecommerce.order.presentation.dto.StageDurationsResponseDTO;
+import com.ecommerce.order.presentation.mapper.OrderDTOMapper;
+import com.ecommerce.order.presentation.security.AdminAccessGuard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * REST controller for support staff operations on orders of any user.
+ * Every endpoint requires the admin API key.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/orders")
+public class AdminOrderController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminOrderController.class);
+
+    private final SearchOrdersUseCase searchOrdersUseCase;
+    private final BulkUpdateOrderStatusUseCase bulkUpdateOrderStatusUseCase;
+    private final OrderViewMaintenanceUseCase orderViewMaintenanceUseCase;
+    private final GetStageDurationsUseCase getStageDurationsUseCase;
+    private final OrderDTOMapper orderMapper;
+    private final AdminAccessGuard adminAccessGuard;
+
+    public AdminOrderController(
+            SearchOrdersUseCase searchOrdersUseCase,
+            BulkUpdateOrderStatusUseCase bulkUpdateOrderStatusUseCase,
+            OrderViewMaintenanceUseCase orderViewMaintenanceUseCase,
+            GetStageDurationsUseCase getStageDurationsUseCase,
+            OrderDTOMapper orderMapper,
+            AdminAccessGuard adminAccessGuard) {
+        this.searchOrdersUseCase = searchOrdersUseCase;
+        this.bulkUpdateOrderStatusUseCase = bulkUpdateOrderStatusUseCase;
+        this.orderViewMaintenanceUseCase = orderViewMaintenanceUseCase;
+        this.getStageDurationsUseCase = getStageDurationsUseCase;
+        this.orderMapper = orderMapper;
+        this.adminAccessGuard = adminAccessGuard;
+    }
+
+    /**
+     * Searches orders, newest first. All filters are optional and combined
+     * with AND; createdTo and maxTotal are exclusive.
+     */
+    @GetMapping
+    public ResponseEntity<OrderSearchResponseDTO> searchOrders(
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "createdFrom", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(value = "createdTo", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(value = "minTotal", required = false) BigDecimal minTotal,
+            @RequestParam(value = "maxTotal", required = false) BigDecimal maxTotal,
+            @RequestParam(value = "userUid", required = false) String userUid,
+            @RequestParam(value = "productId", required = false) Integer productId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "50") int limit,
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        OrderEntity.OrderStatus orderStatus = null;
+        if (status != null) {
+            try {
+                orderStatus = OrderEntity.OrderStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ValidationException("Unknown order status: " + status);
+            }
+        }
+        OrderSearchCriteria criteria = new OrderSearchCriteria(
+                orderStatus, createdFrom, createdTo, minTotal, maxTotal, userUid, productId);
+
+        log.info("Admin order search: status={}, created=[{}, {}), total=[{}, {}), user={}, product={}",
+                orderStatus, createdFrom, createdTo, minTotal, maxTotal, userUid, productId);
+
+        try {
+            SearchOrdersUseCase.SearchPage page = searchOrdersUseCase.execute(criteria, cursor, limit);
+            List<OrderResponseDTO> orders = page.getOrders().stream()
+                    .map(orderMapper::toResponseDTO)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(new OrderSearchResponseDTO(orders, page.getNextCursor(),
+                    page.getEstimatedTotal()));
+
+        } catch (SearchOrdersUseCase.InvalidSearchException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Moves many orders to one status, e.g. a warehouse marking a shipment
+     * batch SHIPPED. Orders that can't make the transition are reported,
+     * not failed; the response is 200 as long as the request was valid.
+     */
+    @PostMapping("/status")
+    public ResponseEntity<BulkStatusUpdateResponseDTO> bulkUpdateStatus(
+            @Valid @RequestBody BulkStatusUpdateRequestDTO request,
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        try {
+            List<BulkUpdateOrderStatusUseCase.StatusUpdateResult> results =
+                    bulkUpdateOrderStatusUseCase.execute(request.getOrderIds(), request.getStatus());
+
+            List<BulkStatusUpdateResponseDTO.Result> response = results.stream()
+                    .map(r -> new BulkStatusUpdateResponseDTO.Result(r.getOrderId(), r.getOutcome().name(),
+                            r.getPreviousStatus() != null ? r.getPreviousStatus().name() : null, r.getMessage()))
+                    .collect(Collectors.toList());
+            int updated = (int) results.stream()
+                    .filter(r -> r.getOutcome() == BulkUpdateOrderStatusUseCase.Outcome.UPDATED)
+                    .count();
+
+            return ResponseEntity.ok(new BulkStatusUpdateResponseDTO(updated, response));
+
+        } catch (BulkUpdateOrderStatusUseCase.InvalidBulkRequestException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the order read model from the orders. Runs in batches and
+     * can be called while the service takes traffic.
+     */
+    @PostMapping("/view/rebuild")
+    public ResponseEntity<OrderViewCheckResponseDTO> rebuildOrderViews(
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        long rebuilt = orderViewMaintenanceUseCase.rebuild();
+        OrderViewCheckResponseDTO response = new OrderViewCheckResponseDTO();
+        response.setChecked(rebuilt);
+        response.setRepaired(rebuilt);
+        response.setConsistent(true);
+        response.setSampleIds(List.of());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Compares the order read model with the orders and, with repair,
+     * fixes missing, stale and orphaned views.
+     */
+    @PostMapping("/view/check")
+    public ResponseEntity<OrderViewCheckResponseDTO> checkOrderViews(
+            @RequestParam(value = "repair", defaultValue = "false") boolean repair,
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        OrderViewCheckResult result = orderViewMaintenanceUseCase.check(repair);
+        OrderViewCheckResponseDTO response = new OrderViewCheckResponseDTO();
+        response.setChecked(result.getChecked());
+        response.setMissing(result.getMissing());
+        response.setStale(result.getStale());
+        response.setOrphaned(result.getOrphaned());
+        response.setRepaired(result.getRepaired());
+        response.setConsistent(result.isConsistent());
+        response.setSampleIds(result.getSampleIds());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Fulfillment latency: percentiles of the time orders spent in each
+     * status before each transition made in the window. Defaults to the
+     * last 7 days.
+     */
+    @GetMapping("/analytics/stage-durations")
+    public ResponseEntity<StageDurationsResponseDTO> getStageDurations(
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        LocalDateTime windowTo = to != null ? to : LocalDateTime.now();
+        LocalDateTime windowFrom = from != null ? from : windowTo.minusDays(7);
+        try {
+            List<StageDurationsResponseDTO.Stage> stages = getStageDurationsUseCase.execute(windowFrom, windowTo)
+                    .stream()
+                    .map(s -> new StageDurationsResponseDTO.Stage(s.getFromStatus().name(), s.getToStatus().name(),
+                            s.getCount(), s.getP50Seconds(), s.getP90Seconds(), s.getP99Seconds()))
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(new StageDurationsResponseDTO(windowFrom, windowTo, stages));
+
+        } catch (GetStageDurationsUseCase.InvalidWindowException e) {
+            throw new ValidationException(e.getMessage());
+        }
+    }
+}
@@ -2,21 +2,29 @@ package com.ecommerce.order.presentation.controller;
 
 import com.ecommerce.order.application.usecase.*;
 import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.OrderView;
 import com.ecommerce.order.exception.NotFoundException;
 import com.ecommerce.order.exception.ValidationException;
 import com.ecommerce.order.exception.ForbiddenException;
+import com.ecommerce.order.exception.ServiceUnavailableException;
 import com.ecommerce.order.presentation.dto.CreateOrderRequestDTO;
+import com.ecommerce.order.presentation.dto.OrderChangesResponseDTO;
 import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.ecommerce.order.presentation.dto.PaymentIntentResponseDTO;
 import com.ecommerce.order.presentation.dto.UpdateOrderStatusRequestDTO;
 import com.ecommerce.order.presentation.mapper.OrderDTOMapper;
+import com.ecommerce.order.presentation.mapper.OrderViewDTOReader;
+import com.ecommerce.order.presentation.security.AdminAccessGuard;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -33,19 +41,34 @@ public class OrderController {
     private final GetOrderByIdUseCase getOrderByIdUseCase;
     private final GetUserOrdersUseCase getUserOrdersUseCase;
     private final UpdateOrderStatusUseCase updateOrderStatusUseCase;
+    private final CreatePaymentIntentUseCase createPaymentIntentUseCase;
+    private final GetOrderChangesUseCase getOrderChangesUseCase;
+    private final GetOrderViewUseCase getOrderViewUseCase;
     private final OrderDTOMapper orderMapper;
+    private final OrderViewDTOReader orderViewReader;
+    private final AdminAccessGuard adminAccessGuard;
 
     public OrderController(
             CreateOrderUseCase createOrderUseCase,
             GetOrderByIdUseCase getOrderByIdUseCase,
             GetUserOrdersUseCase getUserOrdersUseCase,
             UpdateOrderStatusUseCase updateOrderStatusUseCase,
-            OrderDTOMapper orderMapper) {
+            CreatePaymentIntentUseCase createPaymentIntentUseCase,
+            GetOrderChangesUseCase getOrderChangesUseCase,
+            GetOrderViewUseCase getOrderViewUseCase,
+            OrderDTOMapper orderMapper,
+            OrderViewDTOReader orderViewReader,
+            AdminAccessGuard adminAccessGuard) {
         this.createOrderUseCase = createOrderUseCase;
         this.getOrderByIdUseCase = getOrderByIdUseCase;
         this.getUserOrdersUseCase = getUserOrdersUseCase;
         this.updateOrderStatusUseCase = updateOrderStatusUseCase;
+        this.createPaymentIntentUseCase = createPaymentIntentUseCase;
+        this.getOrderChangesUseCase = getOrderChangesUseCase;
+        this.getOrderViewUseCase = getOrderViewUseCase;
         this.orderMapper = orderMapper;
+        this.orderViewReader = orderViewReader;
+        this.adminAccessGuard = adminAccessGuard;
     }
 
     /**
@@ -72,7 +95,8 @@ public class OrderController {
     }
 
     /**
-     * Retrieves an order by ID (with authorization).
+     * Retrieves an order by ID (with authorization). With
+     * orders.view.read-enabled it is read from the stored view.
      */
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponseDTO> getOrderById(
@@ -82,6 +106,11 @@ public class OrderController {
         log.info("Retrieving order {} for user {}", id, authenticatedUserUid);
 
         try {
+            Optional<OrderView> view = getOrderViewUseCase.findById(id, authenticatedUserUid);
+            if (view.isPresent()) {
+                return ResponseEntity.ok(orderViewReader.toResponseDTO(view.get()));
+            }
+
             OrderEntity order = getOrderByIdUseCase.execute(id, authenticatedUserUid);
             OrderResponseDTO response = orderMapper.toResponseDTO(order);
 
@@ -90,14 +119,15 @@ public class OrderController {
         } catch (GetOrderByIdUseCase.OrderNotFoundException e) {
             log.error("Order not found: {}", id);
             throw new NotFoundException("Order not found with ID: " + id);
-        } catch (GetOrderByIdUseCase.OrderAccessDeniedException e) {
+        } catch (GetOrderByIdUseCase.OrderAccessDeniedException | GetOrderViewUseCase.OrderAccessDeniedException e) {
             log.error("Access denied to order: {}", id);
             throw new ForbiddenException("Access denied to order");
         }
     }
 
     /**
-     * Retrieves all orders for the authenticated user.
+     * Retrieves all orders for the authenticated user. With
+     * orders.view.read-enabled they are read from the stored views.
      */
     @GetMapping
     public ResponseEntity<List<OrderResponseDTO>> getUserOrders(
@@ -106,6 +136,14 @@ public class OrderController {
         log.info("Retrieving orders for user: {}", authenticatedUserUid);
 
         try {
+            Optional<List<OrderView>> views = getOrderViewUseCase.findByUserUid(authenticatedUserUid,
+                    authenticatedUserUid);
+            if (views.isPresent()) {
+                return ResponseEntity.ok(views.get().stream()
+                        .map(orderViewReader::toResponseDTO)
+                        .collect(Collectors.toList()));
+            }
+
             List<OrderEntity> orders = getUserOrdersUseCase.execute(authenticatedUserUid, authenticatedUserUid);
             List<OrderResponseDTO> response = orders.stream()
                     .map(orderMapper::toResponseDTO)
@@ -113,12 +151,47 @@ public class OrderController {
 
             return ResponseEntity.ok(response);
 
-        } catch (GetUserOrdersUseCase.OrderAccessDeniedException e) {
+        } catch (GetUserOrdersUseCase.OrderAccessDeniedException | GetOrderViewUseCase.OrderAccessDeniedException e) {
             log.error("Access denied to orders");
             throw new ForbiddenException("Access denied to orders");
         }
     }
 
+    /**
+     * Returns orders changed after a cursor, oldest change first, for internal
+     * consumers. With waitSeconds the request is held until changes are
+     * committed or the wait ends.
+     */
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<OrderChangesResponseDTO>> getOrderChanges(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestParam(value = "waitSeconds", defaultValue = "0") int waitSeconds,
+            @RequestHeader(value = AdminAccessGuard.HEADER, required = false) String apiKey) {
+
+        adminAccessGuard.check(apiKey);
+
+        DeferredResult<ResponseEntity<OrderChangesResponseDTO>> result =
+                new DeferredResult<>(waitSeconds * 1000L + 10_000L);
+        try {
+            getOrderChangesUseCase.execute(since, limit, waitSeconds * 1000L).whenComplete((page, error) -> {
+                if (error != null) {
+                    log.error("Loading order changes failed", error);
+                    result.setErrorResult(error);
+                    return;
+                }
+                List<OrderResponseDTO> orders = page.getOrders().stream()
+                        .map(orderMapper::toResponseDTO)
+                        .collect(Collectors.toList());
+                result.setResult(ResponseEntity.ok(
+                        new OrderChangesResponseDTO(orders, page.getNextCursor(), page.isHasMore())));
+            });
+        } catch (GetOrderChangesUseCase.InvalidChangeFeedRequestException e) {
+            throw new ValidationException(e.getMessage());
+        }
+        return result;
+    }
+
     /**
      * Updates order status.
      */
@@ -145,4 +218,34 @@ public class OrderController {
             throw new ValidationException(e.getMessage());
         }
     }
+
+    /**
+     * Returns the order's payment intent, creating it on first call.
+     * Safe to call on every checkout page load.
+     */
+    @PostMapping("/{id}/payment-intent")
+    public ResponseEntity<PaymentIntentResponseDTO> createPaymentIntent(
+            @PathVariable Long id,
+            @RequestHeader("X-User-UID") String authenticatedUserUid) {
+
+        try {
+            CreatePaymentIntentUseCase.PaymentIntentResult result =
+                    createPaymentIntentUseCase.execute(id, authenticatedUserUid);
+
+            return ResponseEntity.ok(new PaymentIntentResponseDTO(
+                    result.getPaymentId(), result.getPaymentIntentId(), result.getClientSecret()));
+
+        } catch (CreatePaymentIntentUseCase.OrderNotFoundException e) {
+            log.error("Order not found: {}", id);
+            throw new NotFoundException("Order not found with ID: " + id);
+        } catch (CreatePaymentIntentUseCase.OrderAccessDeniedException e) {
+            log.error("Access denied to order: {}", id);
+            throw new ForbiddenException("Access denied to order");
+        } catch (CreatePaymentIntentUseCase.PaymentAlreadyCompletedException
+                | CreatePaymentIntentUseCase.OrderNotPayableException e) {
+            throw new ValidationException(e.getMessage());
+        } catch (CreatePaymentIntentUseCase.PaymentCreationException e) {
+            throw new ServiceUnavailableException("Payment gateway", e);
+        }
+    }
 }
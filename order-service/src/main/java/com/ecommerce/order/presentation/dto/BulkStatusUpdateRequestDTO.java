@@ -0,0 +1,35 @@
+package com.ecommerce.order.presentation.dto;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * DTO for moving many orders to one status.
+ */
+public class BulkStatusUpdateRequestDTO {
+
+    @NotEmpty(message = "At least one order ID is required")
+    private List<Long> orderIds;
+
+    @NotNull(message = "Status is required")
+    private OrderEntity.OrderStatus status;
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public OrderEntity.OrderStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(OrderEntity.OrderStatus status) {
+        this.status = status;
+    }
+}
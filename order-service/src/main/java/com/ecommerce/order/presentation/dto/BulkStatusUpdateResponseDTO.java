@@ -0,0 +1,91 @@
+package com.ecommerce.order.presentation.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a bulk status update, with one result per order.
+ */
+public class BulkStatusUpdateResponseDTO {
+
+    private int updated;
+    private List<Result> results;
+
+    public BulkStatusUpdateResponseDTO() {
+    }
+
+    public BulkStatusUpdateResponseDTO(int updated, List<Result> results) {
+        this.updated = updated;
+        this.results = results;
+    }
+
+    // Getters and Setters
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public List<Result> getResults() {
+        return results;
+    }
+
+    public void setResults(List<Result> results) {
+        this.results = results;
+    }
+
+    /**
+     * Outcome for one order: UPDATED, UNCHANGED, INVALID_TRANSITION or
+     * NOT_FOUND.
+     */
+    public static class Result {
+
+        private Long orderId;
+        private String outcome;
+        private String previousStatus;
+        private String message;
+
+        public Result() {
+        }
+
+        public Result(Long orderId, String outcome, String previousStatus, String message) {
+            this.orderId = orderId;
+            this.outcome = outcome;
+            this.previousStatus = previousStatus;
+            this.message = message;
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        public String getOutcome() {
+            return outcome;
+        }
+
+        public void setOutcome(String outcome) {
+            this.outcome = outcome;
+        }
+
+        public String getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public void setPreviousStatus(String previousStatus) {
+            this.previousStatus = previousStatus;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
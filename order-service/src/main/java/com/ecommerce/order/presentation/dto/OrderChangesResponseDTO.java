@@ -0,0 +1,47 @@
+package com.ecommerce.order.presentation.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of the order change feed.
+ */
+public class OrderChangesResponseDTO {
+
+    private List<OrderResponseDTO> orders;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public OrderChangesResponseDTO() {
+    }
+
+    public OrderChangesResponseDTO(List<OrderResponseDTO> orders, String nextCursor, boolean hasMore) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<OrderResponseDTO> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderResponseDTO> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
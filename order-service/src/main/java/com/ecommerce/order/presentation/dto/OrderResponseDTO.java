@@ -14,6 +14,8 @@ public class OrderResponseDTO {
     private BigDecimal totalAmount;
     private String status;
     private String shippingAddress;
+    private String shippingMethod;
+    private String trackingNumber;
     private List<OrderItemResponseDTO> items;
     private PaymentResponseDTO payment;
     private LocalDateTime createdAt;
@@ -59,6 +61,22 @@ public class OrderResponseDTO {
         this.shippingAddress = shippingAddress;
     }
 
+    public String getShippingMethod() {
+        return shippingMethod;
+    }
+
+    public void setShippingMethod(String shippingMethod) {
+        this.shippingMethod = shippingMethod;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
     public List<OrderItemResponseDTO> getItems() {
         return items;
     }
@@ -0,0 +1,47 @@
+package com.ecommerce.order.presentation.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for one page of admin order search results.
+ */
+public class OrderSearchResponseDTO {
+
+    private List<OrderResponseDTO> orders;
+    private String nextCursor;
+    private Long estimatedTotal;
+
+    public OrderSearchResponseDTO() {
+    }
+
+    public OrderSearchResponseDTO(List<OrderResponseDTO> orders, String nextCursor, Long estimatedTotal) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.estimatedTotal = estimatedTotal;
+    }
+
+    // Getters and Setters
+    public List<OrderResponseDTO> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderResponseDTO> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getEstimatedTotal() {
+        return estimatedTotal;
+    }
+
+    public void setEstimatedTotal(Long estimatedTotal) {
+        this.estimatedTotal = estimatedTotal;
+    }
+}
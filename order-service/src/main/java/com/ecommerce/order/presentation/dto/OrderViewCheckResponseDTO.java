@@ -0,0 +1,77 @@
+package com.ecommerce.order.presentation.dto;
+
+import java.util.List;
+
+/**
+ * Response DTO for a rebuild or check of the order read model.
+ */
+public class OrderViewCheckResponseDTO {
+
+    private long checked;
+    private long missing;
+    private long stale;
+    private long orphaned;
+    private long repaired;
+    private boolean consistent;
+    private List<Long> sampleIds;
+
+    public OrderViewCheckResponseDTO() {
+    }
+
+    // Getters and Setters
+    public long getChecked() {
+        return checked;
+    }
+
+    public void setChecked(long checked) {
+        this.checked = checked;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    public void setMissing(long missing) {
+        this.missing = missing;
+    }
+
+    public long getStale() {
+        return stale;
+    }
+
+    public void setStale(long stale) {
+        this.stale = stale;
+    }
+
+    public long getOrphaned() {
+        return orphaned;
+    }
+
+    public void setOrphaned(long orphaned) {
+        this.orphaned = orphaned;
+    }
+
+    public long getRepaired() {
+        return repaired;
+    }
+
+    public void setRepaired(long repaired) {
+        this.repaired = repaired;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+
+    public List<Long> getSampleIds() {
+        return sampleIds;
+    }
+
+    public void setSampleIds(List<Long> sampleIds) {
+        this.sampleIds = sampleIds;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.order.presentation.dto;
+
+/**
+ * Response DTO for a payment intent the client can complete with Stripe.js.
+ */
+public class PaymentIntentResponseDTO {
+
+    private Long paymentId;
+    private String paymentIntentId;
+    private String clientSecret;
+
+    public PaymentIntentResponseDTO() {
+    }
+
+    public PaymentIntentResponseDTO(Long paymentId, String paymentIntentId, String clientSecret) {
+        this.paymentId = paymentId;
+        this.paymentIntentId = paymentIntentId;
+        this.clientSecret = clientSecret;
+    }
+
+    // Getters and Setters
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+
+    public String getPaymentIntentId() {
+        return paymentIntentId;
+    }
+
+    public void setPaymentIntentId(String paymentIntentId) {
+        this.paymentIntentId = paymentIntentId;
+    }
+
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    public void setClientSecret(String clientSecret) {
+        this.clientSecret = clientSecret;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ecommerce.order.presentation.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for fulfillment latency analytics, with one entry per status
+ * transition.
+ */
+public class StageDurationsResponseDTO {
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Stage> stages;
+
+    public StageDurationsResponseDTO() {
+    }
+
+    public StageDurationsResponseDTO(LocalDateTime from, LocalDateTime to, List<Stage> stages) {
+        this.from = from;
+        this.to = to;
+        this.stages = stages;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public List<Stage> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<Stage> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Time spent in fromStatus by orders that moved to toStatus, in seconds.
+     */
+    public static class Stage {
+
+        private String fromStatus;
+        private String toStatus;
+        private long count;
+        private Double p50Seconds;
+        private Double p90Seconds;
+        private Double p99Seconds;
+
+        public Stage() {
+        }
+
+        public Stage(String fromStatus, String toStatus, long count, Double p50Seconds, Double p90Seconds,
+                Double p99Seconds) {
+            this.fromStatus = fromStatus;
+            this.toStatus = toStatus;
+            this.count = count;
+            this.p50Seconds = p50Seconds;
+            this.p90Seconds = p90Seconds;
+            this.p99Seconds = p99Seconds;
+        }
+
+        public String getFromStatus() {
+            return fromStatus;
+        }
+
+        public void setFromStatus(String fromStatus) {
+            this.fromStatus = fromStatus;
+        }
+
+        public String getToStatus() {
+            return toStatus;
+        }
+
+        public void setToStatus(String toStatus) {
+            this.toStatus = toStatus;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        public Double getP50Seconds() {
+            return p50Seconds;
+        }
+
+        public void setP50Seconds(Double p50Seconds) {
+            this.p50Seconds = p50Seconds;
+        }
+
+        public Double getP90Seconds() {
+            return p90Seconds;
+        }
+
+        public void setP90Seconds(Double p90Seconds) {
+            this.p90Seconds = p90Seconds;
+        }
+
+        public Double getP99Seconds() {
+            return p99Seconds;
+        }
+
+        public void setP99Seconds(Double p99Seconds) {
+            this.p99Seconds = p99Seconds;
+        }
+    }
+}
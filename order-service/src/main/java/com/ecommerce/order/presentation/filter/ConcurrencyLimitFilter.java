@@ -0,0 +1,150 @@
+package com.ecommerce.order.presentation.filter;
+
+import com.ecommerce.order.infrastructure.resilience.AdaptiveConcurrencyLimiter;
+import com.ecommerce.order.presentation.dto.ErrorResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load-shedding filter in front of the order API.
+ * Requests over the adaptive concurrency limit are rejected immediately with
+ * 503 instead of queueing in Tomcat until they time out.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    /**
+     * Priorities of the mapped routes, first match wins. Checkout and
+     * payment intents get the full limit; history listing, the change feed
+     * and admin calls are shed first; anything else is NORMAL.
+     */
+    private static final List<Route> ROUTES = List.of(
+            new Route(HttpMethod.POST, "/api/v1/orders", AdaptiveConcurrencyLimiter.Priority.CRITICAL),
+            new Route(HttpMethod.POST, "/api/v1/orders/{id}/payment-intent",
+                    AdaptiveConcurrencyLimiter.Priority.CRITICAL),
+            new Route(HttpMethod.GET, "/api/v1/orders", AdaptiveConcurrencyLimiter.Priority.LOW),
+            new Route(HttpMethod.GET, "/api/v1/orders/changes", AdaptiveConcurrencyLimiter.Priority.LOW),
+            new Route(null, "/api/v1/admin/orders/**", AdaptiveConcurrencyLimiter.Priority.LOW));
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final Map<AdaptiveConcurrencyLimiter.Priority, Counter> rejectedCounters =
+            new EnumMap<>(AdaptiveConcurrencyLimiter.Priority.class);
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+        for (AdaptiveConcurrencyLimiter.Priority priority : AdaptiveConcurrencyLimiter.Priority.values()) {
+            rejectedCounters.put(priority, Counter.builder("orders.concurrency.rejected")
+                    .description("Requests rejected by the adaptive concurrency limiter")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks must keep answering while the service sheds load
+        return request.getRequestURI().endsWith("/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        AdaptiveConcurrencyLimiter.Priority priority = classify(request);
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority);
+
+        if (permit == null) {
+            rejectedCounters.get(priority).increment();
+            log.warn("Rejecting {} {} (priority {}): concurrency limit {} reached",
+                    request.getMethod(), request.getRequestURI(), priority, limiter.getLimit());
+            reject(response);
+            return;
+        }
+
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (!completed) {
+                permit.onDropped();
+            } else if (request.isAsyncStarted()) {
+                // Long-running async responses don't reflect service latency
+                permit.onIgnore();
+            } else if (isOverloadStatus(response.getStatus())) {
+                permit.onDropped();
+            } else {
+                permit.onSuccess();
+            }
+        }
+    }
+
+    static AdaptiveConcurrencyLimiter.Priority classify(HttpServletRequest request) {
+        HttpMethod method = HttpMethod.valueOf(request.getMethod());
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : ROUTES) {
+            if (route.matches(method, path)) {
+                return route.priority;
+            }
+        }
+        return AdaptiveConcurrencyLimiter.Priority.NORMAL;
+    }
+
+    private boolean isOverloadStatus(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorResponseDTO errorResponse = new ErrorResponseDTO(
+                "SERVICE_OVERLOADED",
+                "Service is temporarily overloaded, please retry shortly");
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    /**
+     * A route and its priority. A null method matches any method.
+     */
+    private static final class Route {
+        private final HttpMethod method;
+        private final PathPattern pattern;
+        private final AdaptiveConcurrencyLimiter.Priority priority;
+
+        Route(HttpMethod method, String pattern, AdaptiveConcurrencyLimiter.Priority priority) {
+            this.method = method;
+            this.pattern = PathPatternParser.defaultInstance.parse(pattern);
+            this.priority = priority;
+        }
+
+        boolean matches(HttpMethod requestMethod, PathContainer path) {
+            return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.order.presentation.mapper;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads order views into OrderResponseDTO, so they are serialized exactly
+ * like orders read from their tables. Unknown keys fail instead of being
+ * dropped, so a document built in a shape the DTO doesn't know is caught
+ * rather than served.
+ */
+@Component
+public class OrderViewDTOReader {
+
+    private final ObjectReader reader;
+
+    public OrderViewDTOReader(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(OrderResponseDTO.class)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * @throws IllegalStateException if the document doesn't match the DTO
+     */
+    public OrderResponseDTO toResponseDTO(OrderView view) {
+        try {
+            return reader.readValue(view.getDocument());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable view of order " + view.getId(), e);
+        }
+    }
+}
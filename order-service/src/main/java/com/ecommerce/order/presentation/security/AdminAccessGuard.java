@@ -0,0 +1,52 @@
+package com.ecommerce.order.presentation.security;
+
+import com.ecommerce.order.exception.ForbiddenException;
+import com.ecommerce.order.exception.UnauthorizedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Checks the API key sent by internal consumers on admin endpoints.
+ * Keys are configured as a comma-separated list so they can be rotated
+ * without downtime; with no keys configured every admin call is refused.
+ */
+@Component
+public class AdminAccessGuard {
+
+    public static final String HEADER = "X-Admin-Api-Key";
+
+    private final List<byte[]> apiKeys;
+
+    public AdminAccessGuard(@Value("${orders.admin.api-keys:}") String apiKeys) {
+        this.apiKeys = Arrays.stream(apiKeys.split(","))
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .map(key -> key.getBytes(StandardCharsets.UTF_8))
+                .toList();
+    }
+
+    /**
+     * @param apiKey value of the {@value #HEADER} header, may be null
+     * @throws UnauthorizedException if no key was sent
+     * @throws ForbiddenException    if the key is not accepted
+     */
+    public void check(String apiKey) {
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new UnauthorizedException("Missing " + HEADER + " header");
+        }
+        byte[] presented = apiKey.getBytes(StandardCharsets.UTF_8);
+        boolean accepted = false;
+        for (byte[] key : apiKeys) {
+            // Compare against every key in constant time
+            accepted |= MessageDigest.isEqual(key, presented);
+        }
+        if (!accepted) {
+            throw new ForbiddenException("Admin access denied");
+        }
+    }
+}
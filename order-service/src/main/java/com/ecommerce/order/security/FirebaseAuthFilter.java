@@ -9,7 +9,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -25,8 +25,12 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(FirebaseAuthFilter.class);
 
-    @Autowired(required = false)
-    private FirebaseAuth firebaseAuth; // May be null if Firebase not configured
+    // Resolved on first use; the bean may be null if Firebase is not configured
+    private final ObjectProvider<FirebaseAuth> firebaseAuthProvider;
+
+    public FirebaseAuthFilter(ObjectProvider<FirebaseAuth> firebaseAuthProvider) {
+        this.firebaseAuthProvider = firebaseAuthProvider;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -35,7 +39,7 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
 
         // Skip authentication for public endpoints
         String path = request.getRequestURI();
-        if (isPublicEndpoint(path)) {
+        if (isPublicEndpoint(path) || isAdminEndpoint(path)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -47,8 +51,9 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
             String authHeader = request.getHeader("Authorization");
             if (authHeader != null && authHeader.startsWith("Bearer ")) {
                 String idToken = authHeader.substring(7);
+                FirebaseAuth firebaseAuth = firebaseAuthProvider.getIfAvailable();
                 if (firebaseAuth != null) {
-                    userUid = verifyFirebaseToken(idToken);
+                    userUid = verifyFirebaseToken(firebaseAuth, idToken);
                 } else {
                     log.warn("FirebaseAuth bean not available; skipping token verification.");
                 }
@@ -58,11 +63,8 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
             if (userUid == null) {
                 userUid = request.getHeader("X-User-UID");
 
-                if (firebaseAuth != null && userUid != null) {
-                    log.debug("Using X-User-UID header (Firebase SDK available but no Bearer token provided): {}",
-                            userUid);
-                } else if (userUid != null) {
-                    log.debug("Using X-User-UID header (Firebase SDK not configured): {}", userUid);
+                if (userUid != null) {
+                    log.debug("Using X-User-UID header (no verified Bearer token): {}", userUid);
                 }
             }
 
@@ -87,12 +89,7 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
     /**
      * Verify Firebase ID token and return user UID.
      */
-    private String verifyFirebaseToken(String idToken) {
-        if (firebaseAuth == null) {
-            log.warn("Firebase Auth is not configured. Cannot verify token.");
-            return null;
-        }
-
+    private String verifyFirebaseToken(FirebaseAuth firebaseAuth, String idToken) {
         try {
             FirebaseToken decodedToken = firebaseAuth.verifyIdToken(idToken);
             String uid = decodedToken.getUid();
@@ -115,4 +112,13 @@ public class FirebaseAuthFilter extends OncePerRequestFilter {
                 path.startsWith("/favicon.ico") ||
                 path.startsWith("/error");
     }
+
+    /**
+     * Check if the endpoint is for internal consumers. These carry an admin
+     * API key instead of a user, checked by AdminAccessGuard.
+     */
+    private boolean isAdminEndpoint(String path) {
+        return path.startsWith("/api/v1/admin/") ||
+                path.equals("/api/v1/orders/changes");
+    }
 }
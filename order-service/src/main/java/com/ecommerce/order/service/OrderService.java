@@ -3,12 +3,15 @@ package com.ecommerce.order.service;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.repository.OrderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+// Left out of the fast-start profile, see FastStartConfig
+@Profile("!faststart")
 @Service
 @Transactional
 public class OrderService {
@@ -0,0 +1,69 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.application.service.OrderReadCoalescer;
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderDomainRepository;
+import com.ecommerce.order.domain.repository.PaymentDomainRepository;
+import com.ecommerce.order.domain.service.IdGenerator;
+import com.ecommerce.order.domain.service.PaymentGatewayService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CreatePaymentIntentUseCaseTest {
+
+    private final OrderDomainRepository orderRepository = mock(OrderDomainRepository.class);
+    private final PaymentDomainRepository paymentRepository = mock(PaymentDomainRepository.class);
+    private final PaymentGatewayService gateway = mock(PaymentGatewayService.class);
+    // A cache that outlives any write in these tests
+    private final OrderReadCoalescer orderReader = new OrderReadCoalescer(orderRepository, 60_000, 100);
+    private final CreatePaymentIntentUseCase useCase = new CreatePaymentIntentUseCase(orderRepository,
+            paymentRepository, gateway, orderReader, mock(IdGenerator.class));
+
+    @Test
+    void doesNotPayAnOrderCancelledSinceItWasCached() {
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order("10.00")));
+        assertThat(orderReader.findById(7L)).isPresent();
+
+        OrderEntity cancelled = order("10.00");
+        cancelled.cancel();
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(cancelled));
+
+        assertThatThrownBy(() -> useCase.execute(7L, "user-1"))
+                .isInstanceOf(CreatePaymentIntentUseCase.OrderNotPayableException.class);
+        verifyNoInteractions(gateway);
+    }
+
+    @Test
+    void chargesTheTotalInTheDatabase() {
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order("10.00")));
+        assertThat(orderReader.findById(7L)).isPresent();
+
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order("12.50")));
+        when(paymentRepository.findByOrderId(7L)).thenReturn(Optional.empty());
+        when(gateway.createPaymentIntent(eq(7L), any(), any(), any(), any()))
+                .thenReturn(PaymentGatewayService.PaymentIntentResult.success("pi_1", "secret"));
+        when(paymentRepository.create(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        useCase.execute(7L, "user-1");
+
+        verify(gateway).createPaymentIntent(eq(7L), eq(new BigDecimal("12.50")), any(), any(), any());
+    }
+
+    private static OrderEntity order(String total) {
+        OrderEntity order = new OrderEntity("user-1", "1 Main St");
+        order.setId(7L);
+        order.setTotalAmount(new BigDecimal(total));
+        return order;
+    }
+}
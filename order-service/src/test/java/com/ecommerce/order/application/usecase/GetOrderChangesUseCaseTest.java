@@ -0,0 +1,56 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.repository.OrderChangePosition;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GetOrderChangesUseCaseTest {
+
+    @Test
+    void cursorKeepsThePositionOfEveryShard() {
+        OrderChangePosition position = OrderChangePosition.beginning()
+                .with(0, new OrderChangePosition.Mark(4_000_000_123L, 17))
+                .with(3, new OrderChangePosition.Mark(42, 99));
+
+        OrderChangePosition decoded = GetOrderChangesUseCase.decode(GetOrderChangesUseCase.encode(position));
+
+        assertThat(decoded.getMarks()).containsOnlyKeys(0, 3);
+        assertThat(decoded.markOf(0).getTransactionId()).isEqualTo(4_000_000_123L);
+        assertThat(decoded.markOf(0).getOrderId()).isEqualTo(17L);
+        assertThat(decoded.markOf(3).getTransactionId()).isEqualTo(42L);
+        assertThat(decoded.markOf(1).getTransactionId()).isZero();
+    }
+
+    @Test
+    void cursorOfTheBeginningRoundTrips() {
+        String cursor = GetOrderChangesUseCase.encode(OrderChangePosition.beginning());
+
+        assertThat(GetOrderChangesUseCase.decode(cursor).getMarks()).isEmpty();
+    }
+
+    @Test
+    void rejectsTimestampCursors() {
+        String v1 = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v1|2024-05-01T12:00|17".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> GetOrderChangesUseCase.decode(v1))
+                .isInstanceOf(GetOrderChangesUseCase.InvalidChangeFeedRequestException.class)
+                .hasMessageContaining("previous version");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        String garbled = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("v2|0:x:1".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> GetOrderChangesUseCase.decode(garbled))
+                .isInstanceOf(GetOrderChangesUseCase.InvalidChangeFeedRequestException.class);
+        assertThatThrownBy(() -> GetOrderChangesUseCase.decode("%%%"))
+                .isInstanceOf(GetOrderChangesUseCase.InvalidChangeFeedRequestException.class);
+    }
+}
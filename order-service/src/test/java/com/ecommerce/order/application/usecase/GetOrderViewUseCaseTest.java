@@ -0,0 +1,59 @@
+package com.ecommerce.order.application.usecase;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.domain.repository.OrderViewRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class GetOrderViewUseCaseTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private final OrderViewRepository repository = mock(OrderViewRepository.class);
+
+    @Test
+    void returnsTheViewsOfAUser() {
+        when(repository.findByUserUid("user-1")).thenReturn(List.of(view(2, "{}"), view(1, "{}")));
+
+        assertThat(new GetOrderViewUseCase(repository, true).findByUserUid("user-1", "user-1"))
+                .hasValueSatisfying(views -> assertThat(views).extracting(OrderView::getId).containsExactly(2L, 1L));
+    }
+
+    @Test
+    void fallsBackWhenAnOrderHasNoView() {
+        when(repository.findByUserUid("user-1")).thenReturn(List.of(view(2, "{}"), view(1, null)));
+
+        assertThat(new GetOrderViewUseCase(repository, true).findByUserUid("user-1", "user-1")).isEmpty();
+    }
+
+    @Test
+    void readsNothingWhenDisabled() {
+        assertThat(new GetOrderViewUseCase(repository, false).findByUserUid("user-1", "user-1")).isEmpty();
+        assertThat(new GetOrderViewUseCase(repository, false).findById(1L, "user-1")).isEmpty();
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void refusesOtherUsersOrders() {
+        GetOrderViewUseCase useCase = new GetOrderViewUseCase(repository, true);
+        when(repository.findById(1L)).thenReturn(Optional.of(view(1, "{}")));
+
+        assertThatThrownBy(() -> useCase.findById(1L, "user-2"))
+                .isInstanceOf(GetOrderViewUseCase.OrderAccessDeniedException.class);
+        assertThatThrownBy(() -> useCase.findByUserUid("user-1", "user-2"))
+                .isInstanceOf(GetOrderViewUseCase.OrderAccessDeniedException.class);
+    }
+
+    private static OrderView view(long id, String document) {
+        return new OrderView(id, "user-1", CREATED_AT, document);
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.order.domain.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEntityTest {
+
+    @ParameterizedTest
+    @EnumSource(OrderEntity.OrderStatus.class)
+    void noStatusMovesToItself(OrderEntity.OrderStatus status) {
+        assertThat(OrderEntity.allowedSourceStatuses(status)).doesNotContain(status);
+    }
+
+    @Test
+    void cancellingACancelledOrderIsRejected() {
+        OrderEntity order = new OrderEntity();
+        order.setStatus(OrderEntity.OrderStatus.CANCELLED);
+
+        assertThatThrownBy(order::cancel)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Order is already cancelled");
+    }
+}
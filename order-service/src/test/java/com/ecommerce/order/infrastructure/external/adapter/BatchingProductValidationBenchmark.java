@@ -0,0 +1,162 @@
+package com.ecommerce.order.infrastructure.external.adapter;
+
+import com.ecommerce.order.domain.service.ProductValidationDomainService;
+import com.ecommerce.order.domain.service.ProductValidationDomainService.ProductValidationRequest;
+import com.ecommerce.order.domain.service.ProductValidationDomainService.ProductValidationResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency against throughput of product validation with batching off and
+ * at several windows. Closed-loop clients each validate a 3-item cart
+ * again as soon as the previous one returns. The product service is
+ * simulated: it handles SERVICE_CONCURRENCY requests at once, and each
+ * request takes REQUEST_MILLIS plus ITEM_MILLIS per item, so batching saves
+ * the per-request overhead and costs the window.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=BatchingProductValidationBenchmark}.
+ */
+@Tag("benchmark")
+class BatchingProductValidationBenchmark {
+
+    private static final int SERVICE_CONCURRENCY = 8;
+    private static final double REQUEST_MILLIS = 10;
+    private static final double ITEM_MILLIS = 0.05;
+    private static final int CART_ITEMS = 3;
+
+    private static final int[] CLIENTS = {4, 32, 128};
+    private static final long[] WINDOWS_MILLIS = {1, 2, 5, 10, 20};
+    private static final int MAX_ITEMS = 100;
+    private static final long SWEEP_WINDOW_MILLIS = 2;
+    private static final int[] SWEEP_MAX_ITEMS = {25, 50, 100, 200, 400};
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 4_000;
+
+    @Test
+    void compareWindows() throws InterruptedException {
+        System.out.printf("%-14s %8s %12s %9s %9s%n", "window", "clients", "carts/s", "p50 ms", "p99 ms");
+        for (int clients : CLIENTS) {
+            run("off", clients, new SimulatedProductService());
+            for (long window : WINDOWS_MILLIS) {
+                runBatched(window + " ms", clients, window, MAX_ITEMS);
+            }
+        }
+    }
+
+    /** Under the highest load batches fill up before the window ends, so max-items sets their size. */
+    @Test
+    void compareMaxItems() throws InterruptedException {
+        int clients = CLIENTS[CLIENTS.length - 1];
+        System.out.printf("%-14s %8s %12s %9s %9s%n", "max-items", "clients", "carts/s", "p50 ms", "p99 ms");
+        for (int maxItems : SWEEP_MAX_ITEMS) {
+            runBatched(String.valueOf(maxItems), clients, SWEEP_WINDOW_MILLIS, maxItems);
+        }
+    }
+
+    private static void runBatched(String mode, int clients, long windowMillis, int maxItems)
+            throws InterruptedException {
+        BatchingProductValidationService batching = new BatchingProductValidationService(
+                new SimulatedProductService(), new SimpleMeterRegistry(), windowMillis, maxItems, 4, 1_000, 5_000);
+        try {
+            run(mode, clients, batching);
+        } finally {
+            batching.shutdown();
+        }
+    }
+
+    private static void run(String mode, int clients, ProductValidationDomainService service)
+            throws InterruptedException {
+        List<ProductValidationRequest> cart = new ArrayList<>();
+        for (int i = 1; i <= CART_ITEMS; i++) {
+            cart.add(new ProductValidationRequest(i, 1));
+        }
+        long measureFrom = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+        long measureUntil = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            long[] samples = new long[100_000];
+            latencies.add(samples);
+            Thread thread = new Thread(() -> {
+                int count = 0;
+                long now;
+                while ((now = System.nanoTime()) < measureUntil) {
+                    service.validateProductsAndStock(cart);
+                    if (now >= measureFrom && count < samples.length - 1) {
+                        samples[++count] = System.nanoTime() - now;
+                    }
+                }
+                samples[0] = count;
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = latencies.stream().mapToInt(samples -> (int) samples[0]).sum();
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 1, all, position, (int) samples[0]);
+            position += (int) samples[0];
+        }
+        Arrays.sort(all);
+        System.out.printf("%-14s %8d %12.0f %9.1f %9.1f%n", mode, clients,
+                total * 1000.0 / MEASURE_MILLIS, millis(all, 0.50), millis(all, 0.99));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))] / 1_000_000.0;
+    }
+
+    /** Product service with a fixed number of workers and a cost per request and per item. */
+    private static class SimulatedProductService extends ProductValidationServiceAdapter {
+
+        private final Semaphore workers = new Semaphore(SERVICE_CONCURRENCY, true);
+
+        SimulatedProductService() {
+            super(null, null, null, "http://product-service");
+        }
+
+        @Override
+        public ProductValidationResult validateProductsAndStock(List<ProductValidationRequest> requests) {
+            handle(requests.size());
+            return new ProductValidationResult(true, List.of());
+        }
+
+        @Override
+        public Map<String, ProductValidationResult> validateCarts(
+                Map<String, List<ProductValidationRequest>> carts) {
+            handle(carts.values().stream().mapToInt(List::size).sum());
+            Map<String, ProductValidationResult> results = new HashMap<>();
+            carts.keySet().forEach(id -> results.put(id, new ProductValidationResult(true, List.of())));
+            return results;
+        }
+
+        private void handle(int items) {
+            workers.acquireUninterruptibly();
+            try {
+                long nanos = (long) ((REQUEST_MILLIS + ITEM_MILLIS * items) * 1_000_000);
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                workers.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.order.infrastructure.external.adapter;
+
+import com.ecommerce.order.config.StripeConfig;
+import com.ecommerce.order.infrastructure.external.stripe.PooledStripeHttpClient;
+import com.ecommerce.order.infrastructure.external.stripe.StripeRequestScheduler;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the adapter through the pooled Stripe client against a local
+ * stand-in for the Stripe API.
+ */
+class StripePaymentGatewayAdapterTest {
+
+    private static final String INTENT = "{\"id\": \"pi_1\", \"object\": \"payment_intent\", \"status\": \"canceled\"}";
+    private static final String REFUND = "{\"id\": \"re_1\", \"object\": \"refund\", \"status\": \"succeeded\"}";
+
+    private final List<String> keys = new CopyOnWriteArrayList<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private HttpServer server;
+    private PooledStripeHttpClient httpClient;
+    private StripePaymentGatewayAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            keys.add(exchange.getRequestHeaders().getFirst("Idempotency-Key"));
+            exchange.getRequestBody().readAllBytes();
+            boolean fail = failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0;
+            byte[] body = (fail ? "{\"error\": {\"message\": \"unavailable\"}}"
+                    : exchange.getRequestURI().getPath().startsWith("/v1/refunds") ? REFUND : INTENT)
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        StripeConfig config = new StripeConfig();
+        ReflectionTestUtils.setField(config, "stripeApiKey", "sk_test_123");
+        ReflectionTestUtils.setField(config, "connectTimeout", 1000);
+        ReflectionTestUtils.setField(config, "readTimeout", 2000);
+        ReflectionTestUtils.setField(config, "apiBaseUrl", "http://127.0.0.1:" + server.getAddress().getPort());
+        httpClient = new PooledStripeHttpClient(2, 1000, 2000, 30_000);
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        StripeRequestScheduler scheduler = new StripeRequestScheduler(registry,
+                100, 1, 100, 1, 1000, 0, 10, 1000, 10, 1000, 10, 1000);
+        adapter = new StripePaymentGatewayAdapter(config.stripeClient(httpClient), scheduler, registry,
+                10, 1, 0, 0);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void repeatedRequestsShareAKey() {
+        assertThat(adapter.cancelPayment(7L, "pi_1")).isTrue();
+        assertThat(adapter.cancelPayment(7L, "pi_1")).isTrue();
+        assertThat(adapter.confirmPayment(7L, "pi_1")).isTrue();
+        assertThat(adapter.updatePaymentAmount(7L, "pi_1", new BigDecimal("21.00"))).isTrue();
+        assertThat(adapter.updatePaymentAmount(7L, "pi_1", new BigDecimal("21.00"))).isTrue();
+        assertThat(adapter.updatePaymentAmount(7L, "pi_1", new BigDecimal("25.50"))).isTrue();
+        assertThat(adapter.refundPayment(7L, "pi_1", new BigDecimal("5.00")).isSuccess()).isTrue();
+        assertThat(adapter.refundPayment(7L, "pi_1", null).isSuccess()).isTrue();
+
+        assertThat(keys).containsExactly(
+                "order-7-cancel-pi_1",
+                "order-7-cancel-pi_1",
+                "order-7-confirm-pi_1",
+                "order-7-amount-2100-pi_1",
+                "order-7-amount-2100-pi_1",
+                "order-7-amount-2550-pi_1",
+                "order-7-refund-500-pi_1",
+                "order-7-refund-full-pi_1");
+    }
+
+    @Test
+    void retriesReuseTheKey() {
+        failuresLeft.set(1);
+
+        assertThat(adapter.cancelPayment(7L, "pi_1")).isTrue();
+
+        assertThat(keys).containsExactly("order-7-cancel-pi_1", "order-7-cancel-pi_1");
+    }
+}
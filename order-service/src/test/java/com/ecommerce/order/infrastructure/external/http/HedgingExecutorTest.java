@@ -0,0 +1,61 @@
+package com.ecommerce.order.infrastructure.external.http;
+
+import com.ecommerce.order.infrastructure.concurrency.VirtualThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HedgingExecutorTest {
+
+    private HedgingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /** Below Java 21 both cases run on platform threads. */
+    @ParameterizedTest(name = "virtual threads {0}")
+    @ValueSource(booleans = {false, true})
+    void runsCallsBeyondMaxThreadsOnTheCaller(boolean virtual) throws Exception {
+        executor = executor(virtual, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Thread> blocked = CompletableFuture.supplyAsync(() -> executor.execute("product", () -> {
+            started.countDown();
+            await(release);
+            return Thread.currentThread();
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread caller = Thread.currentThread();
+        assertThat(executor.execute("product", Thread::currentThread)).isSameAs(caller);
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isNotSameAs(caller);
+    }
+
+    private static HedgingExecutor executor(boolean virtual, int maxThreads) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", String.valueOf(virtual));
+        // Too few samples to hedge: every call runs once, on the executor if a thread is free
+        return new HedgingExecutor(new SimpleMeterRegistry(), new VirtualThreads(environment),
+                true, 0.95, 5, Integer.MAX_VALUE, 1000, 5, 10, maxThreads);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecommerce.order.infrastructure.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput and latency of {@link SnowflakeIdGenerator#nextId()} with
+ * THREADS threads calling it in a tight loop on one generator. With a drift
+ * allowance of a day the sequence never runs out during a run, so the
+ * numbers show the cost of the compare-and-set loop under contention. With
+ * the configured 1000 ms the generator is held to 1024 IDs per 10 ms tick
+ * once the burst is used up in the warmup, and callers park for the next
+ * tick. Each thread keeps its first IDs and call times, up to
+ * MAX_SAMPLES_PER_THREAD in total; every run checks that none of the kept
+ * IDs was issued twice.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=IdGeneratorBenchmark}.
+ */
+@Tag("benchmark")
+class IdGeneratorBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final long UNCAPPED_DRIFT_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final long CONFIGURED_DRIFT_MILLIS = 1_000;
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 2_000;
+    private static final int MAX_SAMPLES_PER_THREAD = 4_000_000;
+
+    @Test
+    void compareThreadCounts() throws InterruptedException {
+        System.out.printf("%-10s %8s %12s %9s %9s %9s %11s%n",
+                "drift", "threads", "IDs/s", "p50 ns", "p99 ns", "max us", "duplicates");
+        for (int threads : THREADS) {
+            run("1 day", threads, UNCAPPED_DRIFT_MILLIS);
+        }
+        for (int threads : THREADS) {
+            run("1000 ms", threads, CONFIGURED_DRIFT_MILLIS);
+        }
+    }
+
+    private static void run(String mode, int threads, long maxDriftMillis) throws InterruptedException {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(0, 0, maxDriftMillis);
+        int samplesPerThread = MAX_SAMPLES_PER_THREAD / threads;
+        long[][] ids = new long[threads][samplesPerThread];
+        long[][] latencies = new long[threads][samplesPerThread];
+        int[] counts = new int[threads];
+        long[] calls = new long[threads];
+        CountDownLatch start = new CountDownLatch(1);
+        long[] window = new long[2];
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long[] issued = ids[index];
+                long[] took = latencies[index];
+                int count = 0;
+                long measured = 0;
+                long now;
+                while ((now = System.nanoTime()) < window[1]) {
+                    long id = generator.nextId();
+                    if (now >= window[0]) {
+                        measured++;
+                        if (count < issued.length) {
+                            took[count] = System.nanoTime() - now;
+                            issued[count++] = id;
+                        }
+                    }
+                }
+                counts[index] = count;
+                calls[index] = measured;
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        window[0] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+        window[1] = window[0] + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        int total = Arrays.stream(counts).sum();
+        long[] allIds = new long[total];
+        long[] allLatencies = new long[total];
+        int position = 0;
+        for (int t = 0; t < threads; t++) {
+            for (int i = 1; i < counts[t]; i++) {
+                assertThat(ids[t][i]).as("IDs of one thread increase").isGreaterThan(ids[t][i - 1]);
+            }
+            System.arraycopy(ids[t], 0, allIds, position, counts[t]);
+            System.arraycopy(latencies[t], 0, allLatencies, position, counts[t]);
+            position += counts[t];
+        }
+        Arrays.sort(allIds);
+        int duplicates = 0;
+        for (int i = 1; i < allIds.length; i++) {
+            if (allIds[i] == allIds[i - 1]) {
+                duplicates++;
+            }
+        }
+        Arrays.sort(allLatencies);
+        System.out.printf("%-10s %8d %12.0f %9d %9d %9.1f %11d%n", mode, threads,
+                Arrays.stream(calls).sum() * 1000.0 / MEASURE_MILLIS,
+                percentile(allLatencies, 0.50), percentile(allLatencies, 0.99),
+                allLatencies.length == 0 ? Double.NaN : allLatencies[allLatencies.length - 1] / 1_000.0,
+                duplicates);
+        assertThat(duplicates).isZero();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))];
+    }
+}
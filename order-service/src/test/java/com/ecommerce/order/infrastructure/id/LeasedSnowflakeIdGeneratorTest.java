@@ -0,0 +1,125 @@
+package com.ecommerce.order.infrastructure.id;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LeasedSnowflakeIdGeneratorTest {
+
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private InMemoryLeases leases;
+
+    @BeforeEach
+    void setUp() {
+        leases = new InMemoryLeases();
+    }
+
+    @Test
+    void runningInstancesLeaseDifferentNodes() {
+        LeasedSnowflakeIdGenerator first = generator(-1);
+        LeasedSnowflakeIdGenerator second = generator(-1);
+
+        assertThat(first.getNodeId()).isEqualTo(8);
+        assertThat(second.getNodeId()).isEqualTo(9);
+        assertThat(SnowflakeIdGenerator.nodeId(first.nextId())).isEqualTo(8);
+        assertThat(SnowflakeIdGenerator.nodeId(second.nextId())).isEqualTo(9);
+    }
+
+    @Test
+    void configuredNodeHeldByAnotherInstanceIsRefused() {
+        generator(1);
+
+        assertThatThrownBy(() -> generator(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("leased by another instance");
+    }
+
+    @Test
+    void failsWhenEveryNodeIsLeased() {
+        for (int i = 0; i < 4; i++) {
+            generator(-1);
+        }
+
+        assertThatThrownBy(() -> generator(-1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("are leased");
+    }
+
+    @Test
+    void releasedNodeIsReusedAfterTheLastIssuedId() {
+        LeasedSnowflakeIdGenerator first = generator(0);
+        long lastId = 0;
+        for (int i = 0; i < 5_000; i++) {
+            lastId = first.nextId();
+        }
+        first.release();
+
+        LeasedSnowflakeIdGenerator second = generator(0);
+
+        assertThat(second.getNodeId()).isEqualTo(first.getNodeId());
+        assertThat(second.nextId()).isGreaterThan(lastId);
+        assertThatThrownBy(first::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stopsIssuingOnceTheLeaseIsTakenOver() {
+        LeasedSnowflakeIdGenerator generator = generator(2);
+        leases.takeOver(generator.getNodeId());
+
+        generator.renew();
+
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("lease is not held");
+    }
+
+    private LeasedSnowflakeIdGenerator generator(int configuredIndex) {
+        return new LeasedSnowflakeIdGenerator(leases, 8, 4, configuredIndex, TIMEOUT_SECONDS, 1000);
+    }
+
+    /** id_node_leases in memory; leases never expire on their own. */
+    private static class InMemoryLeases extends NodeIdLeases {
+        private final Map<Integer, String> holders = new HashMap<>();
+        private final Map<Integer, Long> issuedUntil = new HashMap<>();
+
+        InMemoryLeases() {
+            super(null);
+        }
+
+        @Override
+        public synchronized Long claim(int nodeId, String instance, long timeoutSeconds) {
+            if (holders.containsKey(nodeId)) {
+                return null;
+            }
+            holders.put(nodeId, instance);
+            return issuedUntil.getOrDefault(nodeId, 0L);
+        }
+
+        @Override
+        public synchronized boolean renew(int nodeId, String instance, long issuedUntilMillis) {
+            if (!instance.equals(holders.get(nodeId))) {
+                return false;
+            }
+            issuedUntil.merge(nodeId, issuedUntilMillis, Math::max);
+            return true;
+        }
+
+        @Override
+        public synchronized void release(int nodeId, String instance, long issuedUntilMillis) {
+            if (instance.equals(holders.get(nodeId))) {
+                holders.remove(nodeId);
+                issuedUntil.merge(nodeId, issuedUntilMillis, Math::max);
+            }
+        }
+
+        synchronized void takeOver(int nodeId) {
+            holders.put(nodeId, "other-instance");
+        }
+    }
+}
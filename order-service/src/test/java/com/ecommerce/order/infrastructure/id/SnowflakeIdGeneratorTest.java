@@ -0,0 +1,100 @@
+package com.ecommerce.order.infrastructure.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 16;
+    private static final int IDS_PER_THREAD = 5_000;
+
+    @Test
+    void concurrentIdsAreUniqueAndIncreasePerThread() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(5, 0, 1000);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> all = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    all.add(ids[i]);
+                }
+            }
+            assertThat(all).hasSize(THREADS * IDS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void idsCarryNodeAndTime() {
+        long before = System.currentTimeMillis();
+        long id = new SnowflakeIdGenerator(42, 0, 1000).nextId();
+
+        assertThat(SnowflakeIdGenerator.nodeId(id)).isEqualTo(42);
+        assertThat(SnowflakeIdGenerator.timestampMillis(id))
+                .isBetween(before - 10, System.currentTimeMillis() + 1000);
+        assertThat(id).isLessThan(1L << 53);
+    }
+
+    @Test
+    void idsOfDifferentNodesNeverCollide() {
+        SnowflakeIdGenerator first = new SnowflakeIdGenerator(1, 0, 1000);
+        SnowflakeIdGenerator second = new SnowflakeIdGenerator(2, 0, 1000);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+        assertThat(ids).hasSize(20_000);
+    }
+
+    @Test
+    void startsAfterThePreviousHolder() {
+        long previousUntil = System.currentTimeMillis() + 500;
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, previousUntil, 1000);
+
+        assertThat(SnowflakeIdGenerator.timestampMillis(generator.nextId())).isGreaterThan(previousUntil);
+    }
+
+    @Test
+    void refusesToRunFurtherAheadOfTheClockThanAllowed() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, System.currentTimeMillis() + 60_000, 1000);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(SnowflakeIdGenerator.ClockMovedBackwardsException.class);
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(64, 0, 1000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(-1, 0, 1000)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
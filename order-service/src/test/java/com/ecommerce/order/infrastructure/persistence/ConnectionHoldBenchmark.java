@@ -0,0 +1,231 @@
+package com.ecommerce.order.infrastructure.persistence;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari pool metrics for an order search request with the transaction at
+ * three places: around the whole request (open-session-in-view), around
+ * each repository call, and around the read use case. A search runs the
+ * page query, maps the rows and runs the count estimate, then the
+ * controller serializes the page. The database is a stand-in whose queries
+ * take a fixed time, so the numbers show only how long and how often
+ * requests hold a pooled connection.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=ConnectionHoldBenchmark}.
+ */
+@Tag("benchmark")
+class ConnectionHoldBenchmark {
+
+    private static final int POOL_SIZE = 10;
+    private static final int[] CLIENTS = {20, 40};
+    private static final double PAGE_QUERY_MILLIS = 2;
+    private static final double ESTIMATE_QUERY_MILLIS = 1;
+    private static final double MAPPING_MILLIS = 0.5;
+    private static final double SERIALIZATION_MILLIS = 3;
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 4_000;
+
+    @Test
+    void compareTransactionBoundaries() throws InterruptedException {
+        System.out.printf("%-18s %8s %9s %8s %8s %9s %9s %9s %9s %9s%n", "transaction", "clients", "req/s",
+                "p99 ms", "acq/req", "active", "pending", "max pend", "hold ms", "wait ms");
+        for (int clients : CLIENTS) {
+            compare(clients);
+        }
+    }
+
+    private static void compare(int clients) throws InterruptedException {
+        run("whole request", clients, (tx, ds) -> tx.executeWithoutResult(status -> {
+            query(ds, PAGE_QUERY_MILLIS);
+            work(MAPPING_MILLIS);
+            query(ds, ESTIMATE_QUERY_MILLIS);
+            work(SERIALIZATION_MILLIS);
+        }));
+        run("per repository", clients, (tx, ds) -> {
+            tx.executeWithoutResult(status -> {
+                query(ds, PAGE_QUERY_MILLIS);
+                work(MAPPING_MILLIS);
+            });
+            tx.executeWithoutResult(status -> query(ds, ESTIMATE_QUERY_MILLIS));
+            work(SERIALIZATION_MILLIS);
+        });
+        run("per use case", clients, (tx, ds) -> {
+            tx.executeWithoutResult(status -> {
+                query(ds, PAGE_QUERY_MILLIS);
+                work(MAPPING_MILLIS);
+                query(ds, ESTIMATE_QUERY_MILLIS);
+            });
+            work(SERIALIZATION_MILLIS);
+        });
+    }
+
+    private static void run(String mode, int clients, Request request) throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(mode);
+        config.setDataSource(database());
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setMinimumIdle(POOL_SIZE);
+        config.setConnectionTimeout(30_000);
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+
+        try (HikariDataSource pool = new HikariDataSource(config)) {
+            // As in ShardingConfig: the connection is taken at the first statement
+            DataSource dataSource = new LazyConnectionDataSourceProxy(pool);
+            TransactionTemplate tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+            tx.setReadOnly(true);
+            HikariPoolMXBean poolBean = pool.getHikariPoolMXBean();
+
+            long measureFrom = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+            long measureUntil = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+            List<long[]> latencies = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[100_000];
+                latencies.add(samples);
+                Thread thread = new Thread(() -> {
+                    int count = 0;
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        request.handle(tx, dataSource);
+                        if (now >= measureFrom && count < samples.length - 1) {
+                            samples[++count] = System.nanoTime() - now;
+                        }
+                    }
+                    samples[0] = count;
+                });
+                thread.start();
+                threads.add(thread);
+            }
+
+            // Gauges sampled every millisecond, as hikaricp.connections.active/pending would be
+            while (System.nanoTime() < measureFrom) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            Timer usage = registry.get("hikaricp.connections.usage").timer();
+            Timer acquire = registry.get("hikaricp.connections.acquire").timer();
+            long usageCount = usage.count();
+            double usageMillis = usage.totalTime(TimeUnit.MILLISECONDS);
+            long acquireCount = acquire.count();
+            double acquireMillis = acquire.totalTime(TimeUnit.MILLISECONDS);
+            long activeSum = 0;
+            long pendingSum = 0;
+            int pendingMax = 0;
+            int gaugeSamples = 0;
+            while (System.nanoTime() < measureUntil) {
+                activeSum += poolBean.getActiveConnections();
+                int pending = poolBean.getThreadsAwaitingConnection();
+                pendingSum += pending;
+                pendingMax = Math.max(pendingMax, pending);
+                gaugeSamples++;
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            usageCount = usage.count() - usageCount;
+            usageMillis = usage.totalTime(TimeUnit.MILLISECONDS) - usageMillis;
+            acquireCount = acquire.count() - acquireCount;
+            acquireMillis = acquire.totalTime(TimeUnit.MILLISECONDS) - acquireMillis;
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            int total = latencies.stream().mapToInt(samples -> (int) samples[0]).sum();
+            long[] all = new long[total];
+            int position = 0;
+            for (long[] samples : latencies) {
+                System.arraycopy(samples, 1, all, position, (int) samples[0]);
+                position += (int) samples[0];
+            }
+            Arrays.sort(all);
+            System.out.printf("%-18s %8d %9.0f %8.1f %8.2f %9.1f %9.1f %9d %9.2f %9.2f%n", mode, clients,
+                    total * 1000.0 / MEASURE_MILLIS, millis(all, 0.99),
+                    (double) acquireCount / total,
+                    (double) activeSum / gaugeSamples, (double) pendingSum / gaugeSamples, pendingMax,
+                    usageMillis / usageCount, acquireMillis / acquireCount);
+        }
+    }
+
+    private static void query(DataSource dataSource, double millis) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement statement = connection.prepareStatement("select")) {
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        work(millis);
+    }
+
+    private static void work(double millis) {
+        try {
+            TimeUnit.NANOSECONDS.sleep((long) (millis * 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))] / 1_000_000.0;
+    }
+
+    /** JDBC data source whose connections accept everything and whose statements do nothing. */
+    private static DataSource database() {
+        return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(),
+                new Class<?>[] {DataSource.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getConnection" -> connection();
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Connection connection() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "isValid", "getAutoCommit" -> true;
+                    case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+                    case "prepareStatement" -> Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[] {PreparedStatement.class},
+                            (statement, call, callArgs) -> defaultValue(call.getReturnType()));
+                    default -> defaultValue(method.getReturnType());
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void handle(TransactionTemplate tx, DataSource dataSource);
+    }
+}
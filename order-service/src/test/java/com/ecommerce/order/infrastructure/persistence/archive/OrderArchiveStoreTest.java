@@ -0,0 +1,104 @@
+package com.ecommerce.order.infrastructure.persistence.archive;
+
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderArchiveStoreTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2024, 1);
+    private static final int ORDERS = OrderArchiveStore.BLOCK_ORDERS * 2 + 500;
+
+    @TempDir
+    Path directory;
+
+    private OrderArchiveStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new OrderArchiveStore(new ObjectMapper(), directory.toString());
+    }
+
+    @Test
+    void findsOrdersInEveryBlock() {
+        String fileName = archive(ORDERS);
+
+        for (long id : new long[] {2, 2L * OrderArchiveStore.BLOCK_ORDERS, 2L * OrderArchiveStore.BLOCK_ORDERS + 2,
+                2L * ORDERS}) {
+            Optional<OrderJpaEntity> order = store.find(fileName, id);
+            assertThat(order).as("order %d", id).isPresent();
+            assertThat(order.get().getId()).isEqualTo(id);
+            assertThat(order.get().getUserUid()).isEqualTo("user-" + id);
+        }
+    }
+
+    @Test
+    void returnsEmptyForIdsNotInTheFile() {
+        String fileName = archive(ORDERS);
+
+        assertThat(store.find(fileName, 1)).isEmpty();
+        assertThat(store.find(fileName, 3)).isEmpty();
+        assertThat(store.find(fileName, 2L * ORDERS + 2)).isEmpty();
+    }
+
+    @Test
+    void returnsEmptyWhenTheFileIsMissing() {
+        assertThat(store.find("orders-1999-01.jsonl.gz", 2)).isEmpty();
+    }
+
+    @Test
+    void readsFilesWrittenWithoutAnIndex() throws IOException {
+        String fileName = archive(ORDERS);
+        Files.delete(directory.resolve(fileName + ".idx"));
+
+        assertThat(store.find(fileName, 2L * ORDERS)).isPresent();
+        assertThat(store.find(fileName, 3)).isEmpty();
+    }
+
+    @Test
+    void writesOnePlainGzipStream() throws IOException {
+        String fileName = archive(ORDERS);
+
+        long lines;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(directory.resolve(fileName))), StandardCharsets.UTF_8))) {
+            lines = reader.lines().count();
+        }
+        assertThat(lines).isEqualTo(ORDERS);
+    }
+
+    @Test
+    void writesAnEmptyMonth() {
+        String fileName = archive(0);
+
+        assertThat(store.find(fileName, 2)).isEmpty();
+    }
+
+    /** Archives orders with even IDs 2, 4, ... */
+    private String archive(int count) {
+        try (OrderArchiveStore.Writer writer = store.open(MONTH, 0)) {
+            for (long i = 1; i <= count; i++) {
+                long id = 2 * i;
+                writer.append(id, "{\"order\":{\"id\":" + id + ",\"user_uid\":\"user-" + id + "\"},"
+                        + "\"items\":[],\"payment\":null}");
+            }
+            return writer.commit();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.ecommerce.order.infrastructure.persistence.entity;
+
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The build enhances the entities (hibernate-enhance-maven-plugin) before
+ * the tests run; without it every flush falls back to snapshot comparison.
+ */
+class EntityEnhancementTest {
+
+    @ParameterizedTest
+    @ValueSource(classes = {OrderJpaEntity.class, OrderItemJpaEntity.class, PaymentJpaEntity.class})
+    void entityTracksItsOwnChanges(Class<?> entity) {
+        assertThat(SelfDirtinessTracker.class).isAssignableFrom(entity);
+        assertThat(PersistentAttributeInterceptable.class).isAssignableFrom(entity);
+    }
+}
@@ -0,0 +1,287 @@
+package com.ecommerce.order.infrastructure.persistence.jpa;
+
+import com.ecommerce.order.infrastructure.persistence.entity.OrderItemJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * How many loaded entities a flush has to dirty-check, without a database:
+ * Hibernate runs against a JDBC stand-in that answers every select with
+ * ORDERS orders of ITEMS items each. With the enhanced entities a flush
+ * asks each entity which attributes were written to instead of comparing
+ * all of them with its snapshot.
+ * <p>
+ * Hibernate 6.4 does not record the size of a fetched collection in its
+ * owner's tracker, so every order with items reports {@code items} as
+ * written. The collection is the inverse side and maps no column, so the
+ * flush compares nothing for it and writes nothing.
+ */
+class DirtyCheckTest {
+
+    private static final int ORDERS = 200;
+    private static final int ITEMS = 3;
+    private static final String LOAD =
+            "select o from OrderJpaEntity o left join fetch o.items left join fetch o.payment";
+
+    private static SessionFactory sessionFactory;
+
+    @BeforeAll
+    static void startHibernate() {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(OrderJpaEntity.class)
+                .addAnnotatedClass(OrderItemJpaEntity.class)
+                .addAnnotatedClass(PaymentJpaEntity.class);
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER, new StandInDatabase());
+        configuration.setProperty(AvailableSettings.DIALECT, "org.hibernate.dialect.PostgreSQLDialect");
+        configuration.setProperty("hibernate.temp.use_jdbc_metadata_defaults", "false");
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "none");
+        configuration.setProperty(AvailableSettings.GENERATE_STATISTICS, "true");
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterAll
+    static void stopHibernate() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void flushAfterLoadComparesNoColumns() {
+        inTransaction(false, session -> {
+            List<OrderJpaEntity> orders = session.createQuery(LOAD, OrderJpaEntity.class).getResultList();
+            assertThat(orders).hasSize(ORDERS);
+            assertThat(entries(session)).hasSize(ORDERS * (1 + ITEMS));
+
+            assertThat(writtenAttributes(session, OrderItemJpaEntity.class)).isEmpty();
+            assertThat(writtenAttributes(session, OrderJpaEntity.class)).hasSize(ORDERS)
+                    .allSatisfy(attributes -> assertThat(attributes).containsExactly("items"));
+
+            session.flush();
+        });
+        assertThat(sessionFactory.getStatistics().getEntityUpdateCount()).isZero();
+    }
+
+    @Test
+    void onlyChangedAttributesAreCompared() {
+        inTransaction(false, session -> {
+            List<OrderJpaEntity> orders = session.createQuery(LOAD, OrderJpaEntity.class).getResultList();
+            orders.get(0).setStatus(OrderJpaEntity.OrderStatus.CANCELLED);
+            orders.get(1).getItems().get(0).setQuantity(2);
+
+            assertThat(writtenAttributes(session, OrderItemJpaEntity.class))
+                    .containsExactly(List.of("quantity"));
+            assertThat(writtenAttributes(session, OrderJpaEntity.class))
+                    .filteredOn(attributes -> attributes.contains("status")).hasSize(1);
+
+            session.flush();
+        });
+        assertThat(sessionFactory.getStatistics().getEntityUpdateCount()).isEqualTo(2);
+    }
+
+    @Test
+    void readOnlyLoadKeepsNoSnapshots() {
+        inTransaction(true, session -> {
+            session.createQuery(LOAD, OrderJpaEntity.class).getResultList();
+
+            assertThat(needingDirtyCheck(session)).isEmpty();
+            assertThat(entries(session)).hasSize(ORDERS * (1 + ITEMS))
+                    .allSatisfy(entry -> assertThat(entry.getValue().getLoadedState()).isNull());
+        });
+    }
+
+    private static void inTransaction(boolean readOnly, Consumer<Session> work) {
+        sessionFactory.getStatistics().clear();
+        try (Session session = sessionFactory.openSession()) {
+            session.setDefaultReadOnly(readOnly);
+            session.beginTransaction();
+            work.accept(session);
+            session.getTransaction().commit();
+        }
+    }
+
+    private static List<Map.Entry<Object, EntityEntry>> entries(Session session) {
+        return Arrays.asList(session.unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().reentrantSafeEntityEntries());
+    }
+
+    /** Entities a flush looks at: for the enhanced ones, only their written attributes. */
+    private static List<Object> needingDirtyCheck(Session session) {
+        return entries(session).stream()
+                .filter(entry -> entry.getValue().requiresDirtyCheck(entry.getKey()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private static List<List<String>> writtenAttributes(Session session, Class<?> entityClass) {
+        return needingDirtyCheck(session).stream()
+                .filter(entityClass::isInstance)
+                .map(entity -> List.of(((SelfDirtinessTracker) entity).$$_hibernate_getDirtyAttributes()))
+                .toList();
+    }
+
+    /**
+     * Connections whose selects return ORDERS orders with ITEMS items each
+     * and no payment, one row per item, and whose updates report one row.
+     */
+    private static class StandInDatabase implements ConnectionProvider {
+
+        private static final Pattern SELECT = Pattern.compile("select (.+?) from ");
+        private static final Pattern TABLE = Pattern.compile("\\b(orders|order_items|payments) (\\w+)");
+        private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+        @Override
+        public Connection getConnection() {
+            return proxy(Connection.class, (method, args) -> switch (method.getName()) {
+                case "getAutoCommit" -> true;
+                case "prepareStatement" -> statement((String) args[0]);
+                default -> null;
+            });
+        }
+
+        @Override
+        public void closeConnection(Connection connection) {
+        }
+
+        @Override
+        public boolean supportsAggressiveRelease() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnwrappableAs(Class<?> unwrapType) {
+            return false;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> unwrapType) {
+            throw new UnsupportedOperationException();
+        }
+
+        private static PreparedStatement statement(String sql) {
+            return proxy(PreparedStatement.class, (method, args) -> switch (method.getName()) {
+                case "executeQuery" -> resultSet(sql);
+                case "executeUpdate" -> 1;
+                default -> null;
+            });
+        }
+
+        private static ResultSet resultSet(String sql) {
+            Map<String, String> tables = new HashMap<>();
+            Matcher table = TABLE.matcher(sql);
+            while (table.find()) {
+                tables.put(table.group(2), table.group(1));
+            }
+            Matcher select = SELECT.matcher(sql);
+            if (!select.find()) {
+                throw new IllegalArgumentException(sql);
+            }
+            String[] columns = select.group(1).split(",");
+            int[] row = {-1};
+            Object[] last = {null};
+            return proxy(ResultSet.class, (method, args) -> {
+                String name = method.getName();
+                if (name.equals("next")) {
+                    return ++row[0] < ORDERS * ITEMS;
+                }
+                if (name.equals("wasNull")) {
+                    return last[0] == null;
+                }
+                if (!name.startsWith("get") || args == null || !(args[0] instanceof Integer)) {
+                    return null;
+                }
+                String[] column = columns[(Integer) args[0] - 1].trim().split("\\.");
+                last[0] = value(tables.get(column[0]), column[1], row[0] / ITEMS, row[0] % ITEMS);
+                return convert(last[0], method.getReturnType(), args.length > 1 ? args[1] : null);
+            });
+        }
+
+        private static Object value(String table, String column, int order, int item) {
+            if (table.equals("payments")) {
+                return null;
+            }
+            return switch (column) {
+                case "id" -> table.equals("orders") ? order + 1L : (long) order * ITEMS + item + 1;
+                case "order_id" -> order + 1L;
+                case "status" -> "PENDING";
+                case "created_at", "updated_at", "order_created_at" -> CREATED_AT;
+                case "quantity" -> 1;
+                case "total_amount", "price", "subtotal" -> new BigDecimal("10.00");
+                case "shipping_method", "tracking_number" -> null;
+                default -> column + "-" + order;
+            };
+        }
+
+        private static Object convert(Object value, Class<?> type, Object requested) {
+            if (requested instanceof Class<?> target) {
+                type = target;
+            }
+            if (value == null) {
+                return null;
+            }
+            if (type == long.class || type == Long.class) {
+                return ((Number) value).longValue();
+            }
+            if (type == int.class || type == Integer.class) {
+                return ((Number) value).intValue();
+            }
+            if (type == String.class) {
+                return value.toString();
+            }
+            if (type == Timestamp.class) {
+                return Timestamp.valueOf((LocalDateTime) value);
+            }
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Answer answer) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                    (proxy, method, args) -> {
+                        Object result = answer.apply(method, args);
+                        if (result == null && method.getReturnType() == boolean.class) {
+                            return false;
+                        }
+                        if (result == null && method.getReturnType() == int.class) {
+                            return 0;
+                        }
+                        if (result == null && method.getReturnType() == long.class) {
+                            return 0L;
+                        }
+                        return result;
+                    });
+        }
+
+        @FunctionalInterface
+        private interface Answer {
+            Object apply(Method method, Object[] args) throws Exception;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.order.infrastructure.persistence.jpa;
+
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * What loading orders leaves in the persistence context, against a database
+ * with order-service-init.sql applied and some orders in it. A flush after
+ * a plain read must write nothing, and read-only transactions must not
+ * flush or keep snapshots at all. Runs when ORDERS_IT_DB_URL is set (with
+ * ORDERS_IT_DB_USERNAME and ORDERS_IT_DB_PASSWORD).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledIfEnvironmentVariable(named = "ORDERS_IT_DB_URL", matches = ".+")
+class PersistenceContextTest {
+
+    private static final int ORDERS = 200;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("ORDERS_IT_DB_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("ORDERS_IT_DB_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("ORDERS_IT_DB_PASSWORD"));
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderJpaRepository orderJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void findOrders() {
+        ids = jdbcTemplate.queryForList(
+                "SELECT id FROM orders ORDER BY created_at DESC, id DESC LIMIT ?", Long.class, ORDERS);
+        assumeFalse(ids.isEmpty(), "no orders to load");
+    }
+
+    @Test
+    void flushAfterReadWritesNothing() {
+        Statistics statistics = statistics();
+        inTransaction(false, session -> {
+            List<OrderJpaEntity> orders = orderJpaRepository.findWithItemsByIdIn(ids);
+            assertThat(orders).isNotEmpty();
+            statistics.clear();
+
+            entityManager.flush();
+
+            assertThat(session.isDirty()).isFalse();
+            assertThat(statistics.getEntityUpdateCount()).isZero();
+            assertThat(statistics.getEntityInsertCount()).isZero();
+        });
+    }
+
+    @Test
+    void readOnlyTransactionLoadsReadOnlyEntitiesWithoutFlushing() {
+        Statistics statistics = statistics();
+        inTransaction(true, session -> {
+            List<OrderJpaEntity> orders = orderJpaRepository.findWithItemsByIdIn(ids);
+            assertThat(orders).isNotEmpty();
+
+            assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+            assertThat(orders).allSatisfy(order -> assertThat(session.isReadOnly(order)).isTrue());
+            statistics.clear();
+        });
+        // Committed, yet not flushed
+        assertThat(statistics.getFlushCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private void inTransaction(boolean readOnly, Consumer<Session> work) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(tx -> {
+            if (!readOnly) {
+                tx.setRollbackOnly();
+            }
+            work.accept(entityManager.unwrap(Session.class));
+        });
+    }
+}
@@ -0,0 +1,348 @@
+package com.ecommerce.order.infrastructure.persistence.mapper;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.OrderItemEntity;
+import com.ecommerce.order.domain.entity.PaymentEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderItemJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.PaymentJpaEntity;
+import com.ecommerce.order.presentation.dto.OrderItemResponseDTO;
+import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.ecommerce.order.presentation.dto.PaymentResponseDTO;
+import com.ecommerce.order.presentation.mapper.OrderDTOMapper;
+import com.ecommerce.order.presentation.mapper.OrderDTOMapperImpl;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Time and allocation per order of the generated MapStruct mappers against
+ * the hand-written mappers they replaced, which are kept below as they
+ * were. Each direction maps an order with ITEMS items and a payment, in
+ * ROUNDS rounds of CALLS calls. The six runs are repeated PASSES times in
+ * turn, so that JIT and GC state don't favour whichever runs first. The
+ * table shows the median and the fastest round, and the bytes allocated
+ * per call.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dtest=MappingBenchmark}.
+ */
+@Tag("benchmark")
+class MappingBenchmark {
+
+    private static final int ITEMS = 3;
+    private static final int WARMUP_CALLS = 2_000_000;
+    private static final int PASSES = 3;
+    private static final int ROUNDS = 10;
+    private static final int CALLS = 500_000;
+
+    private static volatile Object sink;
+
+    private final OrderMapper generated = new OrderMapperImpl(new OrderItemMapperImpl(), new PaymentMapperImpl());
+    private final OrderDTOMapper generatedDto = new OrderDTOMapperImpl();
+    private final HandWrittenOrderMapper handWritten =
+            new HandWrittenOrderMapper(new HandWrittenOrderItemMapper(), new HandWrittenPaymentMapper());
+    private final HandWrittenOrderDTOMapper handWrittenDto = new HandWrittenOrderDTOMapper();
+
+    @Test
+    void compareMappers() {
+        OrderEntity order = sampleOrder();
+        OrderJpaEntity jpaOrder = generated.toJpaEntity(order);
+
+        Map<String, List<double[]>> results = new LinkedHashMap<>();
+        for (int pass = 0; pass < PASSES; pass++) {
+            run(results, "domain -> JPA   hand-written", order, handWritten::toJpaEntity);
+            run(results, "domain -> JPA   MapStruct", order, generated::toJpaEntity);
+            run(results, "JPA -> domain   hand-written", jpaOrder, handWritten::toDomainEntity);
+            run(results, "JPA -> domain   MapStruct", jpaOrder, generated::toDomainEntity);
+            run(results, "domain -> DTO   hand-written", order, handWrittenDto::toResponseDTO);
+            run(results, "domain -> DTO   MapStruct", order, generatedDto::toResponseDTO);
+        }
+
+        System.out.printf("%-28s %10s %10s %12s%n", "direction       mapper", "median ns", "min ns", "bytes/order");
+        results.forEach((name, rounds) -> {
+            double[] nanos = rounds.stream().mapToDouble(round -> round[0]).sorted().toArray();
+            double[] bytes = rounds.stream().mapToDouble(round -> round[1]).sorted().toArray();
+            System.out.printf("%-28s %10.1f %10.1f %12.0f%n", name,
+                    nanos[nanos.length / 2], nanos[0], bytes[bytes.length / 2]);
+        });
+    }
+
+    private static <S> void run(Map<String, List<double[]>> results, String name, S source,
+                                Function<S, ?> mapping) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink = mapping.apply(source);
+        }
+        List<double[]> rounds = results.computeIfAbsent(name, key -> new ArrayList<>());
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                sink = mapping.apply(source);
+            }
+            rounds.add(new double[] {
+                    (double) (System.nanoTime() - start) / CALLS,
+                    (double) (threads.getThreadAllocatedBytes(threadId) - allocatedBefore) / CALLS});
+        }
+    }
+
+    private static OrderEntity sampleOrder() {
+        OrderEntity order = new OrderEntity("mapping-user", "1 Mapping Street, Springfield");
+        order.setId(7_000_000_000_001L);
+        order.setShippingMethod("express");
+        order.setTrackingNumber("TRK-MAPPING-1");
+        order.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15));
+        order.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 8, 0, 45));
+        for (int i = 1; i <= ITEMS; i++) {
+            OrderItemEntity item = new OrderItemEntity(100 + i, "Mapping product " + i, i, new BigDecimal("19.99"));
+            item.setId(7_000_000_000_100L + i);
+            order.addItem(item);
+        }
+
+        PaymentEntity payment = new PaymentEntity(order.getTotalAmount());
+        payment.setId(7_000_000_000_200L);
+        payment.setOrderId(order.getId());
+        payment.setStripePaymentIntentId("pi_mapping");
+        payment.setClientSecret("pi_mapping_secret");
+        payment.setCurrency("eur");
+        payment.setStatus(PaymentEntity.PaymentStatus.COMPLETED);
+        payment.setPaymentMethod("card");
+        payment.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 31, 0));
+        order.setPayment(payment);
+        return order;
+    }
+
+    /** OrderMapper before MapStruct. */
+    private static class HandWrittenOrderMapper {
+
+        private final HandWrittenOrderItemMapper orderItemMapper;
+        private final HandWrittenPaymentMapper paymentMapper;
+
+        HandWrittenOrderMapper(HandWrittenOrderItemMapper orderItemMapper, HandWrittenPaymentMapper paymentMapper) {
+            this.orderItemMapper = orderItemMapper;
+            this.paymentMapper = paymentMapper;
+        }
+
+        OrderJpaEntity toJpaEntity(OrderEntity domainEntity) {
+            if (domainEntity == null) {
+                return null;
+            }
+
+            OrderJpaEntity jpaEntity = new OrderJpaEntity();
+            jpaEntity.setId(domainEntity.getId());
+            jpaEntity.setUserUid(domainEntity.getUserUid());
+            jpaEntity.setTotalAmount(domainEntity.getTotalAmount());
+            jpaEntity.setShippingAddress(domainEntity.getShippingAddress());
+            jpaEntity.setShippingMethod(domainEntity.getShippingMethod());
+            jpaEntity.setTrackingNumber(domainEntity.getTrackingNumber());
+            jpaEntity.setCreatedAt(domainEntity.getCreatedAt());
+            jpaEntity.setUpdatedAt(domainEntity.getUpdatedAt());
+
+            if (domainEntity.getStatus() != null) {
+                jpaEntity.setStatus(OrderJpaEntity.OrderStatus.valueOf(domainEntity.getStatus().name()));
+            }
+
+            if (domainEntity.getItems() != null) {
+                List<OrderItemJpaEntity> jpaItems = domainEntity.getItems().stream()
+                        .map(item -> {
+                            OrderItemJpaEntity jpaItem = orderItemMapper.toJpaEntity(item);
+                            jpaItem.setOrder(jpaEntity);
+                            return jpaItem;
+                        })
+                        .collect(Collectors.toList());
+                jpaEntity.setItems(jpaItems);
+            }
+
+            if (domainEntity.getPayment() != null) {
+                PaymentJpaEntity jpaPayment = paymentMapper.toJpaEntity(domainEntity.getPayment());
+                jpaPayment.setOrder(jpaEntity);
+                jpaEntity.setPayment(jpaPayment);
+            }
+
+            return jpaEntity;
+        }
+
+        OrderEntity toDomainEntity(OrderJpaEntity jpaEntity) {
+            if (jpaEntity == null) {
+                return null;
+            }
+
+            OrderEntity domainEntity = new OrderEntity();
+            domainEntity.setId(jpaEntity.getId());
+            domainEntity.setUserUid(jpaEntity.getUserUid());
+            domainEntity.setTotalAmount(jpaEntity.getTotalAmount());
+            domainEntity.setShippingAddress(jpaEntity.getShippingAddress());
+            domainEntity.setShippingMethod(jpaEntity.getShippingMethod());
+            domainEntity.setTrackingNumber(jpaEntity.getTrackingNumber());
+            domainEntity.setCreatedAt(jpaEntity.getCreatedAt());
+            domainEntity.setUpdatedAt(jpaEntity.getUpdatedAt());
+
+            if (jpaEntity.getStatus() != null) {
+                domainEntity.setStatus(OrderEntity.OrderStatus.valueOf(jpaEntity.getStatus().name()));
+            }
+
+            if (jpaEntity.getItems() != null) {
+                List<OrderItemEntity> domainItems = jpaEntity.getItems().stream()
+                        .map(orderItemMapper::toDomainEntity)
+                        .collect(Collectors.toList());
+                domainEntity.setItems(domainItems);
+            } else {
+                domainEntity.setItems(new ArrayList<>());
+            }
+
+            if (jpaEntity.getPayment() != null) {
+                domainEntity.setPayment(paymentMapper.toDomainEntity(jpaEntity.getPayment()));
+            }
+
+            return domainEntity;
+        }
+    }
+
+    /** OrderItemMapper before MapStruct. */
+    private static class HandWrittenOrderItemMapper {
+
+        OrderItemJpaEntity toJpaEntity(OrderItemEntity domainEntity) {
+            if (domainEntity == null) {
+                return null;
+            }
+
+            OrderItemJpaEntity jpaEntity = new OrderItemJpaEntity();
+            jpaEntity.setId(domainEntity.getId());
+            jpaEntity.setProductId(String.valueOf(domainEntity.getProductId()));
+            jpaEntity.setProductName(domainEntity.getProductName());
+            jpaEntity.setQuantity(domainEntity.getQuantity());
+            jpaEntity.setPrice(domainEntity.getUnitPrice());
+            jpaEntity.setSubtotal(domainEntity.getSubtotal());
+
+            return jpaEntity;
+        }
+
+        OrderItemEntity toDomainEntity(OrderItemJpaEntity jpaEntity) {
+            if (jpaEntity == null) {
+                return null;
+            }
+
+            OrderItemEntity domainEntity = new OrderItemEntity();
+            domainEntity.setId(jpaEntity.getId());
+            domainEntity.setProductId(Integer.valueOf(jpaEntity.getProductId()));
+            domainEntity.setProductName(jpaEntity.getProductName());
+            domainEntity.setQuantity(jpaEntity.getQuantity());
+            domainEntity.setUnitPrice(jpaEntity.getPrice());
+            domainEntity.setSubtotal(jpaEntity.getSubtotal());
+
+            return domainEntity;
+        }
+    }
+
+    /** PaymentMapper before MapStruct. */
+    private static class HandWrittenPaymentMapper {
+
+        PaymentJpaEntity toJpaEntity(PaymentEntity domainEntity) {
+            if (domainEntity == null) {
+                return null;
+            }
+
+            PaymentJpaEntity jpaEntity = new PaymentJpaEntity();
+            jpaEntity.setId(domainEntity.getId());
+            jpaEntity.setAmount(domainEntity.getAmount());
+            jpaEntity.setStripePaymentIntentId(domainEntity.getStripePaymentIntentId());
+            jpaEntity.setClientSecret(domainEntity.getClientSecret());
+            jpaEntity.setCurrency(domainEntity.getCurrency());
+            jpaEntity.setCreatedAt(domainEntity.getCreatedAt());
+
+            if (domainEntity.getStatus() != null) {
+                jpaEntity.setStatus(PaymentJpaEntity.PaymentStatus.valueOf(domainEntity.getStatus().name()));
+            }
+
+            return jpaEntity;
+        }
+
+        PaymentEntity toDomainEntity(PaymentJpaEntity jpaEntity) {
+            if (jpaEntity == null) {
+                return null;
+            }
+
+            PaymentEntity domainEntity = new PaymentEntity();
+            domainEntity.setId(jpaEntity.getId());
+            if (jpaEntity.getOrder() != null) {
+                domainEntity.setOrderId(jpaEntity.getOrder().getId());
+            }
+            domainEntity.setAmount(jpaEntity.getAmount());
+            domainEntity.setStripePaymentIntentId(jpaEntity.getStripePaymentIntentId());
+            domainEntity.setClientSecret(jpaEntity.getClientSecret());
+            if (jpaEntity.getCurrency() != null) {
+                domainEntity.setCurrency(jpaEntity.getCurrency());
+            }
+            domainEntity.setCreatedAt(jpaEntity.getCreatedAt());
+
+            if (jpaEntity.getStatus() != null) {
+                domainEntity.setStatus(PaymentEntity.PaymentStatus.valueOf(jpaEntity.getStatus().name()));
+            }
+
+            return domainEntity;
+        }
+    }
+
+    /** OrderDTOMapper's response mapping before MapStruct. */
+    private static class HandWrittenOrderDTOMapper {
+
+        OrderResponseDTO toResponseDTO(OrderEntity entity) {
+            OrderResponseDTO dto = new OrderResponseDTO();
+            dto.setId(entity.getId());
+            dto.setUserUid(entity.getUserUid());
+            dto.setTotalAmount(entity.getTotalAmount());
+            dto.setStatus(entity.getStatus().name());
+            dto.setShippingAddress(entity.getShippingAddress());
+            dto.setShippingMethod(entity.getShippingMethod());
+            dto.setTrackingNumber(entity.getTrackingNumber());
+            dto.setCreatedAt(entity.getCreatedAt());
+            dto.setUpdatedAt(entity.getUpdatedAt());
+
+            if (entity.getItems() != null) {
+                List<OrderItemResponseDTO> items = entity.getItems().stream()
+                        .map(this::toOrderItemResponseDTO)
+                        .collect(Collectors.toList());
+                dto.setItems(items);
+            }
+
+            if (entity.getPayment() != null) {
+                dto.setPayment(toPaymentResponseDTO(entity.getPayment()));
+            }
+
+            return dto;
+        }
+
+        private OrderItemResponseDTO toOrderItemResponseDTO(OrderItemEntity entity) {
+            OrderItemResponseDTO dto = new OrderItemResponseDTO();
+            dto.setId(entity.getId());
+            dto.setProductId(entity.getProductId());
+            dto.setProductName(entity.getProductName());
+            dto.setQuantity(entity.getQuantity());
+            dto.setUnitPrice(entity.getUnitPrice());
+            dto.setSubtotal(entity.getSubtotal());
+            return dto;
+        }
+
+        private PaymentResponseDTO toPaymentResponseDTO(PaymentEntity entity) {
+            PaymentResponseDTO dto = new PaymentResponseDTO();
+            dto.setId(entity.getId());
+            dto.setAmount(entity.getAmount());
+            dto.setStripePaymentIntentId(entity.getStripePaymentIntentId());
+            dto.setStatus(entity.getStatus().name());
+            dto.setPaymentMethod(entity.getPaymentMethod());
+            dto.setCreatedAt(entity.getCreatedAt());
+            return dto;
+        }
+    }
+}
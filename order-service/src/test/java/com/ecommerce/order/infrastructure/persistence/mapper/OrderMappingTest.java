@@ -0,0 +1,133 @@
+package com.ecommerce.order.infrastructure.persistence.mapper;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.entity.OrderItemEntity;
+import com.ecommerce.order.domain.entity.PaymentEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderItemJpaEntity;
+import com.ecommerce.order.infrastructure.persistence.entity.OrderJpaEntity;
+import com.ecommerce.order.presentation.dto.OrderItemResponseDTO;
+import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.ecommerce.order.presentation.dto.PaymentResponseDTO;
+import com.ecommerce.order.presentation.mapper.OrderDTOMapper;
+import com.ecommerce.order.presentation.mapper.OrderDTOMapperImpl;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Maps a fully populated order to JPA and back, and to the response DTO,
+ * through the generated mappers.
+ */
+@SpringJUnitConfig({OrderMapperImpl.class, OrderItemMapperImpl.class, PaymentMapperImpl.class,
+        OrderDTOMapperImpl.class})
+class OrderMappingTest {
+
+    private static final int ITEMS = 3;
+
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderDTOMapper orderDTOMapper;
+
+    @ParameterizedTest
+    @EnumSource(OrderEntity.OrderStatus.class)
+    void orderRoundTripsThroughJpa(OrderEntity.OrderStatus status) {
+        assertRoundTrip(sampleOrder(status, PaymentEntity.PaymentStatus.COMPLETED));
+    }
+
+    @ParameterizedTest
+    @EnumSource(PaymentEntity.PaymentStatus.class)
+    void paymentRoundTripsThroughJpa(PaymentEntity.PaymentStatus status) {
+        assertRoundTrip(sampleOrder(OrderEntity.OrderStatus.PENDING, status));
+    }
+
+    @ParameterizedTest
+    @EnumSource(OrderEntity.OrderStatus.class)
+    void orderMapsToTheResponse(OrderEntity.OrderStatus status) {
+        OrderEntity order = sampleOrder(status, PaymentEntity.PaymentStatus.COMPLETED);
+
+        OrderResponseDTO dto = orderDTOMapper.toResponseDTO(order);
+
+        assertThat(dto.getId()).isEqualTo(order.getId());
+        assertThat(dto.getUserUid()).isEqualTo(order.getUserUid());
+        assertThat(dto.getTotalAmount()).isEqualTo(order.getTotalAmount());
+        assertThat(dto.getStatus()).isEqualTo(status.name());
+        assertThat(dto.getShippingAddress()).isEqualTo(order.getShippingAddress());
+        assertThat(dto.getShippingMethod()).isEqualTo(order.getShippingMethod());
+        assertThat(dto.getTrackingNumber()).isEqualTo(order.getTrackingNumber());
+        assertThat(dto.getCreatedAt()).isEqualTo(order.getCreatedAt());
+        assertThat(dto.getUpdatedAt()).isEqualTo(order.getUpdatedAt());
+        assertThat(dto.getItems()).hasSize(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            OrderItemEntity item = order.getItems().get(i);
+            OrderItemResponseDTO dtoItem = dto.getItems().get(i);
+            assertThat(dtoItem.getId()).isEqualTo(item.getId());
+            assertThat(dtoItem.getProductId()).isEqualTo(item.getProductId());
+            assertThat(dtoItem.getProductName()).isEqualTo(item.getProductName());
+            assertThat(dtoItem.getQuantity()).isEqualTo(item.getQuantity());
+            assertThat(dtoItem.getUnitPrice()).isEqualTo(item.getUnitPrice());
+            assertThat(dtoItem.getSubtotal()).isEqualTo(item.getSubtotal());
+        }
+        PaymentEntity payment = order.getPayment();
+        PaymentResponseDTO dtoPayment = dto.getPayment();
+        assertThat(dtoPayment.getId()).isEqualTo(payment.getId());
+        assertThat(dtoPayment.getAmount()).isEqualTo(payment.getAmount());
+        assertThat(dtoPayment.getStripePaymentIntentId()).isEqualTo(payment.getStripePaymentIntentId());
+        assertThat(dtoPayment.getStatus()).isEqualTo(payment.getStatus().name());
+        assertThat(dtoPayment.getPaymentMethod()).isEqualTo(payment.getPaymentMethod());
+        assertThat(dtoPayment.getCreatedAt()).isEqualTo(payment.getCreatedAt());
+    }
+
+    /**
+     * Compares every field of the domain model, so a field added later is
+     * covered too. The payment method isn't persisted, so it is expected
+     * to be lost.
+     */
+    private void assertRoundTrip(OrderEntity order) {
+        OrderJpaEntity jpaOrder = orderMapper.toJpaEntity(order);
+
+        assertThat(jpaOrder.getPayment().getOrder()).isSameAs(jpaOrder);
+        assertThat(jpaOrder.getItems()).extracting(OrderItemJpaEntity::getOrder).containsOnly(jpaOrder);
+
+        OrderEntity mapped = orderMapper.toDomainEntity(jpaOrder);
+
+        assertThat(mapped).usingRecursiveComparison()
+                .ignoringFields("payment.paymentMethod")
+                .isEqualTo(order);
+        assertThat(mapped.getPayment().getPaymentMethod()).isNull();
+    }
+
+    private static OrderEntity sampleOrder(OrderEntity.OrderStatus status, PaymentEntity.PaymentStatus paymentStatus) {
+        OrderEntity order = new OrderEntity("mapping-user", "1 Mapping Street, Springfield");
+        order.setId(7_000_000_000_001L);
+        order.setShippingMethod("express");
+        order.setTrackingNumber("TRK-MAPPING-1");
+        order.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 30, 15));
+        order.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 8, 0, 45));
+        for (int i = 1; i <= ITEMS; i++) {
+            OrderItemEntity item = new OrderItemEntity(100 + i, "Mapping product " + i, i, new BigDecimal("19.99"));
+            item.setId(7_000_000_000_100L + i);
+            order.addItem(item);
+        }
+        order.setStatus(status);
+
+        PaymentEntity payment = new PaymentEntity(order.getTotalAmount());
+        payment.setId(7_000_000_000_200L);
+        payment.setOrderId(order.getId());
+        payment.setStripePaymentIntentId("pi_mapping");
+        payment.setClientSecret("pi_mapping_secret");
+        payment.setCurrency("eur");
+        payment.setStatus(paymentStatus);
+        payment.setPaymentMethod("card");
+        payment.setCreatedAt(LocalDateTime.of(2024, 3, 1, 12, 31, 0));
+        order.setPayment(payment);
+        return order;
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.order.infrastructure.persistence.search;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderSearchCriteria;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that every supported search filter is served by an index, against
+ * a database with order-service-init.sql applied. Plans are taken with
+ * {@code enable_seqscan} off, so a Seq Scan left in the plan means no index
+ * can serve the filter at all, whatever the table size. Runs when
+ * ORDERS_IT_DB_URL is set (with ORDERS_IT_DB_USERNAME and
+ * ORDERS_IT_DB_PASSWORD), e.g. in CI next to a PostgreSQL service.
+ */
+@EnabledIfEnvironmentVariable(named = "ORDERS_IT_DB_URL", matches = ".+")
+class OrderSearchPlanTest {
+
+    private static SingleConnectionDataSource dataSource;
+    private static OrderSearchQueries queries;
+
+    @BeforeAll
+    static void connect() {
+        dataSource = new SingleConnectionDataSource(System.getenv("ORDERS_IT_DB_URL"),
+                System.getenv("ORDERS_IT_DB_USERNAME"), System.getenv("ORDERS_IT_DB_PASSWORD"), true);
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().execute("SET enable_seqscan = off");
+        queries = new OrderSearchQueries(jdbcTemplate, new ObjectMapper());
+    }
+
+    @AfterAll
+    static void disconnect() {
+        dataSource.destroy();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("supportedFilters")
+    void filterIsServedByAnIndex(String name, OrderSearchCriteria criteria) {
+        List<String> scanned = new ArrayList<>();
+        collectSeqScans(queries.explainPage(criteria, 50), scanned);
+
+        assertThat(scanned).as("tables scanned sequentially for filter %s", name).isEmpty();
+    }
+
+    static Stream<Arguments> supportedFilters() {
+        LocalDateTime to = LocalDateTime.now();
+        LocalDateTime from = to.minusDays(7);
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("100.00");
+        OrderEntity.OrderStatus status = OrderEntity.OrderStatus.PENDING;
+
+        return Stream.of(
+                Arguments.of("none", new OrderSearchCriteria(null, null, null, null, null, null, null)),
+                Arguments.of("status", new OrderSearchCriteria(status, null, null, null, null, null, null)),
+                Arguments.of("createdAt", new OrderSearchCriteria(null, from, to, null, null, null, null)),
+                Arguments.of("status+createdAt", new OrderSearchCriteria(status, from, to, null, null, null, null)),
+                Arguments.of("totalAmount", new OrderSearchCriteria(null, null, null, min, max, null, null)),
+                Arguments.of("userUid", new OrderSearchCriteria(null, null, null, null, null, "plan-check", null)),
+                Arguments.of("userUid+createdAt",
+                        new OrderSearchCriteria(null, from, to, null, null, "plan-check", null)),
+                Arguments.of("productId", new OrderSearchCriteria(null, null, null, null, null, null, 1)),
+                Arguments.of("productId+createdAt", new OrderSearchCriteria(null, from, to, null, null, null, 1)));
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> scanned) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, scanned);
+        }
+    }
+}
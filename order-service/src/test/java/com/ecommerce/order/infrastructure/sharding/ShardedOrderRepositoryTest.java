@@ -0,0 +1,79 @@
+package com.ecommerce.order.infrastructure.sharding;
+
+import com.ecommerce.order.domain.entity.OrderEntity;
+import com.ecommerce.order.domain.repository.OrderChangeBatch;
+import com.ecommerce.order.domain.repository.OrderChangePosition;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedOrderRepositoryTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Test
+    void keepsEachShardsTransactionOrderWhenInterleaving() {
+        // Shard 0's second change has an older timestamp than its first
+        OrderChangeBatch shard0 = batch(0, false, change(10, 1, 5), change(11, 2, 1));
+        OrderChangeBatch shard1 = batch(1, false, change(20, 3, 3));
+
+        OrderChangeBatch merged = ShardedOrderRepository.mergeChanges(OrderChangePosition.beginning(),
+                List.of(Map.entry(0, shard0), Map.entry(1, shard1)), 10);
+
+        assertThat(merged.getOrders()).extracting(OrderEntity::getId).containsExactly(3L, 1L, 2L);
+        assertThat(merged.getNext().markOf(0).getOrderId()).isEqualTo(2L);
+        assertThat(merged.getNext().markOf(1).getOrderId()).isEqualTo(3L);
+        assertThat(merged.isHasMore()).isFalse();
+    }
+
+    @Test
+    void movesTruncatedShardsOnlyPastReturnedChanges() {
+        OrderChangeBatch shard0 = batch(0, false, change(10, 1, 1), change(11, 2, 4));
+        OrderChangeBatch shard1 = batch(1, false, change(20, 3, 2), change(21, 4, 3));
+
+        OrderChangeBatch merged = ShardedOrderRepository.mergeChanges(OrderChangePosition.beginning(),
+                List.of(Map.entry(0, shard0), Map.entry(1, shard1)), 3);
+
+        assertThat(merged.getOrders()).extracting(OrderEntity::getId).containsExactly(1L, 3L, 4L);
+        assertThat(merged.getNext().markOf(0).getTransactionId()).isEqualTo(10L);
+        assertThat(merged.getNext().markOf(1).getTransactionId()).isEqualTo(21L);
+        assertThat(merged.isHasMore()).isTrue();
+    }
+
+    @Test
+    void keepsThePositionOfShardsWithoutChanges() {
+        OrderChangePosition after = OrderChangePosition.beginning().with(1, new OrderChangePosition.Mark(50, 9));
+        OrderChangeBatch shard0 = batch(0, true, change(10, 1, 1));
+        OrderChangeBatch shard1 = new OrderChangeBatch(List.of(), List.of(), after, false, false);
+
+        OrderChangeBatch merged = ShardedOrderRepository.mergeChanges(after,
+                List.of(Map.entry(0, shard0), Map.entry(1, shard1)), 10);
+
+        assertThat(merged.getNext().markOf(1).getTransactionId()).isEqualTo(50L);
+        assertThat(merged.getNext().markOf(0).getOrderId()).isEqualTo(1L);
+        assertThat(merged.isHeldBack()).isTrue();
+    }
+
+    private static Object[] change(long transactionId, long orderId, int minutes) {
+        OrderEntity order = new OrderEntity();
+        order.setId(orderId);
+        order.setUpdatedAt(NOW.plusMinutes(minutes));
+        return new Object[] {new OrderChangePosition.Mark(transactionId, orderId), order};
+    }
+
+    private static OrderChangeBatch batch(int shard, boolean heldBack, Object[]... changes) {
+        List<OrderEntity> orders = new ArrayList<>();
+        List<OrderChangePosition.Mark> marks = new ArrayList<>();
+        for (Object[] change : changes) {
+            marks.add((OrderChangePosition.Mark) change[0]);
+            orders.add((OrderEntity) change[1]);
+        }
+        OrderChangePosition next = OrderChangePosition.beginning().with(shard, marks.get(marks.size() - 1));
+        return new OrderChangeBatch(orders, marks, next, false, heldBack);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.order.presentation.filter;
+
+import com.ecommerce.order.infrastructure.resilience.AdaptiveConcurrencyLimiter.Priority;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    @ParameterizedTest(name = "{0} {1} is {2}")
+    @CsvSource({
+            "POST, /api/v1/orders, CRITICAL",
+            "POST, /api/v1/orders/42/payment-intent, CRITICAL",
+            "GET, /api/v1/orders, LOW",
+            "GET, /api/v1/orders/changes, LOW",
+            "GET, /api/v1/admin/orders, LOW",
+            "POST, /api/v1/admin/orders/view/rebuild, LOW",
+            "GET, /api/v1/orders/42, NORMAL",
+            "PUT, /api/v1/orders/42/status, NORMAL",
+            "GET, /api/v1/orders/42/payment-intent, NORMAL",
+            "GET, /api/v1/payment-methods, NORMAL",
+            "POST, /api/v1/orders/42/payment-intent/extra, NORMAL",
+            "POST, /api/v1/webhooks/stripe, NORMAL"
+    })
+    void classifiesMappedRoutesExactly(String method, String path, Priority priority) {
+        assertThat(ConcurrencyLimitFilter.classify(new MockHttpServletRequest(method, path))).isEqualTo(priority);
+    }
+}
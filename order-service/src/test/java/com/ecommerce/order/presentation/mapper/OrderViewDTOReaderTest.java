@@ -0,0 +1,69 @@
+package com.ecommerce.order.presentation.mapper;
+
+import com.ecommerce.order.domain.entity.OrderView;
+import com.ecommerce.order.presentation.dto.OrderResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderViewDTOReaderTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 5, 1, 12, 0, 0, 123_456_000);
+
+    private final OrderViewDTOReader reader =
+            new OrderViewDTOReader(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    /** A document as jsonb_build_object writes it. */
+    @Test
+    void readsADocument() {
+        OrderResponseDTO order = reader.toResponseDTO(view("""
+                {"id": 7, "items": [{"id": 70, "quantity": 2, "subtotal": 21.00, "productId": 5,
+                  "unitPrice": 10.50, "productName": "Mug"}],
+                 "status": "PAID", "payment": {"id": 700, "amount": 21.00, "status": "succeeded",
+                  "createdAt": "2024-05-01T12:00:01.5", "paymentMethod": "card",
+                  "stripePaymentIntentId": "pi_1"},
+                 "userUid": "user-1", "createdAt": "2024-05-01T12:00:00.123456",
+                 "updatedAt": "2024-05-01T12:00:02", "totalAmount": 21.00, "shippingMethod": "STANDARD",
+                 "trackingNumber": null, "shippingAddress": "1 Main St"}
+                """));
+
+        assertThat(order.getId()).isEqualTo(7L);
+        assertThat(order.getUserUid()).isEqualTo("user-1");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("21.00"));
+        assertThat(order.getCreatedAt()).isEqualTo(CREATED_AT);
+        assertThat(order.getTrackingNumber()).isNull();
+        assertThat(order.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getProductName()).isEqualTo("Mug");
+            assertThat(item.getUnitPrice()).isEqualByComparingTo(new BigDecimal("10.50"));
+        });
+        assertThat(order.getPayment().getStripePaymentIntentId()).isEqualTo("pi_1");
+    }
+
+    @Test
+    void readsAnOrderWithoutPayment() {
+        OrderResponseDTO order = reader.toResponseDTO(view("""
+                {"id": 7, "items": [], "payment": null, "userUid": "user-1", "status": "PENDING",
+                 "createdAt": "2024-05-01T12:00:00.123456", "updatedAt": "2024-05-01T12:00:00.123456"}
+                """));
+
+        assertThat(order.getItems()).isEmpty();
+        assertThat(order.getPayment()).isNull();
+    }
+
+    @Test
+    void refusesKeysTheResponseDoesNotHave() {
+        assertThatThrownBy(() -> reader.toResponseDTO(view("{\"id\": 7, \"internalNote\": \"x\"}")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("order 7");
+    }
+
+    private static OrderView view(String document) {
+        return new OrderView(7L, "user-1", CREATED_AT, document);
+    }
+}
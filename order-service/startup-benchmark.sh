@@ -0,0 +1,95 @@
+#!/bin/bash
+
+# Order Service Startup Benchmark
+# Measures time-to-first-request: from launching the JVM to the first
+# successful response of the health endpoint. Compares the default build
+# with the fast-start build (mvn -Pfaststart -Dfaststart.training package).
+#
+# Usage: ./startup-benchmark.sh [runs]
+# The database settings are taken from the environment, as for the service.
+
+RUNS=${1:-5}
+PORT=${BENCHMARK_PORT:-18080}
+HEALTH_URL="http://localhost:$PORT/api/v1/orders/health"
+TIMEOUT_SECONDS=${BENCHMARK_TIMEOUT:-120}
+
+DEFAULT_JAR="target/order-service-1.0.0.jar"
+FASTSTART_DIR="target/faststart"
+FASTSTART_JAR="order-service-1.0.0-faststart.jar"
+FASTSTART_CDS="order-service.jsa"
+
+# Colors for output
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts the service with the given command, polls the health endpoint and
+# prints the milliseconds until it answered 200, or nothing on timeout
+measure() {
+    local start pid elapsed
+    start=$(now_ms)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    elapsed=""
+    while kill -0 "$pid" 2> /dev/null; do
+        if [ "$(curl -s -o /dev/null -w "%{http_code}" "$HEALTH_URL")" = "200" ]; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        if [ $(( $(now_ms) - start )) -gt $(( TIMEOUT_SECONDS * 1000 )) ]; then
+            break
+        fi
+        sleep 0.05
+    done
+    kill "$pid" 2> /dev/null
+    wait "$pid" 2> /dev/null
+    echo "$elapsed"
+}
+
+# Runs a mode RUNS times and prints min, median and max
+benchmark() {
+    local name=$1
+    shift
+    local times=()
+    echo -e "\n${BLUE}>>> $name${NC}"
+    for i in $(seq 1 "$RUNS"); do
+        local ms
+        ms=$(measure "$@")
+        if [ -z "$ms" ]; then
+            echo -e "${RED}✗ run $i: no successful request within ${TIMEOUT_SECONDS}s${NC}"
+            return 1
+        fi
+        echo "  run $i: ${ms} ms"
+        times+=("$ms")
+    done
+    local sorted=($(printf "%s\n" "${times[@]}" | sort -n))
+    echo -e "${GREEN}✓ $name: min ${sorted[0]} ms, median ${sorted[$(( RUNS / 2 ))]} ms, max ${sorted[$(( RUNS - 1 ))]} ms${NC}"
+}
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}  Order Service Startup Benchmark${NC}"
+echo -e "${BLUE}========================================${NC}"
+
+if [ -f "$DEFAULT_JAR" ]; then
+    benchmark "default" java -jar "$DEFAULT_JAR"
+else
+    echo -e "${RED}✗ $DEFAULT_JAR not found, run mvn package${NC}"
+fi
+
+if [ -f "$FASTSTART_DIR/$FASTSTART_JAR" ]; then
+    CDS_FLAG=()
+    if [ -f "$FASTSTART_DIR/$FASTSTART_CDS" ]; then
+        CDS_FLAG=("-XX:SharedArchiveFile=$FASTSTART_DIR/$FASTSTART_CDS")
+    else
+        echo -e "${RED}✗ $FASTSTART_DIR/$FASTSTART_CDS not found (build with -Dfaststart.training), measuring without class-data sharing${NC}"
+    fi
+    benchmark "faststart" java "${CDS_FLAG[@]}" -Dspring.aot.enabled=true -Dspring.profiles.active=faststart \
+        -jar "$FASTSTART_DIR/$FASTSTART_JAR"
+else
+    echo -e "${RED}✗ $FASTSTART_DIR/$FASTSTART_JAR not found, run mvn -Pfaststart -Dfaststart.training package${NC}"
+fi
@@ -3,7 +3,7 @@ from sqlalchemy.orm import Session
 from typing import List, Optional
 from app.config.database import get_db
 from app.models.Product import Product
-from app.schemas.product import ProductCreate, ProductUpdate, ProductResponse, ProductValidationRequest, ProductValidationResult
+from app.schemas.product import ProductCreate, ProductUpdate, ProductResponse, ProductValidationRequest, ProductValidationResult, CartValidationRequest, CartValidationResult, BatchValidationResult
 from app.services.elasticsearch import es_service
 
 router = APIRouter()
@@ -111,33 +111,58 @@ async def suggest_products(prefix: str = Query(..., min_length=1)):
     except Exception as e:
         raise HTTPException(status_code=500, detail=f"Suggestion error: {str(e)}")
 
-@router.post("/validate", response_model=ProductValidationResult)
-async def validate_products(
-    requests: List[ProductValidationRequest],
-    db: Session = Depends(get_db)
-):
-    """Validate products availability and stock"""
+def _validation_errors(requests: List[ProductValidationRequest], products_by_id: dict) -> List[str]:
+    """Collect availability and stock errors for a list of requested items"""
     errors = []
-    valid = True
-    
+
     for req in requests:
-        product = db.query(Product).filter(Product.id == req.productId).first()
-        
+        product = products_by_id.get(req.productId)
+
         if not product:
-            valid = False
             errors.append(f"Product with ID {req.productId} not found")
             continue
-            
+
         if not product.is_active:
-            valid = False
             errors.append(f"Product '{product.name}' is not active")
             continue
-            
+
         if product.stock_quantity < req.quantity:
-            valid = False
             errors.append(f"Insufficient stock for '{product.name}'. Requested: {req.quantity}, Available: {product.stock_quantity}")
-            
-    return ProductValidationResult(valid=valid, errors=errors)
+
+    return errors
+
+def _load_products(db: Session, product_ids) -> dict:
+    """Load all referenced products with a single query"""
+    ids = set(product_ids)
+    if not ids:
+        return {}
+    products = db.query(Product).filter(Product.id.in_(ids)).all()
+    return {product.id: product for product in products}
+
+@router.post("/validate", response_model=ProductValidationResult)
+async def validate_products(
+    requests: List[ProductValidationRequest],
+    db: Session = Depends(get_db)
+):
+    """Validate products availability and stock"""
+    products_by_id = _load_products(db, (req.productId for req in requests))
+    errors = _validation_errors(requests, products_by_id)
+    return ProductValidationResult(valid=not errors, errors=errors)
+
+@router.post("/validate/batch", response_model=BatchValidationResult)
+async def validate_products_batch(
+    carts: List[CartValidationRequest],
+    db: Session = Depends(get_db)
+):
+    """Validate several independent carts at once, reporting errors per cart"""
+    products_by_id = _load_products(db, (req.productId for cart in carts for req in cart.items))
+
+    results = []
+    for cart in carts:
+        errors = _validation_errors(cart.items, products_by_id)
+        results.append(CartValidationResult(cartId=cart.cartId, valid=not errors, errors=errors))
+
+    return BatchValidationResult(results=results)
 
 @router.get("/{product_id}/exists", response_model=bool)
 async def check_product_exists(product_id: int, db: Session = Depends(get_db)):
@@ -76,4 +76,19 @@ class ProductValidationRequest(BaseModel):
 class ProductValidationResult(BaseModel):
     """Schema for product validation result"""
     valid: bool
-    errors: List[str]
\ No newline at end of file
+    errors: List[str]
+
+class CartValidationRequest(BaseModel):
+    """Schema for one cart in a batch validation request"""
+    cartId: str
+    items: List[ProductValidationRequest]
+
+class CartValidationResult(BaseModel):
+    """Schema for the validation result of one cart in a batch"""
+    cartId: str
+    valid: bool
+    errors: List[str]
+
+class BatchValidationResult(BaseModel):
+    """Schema for batch validation result"""
+    results: List[CartValidationResult]
\ No newline at end of file